@@ -39,9 +39,12 @@ public class CassandraConfiguration {
     public static final int DEFAULT_FLAGS_UPDATE_MESSAGE_ID_MAX_RETRY = 1000;
     public static final int DEFAULT_MODSEQ_MAX_RETRY = 100000;
     public static final int DEFAULT_UID_MAX_RETRY = 100000;
+    public static final int DEFAULT_SEQUENCE_LEASE_MAX_SIZE = 64;
     public static final int DEFAULT_ACL_MAX_RETRY = 1000;
     public static final int DEFAULT_FETCH_NEXT_PAGE_ADVANCE_IN_ROW = 100;
     public static final int DEFAULT_BLOB_PART_SIZE = 100 * 1024;
+    public static final int DEFAULT_BLOB_PART_WRITE_CONCURRENCY = 16;
+    public static final int DEFAULT_BLOB_PART_READ_AHEAD = 4;
     public static final int DEFAULT_ATTACHMENT_V2_MIGRATION_READ_TIMEOUT = toIntExact(TimeUnit.HOURS.toMillis(1));
     public static final int DEFAULT_MESSAGE_ATTACHMENT_ID_MIGRATION_READ_TIMEOUT = toIntExact(TimeUnit.HOURS.toMillis(1));
 
@@ -49,12 +52,16 @@ public class CassandraConfiguration {
     private static final String MAILBOX_MAX_RETRY_ACL = "mailbox.max.retry.acl";
     private static final String MAILBOX_MAX_RETRY_MODSEQ = "mailbox.max.retry.modseq";
     private static final String MAILBOX_MAX_RETRY_UID = "mailbox.max.retry.uid";
+    private static final String MAILBOX_SEQUENCE_LEASE_MAX_SIZE = "mailbox.sequence.lease.max.size";
     private static final String MAILBOX_MAX_RETRY_MESSAGE_FLAGS_UPDATE = "mailbox.max.retry.message.flags.update";
     private static final String MAILBOX_MAX_RETRY_MESSAGE_ID_FLAGS_UPDATE = "mailbox.max.retry.message.id.flags.update";
     private static final String FETCH_ADVANCE_ROW_COUNT = "fetch.advance.row.count";
     private static final String CHUNK_SIZE_MESSAGE_READ = "chunk.size.message.read";
     private static final String CHUNK_SIZE_EXPUNGE = "chunk.size.expunge";
     private static final String BLOB_PART_SIZE = "mailbox.blob.part.size";
+    private static final String BLOB_PART_MAX_COUNT = "mailbox.blob.part.max.count";
+    private static final String BLOB_PART_WRITE_CONCURRENCY = "mailbox.blob.part.write.concurrency";
+    private static final String BLOB_PART_READ_AHEAD = "mailbox.blob.part.read.ahead";
     private static final String ATTACHMENT_V2_MIGRATION_READ_TIMEOUT = "attachment.v2.migration.read.timeout";
     private static final String MESSAGE_ATTACHMENTID_READ_TIMEOUT = "message.attachmentids.read.timeout";
 
@@ -70,8 +77,12 @@ public class CassandraConfiguration {
         private Optional<Integer> aclMaxRetry = Optional.empty();
         private Optional<Integer> fetchNextPageInAdvanceRow = Optional.empty();
         private Optional<Integer> blobPartSize = Optional.empty();
+        private Optional<Integer> blobPartMaxCount = Optional.empty();
+        private Optional<Integer> blobPartWriteConcurrency = Optional.empty();
+        private Optional<Integer> blobPartReadAhead = Optional.empty();
         private Optional<Integer> attachmentV2MigrationReadTimeout = Optional.empty();
         private Optional<Integer> messageAttachmentIdsReadTimeout = Optional.empty();
+        private Optional<Integer> sequenceLeaseMaxSize = Optional.empty();
 
         public Builder messageReadChunkSize(int value) {
             Preconditions.checkArgument(value > 0, "messageReadChunkSize needs to be strictly positive");
@@ -127,6 +138,24 @@ public class CassandraConfiguration {
             return this;
         }
 
+        public Builder blobPartMaxCount(int value) {
+            Preconditions.checkArgument(value > 0, "blobPartMaxCount needs to be strictly positive");
+            this.blobPartMaxCount = Optional.of(value);
+            return this;
+        }
+
+        public Builder blobPartWriteConcurrency(int value) {
+            Preconditions.checkArgument(value > 0, "blobPartWriteConcurrency needs to be strictly positive");
+            this.blobPartWriteConcurrency = Optional.of(value);
+            return this;
+        }
+
+        public Builder blobPartReadAhead(int value) {
+            Preconditions.checkArgument(value > 0, "blobPartReadAhead needs to be strictly positive");
+            this.blobPartReadAhead = Optional.of(value);
+            return this;
+        }
+
         public Builder attachmentV2MigrationReadTimeout(int value) {
             Preconditions.checkArgument(value > 0, "attachmentV2MigrationReadTimeout needs to be strictly positive");
             this.attachmentV2MigrationReadTimeout = Optional.of(value);
@@ -139,6 +168,12 @@ public class CassandraConfiguration {
             return this;
         }
 
+        public Builder sequenceLeaseMaxSize(int value) {
+            Preconditions.checkArgument(value > 0, "sequenceLeaseMaxSize needs to be strictly positive");
+            this.sequenceLeaseMaxSize = Optional.of(value);
+            return this;
+        }
+
         public Builder messageReadChunkSize(Optional<Integer> value) {
             value.ifPresent(this::messageReadChunkSize);
             return this;
@@ -184,6 +219,21 @@ public class CassandraConfiguration {
             return this;
         }
 
+        public Builder blobPartMaxCount(Optional<Integer> value) {
+            value.ifPresent(this::blobPartMaxCount);
+            return this;
+        }
+
+        public Builder blobPartWriteConcurrency(Optional<Integer> value) {
+            value.ifPresent(this::blobPartWriteConcurrency);
+            return this;
+        }
+
+        public Builder blobPartReadAhead(Optional<Integer> value) {
+            value.ifPresent(this::blobPartReadAhead);
+            return this;
+        }
+
         public Builder attachmentV2MigrationReadTimeout(Optional<Integer> value) {
             value.ifPresent(this::attachmentV2MigrationReadTimeout);
             return this;
@@ -194,6 +244,11 @@ public class CassandraConfiguration {
             return this;
         }
 
+        public Builder sequenceLeaseMaxSize(Optional<Integer> value) {
+            value.ifPresent(this::sequenceLeaseMaxSize);
+            return this;
+        }
+
         public CassandraConfiguration build() {
             return new CassandraConfiguration(aclMaxRetry.orElse(DEFAULT_ACL_MAX_RETRY),
                 messageReadChunkSize.orElse(DEFAULT_MESSAGE_CHUNK_SIZE_ON_READ),
@@ -205,7 +260,11 @@ public class CassandraConfiguration {
                 fetchNextPageInAdvanceRow.orElse(DEFAULT_FETCH_NEXT_PAGE_ADVANCE_IN_ROW),
                 blobPartSize.orElse(DEFAULT_BLOB_PART_SIZE),
                 attachmentV2MigrationReadTimeout.orElse(DEFAULT_ATTACHMENT_V2_MIGRATION_READ_TIMEOUT),
-                messageAttachmentIdsReadTimeout.orElse(DEFAULT_MESSAGE_ATTACHMENT_ID_MIGRATION_READ_TIMEOUT));
+                messageAttachmentIdsReadTimeout.orElse(DEFAULT_MESSAGE_ATTACHMENT_ID_MIGRATION_READ_TIMEOUT),
+                sequenceLeaseMaxSize.orElse(DEFAULT_SEQUENCE_LEASE_MAX_SIZE),
+                blobPartMaxCount,
+                blobPartWriteConcurrency.orElse(DEFAULT_BLOB_PART_WRITE_CONCURRENCY),
+                blobPartReadAhead.orElse(DEFAULT_BLOB_PART_READ_AHEAD));
         }
     }
 
@@ -237,6 +296,14 @@ public class CassandraConfiguration {
                 propertiesConfiguration.getInteger(ATTACHMENT_V2_MIGRATION_READ_TIMEOUT, null)))
             .messageAttachmentIdsReadTimeout(Optional.ofNullable(
                 propertiesConfiguration.getInteger(MESSAGE_ATTACHMENTID_READ_TIMEOUT, null)))
+            .sequenceLeaseMaxSize(Optional.ofNullable(
+                propertiesConfiguration.getInteger(MAILBOX_SEQUENCE_LEASE_MAX_SIZE, null)))
+            .blobPartMaxCount(Optional.ofNullable(
+                propertiesConfiguration.getInteger(BLOB_PART_MAX_COUNT, null)))
+            .blobPartWriteConcurrency(Optional.ofNullable(
+                propertiesConfiguration.getInteger(BLOB_PART_WRITE_CONCURRENCY, null)))
+            .blobPartReadAhead(Optional.ofNullable(
+                propertiesConfiguration.getInteger(BLOB_PART_READ_AHEAD, null)))
             .build();
     }
 
@@ -251,12 +318,18 @@ public class CassandraConfiguration {
     private final int blobPartSize;
     private final int attachmentV2MigrationReadTimeout;
     private final int messageAttachmentIdsReadTimeout;
+    private final int sequenceLeaseMaxSize;
+    private final Optional<Integer> blobPartMaxCount;
+    private final int blobPartWriteConcurrency;
+    private final int blobPartReadAhead;
 
     @VisibleForTesting
     CassandraConfiguration(int aclMaxRetry, int messageReadChunkSize, int expungeChunkSize,
                            int flagsUpdateMessageIdMaxRetry, int flagsUpdateMessageMaxRetry,
                            int modSeqMaxRetry, int uidMaxRetry, int fetchNextPageInAdvanceRow,
-                           int blobPartSize, final int attachmentV2MigrationReadTimeout, int messageAttachmentIdsReadTimeout) {
+                           int blobPartSize, final int attachmentV2MigrationReadTimeout, int messageAttachmentIdsReadTimeout,
+                           int sequenceLeaseMaxSize, Optional<Integer> blobPartMaxCount, int blobPartWriteConcurrency,
+                           int blobPartReadAhead) {
         this.aclMaxRetry = aclMaxRetry;
         this.messageReadChunkSize = messageReadChunkSize;
         this.expungeChunkSize = expungeChunkSize;
@@ -268,12 +341,32 @@ public class CassandraConfiguration {
         this.blobPartSize = blobPartSize;
         this.attachmentV2MigrationReadTimeout = attachmentV2MigrationReadTimeout;
         this.messageAttachmentIdsReadTimeout = messageAttachmentIdsReadTimeout;
+        this.sequenceLeaseMaxSize = sequenceLeaseMaxSize;
+        this.blobPartMaxCount = blobPartMaxCount;
+        this.blobPartWriteConcurrency = blobPartWriteConcurrency;
+        this.blobPartReadAhead = blobPartReadAhead;
     }
 
     public int getBlobPartSize() {
         return blobPartSize;
     }
 
+    /**
+     * When set, blob parts get bigger than {@link #getBlobPartSize()} so that a blob is not split in more than this
+     * number of parts.
+     */
+    public Optional<Integer> getBlobPartMaxCount() {
+        return blobPartMaxCount;
+    }
+
+    public int getBlobPartWriteConcurrency() {
+        return blobPartWriteConcurrency;
+    }
+
+    public int getBlobPartReadAhead() {
+        return blobPartReadAhead;
+    }
+
     public int getAclMaxRetry() {
         return aclMaxRetry;
     }
@@ -314,6 +407,10 @@ public class CassandraConfiguration {
         return messageAttachmentIdsReadTimeout;
     }
 
+    public int getSequenceLeaseMaxSize() {
+        return sequenceLeaseMaxSize;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof CassandraConfiguration) {
@@ -329,7 +426,11 @@ public class CassandraConfiguration {
                 && Objects.equals(this.fetchNextPageInAdvanceRow, that.fetchNextPageInAdvanceRow)
                 && Objects.equals(this.blobPartSize, that.blobPartSize)
                 && Objects.equals(this.attachmentV2MigrationReadTimeout, that.attachmentV2MigrationReadTimeout)
-                && Objects.equals(this.messageAttachmentIdsReadTimeout, that.messageAttachmentIdsReadTimeout);
+                && Objects.equals(this.messageAttachmentIdsReadTimeout, that.messageAttachmentIdsReadTimeout)
+                && Objects.equals(this.sequenceLeaseMaxSize, that.sequenceLeaseMaxSize)
+                && Objects.equals(this.blobPartMaxCount, that.blobPartMaxCount)
+                && Objects.equals(this.blobPartWriteConcurrency, that.blobPartWriteConcurrency)
+                && Objects.equals(this.blobPartReadAhead, that.blobPartReadAhead);
         }
         return false;
     }
@@ -338,7 +439,8 @@ public class CassandraConfiguration {
     public final int hashCode() {
         return Objects.hash(aclMaxRetry, messageReadChunkSize, expungeChunkSize, flagsUpdateMessageIdMaxRetry,
             flagsUpdateMessageMaxRetry, modSeqMaxRetry, uidMaxRetry, fetchNextPageInAdvanceRow,
-            blobPartSize, attachmentV2MigrationReadTimeout, messageAttachmentIdsReadTimeout);
+            blobPartSize, attachmentV2MigrationReadTimeout, messageAttachmentIdsReadTimeout, sequenceLeaseMaxSize,
+            blobPartMaxCount, blobPartWriteConcurrency, blobPartReadAhead);
     }
 
     @Override
@@ -355,6 +457,10 @@ public class CassandraConfiguration {
             .add("blobPartSize", blobPartSize)
             .add("attachmentV2MigrationReadTimeout", attachmentV2MigrationReadTimeout)
             .add("messageAttachmentIdsReadTimeout", messageAttachmentIdsReadTimeout)
+            .add("sequenceLeaseMaxSize", sequenceLeaseMaxSize)
+            .add("blobPartMaxCount", blobPartMaxCount)
+            .add("blobPartWriteConcurrency", blobPartWriteConcurrency)
+            .add("blobPartReadAhead", blobPartReadAhead)
             .toString();
     }
 }
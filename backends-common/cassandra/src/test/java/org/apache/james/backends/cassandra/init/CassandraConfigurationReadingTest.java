@@ -53,6 +53,10 @@ public class CassandraConfigurationReadingTest {
                 .blobPartSize(9)
                 .attachmentV2MigrationReadTimeout(10)
                 .messageAttachmentIdsReadTimeout(11)
+                .sequenceLeaseMaxSize(12)
+                .blobPartMaxCount(13)
+                .blobPartWriteConcurrency(14)
+                .blobPartReadAhead(15)
                 .build());
     }
 
@@ -185,6 +185,62 @@ public class CassandraConfigurationTest {
             .isInstanceOf(IllegalArgumentException.class);
     }
 
+    @Test
+    public void sequenceLeaseMaxSizeShouldThrowOnZero() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .sequenceLeaseMaxSize(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void sequenceLeaseMaxSizeShouldThrowOnNegativeValue() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .sequenceLeaseMaxSize(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void blobPartMaxCountShouldThrowOnZero() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .blobPartMaxCount(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void blobPartMaxCountShouldThrowOnNegativeValue() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .blobPartMaxCount(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void blobPartWriteConcurrencyShouldThrowOnZero() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .blobPartWriteConcurrency(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void blobPartWriteConcurrencyShouldThrowOnNegativeValue() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .blobPartWriteConcurrency(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void blobPartReadAheadShouldThrowOnZero() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .blobPartReadAhead(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void blobPartReadAheadShouldThrowOnNegativeValue() {
+        assertThatThrownBy(() -> CassandraConfiguration.builder()
+                .blobPartReadAhead(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     public void builderShouldCreateTheRightObject() {
         int aclMaxRetry = 1;
@@ -198,6 +254,10 @@ public class CassandraConfigurationTest {
         int blobPartSize = 10;
         int attachmentV2MigrationReadTimeout = 11;
         int messageAttachmentIdReadTimeout = 12;
+        int sequenceLeaseMaxSize = 13;
+        int blobPartMaxCount = 14;
+        int blobPartWriteConcurrency = 15;
+        int blobPartReadAhead = 16;
 
         CassandraConfiguration configuration = CassandraConfiguration.builder()
             .aclMaxRetry(aclMaxRetry)
@@ -211,6 +271,10 @@ public class CassandraConfigurationTest {
             .blobPartSize(blobPartSize)
             .attachmentV2MigrationReadTimeout(attachmentV2MigrationReadTimeout)
             .messageAttachmentIdsReadTimeout(messageAttachmentIdReadTimeout)
+            .sequenceLeaseMaxSize(sequenceLeaseMaxSize)
+            .blobPartMaxCount(blobPartMaxCount)
+            .blobPartWriteConcurrency(blobPartWriteConcurrency)
+            .blobPartReadAhead(blobPartReadAhead)
             .build();
 
         softly.assertThat(configuration.getAclMaxRetry()).isEqualTo(aclMaxRetry);
@@ -224,6 +288,10 @@ public class CassandraConfigurationTest {
         softly.assertThat(configuration.getBlobPartSize()).isEqualTo(blobPartSize);
         softly.assertThat(configuration.getAttachmentV2MigrationReadTimeout()).isEqualTo(attachmentV2MigrationReadTimeout);
         softly.assertThat(configuration.getMessageAttachmentIdsReadTimeout()).isEqualTo(messageAttachmentIdReadTimeout);
+        softly.assertThat(configuration.getSequenceLeaseMaxSize()).isEqualTo(sequenceLeaseMaxSize);
+        softly.assertThat(configuration.getBlobPartMaxCount()).contains(blobPartMaxCount);
+        softly.assertThat(configuration.getBlobPartWriteConcurrency()).isEqualTo(blobPartWriteConcurrency);
+        softly.assertThat(configuration.getBlobPartReadAhead()).isEqualTo(blobPartReadAhead);
     }
 
 }
@@ -38,6 +38,7 @@ import org.junit.rules.RuleChain;
 import org.junit.rules.TemporaryFolder;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 public class ElasticSearchIndexerTest {
 
@@ -90,6 +91,22 @@ public class ElasticSearchIndexerTest {
             .isInstanceOf(IllegalArgumentException.class);
     }
     
+    @Test
+    public void indexMessagesShouldIndexAllDocumentsInASingleBulk() {
+        testee.index(ImmutableMap.of(
+            "1", "{\"message\": \"trying out Elasticsearch\"}",
+            "2", "{\"message\": \"trying out bulk requests\"}"));
+        embeddedElasticSearch.awaitForElasticSearch();
+
+        try (Client client = node.client()) {
+            SearchResponse searchResponse = client.prepareSearch(INDEX_NAME.getValue())
+                    .setTypes(TYPE_NAME.getValue())
+                    .setQuery(QueryBuilders.matchQuery("message", "trying"))
+                    .get();
+            assertThat(searchResponse.getHits().getTotalHits()).isEqualTo(2);
+        }
+    }
+
     @Test
     public void updateMessages() {
         String messageId = "1";
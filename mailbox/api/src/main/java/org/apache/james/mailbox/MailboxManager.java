@@ -202,6 +202,29 @@ public interface MailboxManager extends RequestAware, RightManager, MailboxAnnot
     List<MessageRange> copyMessages(MessageRange set, MailboxPath from, MailboxPath to, MailboxSession session) throws MailboxException;
 
     List<MessageRange> copyMessages(MessageRange set, MailboxId from, MailboxId to, MailboxSession session) throws MailboxException;
+
+    /**
+     * Copy the given {@link MessageRange} from a Mailbox accessed with a session to a Mailbox
+     * accessed with another session, typically belonging to another user.
+     *
+     * This allows a message delivered to several users to be parsed and stored once: implementations
+     * reference the content of the original message instead of storing it again.
+     *
+     * Both sessions need to be allowed to access their respective mailbox.
+     *
+     * @param set
+     *            messages to copy
+     * @param from
+     *            id of the source mailbox
+     * @param fromSession
+     *            <code>MailboxSession</code> used to access the source mailbox, not null
+     * @param to
+     *            id of the destination mailbox
+     * @param toSession
+     *            <code>MailboxSession</code> used to access the destination mailbox, not null
+     * @return a list of MessageRange - uids assigned to copied messages
+     */
+    List<MessageRange> copyMessages(MessageRange set, MailboxId from, MailboxSession fromSession, MailboxId to, MailboxSession toSession) throws MailboxException;
     
     /**
      * Move the given {@link MessageRange} from one Mailbox to the other. 
@@ -1311,6 +1311,68 @@ public abstract class MailboxManagerTest<T extends MailboxManager> {
             assertThatCode(() -> mailboxManager.copyMessages(MessageRange.all(), inbox, inbox, session))
                 .doesNotThrowAnyException();
         }
+
+        @Test
+        void copyMessagesAcrossSessionsShouldCopyToMailboxOfOtherUser() throws Exception {
+            session = mailboxManager.createSystemSession(USER_1);
+            MailboxSession otherSession = mailboxManager.createSystemSession(USER_2);
+            MailboxId inboxId = mailboxManager.createMailbox(MailboxPath.inbox(session), session).get();
+            MailboxId otherInboxId = mailboxManager.createMailbox(MailboxPath.inbox(otherSession), otherSession).get();
+            ComposedMessageId composedMessageId = mailboxManager.getMailbox(inboxId, session)
+                .appendMessage(AppendCommand.from(message), session);
+
+            mailboxManager.copyMessages(MessageRange.one(composedMessageId.getUid()), inboxId, session, otherInboxId, otherSession);
+
+            assertThat(mailboxManager.getMailbox(otherInboxId, otherSession).getMessageCount(otherSession))
+                .isEqualTo(1);
+        }
+
+        @Test
+        void copyMessagesAcrossSessionsShouldKeepSourceMessage() throws Exception {
+            session = mailboxManager.createSystemSession(USER_1);
+            MailboxSession otherSession = mailboxManager.createSystemSession(USER_2);
+            MailboxId inboxId = mailboxManager.createMailbox(MailboxPath.inbox(session), session).get();
+            MailboxId otherInboxId = mailboxManager.createMailbox(MailboxPath.inbox(otherSession), otherSession).get();
+            ComposedMessageId composedMessageId = mailboxManager.getMailbox(inboxId, session)
+                .appendMessage(AppendCommand.from(message), session);
+
+            mailboxManager.copyMessages(MessageRange.one(composedMessageId.getUid()), inboxId, session, otherInboxId, otherSession);
+
+            assertThat(mailboxManager.getMailbox(inboxId, session).getMessageCount(session))
+                .isEqualTo(1);
+        }
+
+        @Test
+        void copyMessagesAcrossSessionsShouldShareMessageId() throws Exception {
+            assumeTrue(mailboxManager.getSupportedMessageCapabilities().contains(MailboxManager.MessageCapabilities.UniqueID));
+
+            session = mailboxManager.createSystemSession(USER_1);
+            MailboxSession otherSession = mailboxManager.createSystemSession(USER_2);
+            MailboxId inboxId = mailboxManager.createMailbox(MailboxPath.inbox(session), session).get();
+            MailboxId otherInboxId = mailboxManager.createMailbox(MailboxPath.inbox(otherSession), otherSession).get();
+            ComposedMessageId composedMessageId = mailboxManager.getMailbox(inboxId, session)
+                .appendMessage(AppendCommand.from(message), session);
+
+            mailboxManager.copyMessages(MessageRange.one(composedMessageId.getUid()), inboxId, session, otherInboxId, otherSession);
+
+            MessageResult copiedMessage = mailboxManager.getMailbox(otherInboxId, otherSession)
+                .getMessages(MessageRange.all(), FetchGroupImpl.MINIMAL, otherSession)
+                .next();
+            assertThat(copiedMessage.getMessageId()).isEqualTo(composedMessageId.getMessageId());
+        }
+
+        @Test
+        void copyMessagesAcrossSessionsShouldFailWhenSourceMailboxIsNotAccessible() throws Exception {
+            session = mailboxManager.createSystemSession(USER_1);
+            MailboxSession otherSession = mailboxManager.createSystemSession(USER_2);
+            MailboxId inboxId = mailboxManager.createMailbox(MailboxPath.inbox(session), session).get();
+            MailboxId otherInboxId = mailboxManager.createMailbox(MailboxPath.inbox(otherSession), otherSession).get();
+            ComposedMessageId composedMessageId = mailboxManager.getMailbox(inboxId, session)
+                .appendMessage(AppendCommand.from(message), session);
+
+            assertThatThrownBy(() -> mailboxManager.copyMessages(MessageRange.one(composedMessageId.getUid()), inboxId, otherSession, otherInboxId, otherSession))
+                .isInstanceOf(MailboxException.class);
+        }
     }
 
     @Nested
@@ -28,6 +28,8 @@ import javax.mail.Flags;
 import org.apache.commons.compress.archivers.zip.ZipShort;
 import org.apache.james.util.StreamUtils;
 
+import com.google.common.base.Splitter;
+
 public class FlagsExtraField extends StringExtraField implements WithZipHeader {
 
     public static final ZipShort ID_AP = new ZipShort(WithZipHeader.toLittleEndian('a', 'p'));
@@ -40,6 +42,24 @@ public class FlagsExtraField extends StringExtraField implements WithZipHeader {
             .collect(Collectors.joining("%"));
     }
 
+    private static Flags deserializeFlags(String serializedFlags) {
+        Flags flags = new Flags();
+        Splitter.on("%")
+            .omitEmptyStrings()
+            .split(serializedFlags)
+            .forEach(flag -> addFlag(flags, flag));
+        return flags;
+    }
+
+    private static void addFlag(Flags flags, String flag) {
+        Optional<Flags.Flag> systemFlag = stringToSystemFlag(flag);
+        if (systemFlag.isPresent()) {
+            flags.add(systemFlag.get());
+        } else {
+            flags.add(flag);
+        }
+    }
+
     public FlagsExtraField() {
         super();
     }
@@ -53,6 +73,10 @@ public class FlagsExtraField extends StringExtraField implements WithZipHeader {
         return ID_AP;
     }
 
+    public Optional<Flags> getFlags() {
+        return getValue().map(FlagsExtraField::deserializeFlags);
+    }
+
     private static String systemFlagToString(Flags.Flag flag) throws RuntimeException {
         if (flag == Flags.Flag.ANSWERED) {
             return "\\ANSWERED";
@@ -69,4 +93,23 @@ public class FlagsExtraField extends StringExtraField implements WithZipHeader {
         }
         throw new RuntimeException("Unknown system flag");
     }
+
+    private static Optional<Flags.Flag> stringToSystemFlag(String flag) {
+        switch (flag) {
+            case "\\ANSWERED":
+                return Optional.of(Flags.Flag.ANSWERED);
+            case "\\DELETED":
+                return Optional.of(Flags.Flag.DELETED);
+            case "\\DRAFT":
+                return Optional.of(Flags.Flag.DRAFT);
+            case "\\FLAGGED":
+                return Optional.of(Flags.Flag.FLAGGED);
+            case "\\RECENT":
+                return Optional.of(Flags.Flag.RECENT);
+            case "\\SEEN":
+                return Optional.of(Flags.Flag.SEEN);
+            default:
+                return Optional.empty();
+        }
+    }
 }
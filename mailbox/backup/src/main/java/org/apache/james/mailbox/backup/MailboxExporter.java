@@ -0,0 +1,162 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.backup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
+
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.store.MailboxSessionMapperFactory;
+import org.apache.james.mailbox.store.mail.AnnotationMapper;
+import org.apache.james.mailbox.store.mail.MessageMapper;
+import org.apache.james.mailbox.store.mail.model.Mailbox;
+import org.apache.james.mailbox.store.mail.model.MailboxMessage;
+import org.apache.james.util.streams.Iterators;
+
+import com.github.steveash.guavate.Guavate;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Exports all the mailboxes of a user into a {@link Backup}.
+ *
+ * Messages are read in batches of consecutive UIDs. Up to prefetchConcurrency batches, including their content,
+ * are fetched concurrently ahead of the batch being archived, bounding the memory used by the export.
+ * As mappers are not thread safe, each concurrent fetch borrows a dedicated {@link MessageMapper} from a pool
+ * of prefetchConcurrency mappers created for the export, while the session mapper only lists UIDs.
+ */
+public class MailboxExporter {
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_PREFETCH_CONCURRENCY = 4;
+    private static final int UNLIMITED = -1;
+    private static final String ALL_MAILBOXES = "%";
+
+    private final MailboxSessionMapperFactory mapperFactory;
+    private final Backup backup;
+    private final int batchSize;
+    private final int prefetchConcurrency;
+
+    @Inject
+    public MailboxExporter(MailboxSessionMapperFactory mapperFactory, Backup backup) {
+        this(mapperFactory, backup, DEFAULT_BATCH_SIZE, DEFAULT_PREFETCH_CONCURRENCY);
+    }
+
+    public MailboxExporter(MailboxSessionMapperFactory mapperFactory, Backup backup, int batchSize, int prefetchConcurrency) {
+        Preconditions.checkArgument(batchSize > 0, "'batchSize' needs to be strictly positive");
+        Preconditions.checkArgument(prefetchConcurrency > 0, "'prefetchConcurrency' needs to be strictly positive");
+
+        this.mapperFactory = mapperFactory;
+        this.backup = backup;
+        this.batchSize = batchSize;
+        this.prefetchConcurrency = prefetchConcurrency;
+    }
+
+    public void export(MailboxSession session, OutputStream destination) throws IOException, MailboxException {
+        List<Mailbox> mailboxes = listMailboxes(session);
+        AnnotationMapper annotationMapper = mapperFactory.getAnnotationMapper(session);
+        List<MailboxWithAnnotations> mailboxesWithAnnotations = mailboxes.stream()
+            .map(mailbox -> new MailboxWithAnnotations(mailbox, annotationMapper.getAllAnnotations(mailbox.getMailboxId())))
+            .collect(Guavate.toImmutableList());
+
+        BlockingQueue<MessageMapper> fetchMappers = createFetchMappers(session);
+        try (Stream<MailboxMessage> messages = messages(mailboxes, mapperFactory.getMessageMapper(session), fetchMappers)) {
+            backup.archive(mailboxesWithAnnotations, messages, destination);
+        } finally {
+            fetchMappers.forEach(MessageMapper::endRequest);
+        }
+    }
+
+    private BlockingQueue<MessageMapper> createFetchMappers(MailboxSession session) throws MailboxException {
+        BlockingQueue<MessageMapper> fetchMappers = new ArrayBlockingQueue<>(prefetchConcurrency);
+        for (int i = 0; i < prefetchConcurrency; i++) {
+            fetchMappers.add(mapperFactory.createMessageMapper(session));
+        }
+        return fetchMappers;
+    }
+
+    private List<Mailbox> listMailboxes(MailboxSession session) throws MailboxException {
+        return mapperFactory.getMailboxMapper(session)
+            .findMailboxWithPathLike(MailboxPath.forUser(session.getUser().asString(), ALL_MAILBOXES))
+            .stream()
+            .sorted(Comparator.comparing(Mailbox::getName))
+            .collect(Guavate.toImmutableList());
+    }
+
+    private Stream<MailboxMessage> messages(List<Mailbox> mailboxes, MessageMapper messageMapper, BlockingQueue<MessageMapper> fetchMappers) {
+        return Flux.fromIterable(mailboxes)
+            .concatMap(mailbox -> batches(mailbox, messageMapper))
+            .flatMapSequential(batch -> batch.fetch(fetchMappers), prefetchConcurrency, 1)
+            .concatMapIterable(batch -> batch)
+            .toStream(batchSize);
+    }
+
+    private Flux<Batch> batches(Mailbox mailbox, MessageMapper messageMapper) {
+        return Flux.defer(() -> Iterators.toFlux(findInMailbox(messageMapper, mailbox, MessageRange.all(), MessageMapper.FetchType.Metadata)))
+            .map(MailboxMessage::getUid)
+            .buffer(batchSize)
+            .map(uids -> new Batch(mailbox, MessageRange.range(uids.get(0), uids.get(uids.size() - 1))));
+    }
+
+    private static Iterator<MailboxMessage> findInMailbox(MessageMapper messageMapper, Mailbox mailbox, MessageRange range,
+                                                          MessageMapper.FetchType fetchType) {
+        try {
+            return messageMapper.findInMailbox(mailbox, range, fetchType, UNLIMITED);
+        } catch (MailboxException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class Batch {
+        private final Mailbox mailbox;
+        private final MessageRange range;
+
+        private Batch(Mailbox mailbox, MessageRange range) {
+            this.mailbox = mailbox;
+            this.range = range;
+        }
+
+        Mono<ImmutableList<MailboxMessage>> fetch(BlockingQueue<MessageMapper> fetchMappers) {
+            return Mono.fromCallable(() -> {
+                    MessageMapper messageMapper = fetchMappers.take();
+                    try {
+                        return ImmutableList.copyOf(findInMailbox(messageMapper, mailbox, range, MessageMapper.FetchType.Full));
+                    } finally {
+                        fetchMappers.add(messageMapper);
+                    }
+                })
+                .subscribeOn(Schedulers.elastic());
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.backup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+import javax.mail.Flags;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipExtraField;
+import org.apache.commons.compress.archivers.zip.ZipShort;
+import org.apache.commons.io.IOUtils;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageManager.AppendCommand;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.MailboxAnnotation;
+import org.apache.james.mailbox.model.MailboxAnnotationKey;
+import org.apache.james.mailbox.model.MailboxPath;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Restores an archive written by {@link Zipper} into the mailboxes of a user.
+ *
+ * The archive is read as a stream. Messages are buffered by batches of batchSize, then appended with up to
+ * appendConcurrency mailboxes being filled concurrently. Within a mailbox, messages are appended in archive
+ * order, so that the new UIDs allocated by the mailbox keep the order of the archived ones. Flags and internal
+ * dates are restored from the archive metadata.
+ */
+public class MailboxImporter {
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_APPEND_CONCURRENCY = 4;
+    private static final String ANNOTATIONS_DIRECTORY = "annotations";
+    private static final String DIRECTORY_SEPARATOR = "/";
+
+    private static class ArchivedMessage {
+        private final String mailboxId;
+        private final byte[] content;
+        private final Flags flags;
+        private final Optional<Date> internalDate;
+
+        private ArchivedMessage(String mailboxId, byte[] content, Flags flags, Optional<Date> internalDate) {
+            this.mailboxId = mailboxId;
+            this.content = content;
+            this.flags = flags;
+            this.internalDate = internalDate;
+        }
+
+        private AppendCommand asAppendCommand() {
+            AppendCommand.Builder builder = AppendCommand.builder()
+                .withFlags(flags)
+                .isRecent(flags.contains(Flags.Flag.RECENT));
+            internalDate.ifPresent(builder::withInternalDate);
+            return builder.build(content);
+        }
+    }
+
+    private final MailboxManager mailboxManager;
+    private final int batchSize;
+    private final int appendConcurrency;
+
+    @Inject
+    public MailboxImporter(MailboxManager mailboxManager) {
+        this(mailboxManager, DEFAULT_BATCH_SIZE, DEFAULT_APPEND_CONCURRENCY);
+    }
+
+    public MailboxImporter(MailboxManager mailboxManager, int batchSize, int appendConcurrency) {
+        Preconditions.checkArgument(batchSize > 0, "'batchSize' needs to be strictly positive");
+        Preconditions.checkArgument(appendConcurrency > 0, "'appendConcurrency' needs to be strictly positive");
+
+        this.mailboxManager = mailboxManager;
+        this.batchSize = batchSize;
+        this.appendConcurrency = appendConcurrency;
+        Zipper.registerExtraFields();
+    }
+
+    public void restore(MailboxSession session, InputStream source) throws IOException, MailboxException {
+        Map<String, MessageManager> mailboxesByArchivedId = new HashMap<>();
+        Map<String, MailboxPath> mailboxPathsByName = new HashMap<>();
+        List<ArchivedMessage> batch = new ArrayList<>(batchSize);
+
+        try (ZipArchiveInputStream archive = new ZipArchiveInputStream(source)) {
+            ZipArchiveEntry entry = archive.getNextZipEntry();
+            while (entry != null) {
+                Optional<String> mailboxId = extraField(entry, MailboxIdExtraField.ID_AM, MailboxIdExtraField.class)
+                    .flatMap(MailboxIdExtraField::getValue);
+
+                if (entry.isDirectory() && mailboxId.isPresent()) {
+                    String name = entry.getName().substring(0, entry.getName().length() - DIRECTORY_SEPARATOR.length());
+                    MailboxPath path = MailboxPath.forUser(session.getUser().asString(), name);
+                    mailboxesByArchivedId.put(mailboxId.get(), retrieveOrCreate(path, session));
+                    mailboxPathsByName.put(name, path);
+                } else if (!entry.isDirectory() && mailboxId.isPresent()) {
+                    batch.add(new ArchivedMessage(mailboxId.get(),
+                        IOUtils.toByteArray(archive),
+                        extraField(entry, FlagsExtraField.ID_AP, FlagsExtraField.class)
+                            .flatMap(FlagsExtraField::getFlags)
+                            .orElse(new Flags()),
+                        extraField(entry, InternalDateExtraField.ID_AO, InternalDateExtraField.class)
+                            .flatMap(InternalDateExtraField::getDateValue)));
+                    if (batch.size() >= batchSize) {
+                        append(batch, mailboxesByArchivedId, session);
+                        batch.clear();
+                    }
+                } else if (!entry.isDirectory()) {
+                    restoreAnnotation(entry.getName(), IOUtils.toString(archive, StandardCharsets.UTF_8), mailboxPathsByName, session);
+                }
+                entry = archive.getNextZipEntry();
+            }
+            append(batch, mailboxesByArchivedId, session);
+        }
+    }
+
+    private MessageManager retrieveOrCreate(MailboxPath path, MailboxSession session) throws MailboxException {
+        if (!mailboxManager.mailboxExists(path, session)) {
+            mailboxManager.createMailbox(path, session);
+        }
+        return mailboxManager.getMailbox(path, session);
+    }
+
+    private void restoreAnnotation(String entryName, String value, Map<String, MailboxPath> mailboxPathsByName, MailboxSession session) throws MailboxException {
+        Optional<String> mailboxName = mailboxPathsByName.keySet()
+            .stream()
+            .filter(name -> entryName.startsWith(annotationsPrefix(name)))
+            .max(Comparator.comparing(String::length));
+
+        if (mailboxName.isPresent()) {
+            String key = entryName.substring(annotationsPrefix(mailboxName.get()).length());
+            mailboxManager.updateAnnotations(mailboxPathsByName.get(mailboxName.get()), session,
+                ImmutableList.of(MailboxAnnotation.newInstance(new MailboxAnnotationKey(key), value)));
+        }
+    }
+
+    private String annotationsPrefix(String mailboxName) {
+        return mailboxName + DIRECTORY_SEPARATOR + ANNOTATIONS_DIRECTORY + DIRECTORY_SEPARATOR;
+    }
+
+    private void append(List<ArchivedMessage> batch, Map<String, MessageManager> mailboxesByArchivedId, MailboxSession session) throws MailboxException {
+        Map<String, List<ArchivedMessage>> messagesByMailbox = batch.stream()
+            .collect(Collectors.groupingBy(message -> message.mailboxId, LinkedHashMap::new, Collectors.toList()));
+
+        for (String mailboxId : messagesByMailbox.keySet()) {
+            if (!mailboxesByArchivedId.containsKey(mailboxId)) {
+                throw new MailboxException("Archive contains messages of mailbox " + mailboxId + " without describing this mailbox");
+            }
+        }
+
+        Flux.fromIterable(messagesByMailbox.entrySet())
+            .flatMap(entry -> Mono.fromRunnable(Throwing.runnable(() ->
+                    append(entry.getValue(), mailboxesByArchivedId.get(entry.getKey()), session)).sneakyThrow())
+                .subscribeOn(Schedulers.elastic()), appendConcurrency)
+            .then()
+            .block();
+    }
+
+    private void append(List<ArchivedMessage> messages, MessageManager messageManager, MailboxSession session) throws MailboxException {
+        for (ArchivedMessage message : messages) {
+            messageManager.appendMessage(message.asAppendCommand(), session);
+        }
+    }
+
+    private <T extends ZipExtraField> Optional<T> extraField(ZipArchiveEntry entry, ZipShort headerId, Class<T> type) {
+        return Optional.ofNullable(entry.getExtraField(headerId))
+            .filter(type::isInstance)
+            .map(type::cast);
+    }
+}
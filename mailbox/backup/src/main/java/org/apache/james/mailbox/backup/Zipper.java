@@ -42,7 +42,7 @@ public class Zipper implements Backup {
     private static final String ANNOTATION_DIRECTORY = "annotations";
     private static final boolean AUTO_FLUSH = true;
 
-    public Zipper() {
+    static void registerExtraFields() {
         ExtraFieldUtils.register(SizeExtraField.class);
         ExtraFieldUtils.register(UidExtraField.class);
         ExtraFieldUtils.register(MessageIdExtraField.class);
@@ -52,6 +52,10 @@ public class Zipper implements Backup {
         ExtraFieldUtils.register(FlagsExtraField.class);
     }
 
+    public Zipper() {
+        registerExtraFields();
+    }
+
     @Override
     public void archive(List<MailboxWithAnnotations> mailboxes, Stream<MailboxMessage> messages, OutputStream destination) throws IOException {
         try (ZipArchiveOutputStream archiveOutputStream = new ZipArchiveOutputStream(destination)) {
@@ -300,4 +300,51 @@ public class FlagExtraFieldTest {
             assertThat(testee.getValue()).contains("\\SEEN%myFlags");
         }
     }
+
+    @Nested
+    class GetFlags {
+
+        @Test
+        void getFlagsShouldReturnEmptyWhenNoValue() {
+            FlagsExtraField testee = new FlagsExtraField();
+
+            assertThat(testee.getFlags())
+                .isEmpty();
+        }
+
+        @Test
+        void getFlagsShouldReturnEmptyFlagsWhenEmptyValue() {
+            FlagsExtraField testee = new FlagsExtraField(new Flags());
+
+            assertThat(testee.getFlags())
+                .contains(new Flags());
+        }
+
+        @Test
+        void getFlagsShouldReturnSystemAndUserFlags() {
+            Flags flags = new Flags();
+            flags.add(Flags.Flag.SEEN);
+            flags.add(Flags.Flag.DRAFT);
+            flags.add("myFlags");
+            FlagsExtraField testee = new FlagsExtraField(flags);
+
+            assertThat(testee.getFlags())
+                .contains(flags);
+        }
+
+        @Test
+        void getFlagsShouldRoundTripThroughLocalFileData() throws Exception {
+            Flags flags = new Flags();
+            flags.add(Flags.Flag.ANSWERED);
+            flags.add(Flags.Flag.RECENT);
+            flags.add("myFlags");
+            byte[] data = new FlagsExtraField(flags).getLocalFileDataData();
+
+            FlagsExtraField testee = new FlagsExtraField();
+            testee.parseFromLocalFileData(data, 0, data.length);
+
+            assertThat(testee.getFlags())
+                .contains(flags);
+        }
+    }
 }
@@ -0,0 +1,159 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.backup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.inmemory.InMemoryMailboxManager;
+import org.apache.james.mailbox.inmemory.manager.InMemoryIntegrationResources;
+import org.apache.james.mailbox.model.FetchGroupImpl;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.MessageResult;
+import org.apache.james.mailbox.store.MailboxSessionMapperFactory;
+import org.apache.james.mailbox.store.mail.MessageMapper;
+import org.apache.james.mailbox.store.mail.model.Mailbox;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+
+import com.github.fge.lambdas.Throwing;
+import com.github.steveash.guavate.Guavate;
+import com.google.common.collect.ImmutableList;
+
+class MailboxExporterTest {
+    private static final String ALICE = "alice@domain.tld";
+    private static final String BOB = "bob@domain.tld";
+    private static final MailboxPath ALICE_INBOX = MailboxPath.forUser(ALICE, "INBOX");
+    private static final MailboxPath BOB_INBOX = MailboxPath.forUser(BOB, "INBOX");
+    private static final int BATCH_SIZE = 2;
+    private static final int CONCURRENCY = 4;
+    private static final int MESSAGE_COUNT = 20;
+
+    private InMemoryMailboxManager mailboxManager;
+    private MailboxSessionMapperFactory mapperFactory;
+    private MailboxSession aliceSession;
+    private MailboxSession bobSession;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        mailboxManager = InMemoryIntegrationResources.defaultResources().getMailboxManager();
+        aliceSession = mailboxManager.createSystemSession(ALICE);
+        bobSession = mailboxManager.createSystemSession(BOB);
+        // caches the session mapper, only mappers dedicated to fetches are then created by the exporter
+        mailboxManager.getMapperFactory().getMessageMapper(aliceSession);
+        mapperFactory = spy(mailboxManager.getMapperFactory());
+    }
+
+    @Test
+    void constructorShouldThrowWhenNonPositiveBatchSize() {
+        assertThatThrownBy(() -> new MailboxExporter(mapperFactory, new Zipper(), 0, CONCURRENCY))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void constructorShouldThrowWhenNonPositivePrefetchConcurrency() {
+        assertThatThrownBy(() -> new MailboxExporter(mapperFactory, new Zipper(), BATCH_SIZE, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void exportShouldCreateADedicatedMapperPerConcurrentFetch() throws Exception {
+        mailboxManager.createMailbox(ALICE_INBOX, aliceSession);
+
+        new MailboxExporter(mapperFactory, new Zipper(), BATCH_SIZE, CONCURRENCY)
+            .export(aliceSession, new ByteArrayOutputStream());
+
+        verify(mapperFactory, times(CONCURRENCY)).createMessageMapper(aliceSession);
+    }
+
+    @Test
+    void exportShouldNotUseAMapperConcurrently() throws Exception {
+        MessageMapper sharedMapper = mailboxManager.getMapperFactory().createMessageMapper(aliceSession);
+        doAnswer(invocation -> exclusiveMapper(sharedMapper))
+            .when(mapperFactory).createMessageMapper(any());
+        mailboxManager.createMailbox(ALICE_INBOX, aliceSession);
+        List<String> contents = IntStream.range(0, MESSAGE_COUNT)
+            .mapToObj(i -> "Subject: " + i + "\r\n\r\nbody " + i)
+            .collect(Guavate.toImmutableList());
+        contents.forEach(Throwing.consumer(this::appendToAliceInbox).sneakyThrow());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new MailboxExporter(mapperFactory, new Zipper(), BATCH_SIZE, CONCURRENCY)
+            .export(aliceSession, output);
+        new MailboxImporter(mailboxManager, BATCH_SIZE, CONCURRENCY)
+            .restore(bobSession, new ByteArrayInputStream(output.toByteArray()));
+
+        assertThat(ImmutableList.copyOf(mailboxManager.getMailbox(BOB_INBOX, bobSession)
+                .getMessages(MessageRange.all(), FetchGroupImpl.FULL_CONTENT, bobSession)))
+            .extracting(this::content)
+            .containsExactlyElementsOf(contents);
+    }
+
+    private String content(MessageResult message) {
+        return Throwing.supplier(() -> IOUtils.toString(message.getFullContent().getInputStream(), StandardCharsets.UTF_8))
+            .sneakyThrow()
+            .get();
+    }
+
+    private MessageMapper exclusiveMapper(MessageMapper delegate) throws Exception {
+        AtomicBoolean inUse = new AtomicBoolean(false);
+        MessageMapper mapper = mock(MessageMapper.class, AdditionalAnswers.delegatesTo(delegate));
+        doAnswer(invocation -> {
+            if (!inUse.compareAndSet(false, true)) {
+                throw new ConcurrentModificationException("Mapper used concurrently");
+            }
+            try {
+                Thread.sleep(10);
+                return delegate.findInMailbox(invocation.getArgument(0), invocation.getArgument(1),
+                    invocation.getArgument(2), invocation.getArgument(3));
+            } finally {
+                inUse.set(false);
+            }
+        }).when(mapper).findInMailbox(any(Mailbox.class), any(MessageRange.class), any(MessageMapper.FetchType.class), anyInt());
+        return mapper;
+    }
+
+    private void appendToAliceInbox(String content) throws Exception {
+        mailboxManager.getMailbox(ALICE_INBOX, aliceSession)
+            .appendMessage(MessageManager.AppendCommand.builder()
+                .notRecent()
+                .build(content), aliceSession);
+    }
+}
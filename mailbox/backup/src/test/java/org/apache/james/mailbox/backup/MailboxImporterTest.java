@@ -0,0 +1,212 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.backup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import javax.mail.Flags;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.inmemory.InMemoryMailboxManager;
+import org.apache.james.mailbox.inmemory.manager.InMemoryIntegrationResources;
+import org.apache.james.mailbox.model.FetchGroupImpl;
+import org.apache.james.mailbox.model.MailboxAnnotation;
+import org.apache.james.mailbox.model.MailboxAnnotationKey;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.MessageResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableList;
+
+class MailboxImporterTest {
+    private static final String ALICE = "alice@domain.tld";
+    private static final String BOB = "bob@domain.tld";
+    private static final MailboxPath ALICE_INBOX = MailboxPath.forUser(ALICE, "INBOX");
+    private static final MailboxPath ALICE_ARCHIVE = MailboxPath.forUser(ALICE, "INBOX.archive");
+    private static final MailboxPath BOB_INBOX = MailboxPath.forUser(BOB, "INBOX");
+    private static final MailboxPath BOB_ARCHIVE = MailboxPath.forUser(BOB, "INBOX.archive");
+    private static final MailboxAnnotation ANNOTATION = MailboxAnnotation.newInstance(new MailboxAnnotationKey("/private/comment"), "my comment");
+    private static final MailboxAnnotation VENDOR_ANNOTATION = MailboxAnnotation.newInstance(new MailboxAnnotationKey("/shared/vendor/apache/james/color"), "blue");
+    private static final Date DATE_1 = new Date(1546300800000L);
+    private static final Date DATE_2 = new Date(1548979200000L);
+    private static final Date DATE_3 = new Date(1551398400000L);
+    private static final int BATCH_SIZE = 2;
+    private static final int CONCURRENCY = 2;
+
+    private InMemoryMailboxManager mailboxManager;
+    private MailboxSession aliceSession;
+    private MailboxSession bobSession;
+    private MailboxExporter exporter;
+    private MailboxImporter testee;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        mailboxManager = InMemoryIntegrationResources.defaultResources().getMailboxManager();
+        aliceSession = mailboxManager.createSystemSession(ALICE);
+        bobSession = mailboxManager.createSystemSession(BOB);
+        exporter = new MailboxExporter(mailboxManager.getMapperFactory(), new Zipper(), BATCH_SIZE, CONCURRENCY);
+        testee = new MailboxImporter(mailboxManager, BATCH_SIZE, CONCURRENCY);
+    }
+
+    @Test
+    void constructorShouldThrowWhenNonPositiveBatchSize() {
+        assertThatThrownBy(() -> new MailboxImporter(mailboxManager, 0, CONCURRENCY))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void constructorShouldThrowWhenNonPositiveConcurrency() {
+        assertThatThrownBy(() -> new MailboxImporter(mailboxManager, BATCH_SIZE, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void restoreShouldCreateMailboxesWhenEmptyMailboxes() throws Exception {
+        mailboxManager.createMailbox(ALICE_INBOX, aliceSession);
+        mailboxManager.createMailbox(ALICE_ARCHIVE, aliceSession);
+
+        testee.restore(bobSession, exportAlice());
+
+        assertThat(mailboxManager.mailboxExists(BOB_INBOX, bobSession)).isTrue();
+        assertThat(mailboxManager.mailboxExists(BOB_ARCHIVE, bobSession)).isTrue();
+    }
+
+    @Test
+    void restoreShouldAppendIntoExistingMailbox() throws Exception {
+        mailboxManager.createMailbox(ALICE_INBOX, aliceSession);
+        append(ALICE_INBOX, "Subject: 1\r\n\r\nbody 1", DATE_1, new Flags());
+        mailboxManager.createMailbox(BOB_INBOX, bobSession);
+
+        testee.restore(bobSession, exportAlice());
+
+        assertThat(messages(BOB_INBOX))
+            .extracting(this::content)
+            .containsExactly("Subject: 1\r\n\r\nbody 1");
+    }
+
+    @Test
+    void restoreShouldPreserveContentOrderFlagsAndInternalDates() throws Exception {
+        Flags seen = new Flags(Flags.Flag.SEEN);
+        Flags answeredWithUserFlag = new Flags(Flags.Flag.ANSWERED);
+        answeredWithUserFlag.add("custom");
+        mailboxManager.createMailbox(ALICE_INBOX, aliceSession);
+        append(ALICE_INBOX, "Subject: 1\r\n\r\nbody 1", DATE_1, seen);
+        append(ALICE_INBOX, "Subject: 2\r\n\r\nbody 2", DATE_2, answeredWithUserFlag);
+        append(ALICE_INBOX, "Subject: 3\r\n\r\nbody 3", DATE_3, new Flags());
+
+        testee.restore(bobSession, exportAlice());
+
+        List<MessageResult> messages = messages(BOB_INBOX);
+        assertThat(messages)
+            .extracting(this::content)
+            .containsExactly("Subject: 1\r\n\r\nbody 1", "Subject: 2\r\n\r\nbody 2", "Subject: 3\r\n\r\nbody 3");
+        assertThat(messages)
+            .extracting(MessageResult::getInternalDate)
+            .containsExactly(DATE_1, DATE_2, DATE_3);
+        assertThat(messages)
+            .extracting(MessageResult::getFlags)
+            .containsExactly(seen, answeredWithUserFlag, new Flags());
+    }
+
+    @Test
+    void restoreShouldDispatchMessagesInTheirMailboxes() throws Exception {
+        mailboxManager.createMailbox(ALICE_INBOX, aliceSession);
+        mailboxManager.createMailbox(ALICE_ARCHIVE, aliceSession);
+        append(ALICE_INBOX, "Subject: 1\r\n\r\nbody 1", DATE_1, new Flags());
+        append(ALICE_ARCHIVE, "Subject: 2\r\n\r\nbody 2", DATE_2, new Flags());
+        append(ALICE_ARCHIVE, "Subject: 3\r\n\r\nbody 3", DATE_3, new Flags());
+
+        testee.restore(bobSession, exportAlice());
+
+        assertThat(messages(BOB_INBOX))
+            .extracting(this::content)
+            .containsExactly("Subject: 1\r\n\r\nbody 1");
+        assertThat(messages(BOB_ARCHIVE))
+            .extracting(this::content)
+            .containsExactly("Subject: 2\r\n\r\nbody 2", "Subject: 3\r\n\r\nbody 3");
+    }
+
+    @Test
+    void restoreShouldRestoreAnnotations() throws Exception {
+        mailboxManager.createMailbox(ALICE_INBOX, aliceSession);
+        mailboxManager.createMailbox(ALICE_ARCHIVE, aliceSession);
+        mailboxManager.updateAnnotations(ALICE_ARCHIVE, aliceSession, ImmutableList.of(ANNOTATION));
+
+        testee.restore(bobSession, exportAlice());
+
+        assertThat(mailboxManager.getAllAnnotations(BOB_INBOX, bobSession)).isEmpty();
+        assertThat(mailboxManager.getAllAnnotations(BOB_ARCHIVE, bobSession)).containsOnly(ANNOTATION);
+    }
+
+    @Test
+    void restoreShouldRestoreSeveralAnnotationsOfSeveralMailboxes() throws Exception {
+        mailboxManager.createMailbox(ALICE_INBOX, aliceSession);
+        mailboxManager.createMailbox(ALICE_ARCHIVE, aliceSession);
+        mailboxManager.updateAnnotations(ALICE_INBOX, aliceSession, ImmutableList.of(VENDOR_ANNOTATION));
+        mailboxManager.updateAnnotations(ALICE_ARCHIVE, aliceSession, ImmutableList.of(ANNOTATION, VENDOR_ANNOTATION));
+        append(ALICE_ARCHIVE, "Subject: 1\r\n\r\nbody 1", DATE_1, new Flags());
+
+        testee.restore(bobSession, exportAlice());
+
+        assertThat(mailboxManager.getAllAnnotations(BOB_INBOX, bobSession)).containsOnly(VENDOR_ANNOTATION);
+        assertThat(mailboxManager.getAllAnnotations(BOB_ARCHIVE, bobSession)).containsOnly(ANNOTATION, VENDOR_ANNOTATION);
+        assertThat(messages(BOB_ARCHIVE))
+            .extracting(this::content)
+            .containsExactly("Subject: 1\r\n\r\nbody 1");
+    }
+
+    private ByteArrayInputStream exportAlice() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exporter.export(aliceSession, output);
+        return new ByteArrayInputStream(output.toByteArray());
+    }
+
+    private void append(MailboxPath path, String content, Date internalDate, Flags flags) throws Exception {
+        mailboxManager.getMailbox(path, aliceSession)
+            .appendMessage(MessageManager.AppendCommand.builder()
+                .withInternalDate(internalDate)
+                .withFlags(flags)
+                .notRecent()
+                .build(content), aliceSession);
+    }
+
+    private List<MessageResult> messages(MailboxPath path) throws Exception {
+        return ImmutableList.copyOf(mailboxManager.getMailbox(path, bobSession)
+            .getMessages(MessageRange.all(), FetchGroupImpl.FULL_CONTENT, bobSession));
+    }
+
+    private String content(MessageResult message) {
+        return Throwing.supplier(() -> IOUtils.toString(message.getFullContent().getInputStream(), StandardCharsets.UTF_8))
+            .sneakyThrow()
+            .get();
+    }
+}
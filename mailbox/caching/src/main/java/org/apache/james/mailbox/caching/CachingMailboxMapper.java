@@ -110,17 +110,16 @@ public class CachingMailboxMapper implements MailboxMapper {
 
     @Override
     public ACLDiff updateACL(Mailbox mailbox, MailboxACL.ACLCommand mailboxACLCommand) throws MailboxException {
-        MailboxACL oldACL = mailbox.getACL();
-        MailboxACL newACL = mailbox.getACL().apply(mailboxACLCommand);
-        mailbox.setACL(newACL);
-        return ACLDiff.computeDiff(oldACL, newACL);
+        ACLDiff aclDiff = underlying.updateACL(mailbox, mailboxACLCommand);
+        invalidate(mailbox);
+        return aclDiff;
     }
 
     @Override
     public ACLDiff setACL(Mailbox mailbox, MailboxACL mailboxACL) throws MailboxException {
-        MailboxACL oldMailboxAcl = mailbox.getACL();
-        mailbox.setACL(mailboxACL);
-        return ACLDiff.computeDiff(oldMailboxAcl, mailboxACL);
+        ACLDiff aclDiff = underlying.setACL(mailbox, mailboxACL);
+        invalidate(mailbox);
+        return aclDiff;
     }
 
     private void invalidate(Mailbox mailbox) {
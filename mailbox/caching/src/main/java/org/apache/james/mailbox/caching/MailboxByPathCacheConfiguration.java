@@ -0,0 +1,176 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.caching;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+public class MailboxByPathCacheConfiguration {
+
+    public static class Builder {
+        private Optional<Boolean> enabled;
+        private Optional<Long> maximumSize;
+        private Optional<Duration> timeToLive;
+        private Optional<Duration> maxStaleness;
+
+        private Builder() {
+            enabled = Optional.empty();
+            maximumSize = Optional.empty();
+            timeToLive = Optional.empty();
+            maxStaleness = Optional.empty();
+        }
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = Optional.of(enabled);
+            return this;
+        }
+
+        public Builder enabled(Optional<Boolean> enabled) {
+            enabled.ifPresent(this::enabled);
+            return this;
+        }
+
+        public Builder maximumSize(long maximumSize) {
+            Preconditions.checkArgument(maximumSize > 0, "maximumSize needs to be strictly positive");
+            this.maximumSize = Optional.of(maximumSize);
+            return this;
+        }
+
+        public Builder maximumSize(Optional<Long> maximumSize) {
+            maximumSize.ifPresent(this::maximumSize);
+            return this;
+        }
+
+        public Builder timeToLive(Duration timeToLive) {
+            Preconditions.checkArgument(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive needs to be strictly positive");
+            this.timeToLive = Optional.of(timeToLive);
+            return this;
+        }
+
+        public Builder timeToLive(Optional<Duration> timeToLive) {
+            timeToLive.ifPresent(this::timeToLive);
+            return this;
+        }
+
+        public Builder maxStaleness(Duration maxStaleness) {
+            Preconditions.checkArgument(!maxStaleness.isNegative() && !maxStaleness.isZero(), "maxStaleness needs to be strictly positive");
+            this.maxStaleness = Optional.of(maxStaleness);
+            return this;
+        }
+
+        public Builder maxStaleness(Optional<Duration> maxStaleness) {
+            maxStaleness.ifPresent(this::maxStaleness);
+            return this;
+        }
+
+        public MailboxByPathCacheConfiguration build() {
+            return new MailboxByPathCacheConfiguration(
+                enabled.orElse(DEFAULT_ENABLED),
+                maximumSize.orElse(DEFAULT_MAXIMUM_SIZE),
+                timeToLive.orElse(DEFAULT_TIME_TO_LIVE),
+                maxStaleness);
+        }
+    }
+
+    public static final boolean DEFAULT_ENABLED = false;
+    public static final long DEFAULT_MAXIMUM_SIZE = 100000;
+    /**
+     * Safety net for event driven invalidation: an entry whose invalidation event was lost is served at most that long.
+     */
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(15);
+
+    public static final MailboxByPathCacheConfiguration DEFAULT_CONFIGURATION = builder().build();
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final boolean enabled;
+    private final long maximumSize;
+    private final Duration timeToLive;
+    private final Optional<Duration> maxStaleness;
+
+    private MailboxByPathCacheConfiguration(boolean enabled, long maximumSize, Duration timeToLive, Optional<Duration> maxStaleness) {
+        this.enabled = enabled;
+        this.maximumSize = maximumSize;
+        this.timeToLive = timeToLive;
+        this.maxStaleness = maxStaleness;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * When present, entries are not invalidated through the event bus but simply expire after this delay:
+     * a stale mailbox is served at most that long after a change done on another node.
+     */
+    public Optional<Duration> getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    public boolean isBoundedStaleness() {
+        return maxStaleness.isPresent();
+    }
+
+    public Duration getExpiration() {
+        return maxStaleness.orElse(timeToLive);
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof MailboxByPathCacheConfiguration) {
+            MailboxByPathCacheConfiguration that = (MailboxByPathCacheConfiguration) o;
+
+            return Objects.equals(this.enabled, that.enabled)
+                && Objects.equals(this.maximumSize, that.maximumSize)
+                && Objects.equals(this.timeToLive, that.timeToLive)
+                && Objects.equals(this.maxStaleness, that.maxStaleness);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(enabled, maximumSize, timeToLive, maxStaleness);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("enabled", enabled)
+            .add("maximumSize", maximumSize)
+            .add("timeToLive", timeToLive)
+            .add("maxStaleness", maxStaleness)
+            .toString();
+    }
+}
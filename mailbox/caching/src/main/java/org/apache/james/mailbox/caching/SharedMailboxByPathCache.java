@@ -0,0 +1,144 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.caching;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.apache.james.mailbox.events.Event;
+import org.apache.james.mailbox.events.EventBus;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.events.MailboxListener;
+import org.apache.james.mailbox.events.Registration;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.exception.MailboxNotFoundException;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.store.mail.MailboxMapper;
+import org.apache.james.mailbox.store.mail.model.Mailbox;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailbox;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+
+/**
+ * Node wide {@link MailboxByPathCache}, shared by all sessions.
+ *
+ * Cached mailboxes carry their ACL. Callers get their own copy and can not alter the cached value.
+ *
+ * By default each entry registers a listener keyed by its mailbox id, which evicts it upon mailbox deletion, rename and
+ * ACL update. Such registrations are bound to this event bus instance, nothing outlives the node, and are released
+ * once the entry leaves the cache. A change done on another node between the lookup and the registration is missed,
+ * the time to live bounds that window.
+ *
+ * In bounded staleness mode no listener is registered and entries simply expire after the configured staleness.
+ */
+public class SharedMailboxByPathCache implements MailboxByPathCache {
+    public static final String HITS_METRIC_NAME = "mailboxByPathCache:hits";
+    public static final String MISSES_METRIC_NAME = "mailboxByPathCache:misses";
+
+    private static final Registration NO_REGISTRATION = () -> { };
+
+    private static class CachedMailbox {
+        private final Mailbox mailbox;
+        private final Registration registration;
+
+        private CachedMailbox(Mailbox mailbox, Registration registration) {
+            this.mailbox = mailbox;
+            this.registration = registration;
+        }
+    }
+
+    private class InvalidationListener implements MailboxListener {
+        @Override
+        public void event(Event event) {
+            if (event instanceof MailboxRenamed) {
+                MailboxRenamed mailboxRenamed = (MailboxRenamed) event;
+                invalidate(mailboxRenamed.getMailboxPath());
+                invalidate(mailboxRenamed.getNewPath());
+            } else if (event instanceof MailboxDeletion || event instanceof MailboxACLUpdated) {
+                invalidate(((MailboxEvent) event).getMailboxPath());
+            }
+        }
+    }
+
+    private final EventBus eventBus;
+    private final boolean registerListeners;
+    private final Cache<MailboxPath, CachedMailbox> cache;
+    private final Metric hits;
+    private final Metric misses;
+
+    @Inject
+    public SharedMailboxByPathCache(EventBus eventBus, MetricFactory metricFactory, MailboxByPathCacheConfiguration configuration) {
+        this.eventBus = eventBus;
+        this.registerListeners = !configuration.isBoundedStaleness();
+        RemovalListener<MailboxPath, CachedMailbox> removalListener =
+            notification -> notification.getValue().registration.unregister();
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(configuration.getMaximumSize())
+            .expireAfterWrite(configuration.getExpiration().toMillis(), TimeUnit.MILLISECONDS)
+            .removalListener(removalListener)
+            .build();
+        this.hits = metricFactory.generate(HITS_METRIC_NAME);
+        this.misses = metricFactory.generate(MISSES_METRIC_NAME);
+    }
+
+    @Override
+    public Mailbox findMailboxByPath(MailboxPath mailboxName, MailboxMapper underlying) throws MailboxNotFoundException, MailboxException {
+        CachedMailbox cached = cache.getIfPresent(mailboxName);
+        if (cached != null) {
+            hits.increment();
+            return new SimpleMailbox(cached.mailbox);
+        }
+        misses.increment();
+        Mailbox mailbox = underlying.findMailboxByPath(mailboxName);
+        if (mailbox != null) {
+            cache.put(mailboxName, new CachedMailbox(new SimpleMailbox(mailbox), register(mailbox)));
+        }
+        return mailbox;
+    }
+
+    private Registration register(Mailbox mailbox) {
+        if (registerListeners) {
+            return eventBus.register(new InvalidationListener(), new MailboxIdRegistrationKey(mailbox.getMailboxId()));
+        }
+        return NO_REGISTRATION;
+    }
+
+    @Override
+    public void invalidate(Mailbox mailbox) {
+        invalidate(mailbox.generateAssociatedPath());
+    }
+
+    @Override
+    public void invalidate(MailboxPath mailboxPath) {
+        cache.invalidate(mailboxPath);
+    }
+
+    @VisibleForTesting
+    long size() {
+        cache.cleanUp();
+        return cache.size();
+    }
+}
@@ -0,0 +1,294 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.caching;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.apache.james.core.User;
+import org.apache.james.core.quota.QuotaCount;
+import org.apache.james.core.quota.QuotaSize;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.acl.ACLDiff;
+import org.apache.james.mailbox.events.Event;
+import org.apache.james.mailbox.events.EventBus;
+import org.apache.james.mailbox.events.InVMEventBus;
+import org.apache.james.mailbox.events.MailboxIdRegistrationKey;
+import org.apache.james.mailbox.events.MailboxListener;
+import org.apache.james.mailbox.events.Registration;
+import org.apache.james.mailbox.events.RegistrationKey;
+import org.apache.james.mailbox.events.delivery.InVmEventDelivery;
+import org.apache.james.mailbox.exception.MailboxNotFoundException;
+import org.apache.james.mailbox.model.MailboxACL;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.QuotaRoot;
+import org.apache.james.mailbox.model.TestId;
+import org.apache.james.mailbox.store.mail.MailboxMapper;
+import org.apache.james.mailbox.store.mail.model.Mailbox;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailbox;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.NoopMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SharedMailboxByPathCacheTest {
+    private static final MailboxPath PATH = MailboxPath.forUser("bob", "mailbox");
+    private static final MailboxPath OTHER_PATH = MailboxPath.forUser("bob", "other");
+    private static final User BOB = User.fromUsername("bob");
+    private static final MailboxSession.SessionId SESSION_ID = MailboxSession.SessionId.of(42);
+    private static final TestId MAILBOX_ID = TestId.of(18);
+    private static final TestId OTHER_MAILBOX_ID = TestId.of(19);
+    private static final RegistrationKey KEY = new MailboxIdRegistrationKey(MAILBOX_ID);
+
+    private EventBus eventBus;
+    private MailboxMapper underlying;
+    private SharedMailboxByPathCache testee;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        eventBus = new InVMEventBus(new InVmEventDelivery(new NoopMetricFactory()));
+        underlying = mock(MailboxMapper.class);
+        when(underlying.findMailboxByPath(PATH)).thenAnswer(invocation -> new SimpleMailbox(PATH, 42, MAILBOX_ID));
+        when(underlying.findMailboxByPath(OTHER_PATH)).thenAnswer(invocation -> new SimpleMailbox(OTHER_PATH, 43, OTHER_MAILBOX_ID));
+        testee = new SharedMailboxByPathCache(eventBus, new NoopMetricFactory(), MailboxByPathCacheConfiguration.DEFAULT_CONFIGURATION);
+    }
+
+    @Test
+    void findMailboxByPathShouldReturnUnderlyingMailbox() throws Exception {
+        Mailbox mailbox = testee.findMailboxByPath(PATH, underlying);
+
+        assertThat(mailbox.getMailboxId()).isEqualTo(MAILBOX_ID);
+        assertThat(mailbox.generateAssociatedPath()).isEqualTo(PATH);
+    }
+
+    @Test
+    void findMailboxByPathShouldServeSubsequentCallsFromCache() throws Exception {
+        testee.findMailboxByPath(PATH, underlying);
+        testee.findMailboxByPath(PATH, underlying);
+
+        verify(underlying, times(1)).findMailboxByPath(PATH);
+    }
+
+    @Test
+    void cachedMailboxShouldNotBeAlteredByCallers() throws Exception {
+        testee.findMailboxByPath(PATH, underlying)
+            .setACL(MailboxACL.OWNER_FULL_ACL);
+
+        assertThat(testee.findMailboxByPath(PATH, underlying).getACL())
+            .isEqualTo(MailboxACL.EMPTY);
+    }
+
+    @Test
+    void findMailboxByPathShouldNotCacheMissingMailboxes() throws Exception {
+        MailboxPath missingPath = MailboxPath.forUser("bob", "missing");
+        when(underlying.findMailboxByPath(missingPath)).thenThrow(new MailboxNotFoundException(missingPath));
+
+        assertThatThrownBy(() -> testee.findMailboxByPath(missingPath, underlying))
+            .isInstanceOf(MailboxNotFoundException.class);
+        assertThat(testee.size()).isEqualTo(0);
+    }
+
+    @Test
+    void invalidateShouldEvictEntry() throws Exception {
+        testee.findMailboxByPath(PATH, underlying);
+
+        testee.invalidate(PATH);
+        testee.findMailboxByPath(PATH, underlying);
+
+        verify(underlying, times(2)).findMailboxByPath(PATH);
+    }
+
+    @Test
+    void invalidateShouldNotEvictOtherEntries() throws Exception {
+        testee.findMailboxByPath(PATH, underlying);
+        testee.findMailboxByPath(OTHER_PATH, underlying);
+
+        testee.invalidate(PATH);
+        testee.findMailboxByPath(OTHER_PATH, underlying);
+
+        verify(underlying, times(1)).findMailboxByPath(OTHER_PATH);
+    }
+
+    @Test
+    void mailboxDeletionShouldEvictEntry() throws Exception {
+        testee.findMailboxByPath(PATH, underlying);
+
+        eventBus.dispatch(new MailboxListener.MailboxDeletion(SESSION_ID, BOB, PATH, QuotaRoot.quotaRoot("bob", Optional.empty()),
+            QuotaCount.count(0), QuotaSize.size(0), MAILBOX_ID, Event.EventId.random()), KEY).block();
+
+        assertThat(testee.size()).isEqualTo(0);
+    }
+
+    @Test
+    void mailboxRenamedShouldEvictEntry() throws Exception {
+        testee.findMailboxByPath(PATH, underlying);
+
+        eventBus.dispatch(new MailboxListener.MailboxRenamed(SESSION_ID, BOB, PATH, MAILBOX_ID, OTHER_PATH, Event.EventId.random()), KEY).block();
+
+        assertThat(testee.size()).isEqualTo(0);
+    }
+
+    @Test
+    void aclUpdateShouldEvictEntry() throws Exception {
+        testee.findMailboxByPath(PATH, underlying);
+
+        eventBus.dispatch(new MailboxListener.MailboxACLUpdated(SESSION_ID, BOB, PATH,
+            ACLDiff.computeDiff(MailboxACL.EMPTY, MailboxACL.OWNER_FULL_ACL), MAILBOX_ID, Event.EventId.random()), KEY).block();
+
+        assertThat(testee.size()).isEqualTo(0);
+    }
+
+    @Test
+    void eventsOfOtherMailboxesShouldNotEvictEntry() throws Exception {
+        testee.findMailboxByPath(PATH, underlying);
+
+        eventBus.dispatch(new MailboxListener.MailboxRenamed(SESSION_ID, BOB, OTHER_PATH, OTHER_MAILBOX_ID, MailboxPath.forUser("bob", "renamed"), Event.EventId.random()),
+            new MailboxIdRegistrationKey(OTHER_MAILBOX_ID)).block();
+
+        assertThat(testee.size()).isEqualTo(1);
+    }
+
+    @Test
+    void eventsShouldEvictEntriesOfEveryNode() throws Exception {
+        SharedMailboxByPathCache otherNode = new SharedMailboxByPathCache(eventBus, new NoopMetricFactory(), MailboxByPathCacheConfiguration.DEFAULT_CONFIGURATION);
+        testee.findMailboxByPath(PATH, underlying);
+        otherNode.findMailboxByPath(PATH, underlying);
+
+        eventBus.dispatch(new MailboxListener.MailboxRenamed(SESSION_ID, BOB, PATH, MAILBOX_ID, OTHER_PATH, Event.EventId.random()), KEY).block();
+
+        assertThat(testee.size()).isEqualTo(0);
+        assertThat(otherNode.size()).isEqualTo(0);
+    }
+
+    @Test
+    void constructionShouldNotRegisterListeners() {
+        EventBus eventBus = mock(EventBus.class);
+
+        new SharedMailboxByPathCache(eventBus, new NoopMetricFactory(), MailboxByPathCacheConfiguration.DEFAULT_CONFIGURATION);
+
+        verifyZeroInteractions(eventBus);
+    }
+
+    @Test
+    void findMailboxByPathShouldRegisterAListenerKeyedByTheMailboxId() throws Exception {
+        EventBus eventBus = mock(EventBus.class);
+        SharedMailboxByPathCache testee = new SharedMailboxByPathCache(eventBus, new NoopMetricFactory(), MailboxByPathCacheConfiguration.DEFAULT_CONFIGURATION);
+
+        testee.findMailboxByPath(PATH, underlying);
+        testee.findMailboxByPath(PATH, underlying);
+
+        verify(eventBus, times(1)).register(any(MailboxListener.class), eq(KEY));
+        verifyNoMoreInteractions(eventBus);
+    }
+
+    @Test
+    void invalidateShouldReleaseTheRegistration() throws Exception {
+        EventBus eventBus = mock(EventBus.class);
+        Registration registration = mock(Registration.class);
+        when(eventBus.register(any(MailboxListener.class), any(RegistrationKey.class))).thenReturn(registration);
+        SharedMailboxByPathCache testee = new SharedMailboxByPathCache(eventBus, new NoopMetricFactory(), MailboxByPathCacheConfiguration.DEFAULT_CONFIGURATION);
+
+        testee.findMailboxByPath(PATH, underlying);
+        testee.invalidate(PATH);
+
+        verify(registration).unregister();
+    }
+
+    @Test
+    void evictionShouldReleaseTheRegistration() throws Exception {
+        EventBus eventBus = mock(EventBus.class);
+        Registration registration = mock(Registration.class);
+        Registration otherRegistration = mock(Registration.class);
+        when(eventBus.register(any(MailboxListener.class), eq(KEY))).thenReturn(registration);
+        when(eventBus.register(any(MailboxListener.class), eq(new MailboxIdRegistrationKey(OTHER_MAILBOX_ID)))).thenReturn(otherRegistration);
+        SharedMailboxByPathCache testee = new SharedMailboxByPathCache(eventBus, new NoopMetricFactory(),
+            MailboxByPathCacheConfiguration.builder().maximumSize(1).build());
+
+        testee.findMailboxByPath(PATH, underlying);
+        testee.findMailboxByPath(OTHER_PATH, underlying);
+
+        verify(registration).unregister();
+        verifyZeroInteractions(otherRegistration);
+    }
+
+    @Test
+    void eventsShouldNotBeReceivedOnceTheEntryIsEvicted() throws Exception {
+        testee.findMailboxByPath(PATH, underlying);
+        testee.invalidate(PATH);
+
+        testee.findMailboxByPath(OTHER_PATH, underlying);
+        eventBus.dispatch(new MailboxListener.MailboxRenamed(SESSION_ID, BOB, PATH, MAILBOX_ID, OTHER_PATH, Event.EventId.random()), KEY).block();
+
+        assertThat(testee.size()).isEqualTo(1);
+    }
+
+    @Test
+    void sizeShouldBeBoundedByMaximumSize() throws Exception {
+        SharedMailboxByPathCache testee = new SharedMailboxByPathCache(eventBus, new NoopMetricFactory(),
+            MailboxByPathCacheConfiguration.builder().maximumSize(1).build());
+
+        testee.findMailboxByPath(PATH, underlying);
+        testee.findMailboxByPath(OTHER_PATH, underlying);
+
+        assertThat(testee.size()).isEqualTo(1);
+    }
+
+    @Test
+    void boundedStalenessShouldNotRegisterListeners() throws Exception {
+        EventBus eventBus = mock(EventBus.class);
+        SharedMailboxByPathCache testee = new SharedMailboxByPathCache(eventBus, new NoopMetricFactory(),
+            MailboxByPathCacheConfiguration.builder().maxStaleness(Duration.ofSeconds(30)).build());
+
+        testee.findMailboxByPath(PATH, underlying);
+        testee.findMailboxByPath(PATH, underlying);
+
+        verifyZeroInteractions(eventBus);
+        verify(underlying, times(1)).findMailboxByPath(PATH);
+    }
+
+    @Test
+    void findMailboxByPathShouldRecordHitsAndMisses() throws Exception {
+        MetricFactory metricFactory = mock(MetricFactory.class);
+        Metric hits = mock(Metric.class);
+        Metric misses = mock(Metric.class);
+        when(metricFactory.generate(SharedMailboxByPathCache.HITS_METRIC_NAME)).thenReturn(hits);
+        when(metricFactory.generate(SharedMailboxByPathCache.MISSES_METRIC_NAME)).thenReturn(misses);
+        SharedMailboxByPathCache testee = new SharedMailboxByPathCache(mock(EventBus.class), metricFactory, MailboxByPathCacheConfiguration.DEFAULT_CONFIGURATION);
+
+        testee.findMailboxByPath(PATH, underlying);
+        testee.findMailboxByPath(PATH, underlying);
+        testee.findMailboxByPath(PATH, underlying);
+
+        verify(misses, times(1)).increment();
+        verify(hits, times(2)).increment();
+    }
+}
@@ -48,6 +48,8 @@ import org.apache.james.mailbox.store.mail.MessageMapper;
 import org.apache.james.mailbox.store.mail.model.Mailbox;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 import org.apache.james.mailbox.store.mail.model.impl.SimpleMailboxMessage;
+import org.apache.james.metrics.api.tracing.Span;
+import org.apache.james.metrics.api.tracing.TraceContext;
 import org.apache.james.util.OptionalUtils;
 import org.apache.james.util.ReactorUtils;
 import org.apache.james.util.streams.Limit;
@@ -170,16 +172,19 @@ public class CassandraMessageMapper implements MessageMapper {
     }
 
     private List<ComposedMessageIdWithMetaData> retrieveMessageIds(CassandraId mailboxId, MessageRange messageRange) {
-        return messageIdDAO.retrieveMessages(mailboxId, messageRange)
-            .collect(Guavate.toImmutableList())
-            .block();
+        try (Span span = TraceContext.childSpan("cassandra:retrieveMessageIds")) {
+            return messageIdDAO.retrieveMessages(mailboxId, messageRange)
+                .collect(Guavate.toImmutableList())
+                .block();
+        }
     }
 
     private Flux<MailboxMessage> retrieveMessages(List<ComposedMessageIdWithMetaData> messageIds, FetchType fetchType, Limit limit) {
         return messageDAO.retrieveMessages(messageIds, fetchType, limit)
             .filter(CassandraMessageDAO.MessageResult::isFound)
             .map(CassandraMessageDAO.MessageResult::message)
-            .flatMap(stream -> attachmentLoader.addAttachmentToMessage(stream, fetchType));
+            .flatMap(stream -> attachmentLoader.addAttachmentToMessage(stream, fetchType))
+            .subscriberContext(TraceContext.propagate());
     }
 
     @Override
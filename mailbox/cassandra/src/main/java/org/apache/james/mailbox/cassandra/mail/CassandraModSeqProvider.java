@@ -41,10 +41,13 @@ import org.apache.james.backends.cassandra.init.configuration.CassandraConfigura
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.mail.utils.SequenceLeaser;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.store.mail.ModSeqProvider;
 import org.apache.james.mailbox.store.mail.model.Mailbox;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.util.FunctionalUtils;
 
 import com.datastax.driver.core.PreparedStatement;
@@ -54,6 +57,10 @@ import reactor.core.publisher.Mono;
 
 public class CassandraModSeqProvider implements ModSeqProvider {
 
+    static final String METRIC_PREFIX = "cassandraModSeqProvider:";
+    static final String LEASES_METRIC_NAME = METRIC_PREFIX + "leases";
+    static final String LEASED_MODSEQS_METRIC_NAME = METRIC_PREFIX + "leasedModSeqs";
+    static final String CONTENTION_METRIC_NAME = METRIC_PREFIX + "contention";
     public static final String MOD_SEQ_CONDITION = "modSeqCondition";
     private final long maxModSeqRetries;
 
@@ -87,14 +94,21 @@ public class CassandraModSeqProvider implements ModSeqProvider {
     private final PreparedStatement select;
     private final PreparedStatement update;
     private final PreparedStatement insert;
+    private final Metric contentionMetric;
+    private final SequenceLeaser<CassandraId> leaser;
 
     @Inject
-    public CassandraModSeqProvider(Session session, CassandraConfiguration cassandraConfiguration) {
+    public CassandraModSeqProvider(Session session, CassandraConfiguration cassandraConfiguration, MetricFactory metricFactory) {
         this.cassandraAsyncExecutor = new CassandraAsyncExecutor(session);
         this.maxModSeqRetries = cassandraConfiguration.getModSeqMaxRetry();
         this.insert = prepareInsert(session);
         this.update = prepareUpdate(session);
         this.select = prepareSelect(session);
+        this.contentionMetric = metricFactory.generate(CONTENTION_METRIC_NAME);
+        this.leaser = new SequenceLeaser<>(this::reserveModSeqs,
+            cassandraConfiguration.getSequenceLeaseMaxSize(),
+            metricFactory.generate(LEASES_METRIC_NAME),
+            metricFactory.generate(LEASED_MODSEQS_METRIC_NAME));
     }
 
     private PreparedStatement prepareInsert(Session session) {
@@ -151,8 +165,8 @@ public class CassandraModSeqProvider implements ModSeqProvider {
             .map(maybeRow -> maybeRow.map(row -> new ModSeq(row.getLong(NEXT_MODSEQ))));
     }
 
-    private Mono<ModSeq> tryInsertModSeq(CassandraId mailboxId, ModSeq modSeq) {
-        ModSeq nextModSeq = modSeq.next();
+    private Mono<ModSeq> tryInsertModSeq(CassandraId mailboxId, ModSeq modSeq, int count) {
+        ModSeq nextModSeq = modSeq.next(count);
         return cassandraAsyncExecutor.executeReturnApplied(
             insert.bind()
                 .setUUID(MAILBOX_ID, mailboxId.asUuid())
@@ -160,8 +174,8 @@ public class CassandraModSeqProvider implements ModSeqProvider {
             .flatMap(success -> successToModSeq(nextModSeq, success));
     }
 
-    private Mono<ModSeq> tryUpdateModSeq(CassandraId mailboxId, ModSeq modSeq) {
-        ModSeq nextModSeq = modSeq.next();
+    private Mono<ModSeq> tryUpdateModSeq(CassandraId mailboxId, ModSeq modSeq, int count) {
+        ModSeq nextModSeq = modSeq.next(count);
         return cassandraAsyncExecutor.executeReturnApplied(
             update.bind()
                 .setUUID(MAILBOX_ID, mailboxId.asUuid())
@@ -173,28 +187,33 @@ public class CassandraModSeqProvider implements ModSeqProvider {
     private Mono<ModSeq> successToModSeq(ModSeq modSeq, Boolean success) {
         return Mono.just(success)
             .filter(FunctionalUtils.toPredicate(Function.identity()))
-            .map(any -> modSeq);
+            .map(any -> modSeq)
+            .switchIfEmpty(Mono.fromRunnable(contentionMetric::increment));
     }
 
     public Mono<Long> nextModSeq(CassandraId mailboxId) {
+        return leaser.next(mailboxId);
+    }
+
+    private Mono<Long> reserveModSeqs(CassandraId mailboxId, int count) {
         return findHighestModSeq(mailboxId)
             .flatMap(maybeHighestModSeq -> maybeHighestModSeq
-                        .map(highestModSeq -> tryUpdateModSeq(mailboxId, highestModSeq))
-                        .orElseGet(() -> tryInsertModSeq(mailboxId, FIRST_MODSEQ)))
-            .switchIfEmpty(handleRetries(mailboxId))
+                        .map(highestModSeq -> tryUpdateModSeq(mailboxId, highestModSeq, count))
+                        .orElseGet(() -> tryInsertModSeq(mailboxId, FIRST_MODSEQ, count)))
+            .switchIfEmpty(handleRetries(mailboxId, count))
             .map(ModSeq::getValue);
     }
 
-    private Mono<ModSeq> handleRetries(CassandraId mailboxId) {
-        return tryFindThenUpdateOnce(mailboxId)
+    private Mono<ModSeq> handleRetries(CassandraId mailboxId, int count) {
+        return tryFindThenUpdateOnce(mailboxId, count)
             .single()
             .retryBackoff(maxModSeqRetries, Duration.ofMillis(2));
     }
 
-    private Mono<ModSeq> tryFindThenUpdateOnce(CassandraId mailboxId) {
+    private Mono<ModSeq> tryFindThenUpdateOnce(CassandraId mailboxId, int count) {
         return Mono.defer(() -> findHighestModSeq(mailboxId)
             .flatMap(Mono::justOrEmpty)
-            .flatMap(highestModSeq -> tryUpdateModSeq(mailboxId, highestModSeq)));
+            .flatMap(highestModSeq -> tryUpdateModSeq(mailboxId, highestModSeq, count)));
     }
 
     private static class ModSeq {
@@ -204,8 +223,8 @@ public class CassandraModSeqProvider implements ModSeqProvider {
             this.value = value;
         }
         
-        public ModSeq next() {
-            return new ModSeq(value + 1);
+        public ModSeq next(int count) {
+            return new ModSeq(value + count);
         }
         
         public long getValue() {
@@ -38,16 +38,23 @@ import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.cassandra.ids.CassandraId;
+import org.apache.james.mailbox.cassandra.mail.utils.SequenceLeaser;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.store.mail.UidProvider;
 import org.apache.james.mailbox.store.mail.model.Mailbox;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
 
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Session;
 import reactor.core.publisher.Mono;
 
 public class CassandraUidProvider implements UidProvider {
+    static final String METRIC_PREFIX = "cassandraUidProvider:";
+    static final String LEASES_METRIC_NAME = METRIC_PREFIX + "leases";
+    static final String LEASED_UIDS_METRIC_NAME = METRIC_PREFIX + "leasedUids";
+    static final String CONTENTION_METRIC_NAME = METRIC_PREFIX + "contention";
     private static final String CONDITION = "Condition";
 
     private final CassandraAsyncExecutor executor;
@@ -55,14 +62,21 @@ public class CassandraUidProvider implements UidProvider {
     private final PreparedStatement insertStatement;
     private final PreparedStatement updateStatement;
     private final PreparedStatement selectStatement;
+    private final Metric contentionMetric;
+    private final SequenceLeaser<CassandraId> leaser;
 
     @Inject
-    public CassandraUidProvider(Session session, CassandraConfiguration cassandraConfiguration) {
+    public CassandraUidProvider(Session session, CassandraConfiguration cassandraConfiguration, MetricFactory metricFactory) {
         this.executor = new CassandraAsyncExecutor(session);
         this.maxUidRetries = cassandraConfiguration.getUidMaxRetry();
         this.selectStatement = prepareSelect(session);
         this.updateStatement = prepareUpdate(session);
         this.insertStatement = prepareInsert(session);
+        this.contentionMetric = metricFactory.generate(CONTENTION_METRIC_NAME);
+        this.leaser = new SequenceLeaser<>(this::reserveUids,
+            cassandraConfiguration.getSequenceLeaseMaxSize(),
+            metricFactory.generate(LEASES_METRIC_NAME),
+            metricFactory.generate(LEASED_UIDS_METRIC_NAME));
     }
 
     private PreparedStatement prepareSelect(Session session) {
@@ -80,7 +94,7 @@ public class CassandraUidProvider implements UidProvider {
 
     private PreparedStatement prepareInsert(Session session) {
         return session.prepare(insertInto(TABLE_NAME)
-            .value(NEXT_UID, MessageUid.MIN_VALUE.asLong())
+            .value(NEXT_UID, bindMarker(NEXT_UID))
             .value(MAILBOX_ID, bindMarker(MAILBOX_ID))
             .ifNotExists());
     }
@@ -99,14 +113,20 @@ public class CassandraUidProvider implements UidProvider {
     }
 
     public Mono<MessageUid> nextUid(CassandraId cassandraId) {
+        return leaser.next(cassandraId)
+            .map(MessageUid::of);
+    }
+
+    private Mono<Long> reserveUids(CassandraId cassandraId, int count) {
         Mono<MessageUid> updateUid = findHighestUid(cassandraId)
-            .flatMap(messageUid -> tryUpdateUid(cassandraId, messageUid));
+            .flatMap(messageUid -> tryUpdateUid(cassandraId, messageUid, count));
 
         return updateUid
-            .switchIfEmpty(tryInsert(cassandraId))
+            .switchIfEmpty(tryInsert(cassandraId, count))
             .switchIfEmpty(updateUid)
             .single()
-            .retry(maxUidRetries);
+            .retry(maxUidRetries)
+            .map(MessageUid::asLong);
     }
 
     @Override
@@ -122,8 +142,8 @@ public class CassandraUidProvider implements UidProvider {
             .map(row -> MessageUid.of(row.getLong(NEXT_UID))));
     }
 
-    private Mono<MessageUid> tryUpdateUid(CassandraId mailboxId, MessageUid uid) {
-        MessageUid nextUid = uid.next();
+    private Mono<MessageUid> tryUpdateUid(CassandraId mailboxId, MessageUid uid, int count) {
+        MessageUid nextUid = MessageUid.of(uid.asLong() + count);
         return Mono.defer(() -> executor.executeReturnApplied(
                 updateStatement.bind()
                         .setUUID(MAILBOX_ID, mailboxId.asUuid())
@@ -132,17 +152,20 @@ public class CassandraUidProvider implements UidProvider {
                 .flatMap(success -> successToUid(nextUid, success)));
     }
 
-    private Mono<MessageUid> tryInsert(CassandraId mailboxId) {
+    private Mono<MessageUid> tryInsert(CassandraId mailboxId, int count) {
+        MessageUid highestUid = MessageUid.of(MessageUid.MIN_VALUE.asLong() + count - 1);
         return Mono.defer(() -> executor.executeReturnApplied(
             insertStatement.bind()
-                .setUUID(MAILBOX_ID, mailboxId.asUuid()))
-            .flatMap(success -> successToUid(MessageUid.MIN_VALUE, success)));
+                .setUUID(MAILBOX_ID, mailboxId.asUuid())
+                .setLong(NEXT_UID, highestUid.asLong()))
+            .flatMap(success -> successToUid(highestUid, success)));
     }
 
     private Mono<MessageUid> successToUid(MessageUid uid, Boolean success) {
         if (success) {
             return Mono.just(uid);
         }
+        contentionMetric.increment();
         return Mono.empty();
     }
 
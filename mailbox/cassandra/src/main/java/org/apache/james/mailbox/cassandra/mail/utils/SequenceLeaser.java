@@ -0,0 +1,138 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.cassandra.mail.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.james.metrics.api.Metric;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Hands out values of a per key sequence (UIDs, ModSeqs) while reserving them by ranges.
+ *
+ * Requests for a key arriving while a reservation is in flight are queued. Once the reservation completes, all
+ * queued requests (up to maxLeaseSize) are served by a single reservation of the matching range size.
+ *
+ * The range reserved is always the exact number of pending requests: no value is kept aside for later use. Hence
+ * values handed out by several nodes keep increasing in reservation order, and the stored high watermark is always
+ * the last value handed out.
+ */
+public class SequenceLeaser<K> {
+
+    @FunctionalInterface
+    public interface RangeReservation<K> {
+        /**
+         * Atomically reserves count consecutive values following the stored high watermark.
+         *
+         * @return the highest reserved value
+         */
+        Mono<Long> reserve(K key, int count);
+    }
+
+    private static class PendingRequests {
+        private final List<MonoSink<Long>> waiters = new ArrayList<>();
+
+        private Optional<List<MonoSink<Long>>> drain(int maxLeaseSize) {
+            if (waiters.isEmpty()) {
+                return Optional.empty();
+            }
+            List<MonoSink<Long>> drained = waiters.subList(0, Math.min(maxLeaseSize, waiters.size()));
+            List<MonoSink<Long>> batch = ImmutableList.copyOf(drained);
+            drained.clear();
+            return Optional.of(batch);
+        }
+    }
+
+    private final RangeReservation<K> rangeReservation;
+    private final int maxLeaseSize;
+    private final Metric leaseMetric;
+    private final Metric leasedValuesMetric;
+    private final ConcurrentHashMap<K, PendingRequests> pendingRequests;
+
+    public SequenceLeaser(RangeReservation<K> rangeReservation, int maxLeaseSize, Metric leaseMetric, Metric leasedValuesMetric) {
+        Preconditions.checkArgument(maxLeaseSize > 0, "maxLeaseSize needs to be strictly positive");
+
+        this.rangeReservation = rangeReservation;
+        this.maxLeaseSize = maxLeaseSize;
+        this.leaseMetric = leaseMetric;
+        this.leasedValuesMetric = leasedValuesMetric;
+        this.pendingRequests = new ConcurrentHashMap<>();
+    }
+
+    public Mono<Long> next(K key) {
+        return Mono.create(sink -> enqueue(key, sink));
+    }
+
+    private void enqueue(K key, MonoSink<Long> sink) {
+        AtomicReference<Optional<List<MonoSink<Long>>>> toReserve = new AtomicReference<>(Optional.empty());
+
+        pendingRequests.compute(key, (k, pending) -> {
+            if (pending == null) {
+                // No reservation in flight for this key: serve this request right away
+                toReserve.set(Optional.of(ImmutableList.of(sink)));
+                return new PendingRequests();
+            }
+            pending.waiters.add(sink);
+            return pending;
+        });
+
+        toReserve.get().ifPresent(batch -> reserve(key, batch));
+    }
+
+    private void reserve(K key, List<MonoSink<Long>> batch) {
+        int leaseSize = batch.size();
+        leaseMetric.increment();
+        leasedValuesMetric.add(leaseSize);
+
+        Mono.defer(() -> rangeReservation.reserve(key, leaseSize))
+            .switchIfEmpty(Mono.defer(() -> Mono.<Long>error(new IllegalStateException("Could not reserve " + leaseSize + " values for " + key))))
+            .doFinally(any -> reservationDone(key))
+            .subscribe(
+                highest -> distribute(batch, highest),
+                error -> batch.forEach(sink -> sink.error(error)));
+    }
+
+    private void distribute(List<MonoSink<Long>> batch, long highest) {
+        long lowest = highest - batch.size() + 1;
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).success(lowest + i);
+        }
+    }
+
+    private void reservationDone(K key) {
+        AtomicReference<Optional<List<MonoSink<Long>>>> toReserve = new AtomicReference<>(Optional.empty());
+
+        pendingRequests.computeIfPresent(key, (k, pending) -> {
+            Optional<List<MonoSink<Long>>> batch = pending.drain(maxLeaseSize);
+            toReserve.set(batch);
+            return batch.map(any -> pending).orElse(null);
+        });
+
+        toReserve.get().ifPresent(batch -> reserve(key, batch));
+    }
+}
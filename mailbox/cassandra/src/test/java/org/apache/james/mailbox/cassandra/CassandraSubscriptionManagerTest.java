@@ -26,6 +26,7 @@ import org.apache.james.backends.cassandra.utils.CassandraUtils;
 import org.apache.james.blob.api.BlobStore;
 import org.apache.james.mailbox.AbstractSubscriptionManagerTest;
 import org.apache.james.mailbox.SubscriptionManager;
+import org.apache.james.mailbox.caching.NoopMailboxByPathCache;
 import org.apache.james.mailbox.cassandra.mail.CassandraACLMapper;
 import org.apache.james.mailbox.cassandra.mail.CassandraApplicableFlagDAO;
 import org.apache.james.mailbox.cassandra.mail.CassandraAttachmentDAO;
@@ -129,6 +130,7 @@ public class CassandraSubscriptionManagerTest extends AbstractSubscriptionManage
                 aclMapper,
                 userMailboxRightsDAO,
                 CassandraUtils.WITH_DEFAULT_CONFIGURATION,
-                CassandraConfiguration.DEFAULT_CONFIGURATION));
+                CassandraConfiguration.DEFAULT_CONFIGURATION,
+                new NoopMailboxByPathCache()));
     }
 }
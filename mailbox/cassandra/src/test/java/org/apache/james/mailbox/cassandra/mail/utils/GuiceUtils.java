@@ -26,8 +26,12 @@ import org.apache.james.blob.api.BlobId;
 import org.apache.james.blob.api.BlobStore;
 import org.apache.james.blob.api.HashBlobId;
 import org.apache.james.blob.cassandra.CassandraBlobsDAO;
+import org.apache.james.mailbox.caching.MailboxByPathCache;
+import org.apache.james.mailbox.caching.NoopMailboxByPathCache;
 import org.apache.james.mailbox.cassandra.ids.CassandraMessageId;
 import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.NoopMetricFactory;
 
 import com.datastax.driver.core.Session;
 import com.google.inject.Guice;
@@ -52,6 +56,8 @@ public class GuiceUtils {
                 binder -> binder.bind(BlobStore.class).to(CassandraBlobsDAO.class),
                 binder -> binder.bind(Session.class).toInstance(session),
                 binder -> binder.bind(CassandraTypesProvider.class).toInstance(typesProvider),
-                binder -> binder.bind(CassandraConfiguration.class).toInstance(configuration)));
+                binder -> binder.bind(CassandraConfiguration.class).toInstance(configuration),
+                binder -> binder.bind(MetricFactory.class).to(NoopMetricFactory.class),
+                binder -> binder.bind(MailboxByPathCache.class).to(NoopMailboxByPathCache.class)));
     }
 }
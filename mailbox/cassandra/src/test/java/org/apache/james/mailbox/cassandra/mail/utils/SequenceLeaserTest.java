@@ -0,0 +1,122 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.cassandra.mail.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import org.apache.james.metrics.api.NoopMetricFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.steveash.guavate.Guavate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class SequenceLeaserTest {
+    private static final String KEY = "key";
+    private static final int MAX_LEASE_SIZE = 8;
+
+    private AtomicLong highWatermark;
+    private ConcurrentLinkedQueue<Integer> leaseSizes;
+    private AtomicBoolean failNextReservation;
+    private SequenceLeaser<String> testee;
+
+    @BeforeEach
+    void setUp() {
+        highWatermark = new AtomicLong();
+        leaseSizes = new ConcurrentLinkedQueue<>();
+        failNextReservation = new AtomicBoolean(false);
+        testee = new SequenceLeaser<>(this::reserve, MAX_LEASE_SIZE,
+            new NoopMetricFactory.NoopMetric(), new NoopMetricFactory.NoopMetric());
+    }
+
+    private Mono<Long> reserve(String key, int count) {
+        leaseSizes.add(count);
+        if (failNextReservation.getAndSet(false)) {
+            return Mono.error(new RuntimeException());
+        }
+        return Mono.delay(Duration.ofMillis(10))
+            .map(any -> highWatermark.addAndGet(count));
+    }
+
+    @Test
+    void nextShouldReturnConsecutiveValuesWhenSequentialCalls() {
+        assertThat(testee.next(KEY).block()).isEqualTo(1L);
+        assertThat(testee.next(KEY).block()).isEqualTo(2L);
+        assertThat(testee.next(KEY).block()).isEqualTo(3L);
+    }
+
+    @Test
+    void nextShouldNotLeaveGapsWhenConcurrentCalls() {
+        List<Long> values = Flux.range(0, 100)
+            .flatMap(any -> testee.next(KEY))
+            .collectSortedList()
+            .block();
+
+        assertThat(values).containsExactlyElementsOf(LongStream.rangeClosed(1, 100).boxed().collect(Guavate.toImmutableList()));
+        assertThat(highWatermark.get()).isEqualTo(100L);
+    }
+
+    @Test
+    void nextShouldGroupConcurrentCallsInLeases() {
+        Flux.range(0, 100)
+            .flatMap(any -> testee.next(KEY))
+            .blockLast();
+
+        assertThat(leaseSizes.size()).isLessThan(100);
+    }
+
+    @Test
+    void leasesShouldNotExceedMaxLeaseSize() {
+        Flux.range(0, 100)
+            .flatMap(any -> testee.next(KEY))
+            .blockLast();
+
+        assertThat(leaseSizes).allMatch(size -> size <= MAX_LEASE_SIZE);
+    }
+
+    @Test
+    void nextShouldPropagateReservationErrors() {
+        failNextReservation.set(true);
+
+        assertThatThrownBy(() -> testee.next(KEY).block())
+            .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void nextShouldRecoverAfterReservationErrors() {
+        failNextReservation.set(true);
+        try {
+            testee.next(KEY).block();
+        } catch (RuntimeException e) {
+            // expected
+        }
+
+        assertThat(testee.next(KEY).block()).isEqualTo(1L);
+    }
+}
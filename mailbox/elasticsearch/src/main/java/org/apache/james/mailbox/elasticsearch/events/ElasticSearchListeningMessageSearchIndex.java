@@ -50,6 +50,7 @@ import org.apache.james.mailbox.store.SessionProvider;
 import org.apache.james.mailbox.store.mail.model.Mailbox;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 import org.apache.james.mailbox.store.search.ListeningMessageSearchIndex;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,6 +59,7 @@ import com.github.fge.lambdas.Throwing;
 import com.github.steveash.guavate.Guavate;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 public class ElasticSearchListeningMessageSearchIndex extends ListeningMessageSearchIndex {
     public static class ElasticSearchListeningMessageSearchIndexGroup extends Group {}
@@ -137,6 +139,26 @@ public class ElasticSearchListeningMessageSearchIndex extends ListeningMessageSe
         elasticSearchIndexer.index(indexIdFor(mailbox, message.getUid()), jsonContent);
     }
 
+    @Override
+    public void add(MailboxSession session, Mailbox mailbox, List<MailboxMessage> messages) throws JsonProcessingException, MailboxException {
+        LOGGER.info("Indexing {} messages of mailbox {}-{} of user {}",
+            messages.size(),
+            mailbox.getName(),
+            mailbox.getMailboxId(),
+            session.getUser().asString());
+
+        ImmutableMap.Builder<String, String> contentsById = ImmutableMap.builder();
+        for (MailboxMessage message : messages) {
+            contentsById.put(indexIdFor(mailbox, message.getUid()), generateIndexedJson(mailbox, message, session));
+        }
+        BulkResponse response = elasticSearchIndexer.index(contentsById.build())
+            .orElseThrow(() -> new MailboxException("Invalid bulk indexing request for mailbox " + mailbox.getMailboxId().serialize()));
+        if (response.hasFailures()) {
+            LOGGER.error("Failures while indexing messages of mailbox {}: {}", mailbox.getMailboxId().serialize(), response.buildFailureMessage());
+            throw new MailboxException("Failed to index some messages of mailbox " + mailbox.getMailboxId().serialize());
+        }
+    }
+
     private String generateIndexedJson(Mailbox mailbox, MailboxMessage message, MailboxSession session) throws JsonProcessingException {
         try {
             return messageToElasticSearchJson.convertToJson(message, ImmutableList.of(session.getUser()));
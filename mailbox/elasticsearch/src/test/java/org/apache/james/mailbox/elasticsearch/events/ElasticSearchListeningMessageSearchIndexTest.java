@@ -30,6 +30,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.mail.Flags;
@@ -43,6 +44,7 @@ import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.elasticsearch.json.MessageToElasticSearchJson;
 import org.apache.james.mailbox.elasticsearch.search.ElasticSearchSearcher;
 import org.apache.james.mailbox.events.Group;
+import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.model.TestId;
 import org.apache.james.mailbox.model.UpdatedFlags;
 import org.apache.james.mailbox.store.MailboxSessionMapperFactory;
@@ -60,6 +62,7 @@ import com.fasterxml.jackson.core.JsonGenerationException;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 
 public class ElasticSearchListeningMessageSearchIndexTest {
@@ -134,6 +137,46 @@ public class ElasticSearchListeningMessageSearchIndexTest {
         verify(elasticSearchIndexer).index(eq(ELASTIC_SEARCH_ID), eq(EXPECTED_JSON_CONTENT));
     }
 
+    @Test
+    public void addBatchShouldIndexInBulk() throws Exception {
+        MailboxMessage message1 = mockedMessage(MESSAGE_UID);
+        MailboxMessage message2 = mockedMessage(MessageUid.of(2));
+        when(messageToElasticSearchJson.convertToJson(any(MailboxMessage.class), eq(users)))
+            .thenReturn(EXPECTED_JSON_CONTENT);
+        BulkResponse response = mock(BulkResponse.class);
+        when(response.hasFailures()).thenReturn(false);
+        when(elasticSearchIndexer.index(any(Map.class))).thenReturn(Optional.of(response));
+
+        testee.add(session, mailbox, ImmutableList.of(message1, message2));
+
+        verify(elasticSearchIndexer).index(ImmutableMap.of(ELASTIC_SEARCH_ID, EXPECTED_JSON_CONTENT, "12:2", EXPECTED_JSON_CONTENT));
+    }
+
+    @Test
+    public void addBatchShouldThrowWhenSomeDocumentsFailToBeIndexed() throws Exception {
+        MailboxMessage message = mockedMessage(MESSAGE_UID);
+        when(messageToElasticSearchJson.convertToJson(eq(message), eq(users)))
+            .thenReturn(EXPECTED_JSON_CONTENT);
+        BulkResponse response = mock(BulkResponse.class);
+        when(response.hasFailures()).thenReturn(true);
+        when(response.buildFailureMessage()).thenReturn("failure");
+        when(elasticSearchIndexer.index(any(Map.class))).thenReturn(Optional.of(response));
+
+        assertThatThrownBy(() -> testee.add(session, mailbox, ImmutableList.of(message)))
+            .isInstanceOf(MailboxException.class);
+    }
+
+    @Test
+    public void addBatchShouldThrowWhenBulkRequestIsInvalid() throws Exception {
+        MailboxMessage message = mockedMessage(MESSAGE_UID);
+        when(messageToElasticSearchJson.convertToJson(eq(message), eq(users)))
+            .thenReturn(EXPECTED_JSON_CONTENT);
+        when(elasticSearchIndexer.index(any(Map.class))).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> testee.add(session, mailbox, ImmutableList.of(message)))
+            .isInstanceOf(MailboxException.class);
+    }
+
     private MailboxMessage mockedMessage(MessageUid uid) {
         MailboxMessage message = mock(MailboxMessage.class);
         when(message.getUid()).thenReturn(uid);
@@ -18,6 +18,8 @@
  ****************************************************************/
 package org.apache.james.mailbox.jpa;
 
+import java.util.Optional;
+
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -28,6 +30,7 @@ import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.jpa.mail.JPAAnnotationMapper;
 import org.apache.james.mailbox.jpa.mail.JPAMailboxMapper;
 import org.apache.james.mailbox.jpa.mail.JPAMessageMapper;
+import org.apache.james.mailbox.jpa.mail.model.openjpa.JPABlobContentStore;
 import org.apache.james.mailbox.jpa.user.JPASubscriptionMapper;
 import org.apache.james.mailbox.store.MailboxSessionMapperFactory;
 import org.apache.james.mailbox.store.mail.AnnotationMapper;
@@ -47,23 +50,38 @@ public class JPAMailboxSessionMapperFactory extends MailboxSessionMapperFactory
     private final EntityManagerFactory entityManagerFactory;
     private final UidProvider uidProvider;
     private final ModSeqProvider modSeqProvider;
+    private final Optional<JPABlobContentStore> blobContentStore;
 
     @Inject
     public JPAMailboxSessionMapperFactory(EntityManagerFactory entityManagerFactory, UidProvider uidProvider, ModSeqProvider modSeqProvider) {
+        this(entityManagerFactory, uidProvider, modSeqProvider, Optional.empty());
+    }
+
+    /**
+     * Message content is stored in the supplied {@link JPABlobContentStore} instead of the JAMES_MAIL table.
+     */
+    public JPAMailboxSessionMapperFactory(EntityManagerFactory entityManagerFactory, UidProvider uidProvider, ModSeqProvider modSeqProvider,
+                                          JPABlobContentStore blobContentStore) {
+        this(entityManagerFactory, uidProvider, modSeqProvider, Optional.of(blobContentStore));
+    }
+
+    private JPAMailboxSessionMapperFactory(EntityManagerFactory entityManagerFactory, UidProvider uidProvider, ModSeqProvider modSeqProvider,
+                                           Optional<JPABlobContentStore> blobContentStore) {
         this.entityManagerFactory = entityManagerFactory;
         this.uidProvider = uidProvider;
         this.modSeqProvider = modSeqProvider;
+        this.blobContentStore = blobContentStore;
         createEntityManager().close();   
     }
     
     @Override
     public MailboxMapper createMailboxMapper(MailboxSession session) {
-        return new JPAMailboxMapper(entityManagerFactory);
+        return new JPAMailboxMapper(entityManagerFactory, blobContentStore);
     }
 
     @Override
     public MessageMapper createMessageMapper(MailboxSession session) {
-        return new JPAMessageMapper(session, uidProvider, modSeqProvider, entityManagerFactory);
+        return new JPAMessageMapper(session, uidProvider, modSeqProvider, entityManagerFactory, blobContentStore);
     }
 
     @Override
@@ -0,0 +1,67 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.jpa.mail;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.james.mailbox.jpa.mail.model.openjpa.JPABlobContentStore;
+import org.apache.james.mailbox.jpa.mail.model.openjpa.JPAMailboxMessage;
+import org.apache.james.mailbox.store.mail.model.MailboxMessage;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Tracks the blobs of the messages deleted by a mapper, so that they get deleted from the {@link JPABlobContentStore}
+ * once the transaction removing the messages is committed.
+ *
+ * This class is not thread-safe, as the mappers using it.
+ */
+class JPABlobContentDeletions {
+    private final Optional<JPABlobContentStore> blobContentStore;
+    private final Set<String> blobIds;
+
+    JPABlobContentDeletions(Optional<JPABlobContentStore> blobContentStore) {
+        this.blobContentStore = blobContentStore;
+        this.blobIds = new HashSet<>();
+    }
+
+    void add(Collection<? extends MailboxMessage> messages) {
+        messages.forEach(this::add);
+    }
+
+    void add(MailboxMessage message) {
+        if (blobContentStore.isPresent() && message instanceof JPAMailboxMessage) {
+            blobIds.addAll(((JPAMailboxMessage) message).getBlobIds());
+        }
+    }
+
+    void clear() {
+        blobIds.clear();
+    }
+
+    void delete() {
+        ImmutableSet<String> deletedBlobIds = ImmutableSet.copyOf(blobIds);
+        blobIds.clear();
+        blobContentStore.ifPresent(store -> store.delete(deletedBlobIds));
+    }
+}
@@ -20,6 +20,7 @@
 package org.apache.james.mailbox.jpa.mail;
 
 import java.util.List;
+import java.util.Optional;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityManagerFactory;
@@ -34,6 +35,9 @@ import org.apache.james.mailbox.exception.MailboxNotFoundException;
 import org.apache.james.mailbox.jpa.JPAId;
 import org.apache.james.mailbox.jpa.JPATransactionalMapper;
 import org.apache.james.mailbox.jpa.mail.model.JPAMailbox;
+import org.apache.james.mailbox.jpa.mail.model.JPAMailboxCounter;
+import org.apache.james.mailbox.jpa.mail.model.openjpa.JPABlobContentStore;
+import org.apache.james.mailbox.jpa.mail.model.openjpa.JPAMailboxMessage;
 import org.apache.james.mailbox.model.MailboxACL;
 import org.apache.james.mailbox.model.MailboxACL.Right;
 import org.apache.james.mailbox.model.MailboxId;
@@ -51,9 +55,19 @@ public class JPAMailboxMapper extends JPATransactionalMapper implements MailboxM
 
     private static final char SQL_WILDCARD_CHAR = '%';
     private String lastMailboxName;
+    private final JPABlobContentDeletions blobContentDeletions;
     
     public JPAMailboxMapper(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, Optional.empty());
+    }
+
+    /**
+     * When a {@link JPABlobContentStore} is supplied, the blobs of the messages of deleted mailboxes are deleted from
+     * it once the transaction deleting the mailbox is committed.
+     */
+    public JPAMailboxMapper(EntityManagerFactory entityManagerFactory, Optional<JPABlobContentStore> blobContentStore) {
         super(entityManagerFactory);
+        this.blobContentDeletions = new JPABlobContentDeletions(blobContentStore);
     }
 
     /**
@@ -76,6 +90,13 @@ public class JPAMailboxMapper extends JPATransactionalMapper implements MailboxM
             }
             throw new MailboxException("Commit of transaction failed", e);
         }
+        blobContentDeletions.delete();
+    }
+
+    @Override
+    protected void rollback() throws MailboxException {
+        blobContentDeletions.clear();
+        super.rollback();
     }
     
     @Override
@@ -87,11 +108,15 @@ public class JPAMailboxMapper extends JPATransactionalMapper implements MailboxM
 
             this.lastMailboxName = mailbox.getName();
             JPAMailbox persistedMailbox = JPAMailbox.from(mailbox);
+            boolean isNewMailbox = getEntityManager().find(JPAMailbox.class, persistedMailbox.getMailboxId().getRawId()) == null;
 
             getEntityManager().persist(persistedMailbox);
             if (!(mailbox instanceof JPAMailbox)) {
                 mailbox.setMailboxId(persistedMailbox.getMailboxId());
             }
+            if (isNewMailbox) {
+                getEntityManager().persist(new JPAMailboxCounter(persistedMailbox.getMailboxId().getRawId(), 0, 0));
+            }
             return mailbox.getMailboxId();
         } catch (PersistenceException e) {
             throw new MailboxException("Save of mailbox " + mailbox.getName() + " failed", e);
@@ -147,7 +172,11 @@ public class JPAMailboxMapper extends JPATransactionalMapper implements MailboxM
     public void delete(Mailbox mailbox) throws MailboxException {
         try {  
             JPAId mailboxId = (JPAId) mailbox.getMailboxId();
+            blobContentDeletions.add(getEntityManager().createNamedQuery("findMessagesWithContentInBlobStoreInMailbox", JPAMailboxMessage.class)
+                .setParameter("idParam", mailboxId.getRawId())
+                .getResultList());
             getEntityManager().createNamedQuery("deleteMessages").setParameter("idParam", mailboxId.getRawId()).executeUpdate();
+            getEntityManager().createNamedQuery("deleteMailboxCounter").setParameter("idParam", mailboxId.getRawId()).executeUpdate();
             JPAMailbox jpaMailbox = getEntityManager().find(JPAMailbox.class, mailboxId.getRawId());
             getEntityManager().remove(jpaMailbox);
         } catch (PersistenceException e) {
@@ -185,6 +214,7 @@ public class JPAMailboxMapper extends JPATransactionalMapper implements MailboxM
     
     public void deleteAllMailboxes() throws MailboxException {
         try {
+            getEntityManager().createNamedQuery("deleteAllMailboxCounters").executeUpdate();
             getEntityManager().createNamedQuery("deleteAllMailboxes").executeUpdate();
         } catch (PersistenceException e) {
             throw new MailboxException("Delete of mailboxes failed", e);
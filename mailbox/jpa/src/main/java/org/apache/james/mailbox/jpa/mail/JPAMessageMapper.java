@@ -18,6 +18,7 @@
  ****************************************************************/
 package org.apache.james.mailbox.jpa.mail;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -35,7 +36,9 @@ import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.jpa.JPAId;
 import org.apache.james.mailbox.jpa.JPATransactionalMapper;
 import org.apache.james.mailbox.jpa.mail.model.JPAMailbox;
+import org.apache.james.mailbox.jpa.mail.model.JPAMailboxCounter;
 import org.apache.james.mailbox.jpa.mail.model.openjpa.AbstractJPAMailboxMessage;
+import org.apache.james.mailbox.jpa.mail.model.openjpa.JPABlobContentStore;
 import org.apache.james.mailbox.jpa.mail.model.openjpa.JPAEncryptedMailboxMessage;
 import org.apache.james.mailbox.jpa.mail.model.openjpa.JPAMailboxMessage;
 import org.apache.james.mailbox.jpa.mail.model.openjpa.JPAStreamingMailboxMessage;
@@ -67,17 +70,53 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
     private static final int UNLIMITED = -1;
 
     private final MessageUtils messageMetadataMapper;
+    private final Optional<JPABlobContentStore> blobContentStore;
+    private final JPABlobContentDeletions blobContentDeletions;
 
     public JPAMessageMapper(MailboxSession mailboxSession, UidProvider uidProvider, ModSeqProvider modSeqProvider, EntityManagerFactory entityManagerFactory) {
+        this(mailboxSession, uidProvider, modSeqProvider, entityManagerFactory, Optional.empty());
+    }
+
+    /**
+     * When a {@link JPABlobContentStore} is supplied, the content of added messages is stored in it and only the
+     * corresponding blob ids are kept in the database.
+     */
+    public JPAMessageMapper(MailboxSession mailboxSession, UidProvider uidProvider, ModSeqProvider modSeqProvider, EntityManagerFactory entityManagerFactory,
+                            Optional<JPABlobContentStore> blobContentStore) {
         super(entityManagerFactory);
         this.messageMetadataMapper = new MessageUtils(mailboxSession, uidProvider, modSeqProvider);
+        this.blobContentStore = blobContentStore;
+        this.blobContentDeletions = new JPABlobContentDeletions(blobContentStore);
+    }
+
+    /**
+     * Blobs of the messages deleted by the transaction are deleted once it is committed. They belong to these messages
+     * only.
+     */
+    @Override
+    protected void commit() throws MailboxException {
+        super.commit();
+        blobContentDeletions.delete();
+    }
+
+    @Override
+    protected void rollback() throws MailboxException {
+        blobContentDeletions.clear();
+        super.rollback();
     }
 
     @Override
     public MailboxCounters getMailboxCounters(Mailbox mailbox) throws MailboxException {
+        Optional<JPAMailboxCounter> counter = retrieveCounter(mailbox);
+        if (counter.isPresent()) {
+            return MailboxCounters.builder()
+                .count(counter.get().getMessageCount())
+                .unseen(counter.get().getUnseenCount())
+                .build();
+        }
         return MailboxCounters.builder()
-            .count(countMessagesInMailbox(mailbox))
-            .unseen(countUnseenMessagesInMailbox(mailbox))
+            .count(computeMessageCount(mailbox))
+            .unseen(computeUnseenMessageCount(mailbox))
             .build();
     }
 
@@ -111,6 +150,7 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
                 results = findMessagesInMailboxBetweenUIDs(mailboxId, from, to, max);
                 break;
             }
+            results.forEach(this::readContentFromBlobStore);
 
             return results.iterator();
 
@@ -121,6 +161,64 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
 
     @Override
     public long countMessagesInMailbox(Mailbox mailbox) throws MailboxException {
+        Optional<JPAMailboxCounter> counter = retrieveCounter(mailbox);
+        if (counter.isPresent()) {
+            return counter.get().getMessageCount();
+        }
+        return computeMessageCount(mailbox);
+    }
+
+    @Override
+    public long countUnseenMessagesInMailbox(Mailbox mailbox) throws MailboxException {
+        Optional<JPAMailboxCounter> counter = retrieveCounter(mailbox);
+        if (counter.isPresent()) {
+            return counter.get().getUnseenCount();
+        }
+        return computeUnseenMessageCount(mailbox);
+    }
+
+    /**
+     * Counters are maintained for mailboxes created with them. Older mailboxes have their messages counted
+     * until {@link org.apache.james.mailbox.jpa.mail.task.RecomputeMailboxCountersTask} initializes their counters.
+     */
+    @SuppressWarnings("unchecked")
+    private Optional<JPAMailboxCounter> retrieveCounter(Mailbox mailbox) throws MailboxException {
+        try {
+            // Counters are updated in bulk: they are read as values to not be served from the persistence context
+            JPAId mailboxId = (JPAId) mailbox.getMailboxId();
+            List<Object[]> counters = getEntityManager().createNamedQuery("findMailboxCounter")
+                    .setParameter("idParam", mailboxId.getRawId()).getResultList();
+            return counters.stream()
+                .findFirst()
+                .map(counter -> new JPAMailboxCounter(mailboxId.getRawId(), (Long) counter[0], (Long) counter[1]));
+        } catch (PersistenceException e) {
+            throw new MailboxException("Retrieval of counters failed in mailbox " + mailbox, e);
+        }
+    }
+
+    private void incrementCounter(Mailbox mailbox, long countDelta, long unseenDelta) throws MailboxException {
+        if (countDelta == 0 && unseenDelta == 0) {
+            return;
+        }
+        try {
+            JPAId mailboxId = (JPAId) mailbox.getMailboxId();
+            getEntityManager().createNamedQuery("incrementMailboxCounter")
+                    .setParameter("idParam", mailboxId.getRawId())
+                    .setParameter("countParam", countDelta)
+                    .setParameter("unseenParam", unseenDelta)
+                    .executeUpdate();
+        } catch (PersistenceException e) {
+            throw new MailboxException("Update of counters failed in mailbox " + mailbox, e);
+        }
+    }
+
+    private long unseenCount(Collection<? extends MailboxMessage> messages) {
+        return messages.stream()
+            .filter(message -> !message.isSeen())
+            .count();
+    }
+
+    private long computeMessageCount(Mailbox mailbox) throws MailboxException {
         try {
             JPAId mailboxId = (JPAId) mailbox.getMailboxId();
             return (Long) getEntityManager().createNamedQuery("countMessagesInMailbox")
@@ -130,8 +228,7 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
         }
     }
 
-    @Override
-    public long countUnseenMessagesInMailbox(Mailbox mailbox) throws MailboxException {
+    private long computeUnseenMessageCount(Mailbox mailbox) throws MailboxException {
         try {
             JPAId mailboxId = (JPAId) mailbox.getMailboxId();
             return (Long) getEntityManager().createNamedQuery("countUnseenMessagesInMailbox")
@@ -146,6 +243,8 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
         try {
             AbstractJPAMailboxMessage jpaMessage = getEntityManager().find(AbstractJPAMailboxMessage.class, buildKey(mailbox, message));
             getEntityManager().remove(jpaMessage);
+            blobContentDeletions.add(jpaMessage);
+            incrementCounter(mailbox, -1, -unseenCount(ImmutableList.of(jpaMessage)));
 
         } catch (PersistenceException e) {
             throw new MailboxException("Delete of message " + message + " failed in mailbox " + mailbox, e);
@@ -214,11 +313,15 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
         Map<MessageUid, MessageMetaData> data = new HashMap<>();
         List<MessageRange> ranges = MessageRange.toRanges(uids);
 
-        ranges.forEach(range -> {
+        long unseenCount = 0;
+        for (MessageRange range : ranges) {
             List<MailboxMessage> messages = findDeletedMessages(range, mailboxId);
             data.putAll(createMetaData(messages));
+            unseenCount += unseenCount(messages);
+            blobContentDeletions.add(messages);
             deleteDeletedMessages(range, mailboxId);
-        });
+        }
+        incrementCounter(mailbox, -data.size(), -unseenCount);
 
         return data;
     }
@@ -277,8 +380,11 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
     @Override
     public MessageMetaData add(Mailbox mailbox, MailboxMessage message) throws MailboxException {
         messageMetadataMapper.enrichMessage(mailbox, message);
+        storeContentInBlobStore(message);
 
-        return save(mailbox, message);
+        MessageMetaData messageMetaData = save(mailbox, message);
+        incrementCounter(mailbox, 1, unseenCount(ImmutableList.of(message)));
+        return messageMetaData;
     }
 
     @Override
@@ -292,7 +398,9 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
             save(mailbox, mailboxMessage);
         }
 
-        return messageChangedFlags.getUpdatedFlags();
+        ImmutableList<UpdatedFlags> updatedFlags = ImmutableList.copyOf(messageChangedFlags.getUpdatedFlags());
+        incrementCounter(mailbox, 0, unseenDelta(updatedFlags));
+        return updatedFlags.iterator();
     }
 
     @Override
@@ -328,8 +436,37 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
             copy = new JPAEncryptedMailboxMessage(currentMailbox, uid, modSeq, original);
         } else {
             copy = new JPAMailboxMessage(currentMailbox, uid, modSeq, original);
+            storeContentInBlobStore(copy);
+        }
+        MessageMetaData messageMetaData = save(mailbox, copy);
+        incrementCounter(mailbox, 1, unseenCount(ImmutableList.of(copy)));
+        return messageMetaData;
+    }
+
+    private long unseenDelta(List<UpdatedFlags> updatedFlags) {
+        return updatedFlags.stream()
+            .mapToLong(flags -> {
+                if (flags.isModifiedToUnset(Flags.Flag.SEEN)) {
+                    return 1;
+                }
+                if (flags.isModifiedToSet(Flags.Flag.SEEN)) {
+                    return -1;
+                }
+                return 0;
+            })
+            .sum();
+    }
+
+    private void storeContentInBlobStore(MailboxMessage message) throws MailboxException {
+        if (blobContentStore.isPresent() && message instanceof JPAMailboxMessage) {
+            ((JPAMailboxMessage) message).storeContentIn(blobContentStore.get());
+        }
+    }
+
+    private void readContentFromBlobStore(MailboxMessage message) {
+        if (blobContentStore.isPresent() && message instanceof JPAMailboxMessage) {
+            ((JPAMailboxMessage) message).readContentFrom(blobContentStore.get());
         }
-        return save(mailbox, copy);
     }
 
     /**
@@ -352,6 +489,7 @@ public class JPAMessageMapper extends JPATransactionalMapper implements MessageM
             } else {
                 JPAMailboxMessage persistData = new JPAMailboxMessage(currentMailbox, message.getUid(), message.getModSeq(), message);
                 persistData.setFlags(message.createFlags());
+                storeContentInBlobStore(persistData);
                 getEntityManager().persist(persistData);
                 return persistData.metaData();
             }
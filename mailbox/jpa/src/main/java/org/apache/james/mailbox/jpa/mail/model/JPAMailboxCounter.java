@@ -0,0 +1,97 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.jpa.mail.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+/**
+ * Message count and unseen message count of a mailbox, maintained by the message mapper so that reading them
+ * does not require counting the messages of the mailbox.
+ */
+@Entity(name = "MailboxCounter")
+@Table(name = "JAMES_MAILBOX_COUNTER")
+@NamedQueries({
+    @NamedQuery(name = "findMailboxCounter",
+        query = "SELECT counter.messageCount, counter.unseenCount FROM MailboxCounter counter WHERE counter.mailboxId = :idParam"),
+    @NamedQuery(name = "incrementMailboxCounter",
+        query = "UPDATE MailboxCounter counter SET counter.messageCount = counter.messageCount + :countParam, counter.unseenCount = counter.unseenCount + :unseenParam WHERE counter.mailboxId = :idParam"),
+    @NamedQuery(name = "deleteMailboxCounter",
+        query = "DELETE FROM MailboxCounter counter WHERE counter.mailboxId = :idParam"),
+    @NamedQuery(name = "deleteAllMailboxCounters",
+        query = "DELETE FROM MailboxCounter counter"),
+    @NamedQuery(name = "listMailboxIds",
+        query = "SELECT mailbox.mailboxId FROM Mailbox mailbox ORDER BY mailbox.mailboxId")
+})
+public class JPAMailboxCounter {
+
+    @Id
+    @Column(name = "MAILBOX_ID")
+    private long mailboxId;
+
+    @Column(name = "MESSAGE_COUNT", nullable = false)
+    private long messageCount;
+
+    @Column(name = "UNSEEN_COUNT", nullable = false)
+    private long unseenCount;
+
+    /**
+     * JPA only
+     */
+    @Deprecated
+    public JPAMailboxCounter() {
+    }
+
+    public JPAMailboxCounter(long mailboxId, long messageCount, long unseenCount) {
+        this.mailboxId = mailboxId;
+        this.messageCount = messageCount;
+        this.unseenCount = unseenCount;
+    }
+
+    public long getMailboxId() {
+        return mailboxId;
+    }
+
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    public long getUnseenCount() {
+        return unseenCount;
+    }
+
+    public void setCounts(long messageCount, long unseenCount) {
+        this.messageCount = messageCount;
+        this.unseenCount = unseenCount;
+    }
+
+    @Override
+    public String toString() {
+        return "JPAMailboxCounter{" +
+            "mailboxId=" + mailboxId +
+            ", messageCount=" + messageCount +
+            ", unseenCount=" + unseenCount +
+            '}';
+    }
+}
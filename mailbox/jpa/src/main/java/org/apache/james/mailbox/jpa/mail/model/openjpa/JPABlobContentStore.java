@@ -0,0 +1,73 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.jpa.mail.model.openjpa;
+
+import java.io.InputStream;
+import java.util.Collection;
+
+import javax.inject.Inject;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores the content of {@link JPAMailboxMessage} in a {@link BlobStore}, only the resulting blob ids being kept
+ * in the relational tables.
+ *
+ * Content is saved under random blob ids rather than ids derived from it: each blob belongs to a single message row,
+ * and is never shared with other messages nor with other users of the {@link BlobStore}. Blobs of deleted messages
+ * can thus be deleted without checking for other references.
+ */
+public class JPABlobContentStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JPABlobContentStore.class);
+
+    private final BlobStore blobStore;
+    private final BlobId.Factory blobIdFactory;
+
+    @Inject
+    public JPABlobContentStore(BlobStore blobStore, BlobId.Factory blobIdFactory) {
+        this.blobStore = blobStore;
+        this.blobIdFactory = blobIdFactory;
+    }
+
+    String save(byte[] content) {
+        return blobStore.save(blobIdFactory.randomId(), content)
+            .block()
+            .asString();
+    }
+
+    InputStream read(String blobId) {
+        return blobStore.read(blobIdFactory.from(blobId));
+    }
+
+    public void delete(Collection<String> blobIds) {
+        blobIds.forEach(this::delete);
+    }
+
+    private void delete(String blobId) {
+        try {
+            blobStore.delete(blobIdFactory.from(blobId)).block();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed deleting blob {} of a deleted message", blobId, e);
+        }
+    }
+}
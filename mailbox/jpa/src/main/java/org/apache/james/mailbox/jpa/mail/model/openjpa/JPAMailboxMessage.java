@@ -22,6 +22,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Date;
+import java.util.List;
 
 import javax.mail.Flags;
 import javax.mail.internet.SharedInputStream;
@@ -30,7 +31,10 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.Lob;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.james.mailbox.MessageUid;
@@ -40,9 +44,14 @@ import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 
 @Entity(name = "MailboxMessage")
 @Table(name = "JAMES_MAIL")
+@NamedQueries({
+    @NamedQuery(name = "findMessagesWithContentOutsideBlobStore", query = "SELECT message FROM MailboxMessage message WHERE message.bodyBlobId IS NULL ORDER BY message.mailbox.mailboxId, message.uid"),
+    @NamedQuery(name = "findMessagesWithContentInBlobStoreInMailbox", query = "SELECT message FROM MailboxMessage message WHERE message.mailbox.mailboxId = :idParam AND message.bodyBlobId IS NOT NULL")
+})
 public class JPAMailboxMessage extends AbstractJPAMailboxMessage {
 
     private static final byte[] EMPTY_BODY = new byte[] {};
@@ -59,7 +68,20 @@ public class JPAMailboxMessage extends AbstractJPAMailboxMessage {
     @Basic(optional = false, fetch = FetchType.LAZY)
     @Column(name = "HEADER_BYTES", length = 10485760, nullable = false)
     @Lob private byte[] header;
-    
+
+    /** Blob id of the header, when the content is stored in a {@link JPABlobContentStore} */
+    @Basic(optional = true)
+    @Column(name = "HEADER_BLOB_ID", nullable = true)
+    private String headerBlobId;
+
+    /** Blob id of the body, when the content is stored in a {@link JPABlobContentStore} */
+    @Basic(optional = true)
+    @Column(name = "BODY_BLOB_ID", nullable = true)
+    private String bodyBlobId;
+
+    @Transient
+    private JPABlobContentStore blobContentStore;
+
 
     public JPAMailboxMessage() {
         
@@ -99,8 +121,55 @@ public class JPAMailboxMessage extends AbstractJPAMailboxMessage {
         }
     }
 
+    public boolean isContentInBlobStore() {
+        return headerBlobId != null && bodyBlobId != null;
+    }
+
+    /**
+     * @return the ids of the blobs holding the content of this message, empty when it is stored in the table
+     */
+    public List<String> getBlobIds() {
+        if (!isContentInBlobStore()) {
+            return ImmutableList.of();
+        }
+        return ImmutableList.of(headerBlobId, bodyBlobId);
+    }
+
+    /**
+     * Moves the header and the body of this message to the given store. Only their blob ids are then persisted
+     * along with the message metadata.
+     *
+     * These blobs belong to this message only: copies of the message store their content in their own blobs.
+     */
+    public void storeContentIn(JPABlobContentStore blobContentStore) throws MailboxException {
+        this.blobContentStore = blobContentStore;
+        if (isContentInBlobStore()) {
+            return;
+        }
+        try {
+            String storedHeaderBlobId = blobContentStore.save(IOUtils.toByteArray(getHeaderContent()));
+            String storedBodyBlobId = blobContentStore.save(IOUtils.toByteArray(getBodyContent()));
+            this.headerBlobId = storedHeaderBlobId;
+            this.bodyBlobId = storedBodyBlobId;
+            this.header = EMPTY_BODY;
+            this.body = EMPTY_BODY;
+        } catch (IOException | RuntimeException e) {
+            throw new MailboxException("Unable to store message content in the blob store", e);
+        }
+    }
+
+    /**
+     * Content stored in a blob store is only read when requested, from the given store.
+     */
+    public void readContentFrom(JPABlobContentStore blobContentStore) {
+        this.blobContentStore = blobContentStore;
+    }
+
     @Override
     public InputStream getBodyContent() throws IOException {
+        if (bodyBlobId != null) {
+            return blobContentStore().read(bodyBlobId);
+        }
         if (body == null) {
             return new ByteArrayInputStream(EMPTY_BODY);
         }
@@ -109,7 +178,17 @@ public class JPAMailboxMessage extends AbstractJPAMailboxMessage {
 
     @Override
     public InputStream getHeaderContent() throws IOException {
+        if (headerBlobId != null) {
+            return blobContentStore().read(headerBlobId);
+        }
         return new ByteArrayInputStream(header);
     }
 
+    private JPABlobContentStore blobContentStore() throws IOException {
+        if (blobContentStore == null) {
+            throw new IOException("Content of message " + getUid() + " is stored in a blob store which is not configured");
+        }
+        return blobContentStore;
+    }
+
 }
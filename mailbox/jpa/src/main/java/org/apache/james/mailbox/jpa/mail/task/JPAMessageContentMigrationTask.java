@@ -0,0 +1,150 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.jpa.mail.task;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.apache.james.backends.jpa.TransactionRunner;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.jpa.mail.model.openjpa.JPABlobContentStore;
+import org.apache.james.mailbox.jpa.mail.model.openjpa.JPAMailboxMessage;
+import org.apache.james.task.Task;
+import org.apache.james.task.TaskExecutionDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.steveash.guavate.Guavate;
+import com.google.common.base.Preconditions;
+
+/**
+ * Moves the content of messages still stored in the JAMES_MAIL table to a {@link JPABlobContentStore}, batch per batch.
+ *
+ * Each batch is committed on its own so that the task can be interrupted and submitted again: migrated messages
+ * are not processed twice.
+ */
+public class JPAMessageContentMigrationTask implements Task {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JPAMessageContentMigrationTask.class);
+
+    public static final String JPA_MESSAGE_CONTENT_MIGRATION = "jpaMessageContentMigration";
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    public static class Details implements TaskExecutionDetails.AdditionalInformation {
+        private final long migratedMessageCount;
+        private final long failedMessageCount;
+
+        public Details(long migratedMessageCount, long failedMessageCount) {
+            this.migratedMessageCount = migratedMessageCount;
+            this.failedMessageCount = failedMessageCount;
+        }
+
+        public long getMigratedMessageCount() {
+            return migratedMessageCount;
+        }
+
+        public long getFailedMessageCount() {
+            return failedMessageCount;
+        }
+    }
+
+    private final TransactionRunner transactionRunner;
+    private final JPABlobContentStore blobContentStore;
+    private final int batchSize;
+    private final AtomicLong migratedMessageCount;
+    private final AtomicLong failedMessageCount;
+
+    public JPAMessageContentMigrationTask(EntityManagerFactory entityManagerFactory, JPABlobContentStore blobContentStore) {
+        this(entityManagerFactory, blobContentStore, DEFAULT_BATCH_SIZE);
+    }
+
+    public JPAMessageContentMigrationTask(EntityManagerFactory entityManagerFactory, JPABlobContentStore blobContentStore, int batchSize) {
+        Preconditions.checkArgument(batchSize > 0, "'batchSize' needs to be strictly positive");
+        this.transactionRunner = new TransactionRunner(entityManagerFactory);
+        this.blobContentStore = blobContentStore;
+        this.batchSize = batchSize;
+        this.migratedMessageCount = new AtomicLong(0L);
+        this.failedMessageCount = new AtomicLong(0L);
+    }
+
+    @Override
+    public Result run() {
+        try {
+            int batchMessageCount;
+            do {
+                batchMessageCount = migrateBatch();
+            } while (batchMessageCount == batchSize);
+
+            if (failedMessageCount.get() > 0) {
+                return Result.PARTIAL;
+            }
+            return Result.COMPLETED;
+        } catch (RuntimeException e) {
+            LOGGER.error("Error while migrating message content to the blob store", e);
+            return Result.PARTIAL;
+        }
+    }
+
+    private int migrateBatch() {
+        List<Result> results = transactionRunner.runAndRetrieveResult(entityManager ->
+            findMessagesToMigrate(entityManager)
+                .stream()
+                .map(this::migrate)
+                .collect(Guavate.toImmutableList()));
+
+        long failedCount = results.stream()
+            .filter(Result.PARTIAL::equals)
+            .count();
+        migratedMessageCount.addAndGet(results.size() - failedCount);
+        failedMessageCount.addAndGet(failedCount);
+        return results.size();
+    }
+
+    private List<JPAMailboxMessage> findMessagesToMigrate(EntityManager entityManager) {
+        // Failed messages keep their content in the table and are ordered before the ones still to process
+        return entityManager.createNamedQuery("findMessagesWithContentOutsideBlobStore", JPAMailboxMessage.class)
+            .setFirstResult(Math.toIntExact(failedMessageCount.get()))
+            .setMaxResults(batchSize)
+            .getResultList();
+    }
+
+    private Result migrate(JPAMailboxMessage message) {
+        try {
+            message.storeContentIn(blobContentStore);
+            return Result.COMPLETED;
+        } catch (MailboxException e) {
+            LOGGER.warn("Failed migrating content of message {} in mailbox {}", message.getUid(), message.getMailboxId().serialize(), e);
+            return Result.PARTIAL;
+        }
+    }
+
+    @Override
+    public String type() {
+        return JPA_MESSAGE_CONTENT_MIGRATION;
+    }
+
+    @Override
+    public Optional<TaskExecutionDetails.AdditionalInformation> details() {
+        return Optional.of(new Details(migratedMessageCount.get(), failedMessageCount.get()));
+    }
+}
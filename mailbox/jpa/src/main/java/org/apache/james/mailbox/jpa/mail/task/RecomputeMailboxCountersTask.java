@@ -0,0 +1,136 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.jpa.mail.task;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.apache.james.backends.jpa.TransactionRunner;
+import org.apache.james.mailbox.jpa.mail.model.JPAMailboxCounter;
+import org.apache.james.task.Task;
+import org.apache.james.task.TaskExecutionDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Recomputes the maintained counters of every mailbox by counting its messages, creating the counters of
+ * mailboxes that predate them.
+ *
+ * Counters of a mailbox receiving writes while being recomputed can be off: the task can then be run again.
+ */
+public class RecomputeMailboxCountersTask implements Task {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecomputeMailboxCountersTask.class);
+
+    public static final String RECOMPUTE_MAILBOX_COUNTERS = "recomputeMailboxCounters";
+
+    public static class Details implements TaskExecutionDetails.AdditionalInformation {
+        private final long processedMailboxCount;
+        private final long failedMailboxCount;
+
+        public Details(long processedMailboxCount, long failedMailboxCount) {
+            this.processedMailboxCount = processedMailboxCount;
+            this.failedMailboxCount = failedMailboxCount;
+        }
+
+        public long getProcessedMailboxCount() {
+            return processedMailboxCount;
+        }
+
+        public long getFailedMailboxCount() {
+            return failedMailboxCount;
+        }
+    }
+
+    private final TransactionRunner transactionRunner;
+    private final AtomicLong processedMailboxCount;
+    private final AtomicLong failedMailboxCount;
+
+    public RecomputeMailboxCountersTask(EntityManagerFactory entityManagerFactory) {
+        this.transactionRunner = new TransactionRunner(entityManagerFactory);
+        this.processedMailboxCount = new AtomicLong(0L);
+        this.failedMailboxCount = new AtomicLong(0L);
+    }
+
+    @Override
+    public Result run() {
+        try {
+            return listMailboxIds()
+                .stream()
+                .map(this::recompute)
+                .reduce(Result.COMPLETED, Task::combine);
+        } catch (RuntimeException e) {
+            LOGGER.error("Error while recomputing mailbox counters", e);
+            return Result.PARTIAL;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> listMailboxIds() {
+        return transactionRunner.runAndRetrieveResult(entityManager ->
+            entityManager.createNamedQuery("listMailboxIds")
+                .getResultList());
+    }
+
+    private Result recompute(long mailboxId) {
+        Result result = transactionRunner.runAndRetrieveResult(entityManager -> {
+                long messageCount = count(entityManager, "countMessagesInMailbox", mailboxId);
+                long unseenCount = count(entityManager, "countUnseenMessagesInMailbox", mailboxId);
+
+                JPAMailboxCounter counter = entityManager.find(JPAMailboxCounter.class, mailboxId);
+                if (counter == null) {
+                    entityManager.persist(new JPAMailboxCounter(mailboxId, messageCount, unseenCount));
+                } else {
+                    counter.setCounts(messageCount, unseenCount);
+                }
+                return Result.COMPLETED;
+            },
+            e -> {
+                LOGGER.warn("Failed recomputing counters of mailbox {}", mailboxId, e);
+                return Result.PARTIAL;
+            });
+
+        if (result == Result.COMPLETED) {
+            processedMailboxCount.incrementAndGet();
+        } else {
+            failedMailboxCount.incrementAndGet();
+        }
+        return result;
+    }
+
+    private long count(EntityManager entityManager, String queryName, long mailboxId) {
+        return (Long) entityManager.createNamedQuery(queryName)
+            .setParameter("idParam", mailboxId)
+            .getSingleResult();
+    }
+
+    @Override
+    public String type() {
+        return RECOMPUTE_MAILBOX_COUNTERS;
+    }
+
+    @Override
+    public Optional<TaskExecutionDetails.AdditionalInformation> details() {
+        return Optional.of(new Details(processedMailboxCount.get(), failedMailboxCount.get()));
+    }
+}
@@ -23,6 +23,7 @@ import java.util.List;
 
 import org.apache.james.mailbox.jpa.mail.model.JPAMailbox;
 import org.apache.james.mailbox.jpa.mail.model.JPAMailboxAnnotation;
+import org.apache.james.mailbox.jpa.mail.model.JPAMailboxCounter;
 import org.apache.james.mailbox.jpa.mail.model.JPAProperty;
 import org.apache.james.mailbox.jpa.mail.model.JPAUserFlag;
 import org.apache.james.mailbox.jpa.mail.model.openjpa.AbstractJPAMailboxMessage;
@@ -42,6 +43,7 @@ public interface JPAMailboxFixture {
 
     List<Class<?>> MAILBOX_PERSISTANCE_CLASSES = ImmutableList.of(
         JPAMailbox.class,
+        JPAMailboxCounter.class,
         AbstractJPAMailboxMessage.class,
         JPAMailboxMessage.class,
         JPAProperty.class,
@@ -64,6 +66,7 @@ public interface JPAMailboxFixture {
         "JAMES_MAIL_USERFLAG",
         "JAMES_MAIL_PROPERTY",
         "JAMES_MAILBOX_ANNOTATION",
+        "JAMES_MAILBOX_COUNTER",
         "JAMES_MAILBOX",
         "JAMES_MAIL",
         "JAMES_SUBSCRIPTION");
@@ -0,0 +1,194 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.jpa.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import javax.mail.Flags;
+import javax.mail.util.SharedByteArrayInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.james.backends.jpa.JpaTestCluster;
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStore;
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.api.ObjectStoreException;
+import org.apache.james.blob.memory.MemoryBlobStore;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.jpa.JPAMailboxFixture;
+import org.apache.james.mailbox.jpa.mail.model.openjpa.JPABlobContentStore;
+import org.apache.james.mailbox.jpa.mail.model.openjpa.JPAMailboxMessage;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.store.mail.MailboxMapper;
+import org.apache.james.mailbox.store.mail.MessageMapper;
+import org.apache.james.mailbox.store.mail.model.MailboxMessage;
+import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailbox;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailboxMessage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+
+public class JPABlobContentDeletionTest {
+    private static final JpaTestCluster JPA_TEST_CLUSTER = JpaTestCluster.create(JPAMailboxFixture.MAILBOX_PERSISTANCE_CLASSES);
+    private static final String CONTENT = "Subject: test\r\n\r\nBody\r\n";
+    private static final int BODY_START = 17;
+    private static final int UID_VALIDITY = 42;
+    private static final int UNLIMITED = -1;
+
+    private HashBlobId.Factory blobIdFactory;
+    private BlobStore blobStore;
+    private JPAMapperProvider mapperProvider;
+    private MailboxMapper mailboxMapper;
+    private MessageMapper messageMapper;
+    private SimpleMailbox mailbox;
+
+    @Before
+    public void setUp() throws Exception {
+        blobIdFactory = new HashBlobId.Factory();
+        blobStore = new MemoryBlobStore(blobIdFactory);
+        mapperProvider = new JPAMapperProvider(JPA_TEST_CLUSTER, Optional.of(new JPABlobContentStore(blobStore, blobIdFactory)));
+        mailboxMapper = mapperProvider.createMailboxMapper();
+        messageMapper = mapperProvider.createMessageMapper();
+
+        mailbox = new SimpleMailbox(MailboxPath.forUser("benwa", "INBOX"), UID_VALIDITY);
+        mailbox.setMailboxId(mapperProvider.generateId());
+        mailboxMapper.save(mailbox);
+    }
+
+    @After
+    public void cleanUp() {
+        JPA_TEST_CLUSTER.clear(JPAMailboxFixture.MAILBOX_TABLE_NAMES);
+    }
+
+    @Test
+    public void deleteShouldDeleteTheBlobsOfTheMessage() throws Exception {
+        messageMapper.add(mailbox, createMessage(new Flags()));
+        MailboxMessage message = retrieveMessage();
+        List<String> blobIds = blobIdsOf(message);
+
+        messageMapper.delete(mailbox, message);
+
+        assertNotStored(blobIds);
+    }
+
+    @Test
+    public void deleteMessagesShouldDeleteTheBlobsOfTheMessages() throws Exception {
+        messageMapper.add(mailbox, createMessage(new Flags(Flags.Flag.DELETED)));
+        MailboxMessage message = retrieveMessage();
+        List<String> blobIds = blobIdsOf(message);
+
+        messageMapper.deleteMessages(mailbox, ImmutableList.of(message.getUid()));
+
+        assertNotStored(blobIds);
+    }
+
+    @Test
+    public void copyShouldStoreTheContentInItsOwnBlobs() throws Exception {
+        messageMapper.add(mailbox, createMessage(new Flags()));
+        MailboxMessage original = retrieveMessage();
+
+        messageMapper.copy(mailbox, original);
+
+        assertThat(blobIdsOf(retrieveLastMessage()))
+            .doesNotContainAnyElementsOf(blobIdsOf(original));
+    }
+
+    @Test
+    public void deleteShouldNotDeleteTheContentOfACopy() throws Exception {
+        messageMapper.add(mailbox, createMessage(new Flags()));
+        MailboxMessage original = retrieveMessage();
+        messageMapper.copy(mailbox, original);
+
+        messageMapper.delete(mailbox, original);
+
+        assertThat(IOUtils.toString(retrieveMessage().getFullContent(), StandardCharsets.UTF_8))
+            .isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void deleteShouldNotDeleteTheSameContentStoredByOtherMessages() throws Exception {
+        messageMapper.add(mailbox, createMessage(new Flags()));
+        messageMapper.add(mailbox, createMessage(new Flags()));
+        MailboxMessage message = retrieveMessage();
+
+        messageMapper.delete(mailbox, message);
+
+        assertStored(blobIdsOf(retrieveMessage()));
+    }
+
+    @Test
+    public void deleteShouldNotDeleteTheSameContentStoredByOtherBlobStoreUsers() throws Exception {
+        BlobId otherUserBlobId = blobStore.save(CONTENT.substring(BODY_START).getBytes(StandardCharsets.UTF_8)).block();
+        messageMapper.add(mailbox, createMessage(new Flags()));
+
+        messageMapper.delete(mailbox, retrieveMessage());
+
+        assertStored(ImmutableList.of(otherUserBlobId.asString()));
+    }
+
+    @Test
+    public void deletingAMailboxShouldDeleteTheBlobsOfItsMessages() throws Exception {
+        messageMapper.add(mailbox, createMessage(new Flags()));
+        List<String> blobIds = blobIdsOf(retrieveMessage());
+
+        mailboxMapper.delete(mailbox);
+
+        assertNotStored(blobIds);
+    }
+
+    private MailboxMessage retrieveMessage() throws MailboxException {
+        return messageMapper.findInMailbox(mailbox, MessageRange.all(), MessageMapper.FetchType.Full, 1).next();
+    }
+
+    private MailboxMessage retrieveLastMessage() throws MailboxException {
+        return Iterators.getLast(messageMapper.findInMailbox(mailbox, MessageRange.all(), MessageMapper.FetchType.Full, UNLIMITED));
+    }
+
+    private List<String> blobIdsOf(MailboxMessage message) {
+        List<String> blobIds = ((JPAMailboxMessage) message).getBlobIds();
+        assertThat(blobIds).isNotEmpty();
+        return blobIds;
+    }
+
+    private void assertStored(List<String> blobIds) {
+        blobIds.forEach(blobId -> assertThat(blobStore.readBytes(blobIdFactory.from(blobId)).block()).isNotEmpty());
+    }
+
+    private void assertNotStored(List<String> blobIds) {
+        blobIds.forEach(blobId -> assertThatThrownBy(() -> blobStore.readBytes(blobIdFactory.from(blobId)).block())
+            .isInstanceOf(ObjectStoreException.class));
+    }
+
+    private SimpleMailboxMessage createMessage(Flags flags) {
+        return new SimpleMailboxMessage(mapperProvider.generateMessageId(), new Date(), CONTENT.length(), BODY_START,
+            new SharedByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)), flags, new PropertyBuilder(), mailbox.getMailboxId());
+    }
+}
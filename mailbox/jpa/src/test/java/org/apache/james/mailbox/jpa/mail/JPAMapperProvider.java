@@ -20,6 +20,7 @@
 package org.apache.james.mailbox.jpa.mail;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 
 import javax.persistence.EntityManagerFactory;
@@ -30,6 +31,7 @@ import org.apache.james.mailbox.MailboxSessionUtil;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.jpa.JPAId;
+import org.apache.james.mailbox.jpa.mail.model.openjpa.JPABlobContentStore;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MessageId;
 import org.apache.james.mailbox.store.JVMMailboxPathLocker;
@@ -47,14 +49,20 @@ import com.google.common.collect.ImmutableList;
 public class JPAMapperProvider implements MapperProvider {
 
     private final JpaTestCluster jpaTestCluster;
+    private final Optional<JPABlobContentStore> blobContentStore;
 
     public JPAMapperProvider(JpaTestCluster jpaTestCluster) {
+        this(jpaTestCluster, Optional.empty());
+    }
+
+    public JPAMapperProvider(JpaTestCluster jpaTestCluster, Optional<JPABlobContentStore> blobContentStore) {
         this.jpaTestCluster = jpaTestCluster;
+        this.blobContentStore = blobContentStore;
     }
 
     @Override
     public MailboxMapper createMailboxMapper() throws MailboxException {
-        return new TransactionalMailboxMapper(new JPAMailboxMapper(jpaTestCluster.getEntityManagerFactory()));
+        return new TransactionalMailboxMapper(new JPAMailboxMapper(jpaTestCluster.getEntityManagerFactory(), blobContentStore));
     }
 
     @Override
@@ -65,7 +73,8 @@ public class JPAMapperProvider implements MapperProvider {
         JPAMessageMapper messageMapper = new JPAMessageMapper(MailboxSessionUtil.create("benwa"),
             new JPAUidProvider(locker, entityManagerFactory), 
             new JPAModSeqProvider(locker, entityManagerFactory), 
-            entityManagerFactory);
+            entityManagerFactory,
+            blobContentStore);
 
         return new TransactionalMessageMapper(messageMapper);
     }
@@ -19,21 +19,31 @@
 
 package org.apache.james.mailbox.jpa.mail;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.james.backends.jpa.JpaTestCluster;
+import org.apache.james.backends.jpa.TransactionRunner;
 import org.apache.james.mailbox.jpa.JPAId;
 import org.apache.james.mailbox.jpa.JPAMailboxFixture;
+import org.apache.james.mailbox.jpa.mail.model.JPAMailboxCounter;
 import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MailboxPath;
 import org.apache.james.mailbox.store.mail.MailboxMapper;
 import org.apache.james.mailbox.store.mail.model.MailboxMapperTest;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailbox;
+import org.apache.james.mailbox.store.transaction.Mapper;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Test;
 
 public class JpaMailboxMapperTest extends MailboxMapperTest {
 
     public static final JpaTestCluster JPA_TEST_CLUSTER = JpaTestCluster.create(JPAMailboxFixture.MAILBOX_PERSISTANCE_CLASSES);
 
+    private static final long UID_VALIDITY = 42;
+
     private final AtomicInteger counter = new AtomicInteger();
 
     @Override
@@ -56,4 +66,37 @@ public class JpaMailboxMapperTest extends MailboxMapperTest {
     public void cleanUp() {
         JPA_TEST_CLUSTER.clear(JPAMailboxFixture.MAILBOX_TABLE_NAMES);
     }
+
+    @Test
+    public void deleteShouldDeleteTheMailboxCounter() throws Exception {
+        MailboxMapper mailboxMapper = createMailboxMapper();
+        SimpleMailbox mailbox = createMailbox();
+        mailboxMapper.save(mailbox);
+
+        mailboxMapper.delete(mailbox);
+
+        assertThat(findCounter(mailbox)).isNull();
+    }
+
+    @Test
+    public void deleteAllMembershipsShouldNotDeleteMailboxCounters() throws Exception {
+        SimpleMailbox mailbox = createMailbox();
+        createMailboxMapper().save(mailbox);
+
+        JPAMailboxMapper jpaMailboxMapper = new JPAMailboxMapper(JPA_TEST_CLUSTER.getEntityManagerFactory());
+        jpaMailboxMapper.execute(Mapper.toTransaction(jpaMailboxMapper::deleteAllMemberships));
+
+        assertThat(findCounter(mailbox)).isNotNull();
+    }
+
+    private SimpleMailbox createMailbox() {
+        SimpleMailbox mailbox = new SimpleMailbox(MailboxPath.forUser("benwa", "counted"), UID_VALIDITY);
+        mailbox.setMailboxId(generateId());
+        return mailbox;
+    }
+
+    private JPAMailboxCounter findCounter(SimpleMailbox mailbox) {
+        return new TransactionRunner(JPA_TEST_CLUSTER.getEntityManagerFactory())
+            .runAndRetrieveResult(entityManager -> entityManager.find(JPAMailboxCounter.class, ((JPAId) mailbox.getMailboxId()).getRawId()));
+    }
 }
@@ -23,6 +23,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.memory.MemoryBlobStore;
 import org.junit.Test;
 
 public class JPAMailboxMessageTest {
@@ -42,4 +44,30 @@ public class JPAMailboxMessageTest {
 
     }
 
+    @Test
+    public void getFullContentShouldReturnOriginalContentWhenStoredInBlobStore() throws Exception {
+        byte[] header = "Subject: the blob message\r\n\r\n".getBytes(StandardCharsets.UTF_8);
+        byte[] body = "body".getBytes(StandardCharsets.UTF_8);
+        JPAMailboxMessage message = new JPAMailboxMessage(header, body);
+
+        message.storeContentIn(blobContentStore());
+
+        assertThat(IOUtils.toString(message.getFullContent(), StandardCharsets.UTF_8))
+            .isEqualTo("Subject: the blob message\r\n\r\nbody");
+    }
+
+    @Test
+    public void storeContentInShouldMarkContentAsStoredInBlobStore() throws Exception {
+        JPAMailboxMessage message = new JPAMailboxMessage("Subject: test\r\n\r\n".getBytes(StandardCharsets.UTF_8), null);
+
+        message.storeContentIn(blobContentStore());
+
+        assertThat(message.isContentInBlobStore()).isTrue();
+    }
+
+    private JPABlobContentStore blobContentStore() {
+        HashBlobId.Factory blobIdFactory = new HashBlobId.Factory();
+        return new JPABlobContentStore(new MemoryBlobStore(blobIdFactory), blobIdFactory);
+    }
+
 }
@@ -0,0 +1,133 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.jpa.mail.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Optional;
+
+import javax.mail.Flags;
+import javax.mail.util.SharedByteArrayInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.james.backends.jpa.JpaTestCluster;
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.memory.MemoryBlobStore;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.jpa.JPAMailboxFixture;
+import org.apache.james.mailbox.jpa.mail.JPAMapperProvider;
+import org.apache.james.mailbox.jpa.mail.model.openjpa.JPABlobContentStore;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.store.mail.MessageMapper;
+import org.apache.james.mailbox.store.mail.model.MailboxMessage;
+import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailbox;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailboxMessage;
+import org.apache.james.task.Task;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JPAMessageContentMigrationTaskTest {
+    private static final JpaTestCluster JPA_TEST_CLUSTER = JpaTestCluster.create(JPAMailboxFixture.MAILBOX_PERSISTANCE_CLASSES);
+    private static final String CONTENT = "Subject: test\r\n\r\nBody\r\n";
+    private static final int BODY_START = 17;
+    private static final int UID_VALIDITY = 42;
+    private static final int BATCH_SIZE = 2;
+
+    private JPAMapperProvider legacyMapperProvider;
+    private JPABlobContentStore blobContentStore;
+    private MessageMapper legacyMessageMapper;
+    private MessageMapper messageMapper;
+    private SimpleMailbox mailbox;
+
+    @Before
+    public void setUp() throws Exception {
+        HashBlobId.Factory blobIdFactory = new HashBlobId.Factory();
+        blobContentStore = new JPABlobContentStore(new MemoryBlobStore(blobIdFactory), blobIdFactory);
+        legacyMapperProvider = new JPAMapperProvider(JPA_TEST_CLUSTER);
+        legacyMessageMapper = legacyMapperProvider.createMessageMapper();
+        messageMapper = new JPAMapperProvider(JPA_TEST_CLUSTER, Optional.of(blobContentStore)).createMessageMapper();
+
+        mailbox = new SimpleMailbox(MailboxPath.forUser("benwa", "INBOX"), UID_VALIDITY);
+        mailbox.setMailboxId(legacyMapperProvider.generateId());
+        legacyMapperProvider.createMailboxMapper().save(mailbox);
+    }
+
+    @After
+    public void cleanUp() {
+        JPA_TEST_CLUSTER.clear(JPAMailboxFixture.MAILBOX_TABLE_NAMES);
+    }
+
+    @Test
+    public void runShouldMoveContentToTheBlobStore() throws Exception {
+        legacyMessageMapper.add(mailbox, createMessage());
+
+        Task.Result result = new JPAMessageContentMigrationTask(JPA_TEST_CLUSTER.getEntityManagerFactory(), blobContentStore, BATCH_SIZE).run();
+
+        assertThat(result).isEqualTo(Task.Result.COMPLETED);
+        assertThat(readContent(messageMapper)).isEqualTo(CONTENT);
+        assertThatThrownBy(() -> readContent(legacyMapperProvider.createMessageMapper()))
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void runShouldMigrateAllBatches() throws Exception {
+        for (int i = 0; i < 2 * BATCH_SIZE + 1; i++) {
+            legacyMessageMapper.add(mailbox, createMessage());
+        }
+
+        JPAMessageContentMigrationTask task = new JPAMessageContentMigrationTask(JPA_TEST_CLUSTER.getEntityManagerFactory(), blobContentStore, BATCH_SIZE);
+        task.run();
+
+        assertThat(task.details())
+            .hasValueSatisfying(details -> {
+                JPAMessageContentMigrationTask.Details migrationDetails = (JPAMessageContentMigrationTask.Details) details;
+                assertThat(migrationDetails.getMigratedMessageCount()).isEqualTo(2 * BATCH_SIZE + 1);
+                assertThat(migrationDetails.getFailedMessageCount()).isZero();
+            });
+    }
+
+    @Test
+    public void runShouldNotMigrateMessagesAlreadyInTheBlobStore() throws Exception {
+        messageMapper.add(mailbox, createMessage());
+
+        JPAMessageContentMigrationTask task = new JPAMessageContentMigrationTask(JPA_TEST_CLUSTER.getEntityManagerFactory(), blobContentStore, BATCH_SIZE);
+        task.run();
+
+        assertThat(task.details())
+            .hasValueSatisfying(details -> assertThat(((JPAMessageContentMigrationTask.Details) details).getMigratedMessageCount()).isZero());
+    }
+
+    private String readContent(MessageMapper mapper) throws MailboxException, IOException {
+        MailboxMessage message = mapper.findInMailbox(mailbox, MessageRange.all(), MessageMapper.FetchType.Full, 1).next();
+        return IOUtils.toString(message.getFullContent(), StandardCharsets.UTF_8);
+    }
+
+    private SimpleMailboxMessage createMessage() {
+        return new SimpleMailboxMessage(legacyMapperProvider.generateMessageId(), new Date(), CONTENT.length(), BODY_START,
+            new SharedByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)), new Flags(), new PropertyBuilder(), mailbox.getMailboxId());
+    }
+}
@@ -0,0 +1,125 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.jpa.mail.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import javax.mail.Flags;
+import javax.mail.util.SharedByteArrayInputStream;
+
+import org.apache.james.backends.jpa.JpaTestCluster;
+import org.apache.james.backends.jpa.TransactionRunner;
+import org.apache.james.mailbox.jpa.JPAId;
+import org.apache.james.mailbox.jpa.JPAMailboxFixture;
+import org.apache.james.mailbox.jpa.mail.JPAMapperProvider;
+import org.apache.james.mailbox.jpa.mail.model.JPAMailboxCounter;
+import org.apache.james.mailbox.model.MailboxCounters;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.store.mail.MessageMapper;
+import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailbox;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailboxMessage;
+import org.apache.james.task.Task;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RecomputeMailboxCountersTaskTest {
+    private static final JpaTestCluster JPA_TEST_CLUSTER = JpaTestCluster.create(JPAMailboxFixture.MAILBOX_PERSISTANCE_CLASSES);
+    private static final String CONTENT = "Subject: test\r\n\r\nBody\r\n";
+    private static final int BODY_START = 17;
+    private static final int UID_VALIDITY = 42;
+
+    private JPAMapperProvider mapperProvider;
+    private TransactionRunner transactionRunner;
+    private MessageMapper messageMapper;
+    private SimpleMailbox mailbox;
+
+    @Before
+    public void setUp() throws Exception {
+        mapperProvider = new JPAMapperProvider(JPA_TEST_CLUSTER);
+        transactionRunner = new TransactionRunner(JPA_TEST_CLUSTER.getEntityManagerFactory());
+        messageMapper = mapperProvider.createMessageMapper();
+
+        mailbox = new SimpleMailbox(MailboxPath.forUser("benwa", "INBOX"), UID_VALIDITY);
+        mailbox.setMailboxId(mapperProvider.generateId());
+        mapperProvider.createMailboxMapper().save(mailbox);
+
+        messageMapper.add(mailbox, createMessage(new Flags()));
+        messageMapper.add(mailbox, createMessage(new Flags(Flags.Flag.SEEN)));
+    }
+
+    @After
+    public void cleanUp() {
+        JPA_TEST_CLUSTER.clear(JPAMailboxFixture.MAILBOX_TABLE_NAMES);
+    }
+
+    @Test
+    public void runShouldCreateMissingCounters() throws Exception {
+        transactionRunner.run(entityManager -> entityManager.createNamedQuery("deleteAllMailboxCounters").executeUpdate());
+
+        Task.Result result = new RecomputeMailboxCountersTask(JPA_TEST_CLUSTER.getEntityManagerFactory()).run();
+
+        assertThat(result).isEqualTo(Task.Result.COMPLETED);
+        assertThat(storedCounter()).isEqualTo(MailboxCounters.builder().count(2).unseen(1).build());
+    }
+
+    @Test
+    public void runShouldRepairInvalidCounters() throws Exception {
+        transactionRunner.run(entityManager -> entityManager.find(JPAMailboxCounter.class, rawMailboxId()).setCounts(36, 12));
+
+        new RecomputeMailboxCountersTask(JPA_TEST_CLUSTER.getEntityManagerFactory()).run();
+
+        assertThat(storedCounter()).isEqualTo(MailboxCounters.builder().count(2).unseen(1).build());
+    }
+
+    @Test
+    public void detailsShouldReportProcessedMailboxes() {
+        RecomputeMailboxCountersTask task = new RecomputeMailboxCountersTask(JPA_TEST_CLUSTER.getEntityManagerFactory());
+        task.run();
+
+        assertThat(task.details())
+            .hasValueSatisfying(details -> {
+                RecomputeMailboxCountersTask.Details recomputeDetails = (RecomputeMailboxCountersTask.Details) details;
+                assertThat(recomputeDetails.getProcessedMailboxCount()).isEqualTo(1);
+                assertThat(recomputeDetails.getFailedMailboxCount()).isZero();
+            });
+    }
+
+    private MailboxCounters storedCounter() {
+        JPAMailboxCounter counter = transactionRunner.runAndRetrieveResult(entityManager -> entityManager.find(JPAMailboxCounter.class, rawMailboxId()));
+        return MailboxCounters.builder()
+            .count(counter.getMessageCount())
+            .unseen(counter.getUnseenCount())
+            .build();
+    }
+
+    private long rawMailboxId() {
+        return ((JPAId) mailbox.getMailboxId()).getRawId();
+    }
+
+    private SimpleMailboxMessage createMessage(Flags flags) {
+        return new SimpleMailboxMessage(mapperProvider.generateMessageId(), new Date(), CONTENT.length(), BODY_START,
+            new SharedByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)), flags, new PropertyBuilder(), mailbox.getMailboxId());
+    }
+}
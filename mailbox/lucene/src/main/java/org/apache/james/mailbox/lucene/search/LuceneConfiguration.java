@@ -0,0 +1,266 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+public class LuceneConfiguration {
+
+    public enum ShardingStrategy {
+        MAILBOX,
+        USER
+    }
+
+    public static class Builder {
+        private Optional<Duration> refreshInterval;
+        private Optional<Integer> refreshWriteThreshold;
+        private Optional<Duration> commitInterval;
+        private Optional<Integer> shardCount;
+        private Optional<ShardingStrategy> shardingStrategy;
+        private Optional<Integer> maxOpenShards;
+        private Optional<Integer> searchParallelism;
+
+        private Builder() {
+            refreshInterval = Optional.empty();
+            refreshWriteThreshold = Optional.empty();
+            commitInterval = Optional.empty();
+            shardCount = Optional.empty();
+            shardingStrategy = Optional.empty();
+            maxOpenShards = Optional.empty();
+            searchParallelism = Optional.empty();
+        }
+
+        public Builder refreshInterval(Duration refreshInterval) {
+            Preconditions.checkArgument(!refreshInterval.isNegative() && !refreshInterval.isZero(), "refreshInterval needs to be strictly positive");
+            this.refreshInterval = Optional.of(refreshInterval);
+            return this;
+        }
+
+        public Builder refreshInterval(Optional<Duration> refreshInterval) {
+            refreshInterval.ifPresent(this::refreshInterval);
+            return this;
+        }
+
+        public Builder refreshWriteThreshold(int refreshWriteThreshold) {
+            Preconditions.checkArgument(refreshWriteThreshold > 0, "refreshWriteThreshold needs to be strictly positive");
+            this.refreshWriteThreshold = Optional.of(refreshWriteThreshold);
+            return this;
+        }
+
+        public Builder refreshWriteThreshold(Optional<Integer> refreshWriteThreshold) {
+            refreshWriteThreshold.ifPresent(this::refreshWriteThreshold);
+            return this;
+        }
+
+        public Builder commitInterval(Duration commitInterval) {
+            Preconditions.checkArgument(!commitInterval.isNegative() && !commitInterval.isZero(), "commitInterval needs to be strictly positive");
+            this.commitInterval = Optional.of(commitInterval);
+            return this;
+        }
+
+        public Builder commitInterval(Optional<Duration> commitInterval) {
+            commitInterval.ifPresent(this::commitInterval);
+            return this;
+        }
+
+        public Builder shardCount(int shardCount) {
+            Preconditions.checkArgument(shardCount > 0, "shardCount needs to be strictly positive");
+            this.shardCount = Optional.of(shardCount);
+            return this;
+        }
+
+        public Builder shardCount(Optional<Integer> shardCount) {
+            shardCount.ifPresent(this::shardCount);
+            return this;
+        }
+
+        public Builder shardingStrategy(ShardingStrategy shardingStrategy) {
+            Preconditions.checkNotNull(shardingStrategy);
+            this.shardingStrategy = Optional.of(shardingStrategy);
+            return this;
+        }
+
+        public Builder shardingStrategy(Optional<ShardingStrategy> shardingStrategy) {
+            shardingStrategy.ifPresent(this::shardingStrategy);
+            return this;
+        }
+
+        public Builder maxOpenShards(int maxOpenShards) {
+            Preconditions.checkArgument(maxOpenShards > 0, "maxOpenShards needs to be strictly positive");
+            this.maxOpenShards = Optional.of(maxOpenShards);
+            return this;
+        }
+
+        public Builder maxOpenShards(Optional<Integer> maxOpenShards) {
+            maxOpenShards.ifPresent(this::maxOpenShards);
+            return this;
+        }
+
+        public Builder searchParallelism(int searchParallelism) {
+            Preconditions.checkArgument(searchParallelism > 0, "searchParallelism needs to be strictly positive");
+            this.searchParallelism = Optional.of(searchParallelism);
+            return this;
+        }
+
+        public Builder searchParallelism(Optional<Integer> searchParallelism) {
+            searchParallelism.ifPresent(this::searchParallelism);
+            return this;
+        }
+
+        public LuceneConfiguration build() {
+            return new LuceneConfiguration(
+                refreshInterval.orElse(DEFAULT_REFRESH_INTERVAL),
+                refreshWriteThreshold.orElse(DEFAULT_REFRESH_WRITE_THRESHOLD),
+                commitInterval.orElse(DEFAULT_COMMIT_INTERVAL),
+                shardCount.orElse(DEFAULT_SHARD_COUNT),
+                shardingStrategy.orElse(DEFAULT_SHARDING_STRATEGY),
+                maxOpenShards.orElse(DEFAULT_MAX_OPEN_SHARDS),
+                searchParallelism.orElse(DEFAULT_SEARCH_PARALLELISM));
+        }
+    }
+
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(1);
+    /**
+     * Any write makes the next search see it: searches then read their own writes.
+     */
+    public static final int DEFAULT_REFRESH_WRITE_THRESHOLD = 1;
+    public static final Duration DEFAULT_COMMIT_INTERVAL = Duration.ofSeconds(5);
+    /**
+     * A single shard stores the whole index in the supplied directory.
+     */
+    public static final int DEFAULT_SHARD_COUNT = 1;
+    public static final ShardingStrategy DEFAULT_SHARDING_STRATEGY = ShardingStrategy.MAILBOX;
+    public static final int DEFAULT_MAX_OPEN_SHARDS = 16;
+    public static final int DEFAULT_SEARCH_PARALLELISM = 4;
+
+    public static final LuceneConfiguration DEFAULT_CONFIGURATION = builder().build();
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final Duration refreshInterval;
+    private final int refreshWriteThreshold;
+    private final Duration commitInterval;
+    private final int shardCount;
+    private final ShardingStrategy shardingStrategy;
+    private final int maxOpenShards;
+    private final int searchParallelism;
+
+    private LuceneConfiguration(Duration refreshInterval, int refreshWriteThreshold, Duration commitInterval,
+                                int shardCount, ShardingStrategy shardingStrategy, int maxOpenShards, int searchParallelism) {
+        this.refreshInterval = refreshInterval;
+        this.refreshWriteThreshold = refreshWriteThreshold;
+        this.commitInterval = commitInterval;
+        this.shardCount = shardCount;
+        this.shardingStrategy = shardingStrategy;
+        this.maxOpenShards = maxOpenShards;
+        this.searchParallelism = searchParallelism;
+    }
+
+    /**
+     * Maximum delay before writes become visible to searches.
+     */
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * Number of writes after which searches refresh the shared searcher before executing.
+     */
+    public int getRefreshWriteThreshold() {
+        return refreshWriteThreshold;
+    }
+
+    /**
+     * Period at which pending writes are committed to the index directory.
+     */
+    public Duration getCommitInterval() {
+        return commitInterval;
+    }
+
+    /**
+     * Number of index shards documents are routed to.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Whether documents are routed to shards by mailbox or by mailbox owner.
+     */
+    public ShardingStrategy getShardingStrategy() {
+        return shardingStrategy;
+    }
+
+    /**
+     * Maximum count of shards kept open. The least recently used shards are closed beyond it.
+     */
+    public int getMaxOpenShards() {
+        return maxOpenShards;
+    }
+
+    /**
+     * Number of threads searching shards in parallel.
+     */
+    public int getSearchParallelism() {
+        return searchParallelism;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof LuceneConfiguration) {
+            LuceneConfiguration that = (LuceneConfiguration) o;
+
+            return Objects.equals(this.refreshWriteThreshold, that.refreshWriteThreshold)
+                && Objects.equals(this.refreshInterval, that.refreshInterval)
+                && Objects.equals(this.commitInterval, that.commitInterval)
+                && Objects.equals(this.shardCount, that.shardCount)
+                && Objects.equals(this.shardingStrategy, that.shardingStrategy)
+                && Objects.equals(this.maxOpenShards, that.maxOpenShards)
+                && Objects.equals(this.searchParallelism, that.searchParallelism);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(refreshInterval, refreshWriteThreshold, commitInterval, shardCount, shardingStrategy,
+            maxOpenShards, searchParallelism);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("refreshInterval", refreshInterval)
+            .add("refreshWriteThreshold", refreshWriteThreshold)
+            .add("commitInterval", commitInterval)
+            .add("shardCount", shardCount)
+            .add("shardingStrategy", shardingStrategy)
+            .add("maxOpenShards", maxOpenShards)
+            .add("searchParallelism", searchParallelism)
+            .toString();
+    }
+}
@@ -68,11 +68,14 @@ import org.apache.james.mailbox.model.SearchQuery.UidRange;
 import org.apache.james.mailbox.model.UpdatedFlags;
 import org.apache.james.mailbox.store.MailboxSessionMapperFactory;
 import org.apache.james.mailbox.store.SessionProvider;
+import org.apache.james.mailbox.store.mail.MailboxMapper;
 import org.apache.james.mailbox.store.mail.model.Mailbox;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
 import org.apache.james.mailbox.store.search.ListeningMessageSearchIndex;
 import org.apache.james.mailbox.store.search.SearchUtil;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.NoopMetricFactory;
 import org.apache.james.mime4j.MimeException;
 import org.apache.james.mime4j.dom.Header;
 import org.apache.james.mime4j.dom.address.Address;
@@ -96,14 +99,11 @@ import org.apache.lucene.document.Field;
 import org.apache.lucene.document.Field.Index;
 import org.apache.lucene.document.Field.Store;
 import org.apache.lucene.document.NumericField;
-import org.apache.lucene.index.IndexReader;
-import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexWriterConfig.OpenMode;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
-import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.NumericRangeQuery;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
@@ -122,6 +122,7 @@ import org.slf4j.LoggerFactory;
 import com.github.steveash.guavate.Guavate;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 /**
  * Lucene based {@link ListeningMessageSearchIndex} which offers message searching via a Lucene index
@@ -358,14 +359,26 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
     
     private final MailboxId.Factory mailboxIdFactory;
     private final MessageId.Factory messageIdFactory;
-    private final IndexWriter writer;
-    private final Directory directory;
+    private final MailboxSessionMapperFactory mapperFactory;
+    private final LuceneConfiguration configuration;
+    private final LuceneShards shards;
 
     private int maxQueryResults = DEFAULT_MAX_QUERY_RESULTS;
 
     private boolean suffixMatch = false;
 
     @Inject
+    public LuceneMessageSearchIndex(
+        MailboxSessionMapperFactory factory,
+        MailboxId.Factory mailboxIdFactory,
+        Directory directory,
+        MessageId.Factory messageIdFactory,
+        SessionProvider sessionProvider,
+        LuceneConfiguration configuration,
+        MetricFactory metricFactory) throws IOException {
+        this(factory, mailboxIdFactory, directory, false, true, messageIdFactory, sessionProvider, configuration, metricFactory);
+    }
+
     public LuceneMessageSearchIndex(
         MailboxSessionMapperFactory factory,
         MailboxId.Factory mailboxIdFactory,
@@ -383,22 +396,36 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
             boolean lenient,
             MessageId.Factory messageIdFactory,
             SessionProvider sessionProvider) throws IOException {
+        this(factory, mailboxIdFactory, directory, dropIndexOnStart, lenient, messageIdFactory, sessionProvider,
+            LuceneConfiguration.DEFAULT_CONFIGURATION, new NoopMetricFactory());
+    }
+
+    public LuceneMessageSearchIndex(
+            MailboxSessionMapperFactory factory,
+            MailboxId.Factory mailboxIdFactory,
+            Directory directory,
+            boolean dropIndexOnStart,
+            boolean lenient,
+            MessageId.Factory messageIdFactory,
+            SessionProvider sessionProvider,
+            LuceneConfiguration configuration,
+            MetricFactory metricFactory) throws IOException {
         super(factory, sessionProvider);
         this.mailboxIdFactory = mailboxIdFactory;
         this.messageIdFactory = messageIdFactory;
-        this.directory = directory;
-        this.writer = new IndexWriter(this.directory,  createConfig(createAnalyzer(lenient), dropIndexOnStart));
+        this.mapperFactory = factory;
+        this.configuration = configuration;
+        this.shards = new LuceneShards(
+            LuceneShards.DirectoryFactory.from(directory, configuration.getShardCount()),
+            dropIndex -> createConfig(createAnalyzer(lenient), dropIndex),
+            dropIndexOnStart,
+            configuration,
+            metricFactory);
     }
 
     @PreDestroy
     public void close() throws IOException {
-        try {
-            writer.close();
-        } finally {
-            if (IndexWriter.isLocked(directory)) {
-                IndexWriter.unlock(directory);
-            }
-        }
+        shards.close();
     }
 
     @Override
@@ -466,7 +493,7 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
     public Iterator<MessageUid> search(MailboxSession session, Mailbox mailbox, SearchQuery searchQuery) throws MailboxException {
         Preconditions.checkArgument(session != null, "'session' is mandatory");
 
-        return searchMultimap(ImmutableList.of(mailbox.getMailboxId()), searchQuery)
+        return searchMultimap(ImmutableList.of(mailbox.getMailboxId()), ImmutableSet.of(shardOf(mailbox)), searchQuery)
             .stream()
             .map(SearchResult::getMessageUid)
             .iterator();
@@ -479,7 +506,7 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
             return ImmutableList.of();
         }
 
-        return searchMultimap(mailboxIds, searchQuery)
+        return searchMultimap(mailboxIds, shardsOf(session, mailboxIds), searchQuery)
             .stream()
             .map(searchResult -> searchResult.getMessageId().get())
             .filter(SearchUtil.distinct())
@@ -487,36 +514,68 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
             .collect(Guavate.toImmutableList());
     }
     
-    private List<SearchResult> searchMultimap(Collection<MailboxId> mailboxIds, SearchQuery searchQuery) throws MailboxException {
-        ImmutableList.Builder<SearchResult> results = ImmutableList.builder();
+    private int shardOf(Mailbox mailbox) {
+        switch (configuration.getShardingStrategy()) {
+            case USER:
+                return shards.shardOf(mailbox.getUser());
+            case MAILBOX:
+            default:
+                return shards.shardOf(mailbox.getMailboxId().serialize());
+        }
+    }
+
+    private Set<Integer> shardsOf(MailboxSession session, Collection<MailboxId> mailboxIds) throws MailboxException {
+        if (shards.getShardCount() == 1) {
+            return ImmutableSet.of(0);
+        }
+        switch (configuration.getShardingStrategy()) {
+            case USER:
+                MailboxMapper mailboxMapper = mapperFactory.getMailboxMapper(session);
+                ImmutableSet.Builder<Integer> userShards = ImmutableSet.builder();
+                for (MailboxId mailboxId : mailboxIds) {
+                    userShards.add(shardOf(mailboxMapper.findMailboxById(mailboxId)));
+                }
+                return userShards.build();
+            case MAILBOX:
+            default:
+                return mailboxIds.stream()
+                    .map(mailboxId -> shards.shardOf(mailboxId.serialize()))
+                    .collect(Guavate.toImmutableSet());
+        }
+    }
 
+    private List<SearchResult> searchMultimap(Collection<MailboxId> mailboxIds, Set<Integer> searchedShards, SearchQuery searchQuery) throws MailboxException {
         Query inMailboxes = buildQueryFromMailboxes(mailboxIds);
-        
-        try (IndexSearcher searcher = new IndexSearcher(IndexReader.open(writer, true))) {
-            BooleanQuery query = new BooleanQuery();
-            query.add(inMailboxes, BooleanClause.Occur.MUST);
-            // Not return flags documents
-            query.add(new PrefixQuery(new Term(FLAGS_FIELD, "")), BooleanClause.Occur.MUST_NOT);
 
-            List<Criterion> crits = searchQuery.getCriterias();
-            for (Criterion crit : crits) {
-                query.add(createQuery(crit, inMailboxes, searchQuery.getRecentMessageUids()), BooleanClause.Occur.MUST);
-            }
+        BooleanQuery query = new BooleanQuery();
+        query.add(inMailboxes, BooleanClause.Occur.MUST);
+        // Not return flags documents
+        query.add(new PrefixQuery(new Term(FLAGS_FIELD, "")), BooleanClause.Occur.MUST_NOT);
 
-            // query for all the documents sorted as specified in the SearchQuery
-            TopDocs docs = searcher.search(query, null, maxQueryResults, createSort(searchQuery.getSorts()));
-            ScoreDoc[] sDocs = docs.scoreDocs;
-            for (ScoreDoc sDoc : sDocs) {
-                Document doc = searcher.doc(sDoc.doc);
-                MessageUid uid = MessageUid.of(Long.valueOf(doc.get(UID_FIELD)));
-                MailboxId mailboxId = mailboxIdFactory.fromString(doc.get(MAILBOX_ID_FIELD));
-                Optional<MessageId> messageId = toMessageId(Optional.ofNullable(doc.get(MESSAGE_ID_FIELD)));
-                results.add(new SearchResult(messageId, mailboxId, uid));
-            }
+        List<Criterion> crits = searchQuery.getCriterias();
+        for (Criterion crit : crits) {
+            query.add(createQuery(crit, inMailboxes, searchedShards, searchQuery.getRecentMessageUids()), BooleanClause.Occur.MUST);
+        }
+
+        try {
+            return shards.withSearcher(searchedShards, searcher -> {
+                ImmutableList.Builder<SearchResult> results = ImmutableList.builder();
+
+                // query for all the documents sorted as specified in the SearchQuery
+                TopDocs docs = searcher.search(query, null, maxQueryResults, createSort(searchQuery.getSorts()));
+                ScoreDoc[] sDocs = docs.scoreDocs;
+                for (ScoreDoc sDoc : sDocs) {
+                    Document doc = searcher.doc(sDoc.doc);
+                    MessageUid uid = MessageUid.of(Long.valueOf(doc.get(UID_FIELD)));
+                    MailboxId mailboxId = mailboxIdFactory.fromString(doc.get(MAILBOX_ID_FIELD));
+                    Optional<MessageId> messageId = toMessageId(Optional.ofNullable(doc.get(MESSAGE_ID_FIELD)));
+                    results.add(new SearchResult(messageId, mailboxId, uid));
+                }
+                return results.build();
+            });
         } catch (IOException e) {
             throw new MailboxException("Unable to search the mailbox", e);
         }
-        return results.build();
     }
 
     private Optional<MessageId> toMessageId(Optional<String> messageIdField) {
@@ -959,7 +1018,7 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
      * @return query
      * @throws MailboxException
      */
-    private Query createFlagQuery(String flag, boolean isSet, Query inMailboxes, Collection<MessageUid> recentUids) throws MailboxException {
+    private Query createFlagQuery(String flag, boolean isSet, Query inMailboxes, Set<Integer> searchedShards, Collection<MessageUid> recentUids) throws MailboxException {
         BooleanQuery query = new BooleanQuery();
         
         if (isSet) {   
@@ -975,17 +1034,20 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
         query.add(inMailboxes, BooleanClause.Occur.MUST);
 
 
-        try (IndexSearcher searcher = new IndexSearcher(IndexReader.open(writer, true))) {
-            Set<MessageUid> uids = new HashSet<>();
+        try {
+            Set<MessageUid> uids = shards.withSearcher(searchedShards, searcher -> {
+                Set<MessageUid> foundUids = new HashSet<>();
+
+                // query for all the documents sorted by uid
+                TopDocs docs = searcher.search(query, null, maxQueryResults, new Sort(UID_SORT));
+                ScoreDoc[] sDocs = docs.scoreDocs;
+                for (ScoreDoc sDoc : sDocs) {
+                    MessageUid uid = MessageUid.of(Long.valueOf(searcher.doc(sDoc.doc).get(UID_FIELD)));
+                    foundUids.add(uid);
+                }
+                return foundUids;
+            });
 
-            // query for all the documents sorted by uid
-            TopDocs docs = searcher.search(query, null, maxQueryResults, new Sort(UID_SORT));
-            ScoreDoc[] sDocs = docs.scoreDocs;
-            for (ScoreDoc sDoc : sDocs) {
-                MessageUid uid = MessageUid.of(Long.valueOf(searcher.doc(sDoc.doc).get(UID_FIELD)));
-                uids.add(uid);
-            }
-            
             // add or remove recent uids
             if (flag.equalsIgnoreCase("\\RECENT")) {
                 if (isSet) {
@@ -1158,24 +1220,24 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
      * @return query
      * @throws UnsupportedSearchException
      */
-    private Query createConjunctionQuery(SearchQuery.ConjunctionCriterion crit, Query inMailboxes, Collection<MessageUid> recentUids) throws UnsupportedSearchException, MailboxException {
+    private Query createConjunctionQuery(SearchQuery.ConjunctionCriterion crit, Query inMailboxes, Set<Integer> searchedShards, Collection<MessageUid> recentUids) throws UnsupportedSearchException, MailboxException {
         List<Criterion> crits = crit.getCriteria();
         BooleanQuery conQuery = new BooleanQuery();
         switch (crit.getType()) {
         case AND:
             for (Criterion criterion : crits) {
-                conQuery.add(createQuery(criterion, inMailboxes, recentUids), BooleanClause.Occur.MUST);
+                conQuery.add(createQuery(criterion, inMailboxes, searchedShards, recentUids), BooleanClause.Occur.MUST);
             }
             return conQuery;
         case OR:
             for (Criterion criterion : crits) {
-                conQuery.add(createQuery(criterion, inMailboxes, recentUids), BooleanClause.Occur.SHOULD);
+                conQuery.add(createQuery(criterion, inMailboxes, searchedShards, recentUids), BooleanClause.Occur.SHOULD);
             }
             return conQuery;
         case NOR:
             BooleanQuery nor = new BooleanQuery();
             for (Criterion criterion : crits) {
-                conQuery.add(createQuery(criterion, inMailboxes, recentUids), BooleanClause.Occur.SHOULD);
+                conQuery.add(createQuery(criterion, inMailboxes, searchedShards, recentUids), BooleanClause.Occur.SHOULD);
             }
             nor.add(inMailboxes, BooleanClause.Occur.MUST);
 
@@ -1194,7 +1256,7 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
      * @return query
      * @throws UnsupportedSearchException
      */
-    private Query createQuery(Criterion criterion, Query inMailboxes, Collection<MessageUid> recentUids) throws MailboxException {
+    private Query createQuery(Criterion criterion, Query inMailboxes, Set<Integer> searchedShards, Collection<MessageUid> recentUids) throws MailboxException {
         if (criterion instanceof SearchQuery.InternalDateCriterion) {
             SearchQuery.InternalDateCriterion crit = (SearchQuery.InternalDateCriterion) criterion;
             return createInternalDateQuery(crit);
@@ -1209,13 +1271,13 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
             return createUidQuery(crit);
         } else if (criterion instanceof SearchQuery.FlagCriterion) {
             FlagCriterion crit = (FlagCriterion) criterion;
-            return createFlagQuery(toString(crit.getFlag()), crit.getOperator().isSet(), inMailboxes, recentUids);
+            return createFlagQuery(toString(crit.getFlag()), crit.getOperator().isSet(), inMailboxes, searchedShards, recentUids);
         } else if (criterion instanceof SearchQuery.AttachmentCriterion) {
             AttachmentCriterion crit = (AttachmentCriterion) criterion;
             return createAttachmentQuery(crit.getOperator().isSet());
         } else if (criterion instanceof SearchQuery.CustomFlagCriterion) {
             CustomFlagCriterion crit = (CustomFlagCriterion) criterion;
-            return createFlagQuery(crit.getFlag(), crit.getOperator().isSet(), inMailboxes, recentUids);
+            return createFlagQuery(crit.getFlag(), crit.getOperator().isSet(), inMailboxes, searchedShards, recentUids);
         } else if (criterion instanceof SearchQuery.TextCriterion) {
             SearchQuery.TextCriterion crit = (SearchQuery.TextCriterion) criterion;
             return createTextQuery(crit);
@@ -1223,7 +1285,7 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
             return createAllQuery((AllCriterion) criterion);
         } else if (criterion instanceof SearchQuery.ConjunctionCriterion) {
             SearchQuery.ConjunctionCriterion crit = (SearchQuery.ConjunctionCriterion) criterion;
-            return createConjunctionQuery(crit, inMailboxes, recentUids);
+            return createConjunctionQuery(crit, inMailboxes, searchedShards, recentUids);
         } else if (criterion instanceof SearchQuery.ModSeqCriterion) {
             return createModSeqQuery((SearchQuery.ModSeqCriterion) criterion);
         } else if (criterion instanceof SearchQuery.MimeMessageIDCriterion) {
@@ -1238,8 +1300,12 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
         Document doc = createMessageDocument(session, membership);
         Document flagsDoc = createFlagsDocument(membership);
 
-        writer.addDocument(doc);
-        writer.addDocument(flagsDoc);
+        shards.withShard(shardOf(mailbox), shard -> {
+            shard.getWriter().addDocument(doc);
+            shard.getWriter().addDocument(flagsDoc);
+            shard.getSearcher().writePerformed();
+            return null;
+        });
     }
 
     @Override
@@ -1250,12 +1316,13 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
     }
 
     private void update(Mailbox mailbox, MessageUid uid, Flags f) throws IOException {
-        try (IndexSearcher searcher = new IndexSearcher(IndexReader.open(writer, true))) {
-            BooleanQuery query = new BooleanQuery();
-            query.add(new TermQuery(new Term(MAILBOX_ID_FIELD, mailbox.getMailboxId().serialize())), BooleanClause.Occur.MUST);
-            query.add(createQuery(MessageRange.one(uid)), BooleanClause.Occur.MUST);
-            query.add(new PrefixQuery(new Term(FLAGS_FIELD, "")), BooleanClause.Occur.MUST);
+        BooleanQuery query = new BooleanQuery();
+        query.add(new TermQuery(new Term(MAILBOX_ID_FIELD, mailbox.getMailboxId().serialize())), BooleanClause.Occur.MUST);
+        query.add(createQuery(MessageRange.one(uid)), BooleanClause.Occur.MUST);
+        query.add(new PrefixQuery(new Term(FLAGS_FIELD, "")), BooleanClause.Occur.MUST);
 
+        // Flags documents to update might just have been written
+        shards.withShard(shardOf(mailbox), shard -> shard.getSearcher().withUpToDateSearcher(searcher -> {
             TopDocs docs = searcher.search(query, 100000);
             ScoreDoc[] sDocs = docs.scoreDocs;
             for (ScoreDoc sDoc : sDocs) {
@@ -1265,11 +1332,12 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
                     doc.removeFields(FLAGS_FIELD);
                     indexFlags(doc, f);
 
-                    writer.updateDocument(new Term(ID_FIELD, doc.get(ID_FIELD)), doc);
-
+                    shard.getWriter().updateDocument(new Term(ID_FIELD, doc.get(ID_FIELD)), doc);
+                    shard.getSearcher().writePerformed();
                 }
             }
-        }
+            return null;
+        }));
     }
 
     /**
@@ -1344,10 +1412,17 @@ public class LuceneMessageSearchIndex extends ListeningMessageSearchIndex {
         query.add(new TermQuery(new Term(MAILBOX_ID_FIELD, mailbox.getMailboxId().serialize())), BooleanClause.Occur.MUST);
         query.add(createQuery(range), BooleanClause.Occur.MUST);
 
-        writer.deleteDocuments(query);
+        shards.withShard(shardOf(mailbox), shard -> {
+            shard.getWriter().deleteDocuments(query);
+            shard.getSearcher().writePerformed();
+            return null;
+        });
     }
 
+    /**
+     * Commits pending writes right away. Writes are otherwise group-committed in the background.
+     */
     public void commit() throws IOException {
-        writer.commit();
+        shards.commit();
     }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.store.Directory;
+
+/**
+ * An independent Lucene index holding a subset of the indexed mailboxes, with its own {@link IndexWriter} and
+ * {@link NearRealTimeSearcher}.
+ *
+ * Borrow counting and eviction state are guarded by the owning {@link LuceneShards}.
+ */
+class LuceneShard implements Closeable {
+    private final int index;
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final NearRealTimeSearcher searcher;
+    private int borrowed;
+    private boolean evicted;
+
+    LuceneShard(int index, Directory directory, IndexWriter writer, NearRealTimeSearcher searcher) {
+        this.index = index;
+        this.directory = directory;
+        this.writer = writer;
+        this.searcher = searcher;
+        this.borrowed = 0;
+        this.evicted = false;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    IndexWriter getWriter() {
+        return writer;
+    }
+
+    NearRealTimeSearcher getSearcher() {
+        return searcher;
+    }
+
+    void borrow() {
+        borrowed++;
+    }
+
+    void giveBack() {
+        borrowed--;
+    }
+
+    boolean isBorrowed() {
+        return borrowed > 0;
+    }
+
+    boolean isEvicted() {
+        return evicted;
+    }
+
+    void setEvicted(boolean evicted) {
+        this.evicted = evicted;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            searcher.close();
+            writer.close();
+        } finally {
+            if (IndexWriter.isLocked(directory)) {
+                IndexWriter.unlock(directory);
+            }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.RAMDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Pool of the {@link LuceneShard}s an index is split into.
+ *
+ * At most {@link LuceneConfiguration#getMaxOpenShards()} shards are kept open, the least recently used ones being
+ * closed first. A shard evicted while in use is closed once given back, unless it is borrowed again in the meantime.
+ *
+ * Searches spanning several shards are executed in parallel against a {@link MultiReader} combining the near-real-time
+ * readers of these shards.
+ */
+class LuceneShards implements Closeable {
+
+    @FunctionalInterface
+    interface DirectoryFactory {
+        /**
+         * A single shard keeps using the supplied directory. Otherwise each shard is stored in its own sub-directory
+         * of a file system directory, or in memory.
+         */
+        static DirectoryFactory from(Directory directory, int shardCount) {
+            if (shardCount == 1) {
+                return shardIndex -> directory;
+            }
+            if (directory instanceof FSDirectory) {
+                File root = ((FSDirectory) directory).getDirectory();
+                return shardIndex -> FSDirectory.open(new File(root, "shard-" + shardIndex));
+            }
+            return shardIndex -> new RAMDirectory();
+        }
+
+        Directory open(int shardIndex) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface WriterConfigFactory {
+        IndexWriterConfig create(boolean dropIndex);
+    }
+
+    @FunctionalInterface
+    interface ShardFunction<T> {
+        T apply(LuceneShard shard) throws IOException;
+    }
+
+    static final String OPEN_SHARDS_METRIC_NAME = "lucene.shards.open";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LuceneShards.class);
+
+    private final LuceneConfiguration configuration;
+    private final MetricFactory metricFactory;
+    private final WriterConfigFactory writerConfigFactory;
+    private final boolean dropIndexOnStart;
+    private final Map<Integer, Directory> directories;
+    private final Set<Integer> openedOnce;
+    private final LinkedHashMap<Integer, LuceneShard> openShards;
+    private final Map<Integer, LuceneShard> evictedShards;
+    private final ExecutorService searchExecutor;
+    private final Metric openShardsMetric;
+    private final Object lock;
+
+    LuceneShards(DirectoryFactory directoryFactory, WriterConfigFactory writerConfigFactory, boolean dropIndexOnStart,
+                 LuceneConfiguration configuration, MetricFactory metricFactory) throws IOException {
+        this.configuration = configuration;
+        this.metricFactory = metricFactory;
+        this.writerConfigFactory = writerConfigFactory;
+        this.dropIndexOnStart = dropIndexOnStart;
+        this.directories = new HashMap<>();
+        this.openedOnce = new HashSet<>();
+        this.openShards = new LinkedHashMap<>(configuration.getMaxOpenShards(), 0.75f, true);
+        this.evictedShards = new HashMap<>();
+        this.openShardsMetric = metricFactory.generate(OPEN_SHARDS_METRIC_NAME);
+        this.lock = new Object();
+        this.searchExecutor = Executors.newFixedThreadPool(configuration.getSearchParallelism(), new ThreadFactoryBuilder()
+            .setNameFormat("lucene-shard-search-%d")
+            .setDaemon(true)
+            .build());
+
+        for (int shardIndex = 0; shardIndex < configuration.getShardCount(); shardIndex++) {
+            directories.put(shardIndex, directoryFactory.open(shardIndex));
+        }
+        if (dropIndexOnStart) {
+            // Shards are opened lazily: dropping them right away prevents searches from returning stale documents
+            for (int shardIndex = 0; shardIndex < configuration.getShardCount(); shardIndex++) {
+                withShard(shardIndex, shard -> null);
+            }
+        }
+    }
+
+    int getShardCount() {
+        return configuration.getShardCount();
+    }
+
+    int shardOf(String routingKey) {
+        return Math.floorMod(routingKey.hashCode(), configuration.getShardCount());
+    }
+
+    Set<Integer> allShards() {
+        Set<Integer> shards = new HashSet<>();
+        for (int shardIndex = 0; shardIndex < configuration.getShardCount(); shardIndex++) {
+            shards.add(shardIndex);
+        }
+        return shards;
+    }
+
+    <T> T withShard(int shardIndex, ShardFunction<T> function) throws IOException {
+        LuceneShard shard = borrow(shardIndex);
+        try {
+            return function.apply(shard);
+        } finally {
+            giveBack(shard);
+        }
+    }
+
+    /**
+     * Executes the function against a searcher spanning the given shards.
+     */
+    <T> T withSearcher(Set<Integer> shardIndexes, NearRealTimeSearcher.SearcherFunction<T> function) throws IOException {
+        if (shardIndexes.size() == 1) {
+            return withShard(shardIndexes.iterator().next(), shard -> shard.getSearcher().withSearcher(function));
+        }
+
+        List<LuceneShard> shards = new ArrayList<>();
+        List<IndexSearcher> searchers = new ArrayList<>();
+        try {
+            for (int shardIndex : shardIndexes) {
+                LuceneShard shard = borrow(shardIndex);
+                shards.add(shard);
+                searchers.add(shard.getSearcher().acquire());
+            }
+            IndexReader[] readers = searchers.stream()
+                .map(IndexSearcher::getIndexReader)
+                .toArray(IndexReader[]::new);
+            MultiReader multiReader = new MultiReader(readers, false);
+            try {
+                return function.apply(new IndexSearcher(multiReader, searchExecutor));
+            } finally {
+                multiReader.close();
+            }
+        } finally {
+            for (int i = 0; i < shards.size(); i++) {
+                LuceneShard shard = shards.get(i);
+                if (i < searchers.size()) {
+                    shard.getSearcher().release(searchers.get(i));
+                }
+                giveBack(shard);
+            }
+        }
+    }
+
+    void commit() throws IOException {
+        for (LuceneShard shard : borrowedOpenShards()) {
+            try {
+                shard.getSearcher().commit();
+            } finally {
+                giveBack(shard);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        searchExecutor.shutdownNow();
+        synchronized (lock) {
+            IOException failure = null;
+            for (LuceneShard shard : ImmutableList.<LuceneShard>builder()
+                    .addAll(openShards.values())
+                    .addAll(evictedShards.values())
+                    .build()) {
+                try {
+                    closeShard(shard);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            openShards.clear();
+            evictedShards.clear();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private List<LuceneShard> borrowedOpenShards() {
+        synchronized (lock) {
+            ImmutableList<LuceneShard> shards = ImmutableList.copyOf(openShards.values());
+            shards.forEach(LuceneShard::borrow);
+            return shards;
+        }
+    }
+
+    private LuceneShard borrow(int shardIndex) throws IOException {
+        synchronized (lock) {
+            LuceneShard shard = openShards.get(shardIndex);
+            if (shard == null) {
+                shard = evictedShards.remove(shardIndex);
+                if (shard != null) {
+                    shard.setEvicted(false);
+                } else {
+                    shard = openShard(shardIndex);
+                }
+                openShards.put(shardIndex, shard);
+            }
+            shard.borrow();
+            evictExceedingShards();
+            return shard;
+        }
+    }
+
+    private void giveBack(LuceneShard shard) throws IOException {
+        synchronized (lock) {
+            shard.giveBack();
+            if (shard.isEvicted() && !shard.isBorrowed()) {
+                evictedShards.remove(shard.getIndex());
+                closeShard(shard);
+            }
+        }
+    }
+
+    private void evictExceedingShards() {
+        Iterator<LuceneShard> leastRecentlyUsed = openShards.values().iterator();
+        while (openShards.size() > configuration.getMaxOpenShards() && leastRecentlyUsed.hasNext()) {
+            LuceneShard shard = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            if (shard.isBorrowed()) {
+                shard.setEvicted(true);
+                evictedShards.put(shard.getIndex(), shard);
+            } else {
+                try {
+                    closeShard(shard);
+                } catch (IOException e) {
+                    LOGGER.error("Error while closing Lucene shard {}", shard.getIndex(), e);
+                }
+            }
+        }
+    }
+
+    private LuceneShard openShard(int shardIndex) throws IOException {
+        Directory directory = directories.get(shardIndex);
+        boolean dropIndex = dropIndexOnStart && openedOnce.add(shardIndex);
+        IndexWriter writer = new IndexWriter(directory, writerConfigFactory.create(dropIndex));
+        try {
+            LuceneShard shard = new LuceneShard(shardIndex, directory, writer,
+                new NearRealTimeSearcher(writer, configuration, metricFactory));
+            openShardsMetric.increment();
+            return shard;
+        } catch (IOException | RuntimeException e) {
+            writer.close();
+            throw e;
+        }
+    }
+
+    private void closeShard(LuceneShard shard) throws IOException {
+        openShardsMetric.decrement();
+        shard.close();
+    }
+}
@@ -0,0 +1,200 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Shares reference counted near-real-time {@link IndexSearcher}s opened on an {@link IndexWriter}.
+ *
+ * Searchers are refreshed once the configured count of writes is reached, and in the background on a
+ * fixed interval. Writes are group-committed in the background.
+ */
+public class NearRealTimeSearcher implements Closeable {
+
+    @FunctionalInterface
+    public interface SearcherFunction<T> {
+        T apply(IndexSearcher searcher) throws IOException;
+    }
+
+    static final String REFRESH_TIMER_NAME = "lucene.searcher.refresh";
+    static final String COMMIT_TIMER_NAME = "lucene.index.commit";
+    static final String OPEN_READERS_METRIC_NAME = "lucene.searcher.open.readers";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NearRealTimeSearcher.class);
+
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final LuceneConfiguration configuration;
+    private final MetricFactory metricFactory;
+    private final ScheduledExecutorService scheduler;
+    private final Object refreshLock;
+    private final AtomicLong writesSinceRefresh;
+    private final AtomicBoolean uncommittedWrites;
+    private final Metric acquiredSearchers;
+
+    public NearRealTimeSearcher(IndexWriter writer, LuceneConfiguration configuration, MetricFactory metricFactory) throws IOException {
+        this.writer = writer;
+        this.searcherManager = new SearcherManager(writer, true, new SearcherFactory());
+        this.configuration = configuration;
+        this.metricFactory = metricFactory;
+        this.refreshLock = new Object();
+        this.writesSinceRefresh = new AtomicLong();
+        this.uncommittedWrites = new AtomicBoolean(false);
+        this.acquiredSearchers = metricFactory.generate(OPEN_READERS_METRIC_NAME);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("lucene-nrt-searcher-%d")
+            .setDaemon(true)
+            .build());
+
+        long refreshIntervalInMs = configuration.getRefreshInterval().toMillis();
+        long commitIntervalInMs = configuration.getCommitInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::backgroundRefresh, refreshIntervalInMs, refreshIntervalInMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::backgroundCommit, commitIntervalInMs, commitIntervalInMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Executes the function against the shared searcher, refreshing it first when the write threshold is reached.
+     */
+    public <T> T withSearcher(SearcherFunction<T> function) throws IOException {
+        refreshIfNeeded(configuration.getRefreshWriteThreshold());
+        return withAcquiredSearcher(function);
+    }
+
+    /**
+     * Executes the function against a searcher seeing every write performed so far.
+     */
+    public <T> T withUpToDateSearcher(SearcherFunction<T> function) throws IOException {
+        refreshIfNeeded(1);
+        return withAcquiredSearcher(function);
+    }
+
+    /**
+     * To be called once a write had been performed on the underlying {@link IndexWriter}.
+     */
+    public void writePerformed() {
+        writesSinceRefresh.incrementAndGet();
+        uncommittedWrites.set(true);
+    }
+
+    public void commit() throws IOException {
+        if (uncommittedWrites.getAndSet(false)) {
+            TimeMetric timeMetric = metricFactory.timer(COMMIT_TIMER_NAME);
+            try {
+                writer.commit();
+            } catch (IOException | RuntimeException e) {
+                uncommittedWrites.set(true);
+                throw e;
+            } finally {
+                timeMetric.stopAndPublish();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdownNow();
+        searcherManager.close();
+    }
+
+    /**
+     * Acquires the shared searcher, refreshing it first when the write threshold is reached.
+     *
+     * Acquired searchers need to be released with {@link #release(IndexSearcher)}.
+     */
+    IndexSearcher acquire() throws IOException {
+        refreshIfNeeded(configuration.getRefreshWriteThreshold());
+        IndexSearcher searcher = searcherManager.acquire();
+        acquiredSearchers.increment();
+        return searcher;
+    }
+
+    void release(IndexSearcher searcher) throws IOException {
+        acquiredSearchers.decrement();
+        searcherManager.release(searcher);
+    }
+
+    private <T> T withAcquiredSearcher(SearcherFunction<T> function) throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        acquiredSearchers.increment();
+        try {
+            return function.apply(searcher);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    private void refreshIfNeeded(long writeThreshold) throws IOException {
+        if (writesSinceRefresh.get() >= writeThreshold) {
+            refresh();
+        }
+    }
+
+    private void refresh() throws IOException {
+        // maybeRefresh does not wait for concurrent refreshes: serializing them guarantees this one is performed
+        synchronized (refreshLock) {
+            long refreshedWrites = writesSinceRefresh.get();
+            if (refreshedWrites == 0) {
+                return;
+            }
+            TimeMetric timeMetric = metricFactory.timer(REFRESH_TIMER_NAME);
+            try {
+                searcherManager.maybeRefresh();
+                writesSinceRefresh.addAndGet(-refreshedWrites);
+            } finally {
+                timeMetric.stopAndPublish();
+            }
+        }
+    }
+
+    private void backgroundRefresh() {
+        try {
+            refreshIfNeeded(1);
+        } catch (Exception e) {
+            LOGGER.error("Error while refreshing Lucene searcher", e);
+        }
+    }
+
+    private void backgroundCommit() {
+        try {
+            commit();
+        } catch (Exception e) {
+            LOGGER.error("Error while committing Lucene index", e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailbox.lucene.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.james.metrics.api.NoopMetricFactory;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.Field.Index;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jayway.awaitility.Awaitility;
+
+public class NearRealTimeSearcherTest {
+    private RAMDirectory directory;
+    private IndexWriter writer;
+    private NearRealTimeSearcher testee;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = new RAMDirectory();
+        writer = new IndexWriter(directory, new IndexWriterConfig(Version.LUCENE_31, new LenientImapSearchAnalyzer()));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        testee.close();
+        writer.close();
+    }
+
+    private NearRealTimeSearcher createSearcher(LuceneConfiguration configuration) throws IOException {
+        return new NearRealTimeSearcher(writer, configuration, new NoopMetricFactory());
+    }
+
+    private void write(String id) throws IOException {
+        Document document = new Document();
+        document.add(new Field("id", id, Store.YES, Index.NOT_ANALYZED));
+        writer.addDocument(document);
+        testee.writePerformed();
+    }
+
+    private int countWithSearcher() throws IOException {
+        return testee.withSearcher(searcher -> searcher.search(new MatchAllDocsQuery(), 10).totalHits);
+    }
+
+    @Test
+    public void withSearcherShouldSeePreviousWritesByDefault() throws Exception {
+        testee = createSearcher(LuceneConfiguration.DEFAULT_CONFIGURATION);
+
+        write("1");
+        write("2");
+
+        assertThat(countWithSearcher()).isEqualTo(2);
+    }
+
+    @Test
+    public void withSearcherShouldNotRefreshBeforeWriteThreshold() throws Exception {
+        testee = createSearcher(LuceneConfiguration.builder()
+            .refreshWriteThreshold(3)
+            .refreshInterval(Duration.ofHours(1))
+            .build());
+
+        write("1");
+        write("2");
+
+        assertThat(countWithSearcher()).isEqualTo(0);
+    }
+
+    @Test
+    public void withSearcherShouldRefreshOnceWriteThresholdIsReached() throws Exception {
+        testee = createSearcher(LuceneConfiguration.builder()
+            .refreshWriteThreshold(3)
+            .refreshInterval(Duration.ofHours(1))
+            .build());
+
+        write("1");
+        write("2");
+        write("3");
+
+        assertThat(countWithSearcher()).isEqualTo(3);
+    }
+
+    @Test
+    public void withUpToDateSearcherShouldSeeAllWrites() throws Exception {
+        testee = createSearcher(LuceneConfiguration.builder()
+            .refreshWriteThreshold(3)
+            .refreshInterval(Duration.ofHours(1))
+            .build());
+
+        write("1");
+
+        assertThat(testee.withUpToDateSearcher(searcher -> searcher.search(new MatchAllDocsQuery(), 10).totalHits))
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void writesShouldBeVisibleAfterRefreshInterval() throws Exception {
+        testee = createSearcher(LuceneConfiguration.builder()
+            .refreshWriteThreshold(3)
+            .refreshInterval(Duration.ofMillis(100))
+            .build());
+
+        write("1");
+
+        Awaitility.await()
+            .atMost(10, TimeUnit.SECONDS)
+            .until(() -> countWithSearcher() == 1);
+    }
+
+    @Test
+    public void writesShouldBeCommittedInTheBackground() throws Exception {
+        testee = createSearcher(LuceneConfiguration.builder()
+            .commitInterval(Duration.ofMillis(100))
+            .build());
+
+        write("1");
+
+        Awaitility.await()
+            .atMost(10, TimeUnit.SECONDS)
+            .until(() -> committedDocumentCount() == 1);
+    }
+
+    @Test
+    public void commitShouldPersistWrites() throws Exception {
+        testee = createSearcher(LuceneConfiguration.builder()
+            .commitInterval(Duration.ofHours(1))
+            .build());
+
+        write("1");
+        testee.commit();
+
+        assertThat(committedDocumentCount()).isEqualTo(1);
+    }
+
+    private int committedDocumentCount() throws IOException {
+        try (IndexReader reader = IndexReader.open(directory)) {
+            return reader.numDocs();
+        }
+    }
+}
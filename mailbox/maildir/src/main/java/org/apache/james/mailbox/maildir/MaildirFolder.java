@@ -18,30 +18,25 @@
  ****************************************************************/
 package org.apache.james.mailbox.maildir;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.io.FileReader;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.james.mailbox.MailboxPathLocker;
 import org.apache.james.mailbox.MailboxPathLocker.LockAwareExecution;
 import org.apache.james.mailbox.MailboxSession;
@@ -51,14 +46,11 @@ import org.apache.james.mailbox.model.MailboxACL;
 import org.apache.james.mailbox.model.MailboxACL.EntryKey;
 import org.apache.james.mailbox.model.MailboxACL.Rfc4314Rights;
 import org.apache.james.mailbox.model.MailboxPath;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 public class MaildirFolder {
-    private static final Logger LOGGER = LoggerFactory.getLogger(MaildirFolder.class);
-
     public static final String VALIDITY_FILE = "james-uidvalidity";
     public static final String UIDLIST_FILE = "james-uidlist";
+    public static final String UIDLIST_JOURNAL_FILE = "james-uidlist-journal";
     public static final String ACL_FILE = "james-acl";
     public static final String MAILBOX_ID_FILE = "james-mailboxId";
     public static final String CUR = "cur";
@@ -69,12 +61,10 @@ public class MaildirFolder {
     private final File curFolder;
     private final File newFolder;
     private final File tmpFolder;
-    private final File uidFile;
     private final File aclFile;
     private final File mailboxIdFile;
+    private final MaildirUidList uidList;
 
-    private Optional<MessageUid> lastUid;
-    private int messageCount = 0;
     private long uidValidity = -1;
     private MailboxACL acl;
     private boolean messageNameStrictParse = false;
@@ -89,16 +79,24 @@ public class MaildirFolder {
      * @param absPath The absolute path of the mailbox folder
      */
     public MaildirFolder(String absPath, MailboxPath path, MailboxPathLocker locker) {
+        this(absPath, path, locker, new MaildirUidList(new File(absPath)));
+    }
+
+    /**
+     * Representation of a maildir folder sharing the in-memory index of its uid list
+     * @param absPath The absolute path of the mailbox folder
+     * @param uidList The index of the uid list of this folder
+     */
+    public MaildirFolder(String absPath, MailboxPath path, MailboxPathLocker locker, MaildirUidList uidList) {
         this.rootFolder = new File(absPath);
         this.curFolder = new File(rootFolder, CUR);
         this.newFolder = new File(rootFolder, NEW);
         this.tmpFolder = new File(rootFolder, TMP);
-        this.uidFile = new File(rootFolder, UIDLIST_FILE);
         this.aclFile = new File(rootFolder, ACL_FILE);
         this.mailboxIdFile = new File(rootFolder, MAILBOX_ID_FILE);
         this.locker = locker;
         this.path = path;
-        this.lastUid = Optional.empty();
+        this.uidList = uidList;
     }
 
     private MaildirMessageName newMaildirMessageName(MaildirFolder folder, String fullName) {
@@ -145,22 +143,6 @@ public class MaildirFolder {
         return rootFolder.isDirectory() && curFolder.isDirectory() && newFolder.isDirectory() && tmpFolder.isDirectory();
     }
     
-    /**
-     * Checks whether the folder's contents have been changed after
-     * the uidfile has been created.
-     * @return true if the contents have been changed.
-     */
-    private boolean isModified() {
-        long uidListModified = uidFile.lastModified();
-        long curModified = curFolder.lastModified();
-        long newModified = newFolder.lastModified();
-        // because of bad time resolution of file systems we also check "equals"
-        if (curModified >= uidListModified || newModified >= uidListModified) {
-            return true;
-        }
-        return false;
-    }
-    
     /**
      * Returns the ./cur folder of this Maildir folder.
      * @return the <code>./cur</code> folder
@@ -189,23 +171,17 @@ public class MaildirFolder {
         return tmpFolder;
     }
     
-    /**
-     * Returns the nextUid value and increases it.
-     */
-    private MessageUid getNextUid() {
-        MessageUid nextUid = lastUid.map(MessageUid::next).orElse(MessageUid.MIN_VALUE);
-        lastUid = Optional.of(nextUid);
-        return nextUid;
-    }
-    
     /**
      * Returns the last uid used in this mailbox
      */
     public Optional<MessageUid> getLastUid(MailboxSession session) throws MailboxException {
-        if (!lastUid.isPresent()) {
-            readLastUid(session);
-        }
-        return lastUid;
+        return locker.executeWithLock(session, path, () -> {
+            try {
+                return uidList.getLastUid();
+            } catch (IOException e) {
+                throw new MailboxException("Unable to read last uid", e);
+            }
+        }, true);
     }
     
     public long getHighestModSeq() throws IOException {
@@ -217,36 +193,6 @@ public class MaildirFolder {
         return Math.max(newModified, curModified);
     }
 
-    /**
-     * Read the lastUid of the given mailbox from the file system.
-     * 
-     * @param session
-     * @throws MailboxException if there are problems with the uidList file
-     */
-    private void readLastUid(MailboxSession session) throws MailboxException {
-        locker.executeWithLock(session, path,
-            (LockAwareExecution<Void>) () -> {
-            File uidList = uidFile;
-
-            if (!uidList.exists()) {
-                createUidFile();
-            }
-            try (FileReader fileReader = new FileReader(uidList);
-                 BufferedReader reader = new BufferedReader(fileReader)) {
-
-                String line = reader.readLine();
-                if (line != null) {
-                    readUidListHeader(line);
-                }
-                return null;
-            } catch (IOException e) {
-                throw new MailboxException("Unable to read last uid", e);
-            }
-        }, true);
-        
-        
-    }
-
     /**
      * Returns the uidValidity of this mailbox
      * @return The uidValidity
@@ -367,33 +313,11 @@ public class MaildirFolder {
      * @throws IOException If the uidlist file cannot be found or read
      */
     public MaildirMessageName getMessageNameByUid(final MailboxSession session, final MessageUid uid) throws MailboxException {
-       
         return locker.executeWithLock(session, path, () -> {
-            File uidList = uidFile;
-            try (FileReader fileReader = new FileReader(uidList);
-                 BufferedReader reader = new BufferedReader(fileReader)) {
-
-                String uidString = String.valueOf(uid.asLong());
-                String line = reader.readLine(); // the header
-                int lineNumber = 1; // already read the first line
-                while ((line = reader.readLine()) != null) {
-                    lineNumber++;
-                    if (!line.equals("")) {
-                        int gap = line.indexOf(" ");
-                        if (gap == -1) {
-                            // there must be some issues in the file if no gap can be found
-                            LOGGER.info("Corrupted entry in uid-file {} line {}", uidList, lineNumber);
-                            continue;
-                        }
-
-                        if (line.substring(0, gap).equals(uidString)) {
-                            return newMaildirMessageName(MaildirFolder.this, line.substring(gap + 1));
-                        }
-                    }
-                }
-
-                // TODO: Is this right!?
-                return null;
+            try {
+                return uidList.getName(uid)
+                    .map(name -> newMaildirMessageName(MaildirFolder.this, name))
+                    .orElse(null);
             } catch (IOException e) {
                 throw new MailboxException("Unable to read messagename for uid " + uid, e);
             }
@@ -413,29 +337,11 @@ public class MaildirFolder {
     public SortedMap<MessageUid, MaildirMessageName> getUidMap(final MailboxSession session, final MessageUid from, final MessageUid to)
     throws MailboxException {
         return locker.executeWithLock(session, path, () -> {
-            final SortedMap<MessageUid, MaildirMessageName> uidMap = new TreeMap<>();
-
-            File uidList = uidFile;
-
-            if (uidList.isFile()) {
-                if (isModified()) {
-                    try {
-                        uidMap.putAll(truncateMap(updateUidFile(), from, to));
-                    } catch (MailboxException e) {
-                        // weird case if someone deleted the uidlist after
-                        // checking its
-                        // existence and before trying to update it.
-                        uidMap.putAll(truncateMap(createUidFile(), from, to));
-                    }
-                } else {
-                    // the uidList is up to date
-                    uidMap.putAll(readUidFile(session, from, to));
-                }
-            } else {
-                // the uidList does not exist
-                uidMap.putAll(truncateMap(createUidFile(), from, to));
+            try {
+                return toMessageNames(uidList.getNames(from, to));
+            } catch (IOException e) {
+                throw new MailboxException("Unable to read uid file", e);
             }
-            return uidMap;
         }, true);
     }
     
@@ -492,72 +398,13 @@ public class MaildirFolder {
      * @throws MailboxException If there is a problem with the uid list file
      */
     public SortedMap<MessageUid, MaildirMessageName> getRecentMessages(final MailboxSession session) throws MailboxException {
-        final String[] recentFiles = getNewFolder().list();
-        final LinkedList<String> lines = new LinkedList<>();
-        final int theLimit = recentFiles.length;
+        final Set<String> recentFiles = new HashSet<>(Arrays.asList(getNewFolder().list()));
         return locker.executeWithLock(session, path, () -> {
             final SortedMap<MessageUid, MaildirMessageName> recentMessages = new TreeMap<>();
-
-            File uidList = uidFile;
-
             try {
-                if (!uidList.isFile()) {
-                    if (!uidList.createNewFile()) {
-                        throw new IOException("Could not create file " + uidList);
-                    }
-                    String[] curFiles = curFolder.list();
-                    String[] newFiles = newFolder.list();
-                    messageCount = curFiles.length + newFiles.length;
-                    String[] allFiles = ArrayUtils.addAll(curFiles, newFiles);
-                    for (String file : allFiles) {
-                        lines.add(String.valueOf(getNextUid().asLong()) + " " + file);
-                    }
-
-                    try (PrintWriter pw = new PrintWriter(uidList)) {
-                        pw.println(createUidListHeader());
-                        for (String line : lines) {
-                            pw.println(line);
-                        }
-                    }
-                } else {
-                    try (FileReader fileReader = new FileReader(uidList);
-                        BufferedReader reader = new BufferedReader(fileReader)) {
-
-                            reader.readLine();
-                            // the first line in the file contains the next uid and message count
-                            String line;
-                            while ((line = reader.readLine()) != null) {
-                                lines.add(line);
-                            }
-                        }
-                }
-                int counter = 0;
-                String line;
-                while (counter < theLimit) {
-                    // walk backwards as recent files are supposedly recent
-                    try {
-                        line = lines.removeLast();
-                    } catch (NoSuchElementException e) {
-                        break; // the list is empty
-                    }
-                    if (!line.equals("")) {
-                        int gap = line.indexOf(" ");
-                        if (gap == -1) {
-                            // there must be some issues in the file if no gap can be found
-                            // there must be some issues in the file if no gap can be found
-                            LOGGER.info("Corrupted entry in uid-file {} line {}", uidList, lines.size());
-                            continue;
-                        }
-
-                        MessageUid uid = MessageUid.of(Long.valueOf(line.substring(0, gap)));
-                        String name = line.substring(gap + 1, line.length());
-                        for (String recentFile : recentFiles) {
-                            if (recentFile.equals(name)) {
-                                recentMessages.put(uid, newMaildirMessageName(MaildirFolder.this, recentFile));
-                                counter++;
-                                break;
-                            }
-                        }
+                for (Entry<MessageUid, String> entry : uidList.getNames(MessageUid.MIN_VALUE, null).entrySet()) {
+                    if (recentFiles.contains(entry.getValue())) {
+                        recentMessages.put(entry.getKey(), newMaildirMessageName(MaildirFolder.this, entry.getValue()));
                     }
                 }
             } catch (IOException e) {
@@ -566,185 +413,14 @@ public class MaildirFolder {
             return recentMessages;
         }, true);
     }
-    
-    
-    /**
-     * Creates and returns a uid map (uid -> {@link MaildirMessageName}) and writes it to the disk
-     * @return The uid map
-     */
-    private Map<MessageUid, MaildirMessageName> createUidFile() throws MailboxException {
-        final Map<MessageUid, MaildirMessageName> uidMap = new TreeMap<>();
-        File uidList = uidFile;
-        try {
-            if (!uidList.createNewFile()) {
-                throw new IOException("Could not create file " + uidList);
-            }
-            lastUid = Optional.empty();
-            String[] curFiles = curFolder.list();
-            String[] newFiles = newFolder.list();
-            messageCount = curFiles.length + newFiles.length;
-            String[] allFiles = (String[]) ArrayUtils.addAll(curFiles, newFiles);
-            for (String file : allFiles) {
-                uidMap.put(getNextUid(), newMaildirMessageName(MaildirFolder.this, file));
-            }
-            try (PrintWriter pw = new PrintWriter(uidList)) {
-                pw.println(createUidListHeader());
-                for (Entry<MessageUid, MaildirMessageName> entry : uidMap.entrySet()) {
-                    pw.println(String.valueOf(entry.getKey().asLong()) + " " + entry.getValue().getFullName());
-                }
-            }
-        } catch (IOException e) {
-            throw new MailboxException("Unable to create uid file", e);
-        }
 
-        return uidMap;
-    }
-    
-    private Map<MessageUid, MaildirMessageName> updateUidFile() throws MailboxException {
-        final Map<MessageUid, MaildirMessageName> uidMap = new TreeMap<>();
-        File uidList = uidFile;
-        String[] curFiles = curFolder.list();
-        String[] newFiles = newFolder.list();
-        messageCount = curFiles.length + newFiles.length;
-        HashMap<String, MessageUid> reverseUidMap = new HashMap<>(messageCount);
-        try (FileReader fileReader = new FileReader(uidList);
-            BufferedReader reader = new BufferedReader(fileReader)) {
-            String line = reader.readLine();
-            // the first line in the file contains the next uid and message count
-            if (line != null) {
-                readUidListHeader(line);
-            }
-            int lineNumber = 1; // already read the first line
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                if (!line.equals("")) {
-                    int gap = line.indexOf(" ");
-                    if (gap == -1) {
-                        // there must be some issues in the file if no gap can be found
-                        throw new MailboxException("Corrupted entry in uid-file " + uidList + " line " + lineNumber);
-                    }
-                    MessageUid uid = MessageUid.of(Long.valueOf(line.substring(0, gap)));
-                    String name = line.substring(gap + 1, line.length());
-                    reverseUidMap.put(stripMetaFromName(name), uid);
-                }
-            }
-            String[] allFiles = (String[]) ArrayUtils.addAll(curFiles, newFiles);
-            for (String file : allFiles) {
-                MaildirMessageName messageName = newMaildirMessageName(MaildirFolder.this, file);
-                MessageUid uid = reverseUidMap.get(messageName.getBaseName());
-                if (uid == null) {
-                    uid = getNextUid();
-                }
-                uidMap.put(uid, messageName);
-            }
-            try (PrintWriter pw = new PrintWriter(uidList)) {
-                pw.println(createUidListHeader());
-                for (Entry<MessageUid, MaildirMessageName> entry : uidMap.entrySet()) {
-                    pw.println(String.valueOf(entry.getKey().asLong()) + " " + entry.getValue().getFullName());
-                }
-            }
-        } catch (IOException e) {
-            throw new MailboxException("Unable to update uid file", e);
+    private SortedMap<MessageUid, MaildirMessageName> toMessageNames(SortedMap<MessageUid, String> names) {
+        SortedMap<MessageUid, MaildirMessageName> uidMap = new TreeMap<>();
+        for (Entry<MessageUid, String> entry : names.entrySet()) {
+            uidMap.put(entry.getKey(), newMaildirMessageName(MaildirFolder.this, entry.getValue()));
         }
         return uidMap;
     }
-
-    private Map<MessageUid, MaildirMessageName> readUidFile(MailboxSession session, MessageUid from, MessageUid to) throws MailboxException {
-        final Map<MessageUid, MaildirMessageName> uidMap = new HashMap<>();
-
-        File uidList = uidFile;
-        try (FileReader fileReader = new FileReader(uidList);
-            BufferedReader reader = new BufferedReader(fileReader)) {
-
-            String line = reader.readLine();
-            // the first line in the file contains the next uid and message
-            // count
-            if (line != null) {
-                readUidListHeader(line);
-            }
-            int lineNumber = 1; // already read the first line
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                if (!line.equals("")) {
-                    int gap = line.indexOf(" ");
-
-                    if (gap == -1) {
-                        // there must be some issues in the file if no gap can be found
-                        LOGGER.info("Corrupted entry in uid-file {} line {}", uidList, lineNumber);
-                        continue;
-                    }
-                    
-                    MessageUid uid = MessageUid.of(Long.valueOf(line.substring(0, gap)));
-                    if (uid.compareTo(from) >= 0) {
-                        if (to != null && uid.compareTo(to) > 0) {
-                            break;
-                        }
-                        String name = line.substring(gap + 1, line.length());
-                        uidMap.put(uid, newMaildirMessageName(MaildirFolder.this, name));
-                    }
-                }
-            }
-        } catch (IOException e) {
-            throw new MailboxException("Unable to read uid file", e);
-        }
-        messageCount = uidMap.size();
-
-        return uidMap;
-    }
-    
-    /**
-     * Sorts the given map and returns a subset which is constricted by a lower and an upper limit.
-     * @param map The source map
-     * @param from The lower limit
-     * @param to The upper limit; <code>-1</code> disables the upper limit.
-     * @return The sorted subset
-     */
-    private SortedMap<MessageUid, MaildirMessageName> truncateMap(Map<MessageUid, MaildirMessageName> map, MessageUid from, MessageUid to) {
-        TreeMap<MessageUid, MaildirMessageName> sortedMap;
-        if (map instanceof TreeMap<?, ?>) {
-            sortedMap = (TreeMap<MessageUid, MaildirMessageName>) map;
-        } else {
-            sortedMap = new TreeMap<>(map);
-        }
-        if (to != null) {
-            return sortedMap.subMap(from, to.next());
-        }
-        return sortedMap.tailMap(from);
-    }
-    
-    /**
-     * Parses the header line in uid list files.
-     * The format is: version lastUid messageCount (e.g. 1 615 273)
-     * @param line The raw header line
-     * @throws IOException
-     */
-    private void readUidListHeader(String line) throws IOException {
-        if (line == null) {
-            throw new IOException("Header entry in uid-file is null");
-        }
-        int gap1 = line.indexOf(" ");
-        if (gap1 == -1) {
-            // there must be some issues in the file if no gap can be found
-            throw new IOException("Corrupted header entry in uid-file");
-            
-        }
-        int version = Integer.valueOf(line.substring(0, gap1));
-        if (version != 1) {
-            throw new IOException("Cannot read uidlists with versions other than 1.");
-        }
-        int gap2 = line.indexOf(" ", gap1 + 1);
-        lastUid = Optional.of(MessageUid.of(Long.valueOf(line.substring(gap1 + 1, gap2))));
-        messageCount = Integer.valueOf(line.substring(gap2 + 1, line.length()));
-    }
-    
-    /**
-     * Creates a line to put as a header in the uid list file.
-     * @return the line which ought to be the header
-     */
-    private String createUidListHeader() {
-        Long last = lastUid.map(MessageUid::asLong).orElse(0L);
-        return "1 " + String.valueOf(last) + " " + String.valueOf(messageCount);
-    }
     
     /**
      * Takes the name of a message file and returns only the base name.
@@ -770,64 +446,11 @@ public class MaildirFolder {
      */
     public MessageUid appendMessage(MailboxSession session, final String name) throws MailboxException {
         return locker.executeWithLock(session, path, () -> {
-            File uidList = uidFile;
-            MessageUid uid = null;
             try {
-                if (uidList.isFile()) {
-                    try (FileReader fileReader = new FileReader(uidList);
-                        BufferedReader reader = new BufferedReader(fileReader)) {
-                        String line = reader.readLine();
-                        // the first line in the file contains the next uid and message count
-                        if (line != null) {
-                            readUidListHeader(line);
-                        }
-                        ArrayList<String> lines = new ArrayList<>();
-                        while ((line = reader.readLine()) != null) {
-                            lines.add(line);
-                        }
-                        uid = getNextUid();
-                        lines.add(String.valueOf(uid.asLong()) + " " + name);
-                        messageCount++;
-                        try (PrintWriter pw = new PrintWriter(uidList)) {
-                            pw.println(createUidListHeader());
-                            for (String entry : lines) {
-                                pw.println(entry);
-                            }
-                        }
-                    }
-                } else {
-                    // create the file
-                    if (!uidList.createNewFile()) {
-                        throw new IOException("Could not create file " + uidList);
-                    }
-                    String[] curFiles = curFolder.list();
-                    String[] newFiles = newFolder.list();
-                    messageCount = curFiles.length + newFiles.length;
-                    ArrayList<String> lines = new ArrayList<>();
-                    String[] allFiles = (String[]) ArrayUtils.addAll(curFiles, newFiles);
-                    for (String file : allFiles) {
-                        MessageUid theUid = getNextUid();
-                        lines.add(String.valueOf(theUid.asLong()) + " " + file);
-                        // the listed names already include the message to append
-                        if (file.equals(name)) {
-                            uid = theUid;
-                        }
-                    }
-                    try (PrintWriter pw = new PrintWriter(uidList)) {
-                        pw.println(createUidListHeader());
-                        for (String line : lines) {
-                            pw.println(line);
-                        }
-                    }
-                }
+                return uidList.append(name);
             } catch (IOException e) {
                 throw new MailboxException("Unable to append msg", e);
             }
-            if (uid == null) {
-                throw new MailboxException("Unable to append msg");
-            } else {
-               return uid;
-            }
         }, true);
 
     }
@@ -841,25 +464,8 @@ public class MaildirFolder {
      */
     public void update(MailboxSession session, final MessageUid uid, final String messageName) throws MailboxException {
         locker.executeWithLock(session, path, (LockAwareExecution<Void>) () -> {
-            File uidList = uidFile;
-            try (FileReader fileReader = new FileReader(uidList);
-                BufferedReader reader = new BufferedReader(fileReader)) {
-
-                String line = reader.readLine();
-                readUidListHeader(line);
-                ArrayList<String> lines = new ArrayList<>();
-                while ((line = reader.readLine()) != null) {
-                    if (uid.equals(MessageUid.of(Long.valueOf(line.substring(0, line.indexOf(" ")))))) {
-                        line = String.valueOf(uid.asLong()) + " " + messageName;
-                    }
-                    lines.add(line);
-                }
-                try (PrintWriter writer = new PrintWriter(uidList)) {
-                    writer.println(createUidListHeader());
-                    for (String entry : lines) {
-                        writer.println(entry);
-                    }
-                }
+            try {
+                uidList.update(uid, messageName);
             } catch (IOException e) {
                 throw new MailboxException("Unable to update msg with uid " + uid, e);
             }
@@ -877,44 +483,15 @@ public class MaildirFolder {
      */
     public MaildirMessageName delete(final MailboxSession session, final MessageUid uid) throws MailboxException {        
         return locker.executeWithLock(session, path, () -> {
-            File uidList = uidFile;
-            MaildirMessageName deletedMessage = null;
-            try (FileReader fileReader = new FileReader(uidList);
-                BufferedReader reader = new BufferedReader(fileReader)) {
-
-                readUidListHeader(reader.readLine());
-
-                // It may be possible that message count is 0 so we should better not try to calculate the size of the ArrayList
-                ArrayList<String> lines = new ArrayList<>();
-                String line;
-                int lineNumber = 0;
-                while ((line = reader.readLine()) != null) {
-                    lineNumber++;
-                    int gap = line.indexOf(" ");
-                    if (gap == -1) {
-                        // there must be some issues in the file if no gap can be found
-                        LOGGER.info("Corrupted entry in uid-file {} line {}", uidList, lineNumber);
-                        continue;
-                    }
-
-                    if (uid.equals(MessageUid.of(Long.valueOf(line.substring(0, line.indexOf(" ")))))) {
-                        deletedMessage = newMaildirMessageName(MaildirFolder.this, line.substring(gap + 1, line.length()));
-                        messageCount--;
-                    } else {
-                        lines.add(line);
-                    }
-                }
-                if (deletedMessage != null) {
-                    FileUtils.forceDelete(deletedMessage.getFile());
-                    try (PrintWriter writer = new PrintWriter(uidList)) {
-                        writer.println(createUidListHeader());
-                        for (String entry : lines) {
-                            writer.println(entry);
-                        }
-                    }
+            try {
+                Optional<String> name = uidList.getName(uid);
+                if (!name.isPresent()) {
+                    return null;
                 }
+                MaildirMessageName deletedMessage = newMaildirMessageName(MaildirFolder.this, name.get());
+                FileUtils.forceDelete(deletedMessage.getFile());
+                uidList.remove(uid);
                 return deletedMessage;
-
             } catch (IOException e) {
                 throw new MailboxException("Unable to delete msg with uid " + uid, e);
             }
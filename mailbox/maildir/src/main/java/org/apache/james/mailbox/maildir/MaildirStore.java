@@ -38,6 +38,10 @@ import org.apache.james.mailbox.store.mail.UidProvider;
 import org.apache.james.mailbox.store.mail.model.Mailbox;
 import org.apache.james.mailbox.store.mail.model.impl.SimpleMailbox;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
 public class MaildirStore implements UidProvider, ModSeqProvider {
 
     public static final String PATH_USER = "%user";
@@ -46,11 +50,17 @@ public class MaildirStore implements UidProvider, ModSeqProvider {
     public static final String WILDCARD = "%";
     
     public static final String maildirDelimiter = ".";
+
+    /**
+     * Count of folders whose uid list index is kept in memory.
+     */
+    public static final int UID_LIST_CACHE_SIZE = 1000;
     
     private final String maildirLocation;
     
     private File maildirRootFile;
     private final MailboxPathLocker locker;
+    private final LoadingCache<String, MaildirUidList> uidLists;
 
     private boolean messageNameStrictParse = false;
 
@@ -67,6 +77,9 @@ public class MaildirStore implements UidProvider, ModSeqProvider {
     public MaildirStore(String maildirLocation, MailboxPathLocker locker) {
         this.maildirLocation = maildirLocation;
         this.locker = locker;
+        this.uidLists = CacheBuilder.newBuilder()
+            .maximumSize(UID_LIST_CACHE_SIZE)
+            .build(CacheLoader.from(folderName -> new MaildirUidList(new File(folderName))));
     }
     
     public MaildirStore(String maildirLocation) {
@@ -84,11 +97,16 @@ public class MaildirStore implements UidProvider, ModSeqProvider {
      * @return The MaildirFolder
      */
     public MaildirFolder createMaildirFolder(Mailbox mailbox) {
-        MaildirFolder mf = new MaildirFolder(getFolderName(mailbox), mailbox.generateAssociatedPath(), locker);
+        String folderName = getFolderName(mailbox);
+        MaildirFolder mf = new MaildirFolder(folderName, mailbox.generateAssociatedPath(), locker, getUidList(folderName));
         mf.setMessageNameStrictParse(isMessageNameStrictParse());
         return mf;
     }
 
+    private MaildirUidList getUidList(String folderName) {
+        return uidLists.getUnchecked(new File(folderName).getAbsolutePath());
+    }
+
     /**
      * Creates a Mailbox object with data loaded from the file system
      * @param root The main maildir folder containing the mailbox to load
@@ -112,7 +130,8 @@ public class MaildirStore implements UidProvider, ModSeqProvider {
      */
     public Mailbox loadMailbox(MailboxSession session, MailboxPath mailboxPath)
     throws MailboxNotFoundException, MailboxException {
-        MaildirFolder folder = new MaildirFolder(getFolderName(mailboxPath), mailboxPath, locker);
+        String folderName = getFolderName(mailboxPath);
+        MaildirFolder folder = new MaildirFolder(folderName, mailboxPath, locker, getUidList(folderName));
         folder.setMessageNameStrictParse(isMessageNameStrictParse());
         if (!folder.exists()) {
             throw new MailboxNotFoundException(mailboxPath);
@@ -128,7 +147,7 @@ public class MaildirStore implements UidProvider, ModSeqProvider {
      * @throws MailboxException If the mailbox folder doesn't exist or can't be read
      */
     private Mailbox loadMailbox(MailboxSession session, File mailboxFile, MailboxPath mailboxPath) throws MailboxException {
-        MaildirFolder folder = new MaildirFolder(mailboxFile.getAbsolutePath(), mailboxPath, locker);
+        MaildirFolder folder = new MaildirFolder(mailboxFile.getAbsolutePath(), mailboxPath, locker, getUidList(mailboxFile.getAbsolutePath()));
         folder.setMessageNameStrictParse(isMessageNameStrictParse());
         try {
             Mailbox loadedMailbox = new SimpleMailbox(mailboxPath, folder.getUidValidity());
@@ -0,0 +1,480 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailbox.maildir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.james.mailbox.MessageUid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * In-memory index of the uid list of a maildir folder, mapping uids to message file names.
+ *
+ * The uid list is persisted as a snapshot file, {@link MaildirFolder#UIDLIST_FILE}, which keeps the historical format,
+ * followed by an append-only journal, {@link MaildirFolder#UIDLIST_JOURNAL_FILE}. Journal lines either associate a uid
+ * with a file name (<code>uid name</code>) or remove a uid (<code>-uid</code>). The journal is folded into a new
+ * snapshot once it gets bigger than both the compaction threshold and the previous snapshot.
+ *
+ * The <code>cur</code> and <code>new</code> folders are only listed again when their modification time changed,
+ * and only the differences with the index get journaled. The index gets reloaded from the file system when the uid list
+ * files were modified by someone else.
+ *
+ * Callers are expected to hold the {@link org.apache.james.mailbox.MailboxPathLocker} lock of the folder.
+ */
+public class MaildirUidList {
+
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    /**
+     * Some file systems only store modification times with a two seconds precision: folders modified that close to the
+     * last listing might have been changed after it.
+     */
+    private static final long MODIFICATION_TIME_PRECISION_IN_MS = 2000;
+    private static final long NEVER_LISTED = -1;
+    private static final String REMOVAL_PREFIX = "-";
+    private static final String SNAPSHOT_VERSION = "1";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MaildirUidList.class);
+
+    private static class FileState {
+        static FileState of(File file) {
+            return new FileState(file.lastModified(), file.length());
+        }
+
+        private final long lastModified;
+        private final long length;
+
+        private FileState(long lastModified, long length) {
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof FileState) {
+                FileState that = (FileState) o;
+
+                return this.lastModified == that.lastModified
+                    && this.length == that.length;
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(lastModified, length);
+        }
+    }
+
+    private final File rootFolder;
+    private final File curFolder;
+    private final File newFolder;
+    private final File uidFile;
+    private final File journalFile;
+    private final int compactionThreshold;
+    private final TreeMap<MessageUid, String> names;
+    private final Map<String, MessageUid> uidsByBaseName;
+
+    private Optional<MessageUid> lastUid;
+    private boolean loaded;
+    private int journalEntries;
+    private int snapshotEntries;
+    private FileState uidFileState;
+    private FileState journalFileState;
+    private long lastListing;
+    private long listedCurModified;
+    private long listedNewModified;
+
+    public MaildirUidList(File rootFolder) {
+        this(rootFolder, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    @VisibleForTesting
+    MaildirUidList(File rootFolder, int compactionThreshold) {
+        this.rootFolder = rootFolder;
+        this.curFolder = new File(rootFolder, MaildirFolder.CUR);
+        this.newFolder = new File(rootFolder, MaildirFolder.NEW);
+        this.uidFile = new File(rootFolder, MaildirFolder.UIDLIST_FILE);
+        this.journalFile = new File(rootFolder, MaildirFolder.UIDLIST_JOURNAL_FILE);
+        this.compactionThreshold = compactionThreshold;
+        this.names = new TreeMap<>();
+        this.uidsByBaseName = new HashMap<>();
+        this.lastUid = Optional.empty();
+        this.loaded = false;
+        this.lastListing = NEVER_LISTED;
+    }
+
+    /**
+     * Returns the file names of the messages within the given uid range, after assigning uids to new messages.
+     *
+     * @param to The upper uid limit. <code>null</code> disables the upper limit
+     */
+    public synchronized SortedMap<MessageUid, String> getNames(MessageUid from, MessageUid to) throws IOException {
+        ensureUpToDate();
+        if (to != null) {
+            return new TreeMap<>(names.subMap(from, true, to, true));
+        }
+        return new TreeMap<>(names.tailMap(from, true));
+    }
+
+    public synchronized Optional<String> getName(MessageUid uid) throws IOException {
+        ensureLoaded();
+        return Optional.ofNullable(names.get(uid));
+    }
+
+    public synchronized Optional<MessageUid> getLastUid() throws IOException {
+        ensureLoaded();
+        return lastUid;
+    }
+
+    /**
+     * Assigns a uid to the given message file name, unless it was already discovered in the folder.
+     */
+    public synchronized MessageUid append(String name) throws IOException {
+        if (!uidFile.isFile()) {
+            // The folder listing already contains the message to append
+            rebuild();
+        } else {
+            ensureLoaded();
+        }
+        MessageUid knownUid = uidsByBaseName.get(MaildirFolder.stripMetaFromName(name));
+        if (knownUid != null) {
+            if (!name.equals(names.get(knownUid))) {
+                put(knownUid, name);
+                journal(entry(knownUid, name));
+            }
+            return knownUid;
+        }
+        MessageUid uid = nextUid();
+        put(uid, name);
+        journal(entry(uid, name));
+        return uid;
+    }
+
+    public synchronized void update(MessageUid uid, String name) throws IOException {
+        ensureLoaded();
+        if (names.containsKey(uid)) {
+            put(uid, name);
+            journal(entry(uid, name));
+        }
+    }
+
+    public synchronized Optional<String> remove(MessageUid uid) throws IOException {
+        ensureLoaded();
+        Optional<String> removedName = Optional.ofNullable(names.get(uid));
+        if (removedName.isPresent()) {
+            remove(uid, removedName.get());
+            journal(REMOVAL_PREFIX + uid.asLong());
+        }
+        return removedName;
+    }
+
+    @VisibleForTesting
+    synchronized int getJournalEntries() {
+        return journalEntries;
+    }
+
+    private void ensureUpToDate() throws IOException {
+        if (!uidFile.isFile()) {
+            rebuild();
+            return;
+        }
+        ensureLoaded();
+        if (foldersModifiedSinceLastListing()) {
+            synchronizeWithFolders();
+        }
+    }
+
+    private void ensureLoaded() throws IOException {
+        if (!uidFile.isFile()) {
+            rebuild();
+            return;
+        }
+        boolean modifiedByOthers = !FileState.of(uidFile).equals(uidFileState)
+            || !FileState.of(journalFile).equals(journalFileState);
+        if (!loaded || modifiedByOthers) {
+            load();
+        }
+    }
+
+    private boolean foldersModifiedSinceLastListing() {
+        if (lastListing == NEVER_LISTED) {
+            return true;
+        }
+        long curModified = curFolder.lastModified();
+        long newModified = newFolder.lastModified();
+        return curModified != listedCurModified
+            || newModified != listedNewModified
+            || Math.max(curModified, newModified) >= lastListing - MODIFICATION_TIME_PRECISION_IN_MS;
+    }
+
+    /**
+     * Recreates the uid list from the folder content. Uids start again from the first one.
+     */
+    private void rebuild() throws IOException {
+        clear();
+        lastUid = Optional.empty();
+        long listingStart = System.currentTimeMillis();
+        long curModified = curFolder.lastModified();
+        long newModified = newFolder.lastModified();
+        for (String file : listFolders()) {
+            put(nextUid(), file);
+        }
+        Files.deleteIfExists(journalFile.toPath());
+        journalEntries = 0;
+        writeSnapshot();
+        loaded = true;
+        markListed(listingStart, curModified, newModified);
+    }
+
+    private void synchronizeWithFolders() throws IOException {
+        long listingStart = System.currentTimeMillis();
+        long curModified = curFolder.lastModified();
+        long newModified = newFolder.lastModified();
+        List<String> entries = new ArrayList<>();
+        Set<String> listedBaseNames = new HashSet<>();
+        for (String file : listFolders()) {
+            String baseName = MaildirFolder.stripMetaFromName(file);
+            listedBaseNames.add(baseName);
+            MessageUid uid = uidsByBaseName.get(baseName);
+            if (uid == null) {
+                uid = nextUid();
+                put(uid, file);
+                entries.add(entry(uid, file));
+            } else if (!file.equals(names.get(uid))) {
+                put(uid, file);
+                entries.add(entry(uid, file));
+            }
+        }
+        for (Map.Entry<String, MessageUid> indexed : new ArrayList<>(uidsByBaseName.entrySet())) {
+            if (!listedBaseNames.contains(indexed.getKey())) {
+                MessageUid uid = indexed.getValue();
+                remove(uid, names.get(uid));
+                entries.add(REMOVAL_PREFIX + uid.asLong());
+            }
+        }
+        journal(entries.toArray(new String[0]));
+        markListed(listingStart, curModified, newModified);
+    }
+
+    private void markListed(long listingStart, long curModified, long newModified) {
+        lastListing = listingStart;
+        listedCurModified = curModified;
+        listedNewModified = newModified;
+    }
+
+    private List<String> listFolders() throws IOException {
+        String[] curFiles = curFolder.list();
+        String[] newFiles = newFolder.list();
+        if (curFiles == null || newFiles == null) {
+            throw new IOException("Unable to list messages of " + rootFolder);
+        }
+        List<String> files = new ArrayList<>(curFiles.length + newFiles.length);
+        Collections.addAll(files, curFiles);
+        Collections.addAll(files, newFiles);
+        return files;
+    }
+
+    private void load() throws IOException {
+        clear();
+        lastUid = Optional.empty();
+        journalEntries = 0;
+        FileState loadedUidFileState = FileState.of(uidFile);
+        FileState loadedJournalFileState = FileState.of(journalFile);
+
+        try (FileReader fileReader = new FileReader(uidFile);
+             BufferedReader reader = new BufferedReader(fileReader)) {
+            String line = reader.readLine();
+            // the first line in the file contains the last uid and message count
+            if (line != null) {
+                readHeader(line);
+            }
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                readEntry(uidFile, line, lineNumber);
+            }
+        }
+        snapshotEntries = names.size();
+        if (journalFile.isFile()) {
+            try (FileReader fileReader = new FileReader(journalFile);
+                 BufferedReader reader = new BufferedReader(fileReader)) {
+                String line;
+                int lineNumber = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    journalEntries++;
+                    if (line.startsWith(REMOVAL_PREFIX)) {
+                        MessageUid uid = MessageUid.of(Long.valueOf(line.substring(REMOVAL_PREFIX.length())));
+                        Optional.ofNullable(names.get(uid)).ifPresent(name -> remove(uid, name));
+                    } else {
+                        readEntry(journalFile, line, lineNumber);
+                    }
+                }
+            }
+        }
+        uidFileState = loadedUidFileState;
+        journalFileState = loadedJournalFileState;
+        loaded = true;
+        lastListing = NEVER_LISTED;
+    }
+
+    private void readEntry(File file, String line, int lineNumber) {
+        if (line.equals("")) {
+            return;
+        }
+        int gap = line.indexOf(" ");
+        if (gap == -1) {
+            // there must be some issues in the file if no gap can be found
+            LOGGER.info("Corrupted entry in uid-file {} line {}", file, lineNumber);
+            return;
+        }
+        MessageUid uid = MessageUid.of(Long.valueOf(line.substring(0, gap)));
+        put(uid, line.substring(gap + 1));
+        if (!lastUid.isPresent() || uid.compareTo(lastUid.get()) > 0) {
+            lastUid = Optional.of(uid);
+        }
+    }
+
+    /**
+     * Parses the header line of the snapshot.
+     * The format is: version lastUid messageCount (e.g. 1 615 273)
+     */
+    private void readHeader(String line) throws IOException {
+        int gap1 = line.indexOf(" ");
+        if (gap1 == -1) {
+            // there must be some issues in the file if no gap can be found
+            throw new IOException("Corrupted header entry in uid-file");
+        }
+        if (!line.substring(0, gap1).equals(SNAPSHOT_VERSION)) {
+            throw new IOException("Cannot read uidlists with versions other than 1.");
+        }
+        int gap2 = line.indexOf(" ", gap1 + 1);
+        long last = Long.valueOf(line.substring(gap1 + 1, gap2));
+        if (last > 0) {
+            lastUid = Optional.of(MessageUid.of(last));
+        }
+    }
+
+    private String header() {
+        long last = lastUid.map(MessageUid::asLong).orElse(0L);
+        return SNAPSHOT_VERSION + " " + last + " " + names.size();
+    }
+
+    private void journal(String... entries) throws IOException {
+        if (entries.length == 0) {
+            return;
+        }
+        try (PrintWriter writer = new PrintWriter(new FileWriter(journalFile, true))) {
+            for (String entry : entries) {
+                writer.println(entry);
+            }
+            if (writer.checkError()) {
+                throw new IOException("Unable to append to " + journalFile);
+            }
+        }
+        journalEntries += entries.length;
+        journalFileState = FileState.of(journalFile);
+        if (journalEntries >= Math.max(compactionThreshold, snapshotEntries)) {
+            compact();
+        }
+    }
+
+    private void compact() throws IOException {
+        writeSnapshot();
+        Files.deleteIfExists(journalFile.toPath());
+        journalEntries = 0;
+        journalFileState = FileState.of(journalFile);
+    }
+
+    /**
+     * Atomically replaces the snapshot, so that a crash never leaves a partially written uid list.
+     * The journal might then be replayed on top of its own content, which is harmless.
+     */
+    private void writeSnapshot() throws IOException {
+        File temporaryFile = new File(rootFolder, MaildirFolder.UIDLIST_FILE + ".tmp");
+        try (PrintWriter writer = new PrintWriter(temporaryFile)) {
+            writer.println(header());
+            for (Map.Entry<MessageUid, String> entry : names.entrySet()) {
+                writer.println(entry(entry.getKey(), entry.getValue()));
+            }
+            if (writer.checkError()) {
+                throw new IOException("Unable to write " + temporaryFile);
+            }
+        }
+        try {
+            Files.move(temporaryFile.toPath(), uidFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile.toPath(), uidFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        snapshotEntries = names.size();
+        uidFileState = FileState.of(uidFile);
+        journalFileState = FileState.of(journalFile);
+    }
+
+    private MessageUid nextUid() {
+        MessageUid nextUid = lastUid.map(MessageUid::next).orElse(MessageUid.MIN_VALUE);
+        lastUid = Optional.of(nextUid);
+        return nextUid;
+    }
+
+    private void put(MessageUid uid, String name) {
+        String previousName = names.put(uid, name);
+        if (previousName != null) {
+            uidsByBaseName.remove(MaildirFolder.stripMetaFromName(previousName));
+        }
+        uidsByBaseName.put(MaildirFolder.stripMetaFromName(name), uid);
+    }
+
+    private void remove(MessageUid uid, String name) {
+        names.remove(uid);
+        uidsByBaseName.remove(MaildirFolder.stripMetaFromName(name));
+    }
+
+    private void clear() {
+        names.clear();
+        uidsByBaseName.clear();
+    }
+
+    private static String entry(MessageUid uid, String name) {
+        return uid.asLong() + " " + name;
+    }
+}
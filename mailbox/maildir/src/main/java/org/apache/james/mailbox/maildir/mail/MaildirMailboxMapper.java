@@ -77,6 +77,7 @@ public class MaildirMailboxMapper extends NonTransactionalMapper implements Mail
                         new File(folder, MaildirFolder.NEW),
                         new File(folder, MaildirFolder.TMP),
                         new File(folder, MaildirFolder.UIDLIST_FILE),
+                        new File(folder, MaildirFolder.UIDLIST_JOURNAL_FILE),
                         new File(folder, MaildirFolder.VALIDITY_FILE));
             } else {
                 // We simply delete all the folder for non INBOX mailboxes.
@@ -92,7 +93,7 @@ public class MaildirMailboxMapper extends NonTransactionalMapper implements Mail
             try {
                 if (file.isDirectory()) {
                         FileUtils.deleteDirectory(file);
-                } else {
+                } else if (file.exists()) {
                     FileUtils.forceDelete(file);
                 }
             } catch (IOException e) {
@@ -187,6 +188,11 @@ public class MaildirMailboxMapper extends NonTransactionalMapper implements Mail
                         if (!oldUidListFile.renameTo(newUidListFile)) {
                             throw new IOException("Could not rename file " + oldUidListFile + " to " + newUidListFile);
                         }
+                        File oldUidListJournalFile = new File(inboxFolder, MaildirFolder.UIDLIST_JOURNAL_FILE);
+                        File newUidListJournalFile = new File(newFolder, MaildirFolder.UIDLIST_JOURNAL_FILE);
+                        if (oldUidListJournalFile.exists() && !oldUidListJournalFile.renameTo(newUidListJournalFile)) {
+                            throw new IOException("Could not rename file " + oldUidListJournalFile + " to " + newUidListJournalFile);
+                        }
                         File oldValidityFile = new File(inboxFolder, MaildirFolder.VALIDITY_FILE);
                         File newValidityFile = new File(newFolder, MaildirFolder.VALIDITY_FILE);
                         if (!oldValidityFile.renameTo(newValidityFile)) {
@@ -0,0 +1,220 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailbox.maildir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.james.mailbox.MessageUid;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableList;
+
+public class MaildirUidListTest {
+    private static final MessageUid UID_1 = MessageUid.of(1);
+    private static final MessageUid UID_2 = MessageUid.of(2);
+    private static final MessageUid UID_3 = MessageUid.of(3);
+    private static final String MESSAGE_1 = "1328026049.19146_0.km1111:2,S";
+    private static final String MESSAGE_2 = "1328026050.19146_1.km1111:2,";
+    private static final String MESSAGE_3 = "1328026051.19146_2.km1111";
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private File root;
+    private File cur;
+    private File newFolder;
+
+    @Before
+    public void setUp() throws Exception {
+        root = tmpFolder.newFolder("mailbox");
+        cur = new File(root, MaildirFolder.CUR);
+        newFolder = new File(root, MaildirFolder.NEW);
+        FileUtils.forceMkdir(cur);
+        FileUtils.forceMkdir(newFolder);
+    }
+
+    @Test
+    public void getNamesShouldAssignUidsToExistingMessages() throws Exception {
+        deliver(cur, MESSAGE_1);
+
+        MaildirUidList testee = new MaildirUidList(root);
+
+        assertThat(testee.getNames(MessageUid.MIN_VALUE, null))
+            .containsOnlyKeys(UID_1)
+            .containsValue(MESSAGE_1);
+    }
+
+    @Test
+    public void getNamesShouldDetectNewlyDeliveredMessages() throws Exception {
+        MaildirUidList testee = new MaildirUidList(root);
+        deliver(cur, MESSAGE_1);
+        testee.getNames(MessageUid.MIN_VALUE, null);
+
+        deliver(newFolder, MESSAGE_2);
+
+        assertThat(testee.getNames(MessageUid.MIN_VALUE, null))
+            .containsEntry(UID_1, MESSAGE_1)
+            .containsEntry(UID_2, MESSAGE_2);
+    }
+
+    @Test
+    public void getNamesShouldForgetMessagesRemovedFromTheFolder() throws Exception {
+        MaildirUidList testee = new MaildirUidList(root);
+        deliver(cur, MESSAGE_1);
+        deliver(cur, MESSAGE_2);
+        testee.getNames(MessageUid.MIN_VALUE, null);
+
+        FileUtils.forceDelete(new File(cur, MESSAGE_1));
+
+        assertThat(testee.getNames(MessageUid.MIN_VALUE, null))
+            .containsOnlyKeys(UID_2);
+    }
+
+    @Test
+    public void getNamesShouldFollowMessagesRenamedWithinTheFolder() throws Exception {
+        MaildirUidList testee = new MaildirUidList(root);
+        deliver(newFolder, MESSAGE_3);
+        testee.getNames(MessageUid.MIN_VALUE, null);
+
+        FileUtils.moveFile(new File(newFolder, MESSAGE_3), new File(cur, MESSAGE_3 + ":2,S"));
+
+        assertThat(testee.getNames(MessageUid.MIN_VALUE, null))
+            .containsOnlyKeys(UID_1)
+            .containsValue(MESSAGE_3 + ":2,S");
+    }
+
+    @Test
+    public void getNamesShouldRestrictToTheGivenRange() throws Exception {
+        MaildirUidList testee = new MaildirUidList(root);
+        deliver(cur, MESSAGE_1);
+        testee.append(MESSAGE_1);
+        deliver(cur, MESSAGE_2);
+        testee.append(MESSAGE_2);
+        deliver(cur, MESSAGE_3);
+        testee.append(MESSAGE_3);
+
+        assertThat(testee.getNames(UID_2, UID_2))
+            .containsOnlyKeys(UID_2);
+    }
+
+    @Test
+    public void appendShouldReturnTheUidOfAMessageAlreadyDiscovered() throws Exception {
+        MaildirUidList testee = new MaildirUidList(root);
+        deliver(cur, MESSAGE_1);
+        testee.getNames(MessageUid.MIN_VALUE, null);
+
+        assertThat(testee.append(MESSAGE_1)).isEqualTo(UID_1);
+    }
+
+    @Test
+    public void appendedMessagesShouldBeReadBackFromTheFileSystem() throws Exception {
+        MaildirUidList testee = new MaildirUidList(root);
+        deliver(cur, MESSAGE_1);
+        testee.append(MESSAGE_1);
+        deliver(cur, MESSAGE_2);
+        testee.append(MESSAGE_2);
+
+        MaildirUidList reloaded = new MaildirUidList(root);
+
+        assertThat(reloaded.getName(UID_2)).contains(MESSAGE_2);
+        assertThat(reloaded.getLastUid()).contains(UID_2);
+    }
+
+    @Test
+    public void updateShouldBeReadBackFromTheFileSystem() throws Exception {
+        MaildirUidList testee = new MaildirUidList(root);
+        deliver(cur, MESSAGE_1);
+        testee.append(MESSAGE_1);
+
+        testee.update(UID_1, MESSAGE_1 + "T");
+
+        assertThat(new MaildirUidList(root).getName(UID_1)).contains(MESSAGE_1 + "T");
+    }
+
+    @Test
+    public void removedUidsShouldNotBeReused() throws Exception {
+        MaildirUidList testee = new MaildirUidList(root);
+        deliver(cur, MESSAGE_1);
+        testee.append(MESSAGE_1);
+        deliver(cur, MESSAGE_2);
+        testee.append(MESSAGE_2);
+
+        FileUtils.forceDelete(new File(cur, MESSAGE_2));
+        testee.remove(UID_2);
+        MaildirUidList reloaded = new MaildirUidList(root);
+        deliver(cur, MESSAGE_3);
+
+        assertThat(reloaded.getName(UID_2)).isEmpty();
+        assertThat(reloaded.append(MESSAGE_3)).isEqualTo(UID_3);
+    }
+
+    @Test
+    public void modificationsPerformedByAnotherIndexShouldBeVisible() throws Exception {
+        MaildirUidList testee = new MaildirUidList(root);
+        MaildirUidList other = new MaildirUidList(root);
+        deliver(cur, MESSAGE_1);
+        testee.append(MESSAGE_1);
+        other.getLastUid();
+
+        deliver(cur, MESSAGE_2);
+        other.append(MESSAGE_2);
+
+        assertThat(testee.getName(UID_2)).contains(MESSAGE_2);
+    }
+
+    @Test
+    public void journalShouldBeCompactedPastTheThreshold() throws Exception {
+        MaildirUidList testee = new MaildirUidList(root, 2);
+        deliver(cur, MESSAGE_1);
+        testee.append(MESSAGE_1);
+        deliver(cur, MESSAGE_2);
+        testee.append(MESSAGE_2);
+        deliver(cur, MESSAGE_3);
+        testee.append(MESSAGE_3);
+
+        List<String> snapshot = FileUtils.readLines(new File(root, MaildirFolder.UIDLIST_FILE), StandardCharsets.UTF_8);
+        assertThat(testee.getJournalEntries()).isLessThan(2);
+        assertThat(snapshot).contains("2 " + MESSAGE_2);
+    }
+
+    @Test
+    public void legacyUidListShouldBeRead() throws Exception {
+        deliver(cur, MESSAGE_1);
+        deliver(cur, MESSAGE_3);
+        FileUtils.writeLines(new File(root, MaildirFolder.UIDLIST_FILE),
+            ImmutableList.of("1 7 2", "5 " + MESSAGE_1, "7 " + MESSAGE_3));
+
+        MaildirUidList testee = new MaildirUidList(root);
+
+        assertThat(testee.getLastUid()).contains(MessageUid.of(7));
+        assertThat(testee.getName(MessageUid.of(5))).contains(MESSAGE_1);
+    }
+
+    private void deliver(File folder, String name) throws Exception {
+        FileUtils.writeStringToFile(new File(folder, name), "Subject: test\r\n\r\nbody", StandardCharsets.UTF_8);
+    }
+}
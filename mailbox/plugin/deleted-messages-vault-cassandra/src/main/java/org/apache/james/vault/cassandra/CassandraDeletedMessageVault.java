@@ -0,0 +1,137 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.vault.cassandra;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.ZonedDateTime;
+
+import javax.inject.Inject;
+
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.BlobStore;
+import org.apache.james.core.User;
+import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.vault.DeletedMessage;
+import org.apache.james.vault.DeletedMessageVault;
+import org.apache.james.vault.search.Query;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stores metadata of deleted messages in Cassandra, partitioned by user and by month of deletion, and their
+ * content in the BlobStore.
+ *
+ * Searches are evaluated on the metadata of the user partitions, without reading any content. Expiry drops the
+ * partitions of the months entirely elapsed before the beginning of the retention period.
+ *
+ * Each deleted message is stored in its own blob, under a random id rather than an id derived from its content. Vault
+ * blobs are thus never shared with other users of the BlobStore, nor between deleted messages, and are deleted along
+ * with their deleted message without checking for other references.
+ */
+public class CassandraDeletedMessageVault implements DeletedMessageVault {
+    private final BlobStore blobStore;
+    private final BlobId.Factory blobIdFactory;
+    private final DeletedMessageMetadataDAO metadataDAO;
+    private final UserPerBucketDAO userPerBucketDAO;
+
+    @Inject
+    public CassandraDeletedMessageVault(BlobStore blobStore, BlobId.Factory blobIdFactory, DeletedMessageMetadataDAO metadataDAO,
+                                        UserPerBucketDAO userPerBucketDAO) {
+        this.blobStore = blobStore;
+        this.blobIdFactory = blobIdFactory;
+        this.metadataDAO = metadataDAO;
+        this.userPerBucketDAO = userPerBucketDAO;
+    }
+
+    @Override
+    public Mono<Void> append(User user, DeletedMessage deletedMessage, InputStream mimeMessage) {
+        Preconditions.checkNotNull(user);
+        Preconditions.checkNotNull(deletedMessage);
+        Preconditions.checkNotNull(mimeMessage);
+
+        TimeBucket bucket = TimeBucket.of(deletedMessage.getDeletionDate());
+
+        return Mono.fromCallable(() -> ByteStreams.toByteArray(mimeMessage))
+            .flatMap(content -> blobStore.save(blobIdFactory.randomId(), content))
+            .flatMap(blobId -> userPerBucketDAO.addUser(bucket, user)
+                .then(metadataDAO.store(bucket, user, deletedMessage, blobId)));
+    }
+
+    @Override
+    public Mono<InputStream> loadMimeMessage(User user, MessageId messageId) {
+        Preconditions.checkNotNull(user);
+        Preconditions.checkNotNull(messageId);
+
+        return userPerBucketDAO.retrieveBuckets(user)
+            .flatMap(bucket -> metadataDAO.retrieveBlobId(bucket, user, messageId))
+            .next()
+            .flatMap(blobStore::readBytes)
+            .map(ByteArrayInputStream::new);
+    }
+
+    @Override
+    public Mono<Void> delete(User user, MessageId messageId) {
+        Preconditions.checkNotNull(user);
+        Preconditions.checkNotNull(messageId);
+
+        return userPerBucketDAO.retrieveBuckets(user)
+            .flatMap(bucket -> metadataDAO.retrieveBlobId(bucket, user, messageId)
+                .flatMap(blobStore::delete)
+                .then(metadataDAO.deleteMessage(bucket, user, messageId)))
+            .then();
+    }
+
+    @Override
+    public Flux<DeletedMessage> search(User user, Query query) {
+        Preconditions.checkNotNull(user);
+        Preconditions.checkNotNull(query);
+
+        return userPerBucketDAO.retrieveBuckets(user)
+            .concatMap(bucket -> metadataDAO.retrieveMetadata(bucket, user))
+            .filter(query.toPredicate());
+    }
+
+    @Override
+    public Mono<Void> deleteExpiredMessages(ZonedDateTime beginningOfRetentionPeriod) {
+        Preconditions.checkNotNull(beginningOfRetentionPeriod);
+
+        return userPerBucketDAO.retrieveAllBuckets()
+            .filter(bucket -> bucket.isExpiredAt(beginningOfRetentionPeriod))
+            .concatMap(this::deleteBucket)
+            .then();
+    }
+
+    /**
+     * Blobs are deleted before the metadata is deleted, so that an interrupted expiry deletes them when retried.
+     */
+    private Mono<Void> deleteBucket(TimeBucket bucket) {
+        return userPerBucketDAO.retrieveUsers(bucket)
+            .flatMap(user -> metadataDAO.retrieveBlobIds(bucket, user)
+                .concatMap(blobStore::delete)
+                .then(metadataDAO.deleteInBucket(bucket, user))
+                .then(userPerBucketDAO.removeUser(bucket, user)))
+            .then(userPerBucketDAO.deleteBucket(bucket));
+    }
+}
@@ -0,0 +1,59 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.vault.cassandra;
+
+import static com.datastax.driver.core.DataType.cboolean;
+import static com.datastax.driver.core.DataType.list;
+import static com.datastax.driver.core.DataType.text;
+
+import org.apache.james.backends.cassandra.components.CassandraModule;
+
+import com.datastax.driver.core.schemabuilder.SchemaBuilder;
+
+public interface CassandraDeletedMessageVaultModule {
+    CassandraModule MODULE = CassandraModule.table(DeletedMessageMetadataTable.TABLE)
+        .comment("Holds metadata of messages stored in the deleted messages vault, partitioned by user and deletion month. " +
+            "Content of messages is stored in the BlobStore.")
+        .options(options -> options
+            .compactionOptions(SchemaBuilder.leveledStrategy()))
+        .statement(statement -> statement
+            .addPartitionKey(DeletedMessageMetadataTable.OWNER, text())
+            .addPartitionKey(DeletedMessageMetadataTable.BUCKET, text())
+            .addClusteringColumn(DeletedMessageMetadataTable.MESSAGE_ID, text())
+            .addColumn(DeletedMessageMetadataTable.ORIGIN_MAILBOXES, list(text()))
+            .addColumn(DeletedMessageMetadataTable.DELIVERY_DATE, text())
+            .addColumn(DeletedMessageMetadataTable.DELETION_DATE, text())
+            .addColumn(DeletedMessageMetadataTable.SENDER, text())
+            .addColumn(DeletedMessageMetadataTable.RECIPIENTS, list(text()))
+            .addColumn(DeletedMessageMetadataTable.HAS_ATTACHMENT, cboolean())
+            .addColumn(DeletedMessageMetadataTable.SUBJECT, text())
+            .addColumn(DeletedMessageMetadataTable.BLOB_ID, text()))
+        .table(UserPerBucketTable.USERS_PER_BUCKET_TABLE)
+        .comment("Lists the users having messages in a deletion month of the deleted messages vault.")
+        .statement(statement -> statement
+            .addPartitionKey(UserPerBucketTable.BUCKET, text())
+            .addClusteringColumn(UserPerBucketTable.USER, text()))
+        .table(UserPerBucketTable.BUCKETS_PER_USER_TABLE)
+        .comment("Lists the deletion months a user has messages for in the deleted messages vault.")
+        .statement(statement -> statement
+            .addPartitionKey(UserPerBucketTable.USER, text())
+            .addClusteringColumn(UserPerBucketTable.BUCKET, text()))
+        .build();
+}
@@ -0,0 +1,226 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.vault.cassandra;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.delete;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
+import static org.apache.james.vault.cassandra.DeletedMessageMetadataTable.BLOB_ID;
+import static org.apache.james.vault.cassandra.DeletedMessageMetadataTable.BUCKET;
+import static org.apache.james.vault.cassandra.DeletedMessageMetadataTable.DELETION_DATE;
+import static org.apache.james.vault.cassandra.DeletedMessageMetadataTable.DELIVERY_DATE;
+import static org.apache.james.vault.cassandra.DeletedMessageMetadataTable.HAS_ATTACHMENT;
+import static org.apache.james.vault.cassandra.DeletedMessageMetadataTable.MESSAGE_ID;
+import static org.apache.james.vault.cassandra.DeletedMessageMetadataTable.ORIGIN_MAILBOXES;
+import static org.apache.james.vault.cassandra.DeletedMessageMetadataTable.OWNER;
+import static org.apache.james.vault.cassandra.DeletedMessageMetadataTable.RECIPIENTS;
+import static org.apache.james.vault.cassandra.DeletedMessageMetadataTable.SENDER;
+import static org.apache.james.vault.cassandra.DeletedMessageMetadataTable.SUBJECT;
+import static org.apache.james.vault.cassandra.DeletedMessageMetadataTable.TABLE;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+import javax.inject.Inject;
+
+import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.core.MailAddress;
+import org.apache.james.core.MaybeSender;
+import org.apache.james.core.User;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MessageId;
+import org.apache.james.vault.DeletedMessage;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.github.fge.lambdas.Throwing;
+import com.github.steveash.guavate.Guavate;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class DeletedMessageMetadataDAO {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_ZONED_DATE_TIME;
+
+    private final CassandraAsyncExecutor cassandraAsyncExecutor;
+    private final MessageId.Factory messageIdFactory;
+    private final MailboxId.Factory mailboxIdFactory;
+    private final BlobId.Factory blobIdFactory;
+    private final PreparedStatement insertStatement;
+    private final PreparedStatement selectInBucketStatement;
+    private final PreparedStatement selectBlobIdStatement;
+    private final PreparedStatement selectBlobIdsInBucketStatement;
+    private final PreparedStatement deleteMessageStatement;
+    private final PreparedStatement deleteBucketStatement;
+
+    @Inject
+    public DeletedMessageMetadataDAO(Session session, MessageId.Factory messageIdFactory,
+                                     MailboxId.Factory mailboxIdFactory, BlobId.Factory blobIdFactory) {
+        this.cassandraAsyncExecutor = new CassandraAsyncExecutor(session);
+        this.messageIdFactory = messageIdFactory;
+        this.mailboxIdFactory = mailboxIdFactory;
+        this.blobIdFactory = blobIdFactory;
+
+        this.insertStatement = prepareInsert(session);
+        this.selectInBucketStatement = prepareSelectInBucket(session);
+        this.selectBlobIdStatement = prepareSelectBlobId(session);
+        this.selectBlobIdsInBucketStatement = prepareSelectBlobIdsInBucket(session);
+        this.deleteMessageStatement = prepareDeleteMessage(session);
+        this.deleteBucketStatement = prepareDeleteBucket(session);
+    }
+
+    private PreparedStatement prepareInsert(Session session) {
+        return session.prepare(insertInto(TABLE)
+            .value(OWNER, bindMarker(OWNER))
+            .value(BUCKET, bindMarker(BUCKET))
+            .value(MESSAGE_ID, bindMarker(MESSAGE_ID))
+            .value(ORIGIN_MAILBOXES, bindMarker(ORIGIN_MAILBOXES))
+            .value(DELIVERY_DATE, bindMarker(DELIVERY_DATE))
+            .value(DELETION_DATE, bindMarker(DELETION_DATE))
+            .value(SENDER, bindMarker(SENDER))
+            .value(RECIPIENTS, bindMarker(RECIPIENTS))
+            .value(HAS_ATTACHMENT, bindMarker(HAS_ATTACHMENT))
+            .value(SUBJECT, bindMarker(SUBJECT))
+            .value(BLOB_ID, bindMarker(BLOB_ID)));
+    }
+
+    private PreparedStatement prepareSelectInBucket(Session session) {
+        return session.prepare(select()
+            .from(TABLE)
+            .where(eq(OWNER, bindMarker(OWNER)))
+            .and(eq(BUCKET, bindMarker(BUCKET))));
+    }
+
+    private PreparedStatement prepareSelectBlobId(Session session) {
+        return session.prepare(select(BLOB_ID)
+            .from(TABLE)
+            .where(eq(OWNER, bindMarker(OWNER)))
+            .and(eq(BUCKET, bindMarker(BUCKET)))
+            .and(eq(MESSAGE_ID, bindMarker(MESSAGE_ID))));
+    }
+
+    private PreparedStatement prepareSelectBlobIdsInBucket(Session session) {
+        return session.prepare(select(BLOB_ID)
+            .from(TABLE)
+            .where(eq(OWNER, bindMarker(OWNER)))
+            .and(eq(BUCKET, bindMarker(BUCKET))));
+    }
+
+    private PreparedStatement prepareDeleteMessage(Session session) {
+        return session.prepare(delete()
+            .from(TABLE)
+            .where(eq(OWNER, bindMarker(OWNER)))
+            .and(eq(BUCKET, bindMarker(BUCKET)))
+            .and(eq(MESSAGE_ID, bindMarker(MESSAGE_ID))));
+    }
+
+    private PreparedStatement prepareDeleteBucket(Session session) {
+        return session.prepare(delete()
+            .from(TABLE)
+            .where(eq(OWNER, bindMarker(OWNER)))
+            .and(eq(BUCKET, bindMarker(BUCKET))));
+    }
+
+    public Mono<Void> store(TimeBucket bucket, User user, DeletedMessage deletedMessage, BlobId blobId) {
+        return cassandraAsyncExecutor.executeVoid(insertStatement.bind()
+            .setString(OWNER, user.asString())
+            .setString(BUCKET, bucket.asString())
+            .setString(MESSAGE_ID, deletedMessage.getMessageId().serialize())
+            .setList(ORIGIN_MAILBOXES, serializeMailboxIds(deletedMessage.getOriginMailboxes()))
+            .setString(DELIVERY_DATE, deletedMessage.getDeliveryDate().format(DATE_FORMATTER))
+            .setString(DELETION_DATE, deletedMessage.getDeletionDate().format(DATE_FORMATTER))
+            .setString(SENDER, deletedMessage.getSender().asString())
+            .setList(RECIPIENTS, serializeRecipients(deletedMessage.getRecipients()))
+            .setBool(HAS_ATTACHMENT, deletedMessage.hasAttachment())
+            .setString(SUBJECT, deletedMessage.getSubject().orElse(null))
+            .setString(BLOB_ID, blobId.asString()));
+    }
+
+    public Flux<DeletedMessage> retrieveMetadata(TimeBucket bucket, User user) {
+        return cassandraAsyncExecutor.executeRows(selectInBucketStatement.bind()
+                .setString(OWNER, user.asString())
+                .setString(BUCKET, bucket.asString()))
+            .map(this::toDeletedMessage);
+    }
+
+    public Mono<BlobId> retrieveBlobId(TimeBucket bucket, User user, MessageId messageId) {
+        return cassandraAsyncExecutor.executeSingleRow(selectBlobIdStatement.bind()
+                .setString(OWNER, user.asString())
+                .setString(BUCKET, bucket.asString())
+                .setString(MESSAGE_ID, messageId.serialize()))
+            .map(row -> blobIdFactory.from(row.getString(BLOB_ID)));
+    }
+
+    public Flux<BlobId> retrieveBlobIds(TimeBucket bucket, User user) {
+        return cassandraAsyncExecutor.executeRows(selectBlobIdsInBucketStatement.bind()
+                .setString(OWNER, user.asString())
+                .setString(BUCKET, bucket.asString()))
+            .map(row -> blobIdFactory.from(row.getString(BLOB_ID)));
+    }
+
+    public Mono<Void> deleteMessage(TimeBucket bucket, User user, MessageId messageId) {
+        return cassandraAsyncExecutor.executeVoid(deleteMessageStatement.bind()
+            .setString(OWNER, user.asString())
+            .setString(BUCKET, bucket.asString())
+            .setString(MESSAGE_ID, messageId.serialize()));
+    }
+
+    public Mono<Void> deleteInBucket(TimeBucket bucket, User user) {
+        return cassandraAsyncExecutor.executeVoid(deleteBucketStatement.bind()
+            .setString(OWNER, user.asString())
+            .setString(BUCKET, bucket.asString()));
+    }
+
+    private DeletedMessage toDeletedMessage(Row row) {
+        return DeletedMessage.builder()
+            .messageId(messageIdFactory.fromString(row.getString(MESSAGE_ID)))
+            .originMailboxes(row.getList(ORIGIN_MAILBOXES, String.class).stream()
+                .map(mailboxIdFactory::fromString)
+                .collect(Guavate.toImmutableList()))
+            .user(User.fromUsername(row.getString(OWNER)))
+            .deliveryDate(ZonedDateTime.parse(row.getString(DELIVERY_DATE), DATE_FORMATTER))
+            .deletionDate(ZonedDateTime.parse(row.getString(DELETION_DATE), DATE_FORMATTER))
+            .sender(MaybeSender.getMailSender(row.getString(SENDER)))
+            .recipients(row.getList(RECIPIENTS, String.class).stream()
+                .map(Throwing.function(MailAddress::new))
+                .collect(Guavate.toImmutableList()))
+            .hasAttachment(row.getBool(HAS_ATTACHMENT))
+            .subject(Optional.ofNullable(row.getString(SUBJECT)))
+            .build();
+    }
+
+    private List<String> serializeMailboxIds(List<MailboxId> mailboxIds) {
+        return mailboxIds.stream()
+            .map(MailboxId::serialize)
+            .collect(Guavate.toImmutableList());
+    }
+
+    private List<String> serializeRecipients(List<MailAddress> recipients) {
+        return recipients.stream()
+            .map(MailAddress::asString)
+            .collect(Guavate.toImmutableList());
+    }
+}
@@ -0,0 +1,90 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.vault.cassandra;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Monthly (UTC) period of deletion dates sharing a partition of the vault.
+ */
+public class TimeBucket {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    public static TimeBucket of(ZonedDateTime deletionDate) {
+        Preconditions.checkNotNull(deletionDate);
+
+        return new TimeBucket(YearMonth.from(deletionDate.withZoneSameInstant(ZoneOffset.UTC)));
+    }
+
+    public static TimeBucket parse(String value) {
+        Preconditions.checkNotNull(value);
+
+        return new TimeBucket(YearMonth.parse(value, FORMATTER));
+    }
+
+    private final YearMonth yearMonth;
+
+    private TimeBucket(YearMonth yearMonth) {
+        this.yearMonth = yearMonth;
+    }
+
+    public String asString() {
+        return yearMonth.format(FORMATTER);
+    }
+
+    public ZonedDateTime end() {
+        return yearMonth.plusMonths(1)
+            .atDay(1)
+            .atStartOfDay(ZoneOffset.UTC);
+    }
+
+    public boolean isExpiredAt(ZonedDateTime beginningOfRetentionPeriod) {
+        return !end().isAfter(beginningOfRetentionPeriod);
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof TimeBucket) {
+            TimeBucket that = (TimeBucket) o;
+
+            return Objects.equals(this.yearMonth, that.yearMonth);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(yearMonth);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("bucket", asString())
+            .toString();
+    }
+}
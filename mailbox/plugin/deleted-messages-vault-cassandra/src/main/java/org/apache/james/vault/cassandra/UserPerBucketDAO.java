@@ -0,0 +1,120 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.vault.cassandra;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.delete;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
+import static org.apache.james.vault.cassandra.UserPerBucketTable.BUCKET;
+import static org.apache.james.vault.cassandra.UserPerBucketTable.BUCKETS_PER_USER_TABLE;
+import static org.apache.james.vault.cassandra.UserPerBucketTable.USER;
+import static org.apache.james.vault.cassandra.UserPerBucketTable.USERS_PER_BUCKET_TABLE;
+
+import javax.inject.Inject;
+
+import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
+import org.apache.james.core.User;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Session;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class UserPerBucketDAO {
+    private final CassandraAsyncExecutor cassandraAsyncExecutor;
+    private final PreparedStatement addUserStatement;
+    private final PreparedStatement addBucketStatement;
+    private final PreparedStatement listUsersStatement;
+    private final PreparedStatement listBucketsStatement;
+    private final PreparedStatement listAllBucketsStatement;
+    private final PreparedStatement removeBucketOfUserStatement;
+    private final PreparedStatement deleteBucketStatement;
+
+    @Inject
+    public UserPerBucketDAO(Session session) {
+        this.cassandraAsyncExecutor = new CassandraAsyncExecutor(session);
+
+        this.addUserStatement = session.prepare(insertInto(USERS_PER_BUCKET_TABLE)
+            .value(BUCKET, bindMarker(BUCKET))
+            .value(USER, bindMarker(USER)));
+        this.addBucketStatement = session.prepare(insertInto(BUCKETS_PER_USER_TABLE)
+            .value(USER, bindMarker(USER))
+            .value(BUCKET, bindMarker(BUCKET)));
+        this.listUsersStatement = session.prepare(select(USER)
+            .from(USERS_PER_BUCKET_TABLE)
+            .where(eq(BUCKET, bindMarker(BUCKET))));
+        this.listBucketsStatement = session.prepare(select(BUCKET)
+            .from(BUCKETS_PER_USER_TABLE)
+            .where(eq(USER, bindMarker(USER))));
+        this.listAllBucketsStatement = session.prepare(select()
+            .distinct()
+            .column(BUCKET)
+            .from(USERS_PER_BUCKET_TABLE));
+        this.removeBucketOfUserStatement = session.prepare(delete()
+            .from(BUCKETS_PER_USER_TABLE)
+            .where(eq(USER, bindMarker(USER)))
+            .and(eq(BUCKET, bindMarker(BUCKET))));
+        this.deleteBucketStatement = session.prepare(delete()
+            .from(USERS_PER_BUCKET_TABLE)
+            .where(eq(BUCKET, bindMarker(BUCKET))));
+    }
+
+    public Mono<Void> addUser(TimeBucket bucket, User user) {
+        return Flux.merge(
+                cassandraAsyncExecutor.executeVoid(addUserStatement.bind()
+                    .setString(BUCKET, bucket.asString())
+                    .setString(USER, user.asString())),
+                cassandraAsyncExecutor.executeVoid(addBucketStatement.bind()
+                    .setString(USER, user.asString())
+                    .setString(BUCKET, bucket.asString())))
+            .then();
+    }
+
+    public Flux<User> retrieveUsers(TimeBucket bucket) {
+        return cassandraAsyncExecutor.executeRows(listUsersStatement.bind()
+                .setString(BUCKET, bucket.asString()))
+            .map(row -> User.fromUsername(row.getString(USER)));
+    }
+
+    public Flux<TimeBucket> retrieveBuckets(User user) {
+        return cassandraAsyncExecutor.executeRows(listBucketsStatement.bind()
+                .setString(USER, user.asString()))
+            .map(row -> TimeBucket.parse(row.getString(BUCKET)));
+    }
+
+    public Flux<TimeBucket> retrieveAllBuckets() {
+        return cassandraAsyncExecutor.executeRows(listAllBucketsStatement.bind())
+            .map(row -> TimeBucket.parse(row.getString(BUCKET)));
+    }
+
+    public Mono<Void> removeUser(TimeBucket bucket, User user) {
+        return cassandraAsyncExecutor.executeVoid(removeBucketOfUserStatement.bind()
+            .setString(USER, user.asString())
+            .setString(BUCKET, bucket.asString()));
+    }
+
+    public Mono<Void> deleteBucket(TimeBucket bucket) {
+        return cassandraAsyncExecutor.executeVoid(deleteBucketStatement.bind()
+            .setString(BUCKET, bucket.asString()));
+    }
+}
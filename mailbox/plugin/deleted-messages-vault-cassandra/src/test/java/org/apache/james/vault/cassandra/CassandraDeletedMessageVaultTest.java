@@ -0,0 +1,229 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.vault.cassandra;
+
+import static org.apache.james.vault.DeletedMessageFixture.CONTENT;
+import static org.apache.james.vault.DeletedMessageFixture.DELETED_MESSAGE;
+import static org.apache.james.vault.DeletedMessageFixture.DELETION_DATE;
+import static org.apache.james.vault.DeletedMessageFixture.DELIVERY_DATE;
+import static org.apache.james.vault.DeletedMessageFixture.MAILBOX_ID_1;
+import static org.apache.james.vault.DeletedMessageFixture.MESSAGE_ID;
+import static org.apache.james.vault.DeletedMessageFixture.MESSAGE_ID_2;
+import static org.apache.james.vault.DeletedMessageFixture.USER;
+import static org.apache.james.vault.DeletedMessageFixture.USER_2;
+import static org.apache.james.vault.search.Query.ALL;
+import static org.apache.mailet.base.MailAddressFixture.RECIPIENT1;
+import static org.apache.mailet.base.MailAddressFixture.SENDER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.time.ZonedDateTime;
+
+import org.apache.james.backends.cassandra.CassandraCluster;
+import org.apache.james.backends.cassandra.CassandraClusterExtension;
+import org.apache.james.blob.api.BlobId;
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.api.ObjectStoreException;
+import org.apache.james.blob.memory.MemoryBlobStore;
+import org.apache.james.core.MaybeSender;
+import org.apache.james.mailbox.inmemory.InMemoryId;
+import org.apache.james.mailbox.inmemory.InMemoryMessageId;
+import org.apache.james.vault.DeletedMessage;
+import org.apache.james.vault.DeletedMessageVault;
+import org.apache.james.vault.DeletedMessageVaultContract;
+import org.apache.james.vault.DeletedMessageVaultSearchContract;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class CassandraDeletedMessageVaultTest implements DeletedMessageVaultContract, DeletedMessageVaultSearchContract.AllContracts {
+    private static final ZonedDateTime END_OF_DELETION_MONTH = ZonedDateTime.parse("2015-11-01T00:00:00Z");
+    private static final DeletedMessage DELETED_TWO_MONTHS_LATER = DeletedMessage.builder()
+        .messageId(MESSAGE_ID_2)
+        .originMailboxes(MAILBOX_ID_1)
+        .user(USER)
+        .deliveryDate(DELIVERY_DATE)
+        .deletionDate(DELETION_DATE.plusMonths(2))
+        .sender(MaybeSender.of(SENDER))
+        .recipients(RECIPIENT1)
+        .hasNoAttachments()
+        .build();
+
+    @RegisterExtension
+    static CassandraClusterExtension cassandraCluster = new CassandraClusterExtension(CassandraDeletedMessageVaultModule.MODULE);
+
+    private static final HashBlobId.Factory BLOB_ID_FACTORY = new HashBlobId.Factory();
+    private static final TimeBucket DELETION_BUCKET = TimeBucket.of(DELETION_DATE);
+
+    private MemoryBlobStore blobStore;
+    private DeletedMessageMetadataDAO metadataDAO;
+    private CassandraDeletedMessageVault testee;
+
+    @BeforeEach
+    void setUp(CassandraCluster cassandra) {
+        blobStore = new MemoryBlobStore(BLOB_ID_FACTORY);
+        metadataDAO = new DeletedMessageMetadataDAO(cassandra.getConf(), new InMemoryMessageId.Factory(), new InMemoryId.Factory(), BLOB_ID_FACTORY);
+
+        testee = new CassandraDeletedMessageVault(
+            blobStore,
+            BLOB_ID_FACTORY,
+            metadataDAO,
+            new UserPerBucketDAO(cassandra.getConf()));
+    }
+
+    @Override
+    public DeletedMessageVault getVault() {
+        return testee;
+    }
+
+    @Test
+    void deleteExpiredMessagesShouldKeepMessagesOfPartiallyExpiredBuckets() {
+        Mono.from(testee.append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+
+        Mono.from(testee.deleteExpiredMessages(END_OF_DELETION_MONTH.minusSeconds(1))).block();
+
+        assertThat(Flux.from(testee.search(USER, ALL)).collectList().block())
+            .containsOnly(DELETED_MESSAGE);
+    }
+
+    @Test
+    void deleteExpiredMessagesShouldDropBucketsOnceEntirelyExpired() {
+        Mono.from(testee.append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+
+        Mono.from(testee.deleteExpiredMessages(END_OF_DELETION_MONTH)).block();
+
+        assertThat(Flux.from(testee.search(USER, ALL)).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    void deleteExpiredMessagesShouldKeepMoreRecentBuckets() {
+        Mono.from(testee.append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+        Mono.from(testee.append(USER, DELETED_TWO_MONTHS_LATER, new ByteArrayInputStream(CONTENT))).block();
+
+        Mono.from(testee.deleteExpiredMessages(END_OF_DELETION_MONTH)).block();
+
+        assertThat(Flux.from(testee.search(USER, ALL)).collectList().block())
+            .containsOnly(DELETED_TWO_MONTHS_LATER);
+    }
+
+    @Test
+    void searchShouldReturnMessagesOfAllBuckets() {
+        Mono.from(testee.append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+        Mono.from(testee.append(USER, DELETED_TWO_MONTHS_LATER, new ByteArrayInputStream(CONTENT))).block();
+
+        assertThat(Flux.from(testee.search(USER, ALL)).collectList().block())
+            .containsOnly(DELETED_MESSAGE, DELETED_TWO_MONTHS_LATER);
+    }
+
+    @Test
+    void deleteShouldDeleteTheBlob() {
+        Mono.from(testee.append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+        BlobId blobId = metadataDAO.retrieveBlobId(DELETION_BUCKET, USER, MESSAGE_ID).block();
+
+        Mono.from(testee.delete(USER, MESSAGE_ID)).block();
+
+        assertThatThrownBy(() -> blobStore.readBytes(blobId).block())
+            .isInstanceOf(ObjectStoreException.class);
+    }
+
+    @Test
+    void appendShouldNotStoreContentUnderItsContentDerivedBlobId() {
+        Mono.from(testee.append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+
+        assertThat(metadataDAO.retrieveBlobId(DELETION_BUCKET, USER, MESSAGE_ID).block())
+            .isNotEqualTo(BLOB_ID_FACTORY.forPayload(CONTENT));
+    }
+
+    @Test
+    void deleteShouldNotDeleteTheSameContentStoredOutsideTheVault() {
+        BlobId attachmentBlobId = blobStore.save(CONTENT).block();
+        Mono.from(testee.append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+
+        Mono.from(testee.delete(USER, MESSAGE_ID)).block();
+
+        assertThat(blobStore.readBytes(attachmentBlobId).block())
+            .isEqualTo(CONTENT);
+    }
+
+    @Test
+    void deleteShouldNotAffectTheSameContentAppendedConcurrentlyByAnotherUser() {
+        Flux.merge(
+                Mono.from(testee.append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).subscribeOn(Schedulers.elastic()),
+                Mono.from(testee.append(USER_2, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).subscribeOn(Schedulers.elastic()),
+                Mono.from(testee.delete(USER, MESSAGE_ID)).subscribeOn(Schedulers.elastic()))
+            .then()
+            .block();
+
+        Mono.from(testee.delete(USER, MESSAGE_ID)).block();
+
+        assertThat(Mono.from(testee.loadMimeMessage(USER_2, MESSAGE_ID)).block())
+            .hasSameContentAs(new ByteArrayInputStream(CONTENT));
+    }
+
+    @Test
+    void deleteShouldKeepTheBlobWhileReferencedByAnotherUser() {
+        Mono.from(testee.append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+        Mono.from(testee.append(USER_2, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+
+        Mono.from(testee.delete(USER, MESSAGE_ID)).block();
+
+        assertThat(Mono.from(testee.loadMimeMessage(USER_2, MESSAGE_ID)).block())
+            .hasSameContentAs(new ByteArrayInputStream(CONTENT));
+    }
+
+    @Test
+    void deleteExpiredMessagesShouldDeleteBlobsOfExpiredBuckets() {
+        Mono.from(testee.append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+        BlobId blobId = metadataDAO.retrieveBlobId(DELETION_BUCKET, USER, MESSAGE_ID).block();
+
+        Mono.from(testee.deleteExpiredMessages(END_OF_DELETION_MONTH)).block();
+
+        assertThatThrownBy(() -> blobStore.readBytes(blobId).block())
+            .isInstanceOf(ObjectStoreException.class);
+    }
+
+    @Test
+    void deleteExpiredMessagesShouldKeepBlobsOfPartiallyExpiredBuckets() {
+        Mono.from(testee.append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+        BlobId blobId = metadataDAO.retrieveBlobId(DELETION_BUCKET, USER, MESSAGE_ID).block();
+
+        Mono.from(testee.deleteExpiredMessages(END_OF_DELETION_MONTH.minusSeconds(1))).block();
+
+        assertThat(blobStore.readBytes(blobId).block())
+            .isEqualTo(CONTENT);
+    }
+
+    @Test
+    void deleteExpiredMessagesShouldKeepBlobsStillReferencedByMoreRecentBuckets() {
+        Mono.from(testee.append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+        Mono.from(testee.append(USER, DELETED_TWO_MONTHS_LATER, new ByteArrayInputStream(CONTENT))).block();
+
+        Mono.from(testee.deleteExpiredMessages(END_OF_DELETION_MONTH)).block();
+
+        assertThat(Mono.from(testee.loadMimeMessage(USER, MESSAGE_ID_2)).block())
+            .hasSameContentAs(new ByteArrayInputStream(CONTENT));
+    }
+}
@@ -0,0 +1,72 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.vault.cassandra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+class TimeBucketTest {
+    @Test
+    void shouldMatchBeanContract() {
+        EqualsVerifier.forClass(TimeBucket.class)
+            .verify();
+    }
+
+    @Test
+    void ofShouldGroupDatesByMonth() {
+        assertThat(TimeBucket.of(ZonedDateTime.parse("2015-10-01T00:00:00Z")))
+            .isEqualTo(TimeBucket.of(ZonedDateTime.parse("2015-10-31T23:59:59Z")));
+    }
+
+    @Test
+    void ofShouldUseUTCMonths() {
+        assertThat(TimeBucket.of(ZonedDateTime.parse("2015-11-01T01:00:00+02:00")).asString())
+            .isEqualTo("2015-10");
+    }
+
+    @Test
+    void parseShouldRevertAsString() {
+        TimeBucket bucket = TimeBucket.of(ZonedDateTime.parse("2015-10-30T14:12:00Z"));
+
+        assertThat(TimeBucket.parse(bucket.asString()))
+            .isEqualTo(bucket);
+    }
+
+    @Test
+    void isExpiredAtShouldReturnFalseWhenMonthIsNotEntirelyElapsed() {
+        TimeBucket bucket = TimeBucket.of(ZonedDateTime.parse("2015-10-30T14:12:00Z"));
+
+        assertThat(bucket.isExpiredAt(ZonedDateTime.parse("2015-10-31T23:59:59Z")))
+            .isFalse();
+    }
+
+    @Test
+    void isExpiredAtShouldReturnTrueWhenMonthIsElapsed() {
+        TimeBucket bucket = TimeBucket.of(ZonedDateTime.parse("2015-10-30T14:12:00Z"));
+
+        assertThat(bucket.isExpiredAt(ZonedDateTime.parse("2015-11-01T00:00:00Z")))
+            .isTrue();
+    }
+}
@@ -20,6 +20,7 @@
 package org.apache.james.vault;
 
 import java.io.InputStream;
+import java.time.ZonedDateTime;
 
 import org.apache.james.core.User;
 import org.apache.james.mailbox.model.MessageId;
@@ -34,4 +35,12 @@ public interface DeletedMessageVault {
     Publisher<Void> delete(User user, MessageId messageId);
 
     Publisher<DeletedMessage> search(User user, Query query);
+
+    /**
+     * Removes messages deleted before the beginning of the retention period.
+     *
+     * Implementations grouping messages by deletion time may keep an expired message until
+     * the whole group it belongs to is expired.
+     */
+    Publisher<Void> deleteExpiredMessages(ZonedDateTime beginningOfRetentionPeriod);
 }
@@ -22,6 +22,7 @@ package org.apache.james.vault.memory;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.ZonedDateTime;
 import java.util.Optional;
 
 import org.apache.commons.io.IOUtils;
@@ -96,6 +97,17 @@ public class MemoryDeletedMessagesVault implements DeletedMessageVault {
             .filter(query.toPredicate());
     }
 
+    @Override
+    public Mono<Void> deleteExpiredMessages(ZonedDateTime beginningOfRetentionPeriod) {
+        Preconditions.checkNotNull(beginningOfRetentionPeriod);
+
+        synchronized (table) {
+            table.values()
+                .removeIf(entry -> entry.getLeft().getDeletionDate().isBefore(beginningOfRetentionPeriod));
+            return Mono.empty();
+        }
+    }
+
     private Flux<DeletedMessage> listAll(User user) {
         synchronized (table) {
             return Flux.fromIterable(ImmutableList.copyOf(table.row(user).values()))
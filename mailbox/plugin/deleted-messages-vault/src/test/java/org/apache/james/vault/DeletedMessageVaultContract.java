@@ -23,6 +23,7 @@ import static org.apache.james.vault.DeletedMessageFixture.CONTENT;
 import static org.apache.james.vault.DeletedMessageFixture.DELETED_MESSAGE;
 import static org.apache.james.vault.DeletedMessageFixture.DELETED_MESSAGE_2;
 import static org.apache.james.vault.DeletedMessageFixture.DELETED_MESSAGE_GENERATOR;
+import static org.apache.james.vault.DeletedMessageFixture.DELETION_DATE;
 import static org.apache.james.vault.DeletedMessageFixture.MESSAGE_ID;
 import static org.apache.james.vault.DeletedMessageFixture.USER;
 import static org.apache.james.vault.DeletedMessageFixture.USER_2;
@@ -97,6 +98,12 @@ public interface DeletedMessageVaultContract {
            .isInstanceOf(NullPointerException.class);
     }
 
+    @Test
+    default void deleteExpiredMessagesShouldThrowOnNullDate() {
+       assertThatThrownBy(() -> getVault().deleteExpiredMessages(null))
+           .isInstanceOf(NullPointerException.class);
+    }
+
     @Test
     default void searchAllShouldReturnEmptyWhenNoItem() {
         assertThat(Flux.from(getVault().search(USER, ALL)).collectList().block())
@@ -198,4 +205,45 @@ public interface DeletedMessageVaultContract {
         assertThat(Flux.from(getVault().search(USER, ALL)).collectList().block())
             .isEmpty();
     }
+
+    @Test
+    default void deleteExpiredMessagesShouldRemoveMessagesDeletedBeforeRetentionPeriod() {
+        Mono.from(getVault().append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+
+        Mono.from(getVault().deleteExpiredMessages(DELETION_DATE.plusYears(1))).block();
+
+        assertThat(Flux.from(getVault().search(USER, ALL)).collectList().block())
+            .isEmpty();
+    }
+
+    @Test
+    default void loadMimeMessageShouldReturnEmptyWhenExpired() {
+        Mono.from(getVault().append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+
+        Mono.from(getVault().deleteExpiredMessages(DELETION_DATE.plusYears(1))).block();
+
+        assertThat(Mono.from(getVault().loadMimeMessage(USER, MESSAGE_ID)).blockOptional())
+            .isEmpty();
+    }
+
+    @Test
+    default void deleteExpiredMessagesShouldKeepMessagesDeletedWithinRetentionPeriod() {
+        Mono.from(getVault().append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+
+        Mono.from(getVault().deleteExpiredMessages(DELETION_DATE.minusDays(1))).block();
+
+        assertThat(Flux.from(getVault().search(USER, ALL)).collectList().block())
+            .containsOnly(DELETED_MESSAGE);
+    }
+
+    @Test
+    default void deleteExpiredMessagesShouldApplyToAllUsers() {
+        Mono.from(getVault().append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+        Mono.from(getVault().append(USER_2, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT))).block();
+
+        Mono.from(getVault().deleteExpiredMessages(DELETION_DATE.plusYears(1))).block();
+
+        assertThat(Flux.from(getVault().search(USER_2, ALL)).collectList().block())
+            .isEmpty();
+    }
 }
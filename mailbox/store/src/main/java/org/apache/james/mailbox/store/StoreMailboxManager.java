@@ -77,6 +77,8 @@ import org.apache.james.mailbox.store.mail.model.impl.SimpleMailbox;
 import org.apache.james.mailbox.store.quota.QuotaComponents;
 import org.apache.james.mailbox.store.search.MessageSearchIndex;
 import org.apache.james.mailbox.store.transaction.Mapper;
+import org.apache.james.metrics.api.tracing.Span;
+import org.apache.james.metrics.api.tracing.TraceContext;
 import org.apache.james.util.streams.Iterators;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -282,7 +284,10 @@ public class StoreMailboxManager implements MailboxManager {
     public MessageManager getMailbox(MailboxPath mailboxPath, MailboxSession session)
             throws MailboxException {
         final MailboxMapper mapper = mailboxSessionMapperFactory.getMailboxMapper(session);
-        Mailbox mailboxRow = mapper.findMailboxByPath(mailboxPath);
+        Mailbox mailboxRow;
+        try (Span span = TraceContext.childSpan("mailboxMapper:findMailboxByPath")) {
+            mailboxRow = mapper.findMailboxByPath(mailboxPath);
+        }
 
         if (mailboxRow == null) {
             LOGGER.info("Mailbox '{}' not found.", mailboxPath);
@@ -299,7 +304,10 @@ public class StoreMailboxManager implements MailboxManager {
     public MessageManager getMailbox(MailboxId mailboxId, MailboxSession session)
             throws MailboxException {
         MailboxMapper mapper = mailboxSessionMapperFactory.getMailboxMapper(session);
-        Mailbox mailboxRow = mapper.findMailboxById(mailboxId);
+        Mailbox mailboxRow;
+        try (Span span = TraceContext.childSpan("mailboxMapper:findMailboxById")) {
+            mailboxRow = mapper.findMailboxById(mailboxId);
+        }
 
         if (mailboxRow == null) {
             LOGGER.info("Mailbox '{}' not found.", mailboxId.serialize());
@@ -513,6 +521,14 @@ public class StoreMailboxManager implements MailboxManager {
         return copyMessages(set, session, toMailbox, fromMailbox);
     }
 
+    @Override
+    public List<MessageRange> copyMessages(MessageRange set, MailboxId from, MailboxSession fromSession, MailboxId to, MailboxSession toSession) throws MailboxException {
+        StoreMessageManager toMailbox = (StoreMessageManager) getMailbox(to, toSession);
+        StoreMessageManager fromMailbox = (StoreMessageManager) getMailbox(from, fromSession);
+
+        return copyMessages(set, toSession, toMailbox, fromMailbox);
+    }
+
     
     private List<MessageRange> copyMessages(MessageRange set, MailboxSession session, StoreMessageManager toMailbox, StoreMessageManager fromMailbox) throws MailboxException {
         return configuration.getCopyBatcher().batchMessages(set,
@@ -83,6 +83,8 @@ import org.apache.james.mailbox.store.mail.model.impl.SimpleMailboxMessage;
 import org.apache.james.mailbox.store.quota.QuotaChecker;
 import org.apache.james.mailbox.store.search.MessageSearchIndex;
 import org.apache.james.mailbox.store.streaming.CountingInputStream;
+import org.apache.james.metrics.api.tracing.Span;
+import org.apache.james.metrics.api.tracing.TraceContext;
 import org.apache.james.mime4j.MimeException;
 import org.apache.james.mime4j.message.DefaultBodyDescriptorBuilder;
 import org.apache.james.mime4j.message.HeaderImpl;
@@ -679,10 +681,12 @@ public class StoreMessageManager implements MessageManager {
     protected MessageMetaData appendMessageToStore(final MailboxMessage message, final List<MessageAttachment> messageAttachments, MailboxSession session) throws MailboxException {
         final MessageMapper messageMapper = mapperFactory.getMessageMapper(session);
 
-        return mapperFactory.getMessageMapper(session).execute(() -> {
-            storeAttachment(message, messageAttachments, session);
-            return messageMapper.add(getMailboxEntity(), message);
-        });
+        try (Span span = TraceContext.childSpan("messageMapper:add")) {
+            return mapperFactory.getMessageMapper(session).execute(() -> {
+                storeAttachment(message, messageAttachments, session);
+                return messageMapper.add(getMailboxEntity(), message);
+            });
+        }
     }
 
     protected void storeAttachment(final MailboxMessage message, final List<MessageAttachment> messageAttachments, final MailboxSession session) throws MailboxException {
@@ -749,7 +753,9 @@ public class StoreMessageManager implements MessageManager {
         if (query.equals(new SearchQuery(SearchQuery.all()))) {
             return listAllMessageUids(mailboxSession);
         }
-        return index.search(mailboxSession, getMailboxEntity(), query);
+        try (Span span = TraceContext.childSpan("messageSearchIndex:search")) {
+            return index.search(mailboxSession, getMailboxEntity(), query);
+        }
     }
 
     private Iterator<MessageMetaData> copy(Iterator<MailboxMessage> originalRows, MailboxSession session) throws MailboxException {
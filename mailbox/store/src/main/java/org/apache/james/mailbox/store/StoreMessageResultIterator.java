@@ -44,6 +44,8 @@ import org.apache.james.mailbox.store.mail.MessageMapper;
 import org.apache.james.mailbox.store.mail.MessageMapper.FetchType;
 import org.apache.james.mailbox.store.mail.model.Mailbox;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
+import org.apache.james.metrics.api.tracing.Span;
+import org.apache.james.metrics.api.tracing.TraceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -159,7 +161,9 @@ public class StoreMessageResultIterator implements MessageResultIterator {
             range = MessageRange.range(cursor, to);
             break;
         }
-        next = mapper.findInMailbox(mailbox, range, ftype, batchSizeFromFetchType(ftype));
+        try (Span span = TraceContext.childSpan("messageMapper:findInMailbox")) {
+            next = mapper.findInMailbox(mailbox, range, ftype, batchSizeFromFetchType(ftype));
+        }
     }
 
     private int batchSizeFromFetchType(FetchType fetchType) {
@@ -114,6 +114,21 @@ public abstract class ListeningMessageSearchIndex implements MessageSearchIndex,
      */
     public abstract void add(MailboxSession session, Mailbox mailbox, MailboxMessage message) throws Exception;
 
+    /**
+     * Add a batch of {@link MailboxMessage} for the given {@link Mailbox} to the index
+     *
+     * Implementations able to group writes should override this method. The default one indexes messages one by one.
+     *
+     * @param session The mailbox session performing the message addition
+     * @param mailbox mailbox on which the message addition was performed
+     * @param messages The added messages
+     */
+    public void add(MailboxSession session, Mailbox mailbox, List<MailboxMessage> messages) throws Exception {
+        for (MailboxMessage message : messages) {
+            add(session, mailbox, message);
+        }
+    }
+
     /**
      * Delete the concerned UIDs for the given {@link Mailbox} from the index
      *
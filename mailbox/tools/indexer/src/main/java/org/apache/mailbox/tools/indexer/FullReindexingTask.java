@@ -45,6 +45,14 @@ public class FullReindexingTask implements Task {
         public int getFailedReprocessedMailCount() {
             return reprocessingContext.failedReprocessingMailCount();
         }
+
+        public int getMailboxCount() {
+            return reprocessingContext.mailboxCount();
+        }
+
+        public int getProcessedMailboxCount() {
+            return reprocessingContext.processedMailboxCount();
+        }
     }
 
     private final ReIndexerPerformer reIndexerPerformer;
@@ -72,6 +80,11 @@ public class FullReindexingTask implements Task {
         return FULL_RE_INDEXING;
     }
 
+    @Override
+    public Priority priority() {
+        return Priority.LOW;
+    }
+
     @Override
     public Optional<TaskExecutionDetails.AdditionalInformation> details() {
         return Optional.of(additionalInformation);
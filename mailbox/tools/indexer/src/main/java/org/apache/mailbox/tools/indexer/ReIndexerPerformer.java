@@ -19,7 +19,11 @@
 
 package org.apache.mailbox.tools.indexer;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import javax.inject.Inject;
@@ -44,6 +48,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
+import com.github.steveash.guavate.Guavate;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.RateLimiter;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 public class ReIndexerPerformer {
     private static final Logger LOGGER = LoggerFactory.getLogger(ReIndexerPerformer.class);
@@ -51,37 +62,40 @@ public class ReIndexerPerformer {
     private static final int NO_LIMIT = 0;
     private static final int SINGLE_MESSAGE = 1;
     private static final String RE_INDEXING = "re-indexing";
+    private static final String FULL_RUN = "full";
+    private static final String USER_RUN_PREFIX = "user:";
 
     private final MailboxManager mailboxManager;
     private final ListeningMessageSearchIndex messageSearchIndex;
     private final MailboxSessionMapperFactory mailboxSessionMapperFactory;
+    private final ReIndexingConfiguration configuration;
+    /**
+     * Mailboxes fully re-indexed by a run that was interrupted, for instance by a task cancellation, so that the next
+     * run of the same scope resumes where it stopped. A run reaching its end, even with failures, drops its checkpoint:
+     * later runs process every mailbox again. Kept in memory: a restart of the node starts the next run from scratch.
+     */
+    private final Map<String, Set<MailboxId>> checkpoints;
 
-    @Inject
     public ReIndexerPerformer(MailboxManager mailboxManager,
                               ListeningMessageSearchIndex messageSearchIndex,
                               MailboxSessionMapperFactory mailboxSessionMapperFactory) {
+        this(mailboxManager, messageSearchIndex, mailboxSessionMapperFactory, ReIndexingConfiguration.DEFAULT_CONFIGURATION);
+    }
+
+    @Inject
+    public ReIndexerPerformer(MailboxManager mailboxManager,
+                              ListeningMessageSearchIndex messageSearchIndex,
+                              MailboxSessionMapperFactory mailboxSessionMapperFactory,
+                              ReIndexingConfiguration configuration) {
         this.mailboxManager = mailboxManager;
         this.messageSearchIndex = messageSearchIndex;
         this.mailboxSessionMapperFactory = mailboxSessionMapperFactory;
+        this.configuration = configuration;
+        this.checkpoints = new ConcurrentHashMap<>();
     }
 
     Task.Result reIndex(MailboxId mailboxId, ReprocessingContext reprocessingContext) throws Exception {
-        LOGGER.info("Intend to reindex mailbox with mailboxId {}", mailboxId.serialize());
-        MailboxSession mailboxSession = mailboxManager.createSystemSession(RE_INDEXING);
-        Mailbox mailbox = mailboxSessionMapperFactory.getMailboxMapper(mailboxSession).findMailboxById(mailboxId);
-        messageSearchIndex.deleteAll(mailboxSession, mailbox);
-        try {
-            return Iterators.toStream(
-                mailboxSessionMapperFactory.getMessageMapper(mailboxSession)
-                    .findInMailbox(mailbox, MessageRange.all(), MessageMapper.FetchType.Metadata, NO_LIMIT))
-                .map(MailboxMessage::getUid)
-                .map(uid -> handleMessageReIndexing(mailboxSession, mailbox, uid))
-                .peek(reprocessingContext::updateAccordingToReprocessingResult)
-                .reduce(Task::combine)
-                .orElse(Task.Result.COMPLETED);
-        } finally {
-            LOGGER.info("Finish to reindex mailbox with mailboxId {}", mailboxId.serialize());
-        }
+        return reIndex(mailboxId, reprocessingContext, Optional.empty());
     }
 
     Task.Result reIndex(ReprocessingContext reprocessingContext) throws MailboxException {
@@ -92,7 +106,7 @@ public class ReIndexerPerformer {
             .map(Mailbox::getMailboxId);
 
         try {
-            return reIndex(mailboxIds, reprocessingContext);
+            return reIndex(FULL_RUN, mailboxIds, reprocessingContext);
         } finally {
             LOGGER.info("Full reindex finished");
         }
@@ -107,7 +121,7 @@ public class ReIndexerPerformer {
             .map(MailboxMetaData::getId);
 
         try {
-            return reIndex(mailboxIds, reprocessingContext);
+            return reIndex(USER_RUN_PREFIX + user.asString(), mailboxIds, reprocessingContext);
         } finally {
             LOGGER.info("User {} reindex finished", user.asString());
         }
@@ -120,16 +134,100 @@ public class ReIndexerPerformer {
         return handleMessageReIndexing(mailboxSession, mailbox, uid);
     }
 
-    private Task.Result reIndex(Stream<MailboxId> mailboxIds, ReprocessingContext reprocessingContext) {
-        return mailboxIds
-            .map(mailboxId -> {
-                try {
-                    return reIndex(mailboxId, reprocessingContext);
-                } catch (Throwable e) {
-                    LOGGER.error("Error while proceeding to full reindexing on mailbox with mailboxId {}", mailboxId.serialize(), e);
-                    return Task.Result.PARTIAL;
-                }
-            })
+    private Task.Result reIndex(String run, Stream<MailboxId> mailboxIds, ReprocessingContext reprocessingContext) {
+        Set<MailboxId> checkpoint = checkpoints.computeIfAbsent(run, any -> ConcurrentHashMap.newKeySet());
+        Optional<RateLimiter> rateLimiter = configuration.getMessagesPerSecond().map(RateLimiter::create);
+        List<MailboxId> allMailboxIds = mailboxIds.collect(Guavate.toImmutableList());
+        reprocessingContext.setMailboxCount(allMailboxIds.size());
+
+        if (!checkpoint.isEmpty()) {
+            LOGGER.info("Resuming {} reindex, skipping {} already reindexed mailboxes", run, checkpoint.size());
+        }
+
+        Task.Result result = Flux.fromIterable(allMailboxIds)
+            .filter(mailboxId -> !isCheckpointed(checkpoint, mailboxId, reprocessingContext))
+            .flatMap(mailboxId -> Mono.fromCallable(() -> reIndexCheckpointed(mailboxId, reprocessingContext, rateLimiter, checkpoint))
+                    .subscribeOn(Schedulers.elastic()),
+                configuration.getMailboxConcurrency())
+            .reduce(Task.Result.COMPLETED, Task::combine)
+            .block();
+
+        checkpoints.remove(run);
+        return result;
+    }
+
+    private boolean isCheckpointed(Set<MailboxId> checkpoint, MailboxId mailboxId, ReprocessingContext reprocessingContext) {
+        if (checkpoint.contains(mailboxId)) {
+            reprocessingContext.mailboxProcessed();
+            return true;
+        }
+        return false;
+    }
+
+    private Task.Result reIndexCheckpointed(MailboxId mailboxId, ReprocessingContext reprocessingContext,
+                                            Optional<RateLimiter> rateLimiter, Set<MailboxId> checkpoint) {
+        try {
+            Task.Result result = reIndex(mailboxId, reprocessingContext, rateLimiter);
+            if (result == Task.Result.COMPLETED) {
+                checkpoint.add(mailboxId);
+            }
+            return result;
+        } catch (Throwable e) {
+            LOGGER.error("Error while proceeding to full reindexing on mailbox with mailboxId {}", mailboxId.serialize(), e);
+            return Task.Result.PARTIAL;
+        } finally {
+            reprocessingContext.mailboxProcessed();
+        }
+    }
+
+    private Task.Result reIndex(MailboxId mailboxId, ReprocessingContext reprocessingContext, Optional<RateLimiter> rateLimiter) throws Exception {
+        LOGGER.info("Intend to reindex mailbox with mailboxId {}", mailboxId.serialize());
+        MailboxSession mailboxSession = mailboxManager.createSystemSession(RE_INDEXING);
+        Mailbox mailbox = mailboxSessionMapperFactory.getMailboxMapper(mailboxSession).findMailboxById(mailboxId);
+        messageSearchIndex.deleteAll(mailboxSession, mailbox);
+        try {
+            List<MessageUid> uids = Iterators.toStream(
+                mailboxSessionMapperFactory.getMessageMapper(mailboxSession)
+                    .findInMailbox(mailbox, MessageRange.all(), MessageMapper.FetchType.Metadata, NO_LIMIT))
+                .map(MailboxMessage::getUid)
+                .sorted()
+                .collect(Guavate.toImmutableList());
+
+            return Lists.partition(uids, configuration.getMessageBatchSize())
+                .stream()
+                .map(batch -> reIndexBatch(mailboxSession, mailbox, batch, reprocessingContext, rateLimiter))
+                .reduce(Task::combine)
+                .orElse(Task.Result.COMPLETED);
+        } finally {
+            LOGGER.info("Finish to reindex mailbox with mailboxId {}", mailboxId.serialize());
+        }
+    }
+
+    private Task.Result reIndexBatch(MailboxSession mailboxSession, Mailbox mailbox, List<MessageUid> batch,
+                                     ReprocessingContext reprocessingContext, Optional<RateLimiter> rateLimiter) {
+        rateLimiter.ifPresent(limiter -> limiter.acquire(batch.size()));
+
+        List<MailboxMessage> messages;
+        try {
+            messages = fullyReadMessages(mailboxSession, mailbox, batch);
+        } catch (Exception e) {
+            LOGGER.warn("ReIndexing failed for {} {} to {}", mailbox.generateAssociatedPath(), batch.get(0), batch.get(batch.size() - 1), e);
+            batch.forEach(uid -> reprocessingContext.updateAccordingToReprocessingResult(Task.Result.PARTIAL));
+            return Task.Result.PARTIAL;
+        }
+
+        if (messages.size() > SINGLE_MESSAGE) {
+            try {
+                messageSearchIndex.add(mailboxSession, mailbox, messages);
+                messages.forEach(message -> reprocessingContext.updateAccordingToReprocessingResult(Task.Result.COMPLETED));
+                return Task.Result.COMPLETED;
+            } catch (Exception e) {
+                LOGGER.warn("Bulk reIndexing failed for {}, falling back to message by message reIndexing", mailbox.generateAssociatedPath(), e);
+            }
+        }
+        return messages.stream()
+            .map(message -> indexMessage(mailboxSession, mailbox, message))
+            .peek(reprocessingContext::updateAccordingToReprocessingResult)
             .reduce(Task::combine)
             .orElse(Task.Result.COMPLETED);
     }
@@ -146,6 +244,25 @@ public class ReIndexerPerformer {
         }
     }
 
+    private Task.Result indexMessage(MailboxSession mailboxSession, Mailbox mailbox, MailboxMessage message) {
+        try {
+            messageSearchIndex.add(mailboxSession, mailbox, message);
+            return Task.Result.COMPLETED;
+        } catch (Exception e) {
+            LOGGER.warn("ReIndexing failed for {} {}", mailbox.generateAssociatedPath(), message.getUid(), e);
+            return Task.Result.PARTIAL;
+        }
+    }
+
+    private List<MailboxMessage> fullyReadMessages(MailboxSession mailboxSession, Mailbox mailbox, List<MessageUid> batch) throws MailboxException {
+        Set<MessageUid> expectedUids = batch.stream().collect(Guavate.toImmutableSet());
+        MessageRange range = MessageRange.range(batch.get(0), batch.get(batch.size() - 1));
+        return Iterators.toStream(mailboxSessionMapperFactory.getMessageMapper(mailboxSession)
+            .findInMailbox(mailbox, range, MessageMapper.FetchType.Full, NO_LIMIT))
+            .filter(message -> expectedUids.contains(message.getUid()))
+            .collect(Guavate.toImmutableList());
+    }
+
     private Optional<MailboxMessage> fullyReadMessage(MailboxSession mailboxSession, Mailbox mailbox, MessageUid mUid) throws MailboxException {
         return Iterators.toStream(mailboxSessionMapperFactory.getMessageMapper(mailboxSession)
             .findInMailbox(mailbox, MessageRange.one(mUid), MessageMapper.FetchType.Full, SINGLE_MESSAGE))
@@ -0,0 +1,141 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.mailbox.tools.indexer;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+public class ReIndexingConfiguration {
+
+    public static class Builder {
+        private Optional<Integer> mailboxConcurrency;
+        private Optional<Integer> messageBatchSize;
+        private Optional<Integer> messagesPerSecond;
+
+        private Builder() {
+            mailboxConcurrency = Optional.empty();
+            messageBatchSize = Optional.empty();
+            messagesPerSecond = Optional.empty();
+        }
+
+        public Builder mailboxConcurrency(int mailboxConcurrency) {
+            Preconditions.checkArgument(mailboxConcurrency > 0, "mailboxConcurrency needs to be strictly positive");
+            this.mailboxConcurrency = Optional.of(mailboxConcurrency);
+            return this;
+        }
+
+        public Builder mailboxConcurrency(Optional<Integer> mailboxConcurrency) {
+            mailboxConcurrency.ifPresent(this::mailboxConcurrency);
+            return this;
+        }
+
+        public Builder messageBatchSize(int messageBatchSize) {
+            Preconditions.checkArgument(messageBatchSize > 0, "messageBatchSize needs to be strictly positive");
+            this.messageBatchSize = Optional.of(messageBatchSize);
+            return this;
+        }
+
+        public Builder messageBatchSize(Optional<Integer> messageBatchSize) {
+            messageBatchSize.ifPresent(this::messageBatchSize);
+            return this;
+        }
+
+        public Builder messagesPerSecond(int messagesPerSecond) {
+            Preconditions.checkArgument(messagesPerSecond > 0, "messagesPerSecond needs to be strictly positive");
+            this.messagesPerSecond = Optional.of(messagesPerSecond);
+            return this;
+        }
+
+        public Builder messagesPerSecond(Optional<Integer> messagesPerSecond) {
+            messagesPerSecond.ifPresent(this::messagesPerSecond);
+            return this;
+        }
+
+        public ReIndexingConfiguration build() {
+            return new ReIndexingConfiguration(
+                mailboxConcurrency.orElse(DEFAULT_MAILBOX_CONCURRENCY),
+                messageBatchSize.orElse(DEFAULT_MESSAGE_BATCH_SIZE),
+                messagesPerSecond);
+        }
+    }
+
+    public static final int DEFAULT_MAILBOX_CONCURRENCY = 1;
+    public static final int DEFAULT_MESSAGE_BATCH_SIZE = 50;
+
+    public static final ReIndexingConfiguration DEFAULT_CONFIGURATION = builder().build();
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final int mailboxConcurrency;
+    private final int messageBatchSize;
+    private final Optional<Integer> messagesPerSecond;
+
+    private ReIndexingConfiguration(int mailboxConcurrency, int messageBatchSize, Optional<Integer> messagesPerSecond) {
+        this.mailboxConcurrency = mailboxConcurrency;
+        this.messageBatchSize = messageBatchSize;
+        this.messagesPerSecond = messagesPerSecond;
+    }
+
+    public int getMailboxConcurrency() {
+        return mailboxConcurrency;
+    }
+
+    public int getMessageBatchSize() {
+        return messageBatchSize;
+    }
+
+    /**
+     * When present, caps the number of messages indexed per second by a re-indexing run, all mailboxes included.
+     */
+    public Optional<Integer> getMessagesPerSecond() {
+        return messagesPerSecond;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof ReIndexingConfiguration) {
+            ReIndexingConfiguration that = (ReIndexingConfiguration) o;
+
+            return Objects.equals(this.mailboxConcurrency, that.mailboxConcurrency)
+                && Objects.equals(this.messageBatchSize, that.messageBatchSize)
+                && Objects.equals(this.messagesPerSecond, that.messagesPerSecond);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(mailboxConcurrency, messageBatchSize, messagesPerSecond);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("mailboxConcurrency", mailboxConcurrency)
+            .add("messageBatchSize", messageBatchSize)
+            .add("messagesPerSecond", messagesPerSecond)
+            .toString();
+    }
+}
@@ -26,10 +26,22 @@ import org.apache.james.task.Task;
 public class ReprocessingContext {
     private final AtomicInteger successfullyReprocessedMails;
     private final AtomicInteger failedReprocessingMails;
+    private final AtomicInteger mailboxes;
+    private final AtomicInteger processedMailboxes;
 
     public ReprocessingContext() {
         failedReprocessingMails = new AtomicInteger(0);
         successfullyReprocessedMails = new AtomicInteger(0);
+        mailboxes = new AtomicInteger(0);
+        processedMailboxes = new AtomicInteger(0);
+    }
+
+    public void setMailboxCount(int mailboxCount) {
+        mailboxes.set(mailboxCount);
+    }
+
+    public void mailboxProcessed() {
+        processedMailboxes.incrementAndGet();
     }
 
     public void updateAccordingToReprocessingResult(Task.Result result) {
@@ -50,4 +62,12 @@ public class ReprocessingContext {
     public int failedReprocessingMailCount() {
         return failedReprocessingMails.get();
     }
+
+    public int mailboxCount() {
+        return mailboxes.get();
+    }
+
+    public int processedMailboxCount() {
+        return processedMailboxes.get();
+    }
 }
@@ -49,6 +49,14 @@ public class UserReindexingTask implements Task {
             return reprocessingContext.failedReprocessingMailCount();
         }
 
+        public int getMailboxCount() {
+            return reprocessingContext.mailboxCount();
+        }
+
+        public int getProcessedMailboxCount() {
+            return reprocessingContext.processedMailboxCount();
+        }
+
         public String getUser() {
             return user.asString();
         }
@@ -81,6 +89,11 @@ public class UserReindexingTask implements Task {
         return USER_RE_INDEXING;
     }
 
+    @Override
+    public Priority priority() {
+        return Priority.LOW;
+    }
+
     @Override
     public Optional<TaskExecutionDetails.AdditionalInformation> details() {
         return Optional.of(additionalInformation);
@@ -22,10 +22,17 @@ package org.apache.mailbox.tools.indexer;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.james.core.User;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageManager;
@@ -42,6 +49,7 @@ import org.apache.james.mailbox.store.MailboxSessionMapperFactory;
 import org.apache.james.mailbox.store.mail.model.Mailbox;
 import org.apache.james.mailbox.store.mail.model.MailboxMessage;
 import org.apache.james.mailbox.store.search.ListeningMessageSearchIndex;
+import org.apache.james.task.Task;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -50,6 +58,7 @@ public class ReIndexerImplTest {
 
     private static final String USERNAME = "benwa@apache.org";
     public static final MailboxPath INBOX = MailboxPath.forUser(USERNAME, "INBOX");
+    public static final MailboxPath OTHER = MailboxPath.forUser(USERNAME, "other");
     private InMemoryMailboxManager mailboxManager;
     private ListeningMessageSearchIndex messageSearchIndex;
 
@@ -254,4 +263,90 @@ public class ReIndexerImplTest {
         assertThatThrownBy(() -> reIndexer.reIndex(mailboxId))
             .isInstanceOf(MailboxNotFoundException.class);
     }
+
+    @Test
+    void reIndexAllShouldIndexMessagesOfAMailboxInBulk() throws Exception {
+        MailboxSession systemSession = mailboxManager.createSystemSession(USERNAME);
+        MailboxId mailboxId = mailboxManager.createMailbox(INBOX, systemSession).get();
+        MessageManager messageManager = mailboxManager.getMailbox(INBOX, systemSession);
+        messageManager.appendMessage(MessageManager.AppendCommand.builder().build("header: value\r\n\r\nbody"), systemSession);
+        messageManager.appendMessage(MessageManager.AppendCommand.builder().build("header: value\r\n\r\nbody"), systemSession);
+
+        reIndexer.reIndex().run();
+
+        ArgumentCaptor<Mailbox> mailboxCaptor = ArgumentCaptor.forClass(Mailbox.class);
+        verify(messageSearchIndex).deleteAll(any(MailboxSession.class), any(Mailbox.class));
+        verify(messageSearchIndex).add(any(MailboxSession.class), mailboxCaptor.capture(), argThat((List<MailboxMessage> messages) -> messages.size() == 2));
+        verifyNoMoreInteractions(messageSearchIndex);
+
+        assertThat(mailboxCaptor.getValue().getMailboxId()).isEqualTo(mailboxId);
+    }
+
+    @Test
+    void reIndexAllShouldReIndexEveryMailboxAgainAfterAPartialRun() throws Exception {
+        MailboxSession systemSession = mailboxManager.createSystemSession(USERNAME);
+        MailboxId inboxId = mailboxManager.createMailbox(INBOX, systemSession).get();
+        MailboxId otherId = mailboxManager.createMailbox(OTHER, systemSession).get();
+        doThrow(new RuntimeException())
+            .doNothing()
+            .when(messageSearchIndex).deleteAll(any(MailboxSession.class), argThat(mailbox -> mailbox.getMailboxId().equals(otherId)));
+
+        Task.Result firstRun = reIndexer.reIndex().run();
+        Task.Result secondRun = reIndexer.reIndex().run();
+
+        assertThat(firstRun).isEqualTo(Task.Result.PARTIAL);
+        assertThat(secondRun).isEqualTo(Task.Result.COMPLETED);
+        verify(messageSearchIndex, times(2)).deleteAll(any(MailboxSession.class), argThat(mailbox -> mailbox.getMailboxId().equals(inboxId)));
+        verify(messageSearchIndex, times(2)).deleteAll(any(MailboxSession.class), argThat(mailbox -> mailbox.getMailboxId().equals(otherId)));
+    }
+
+    @Test
+    void reIndexAllShouldResumeAnInterruptedRun() throws Exception {
+        MailboxSession systemSession = mailboxManager.createSystemSession(USERNAME);
+        mailboxManager.createMailbox(INBOX, systemSession);
+        mailboxManager.createMailbox(OTHER, systemSession);
+        MailboxSessionMapperFactory mailboxSessionMapperFactory = mailboxManager.getMapperFactory();
+        ReIndexer reIndexer = new ReIndexerImpl(
+            new ReIndexerPerformer(mailboxManager, messageSearchIndex, mailboxSessionMapperFactory,
+                ReIndexingConfiguration.builder().mailboxConcurrency(1).build()),
+            mailboxManager, mailboxSessionMapperFactory);
+        Thread runningThread = Thread.currentThread();
+        AtomicInteger deletions = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (deletions.incrementAndGet() == 2) {
+                // Interrupt the run while it waits for the second mailbox
+                while (runningThread.getState() != Thread.State.WAITING) {
+                    Thread.yield();
+                }
+                runningThread.interrupt();
+                throw new RuntimeException();
+            }
+            return null;
+        }).when(messageSearchIndex).deleteAll(any(MailboxSession.class), any(Mailbox.class));
+
+        assertThatThrownBy(() -> reIndexer.reIndex().run())
+            .isInstanceOf(RuntimeException.class);
+        Thread.interrupted();
+        Task.Result secondRun = reIndexer.reIndex().run();
+
+        assertThat(secondRun).isEqualTo(Task.Result.COMPLETED);
+        assertThat(deletions.get()).isEqualTo(3);
+    }
+
+    @Test
+    void reIndexAllShouldReportMailboxProgress() throws Exception {
+        MailboxSession systemSession = mailboxManager.createSystemSession(USERNAME);
+        mailboxManager.createMailbox(INBOX, systemSession);
+        mailboxManager.createMailbox(OTHER, systemSession);
+
+        Task task = reIndexer.reIndex();
+        task.run();
+
+        assertThat(task.details())
+            .hasValueSatisfying(details -> {
+                FullReindexingTask.AdditionalInformation information = (FullReindexingTask.AdditionalInformation) details;
+                assertThat(information.getMailboxCount()).isEqualTo(2);
+                assertThat(information.getProcessedMailboxCount()).isEqualTo(2);
+            });
+    }
 }
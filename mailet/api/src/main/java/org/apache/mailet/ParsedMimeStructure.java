@@ -0,0 +1,247 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.mailet;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.mail.MessagingException;
+import javax.mail.Multipart;
+import javax.mail.Part;
+import javax.mail.internet.MimeMessage;
+
+import com.github.steveash.guavate.Guavate;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Immutable description of the MIME tree of a message: content type, disposition, file name and size of each part.
+ *
+ * Only the headers of the parts are read: bodies are neither decoded nor retained, so that describing a message
+ * never fails on a content it can not decode, and costs no more memory than its headers. Decoded text parts are
+ * thus not exposed: mailets needing them decode the parts they are interested in.
+ *
+ * A multipart whose body parts can not be read is still described, and listed by {@link #getUndescribedMultiparts()}:
+ * a malformed part only hides its own subtree.
+ *
+ * Mailets and matchers inspecting the structure of a {@link Mail} should rely on {@link #of(Mail)}: messages
+ * implementing {@link Provider} compute it once and share it across the processing pipeline until they get modified.
+ *
+ * @since Mailet API v3.2
+ */
+public class ParsedMimeStructure {
+
+    /**
+     * Implemented by {@link MimeMessage}s able to cache their parsed structure.
+     *
+     * Implementations are expected to discard the cached value whenever the message is modified.
+     */
+    public interface Provider {
+        ParsedMimeStructure getParsedMimeStructure() throws MessagingException;
+    }
+
+    public static class PartDescription {
+        private final ImmutableList<Integer> path;
+        private final Optional<String> contentType;
+        private final Optional<String> disposition;
+        private final Optional<String> fileName;
+        private final int size;
+
+        public PartDescription(List<Integer> path, Optional<String> contentType, Optional<String> disposition,
+                               Optional<String> fileName, int size) {
+            Preconditions.checkNotNull(path, "`path` should not be null");
+
+            this.path = ImmutableList.copyOf(path);
+            this.contentType = contentType;
+            this.disposition = disposition;
+            this.fileName = fileName;
+            this.size = size;
+        }
+
+        /**
+         * @return the index of this part within each enclosing multipart, empty for the message itself
+         */
+        public List<Integer> getPath() {
+            return path;
+        }
+
+        public int getDepth() {
+            return path.size();
+        }
+
+        public Optional<String> getContentType() {
+            return contentType;
+        }
+
+        public Optional<String> getDisposition() {
+            return disposition;
+        }
+
+        public boolean isAttachment() {
+            return disposition.map(Part.ATTACHMENT::equalsIgnoreCase).orElse(false);
+        }
+
+        public Optional<String> getFileName() {
+            return fileName;
+        }
+
+        /**
+         * @return the size of the encoded content of this part, -1 when unknown
+         */
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof PartDescription) {
+                PartDescription that = (PartDescription) o;
+
+                return Objects.equals(this.size, that.size)
+                    && Objects.equals(this.path, that.path)
+                    && Objects.equals(this.contentType, that.contentType)
+                    && Objects.equals(this.disposition, that.disposition)
+                    && Objects.equals(this.fileName, that.fileName);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(path, contentType, disposition, fileName, size);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                .add("path", path)
+                .add("contentType", contentType)
+                .add("disposition", disposition)
+                .add("fileName", fileName)
+                .add("size", size)
+                .toString();
+        }
+    }
+
+    /**
+     * Returns the structure of the message carried by this mail, shared with other mailets when the message supports it.
+     */
+    public static ParsedMimeStructure of(Mail mail) throws MessagingException {
+        MimeMessage message = mail.getMessage();
+        if (message instanceof Provider) {
+            return ((Provider) message).getParsedMimeStructure();
+        }
+        return parse(message);
+    }
+
+    public static ParsedMimeStructure parse(Part part) throws MessagingException {
+        ImmutableList.Builder<PartDescription> parts = ImmutableList.builder();
+        ImmutableSet.Builder<List<Integer>> undescribedMultiparts = ImmutableSet.builder();
+        walk(part, ImmutableList.of(), parts, undescribedMultiparts);
+        return new ParsedMimeStructure(parts.build(), undescribedMultiparts.build().asList());
+    }
+
+    private static void walk(Part part, ImmutableList<Integer> path, ImmutableList.Builder<PartDescription> parts,
+                             ImmutableSet.Builder<List<Integer>> undescribedMultiparts) throws MessagingException {
+        parts.add(new PartDescription(path,
+            Optional.ofNullable(part.getContentType()),
+            Optional.ofNullable(part.getDisposition()),
+            Optional.ofNullable(part.getFileName()),
+            part.getSize()));
+
+        try {
+            Object content = part.isMimeType("multipart/*") ? part.getContent() : null;
+            if (content instanceof Multipart) {
+                Multipart multipart = (Multipart) content;
+                for (int i = 0; i < multipart.getCount(); i++) {
+                    try {
+                        walk(multipart.getBodyPart(i),
+                            ImmutableList.<Integer>builder().addAll(path).add(i).build(),
+                            parts, undescribedMultiparts);
+                    } catch (MessagingException e) {
+                        undescribedMultiparts.add(path);
+                    }
+                }
+            }
+        } catch (MessagingException | IOException e) {
+            undescribedMultiparts.add(path);
+        }
+    }
+
+    private final ImmutableList<PartDescription> parts;
+    private final ImmutableList<List<Integer>> undescribedMultiparts;
+
+    private ParsedMimeStructure(ImmutableList<PartDescription> parts, ImmutableList<List<Integer>> undescribedMultiparts) {
+        this.parts = parts;
+        this.undescribedMultiparts = undescribedMultiparts;
+    }
+
+    /**
+     * @return every part of the message, depth first, starting with the message itself
+     */
+    public List<PartDescription> getParts() {
+        return parts;
+    }
+
+    /**
+     * @return the paths of the multiparts some body parts of which could not be read, and are thus missing from
+     * {@link #getParts()}
+     */
+    public List<List<Integer>> getUndescribedMultiparts() {
+        return undescribedMultiparts;
+    }
+
+    public boolean isComplete() {
+        return undescribedMultiparts.isEmpty();
+    }
+
+    public List<PartDescription> getAttachments() {
+        return parts.stream()
+            .filter(PartDescription::isAttachment)
+            .collect(Guavate.toImmutableList());
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof ParsedMimeStructure) {
+            ParsedMimeStructure that = (ParsedMimeStructure) o;
+
+            return Objects.equals(this.parts, that.parts)
+                && Objects.equals(this.undescribedMultiparts, that.undescribedMultiparts);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(parts, undescribedMultiparts);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("parts", parts)
+            .add("undescribedMultiparts", undescribedMultiparts)
+            .toString();
+    }
+}
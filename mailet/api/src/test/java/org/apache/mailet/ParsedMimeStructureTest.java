@@ -0,0 +1,149 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.mailet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Properties;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.MimeBodyPart;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimeMultipart;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+class ParsedMimeStructureTest {
+    private static final String MULTIPART_MESSAGE = "Subject: test\r\n" +
+        "MIME-Version: 1.0\r\n" +
+        "Content-Type: multipart/mixed; boundary=\"BOUNDARY\"\r\n" +
+        "\r\n" +
+        "--BOUNDARY\r\n" +
+        "Content-Type: text/plain; charset=UTF-8\r\n" +
+        "\r\n" +
+        "body\r\n" +
+        "--BOUNDARY\r\n" +
+        "Content-Type: application/pdf; name=\"doc.pdf\"\r\n" +
+        "Content-Disposition: attachment; filename=\"doc.pdf\"\r\n" +
+        "Content-Transfer-Encoding: base64\r\n" +
+        "\r\n" +
+        "AAAA\r\n" +
+        "--BOUNDARY--\r\n";
+
+    @Test
+    void partDescriptionShouldRespectBeanContract() {
+        EqualsVerifier.forClass(ParsedMimeStructure.PartDescription.class).verify();
+    }
+
+    @Test
+    void shouldRespectBeanContract() {
+        EqualsVerifier.forClass(ParsedMimeStructure.class).verify();
+    }
+
+    @Test
+    void parseShouldDescribeEveryPartDepthFirst() throws Exception {
+        ParsedMimeStructure structure = ParsedMimeStructure.parse(message(MULTIPART_MESSAGE));
+
+        assertThat(structure.getParts())
+            .extracting(ParsedMimeStructure.PartDescription::getPath)
+            .containsExactly(ImmutableList.of(), ImmutableList.of(0), ImmutableList.of(1));
+    }
+
+    @Test
+    void parseShouldNotDecodeTextParts() throws Exception {
+        ParsedMimeStructure structure = ParsedMimeStructure.parse(message("Subject: test\r\n" +
+            "Content-Type: text/plain; charset=unknown-charset\r\n" +
+            "\r\n" +
+            "body"));
+
+        assertThat(structure.getParts())
+            .extracting(ParsedMimeStructure.PartDescription::getContentType)
+            .containsExactly(Optional.of("text/plain; charset=unknown-charset"));
+    }
+
+    @Test
+    void parseShouldDescribeAttachments() throws Exception {
+        ParsedMimeStructure structure = ParsedMimeStructure.parse(message(MULTIPART_MESSAGE));
+
+        assertThat(structure.getAttachments())
+            .extracting(ParsedMimeStructure.PartDescription::getFileName)
+            .containsExactly(Optional.of("doc.pdf"));
+    }
+
+    @Test
+    void parseShouldDescribeSinglePartMessages() throws Exception {
+        ParsedMimeStructure structure = ParsedMimeStructure.parse(message("Subject: test\r\n\r\nbody"));
+
+        assertThat(structure.getParts())
+            .extracting(ParsedMimeStructure.PartDescription::getDepth)
+            .containsExactly(0);
+        assertThat(structure.getAttachments()).isEmpty();
+    }
+
+    @Test
+    void parseShouldBeCompleteWhenEveryPartIsRead() throws Exception {
+        ParsedMimeStructure structure = ParsedMimeStructure.parse(message(MULTIPART_MESSAGE));
+
+        assertThat(structure.isComplete()).isTrue();
+    }
+
+    @Test
+    void parseShouldDescribeOtherPartsWhenANestedMultipartIsMalformed() throws Exception {
+        MimeMultipart mimeMultipart = new MimeMultipart();
+        mimeMultipart.addBodyPart(malformedMultipart());
+        MimeBodyPart attachmentPart = new MimeBodyPart();
+        attachmentPart.setDisposition(MimeBodyPart.ATTACHMENT);
+        mimeMultipart.addBodyPart(attachmentPart);
+        MimeMessage message = new MimeMessage(Session.getDefaultInstance(new Properties()));
+        message.setContent(mimeMultipart);
+
+        ParsedMimeStructure structure = ParsedMimeStructure.parse(message);
+
+        assertThat(structure.getParts())
+            .extracting(ParsedMimeStructure.PartDescription::getPath)
+            .containsExactly(ImmutableList.of(), ImmutableList.of(0), ImmutableList.of(1));
+        assertThat(structure.getAttachments()).hasSize(1);
+        assertThat(structure.getUndescribedMultiparts()).containsExactly(ImmutableList.of(0));
+        assertThat(structure.isComplete()).isFalse();
+    }
+
+    private static MimeBodyPart malformedMultipart() throws MessagingException {
+        MimeBodyPart part = new MimeBodyPart() {
+            @Override
+            public Object getContent() throws MessagingException {
+                throw new MessagingException("Missing start boundary");
+            }
+        };
+        part.setHeader("Content-Type", "multipart/mixed; boundary=\"inner\"");
+        return part;
+    }
+
+    private static MimeMessage message(String content) throws Exception {
+        return new MimeMessage(Session.getDefaultInstance(new Properties()),
+            new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -22,18 +22,15 @@
 package org.apache.james.transport.matchers;
 
 import java.util.Collection;
+import java.util.List;
 
 import javax.mail.MessagingException;
-import javax.mail.Multipart;
-import javax.mail.Part;
-import javax.mail.internet.MimeMessage;
 
 import org.apache.james.core.MailAddress;
 import org.apache.mailet.Mail;
+import org.apache.mailet.ParsedMimeStructure;
 import org.apache.mailet.base.GenericMatcher;
 
-import com.google.common.base.Objects;
-
 /**
  * Checks whether this message has an attachment
  *
@@ -43,56 +40,38 @@ public class HasAttachment extends GenericMatcher {
 
     /** 
      * Either every recipient is matching or neither of them.
-     * @throws MessagingException if no attachment is found and at least one exception was thrown
+     * @throws MessagingException if no attachment is found and the top level parts could not all be read
      */
     @Override
     public Collection<MailAddress> match(Mail mail) throws MessagingException {
-        
-        Exception anException = null;
-        
+        /**
+         * if there is an attachment and no inline text,
+         * the content type can be anything
+         */
+        if (mail.getMessage().getContentType() == null) {
+            return null;
+        }
+
+        ParsedMimeStructure structure;
         try {
-            MimeMessage message = mail.getMessage();
-            Object content;
-            
-            /**
-             * if there is an attachment and no inline text,
-             * the content type can be anything
-             */
-            if (message.getContentType() == null) {
-                return null;
-            }
-            
-            content = message.getContent();
-            if (content instanceof Multipart) {
-                Multipart multipart = (Multipart) content;
-                for (int i = 0; i < multipart.getCount(); i++) {
-                    try {
-                        Part part = multipart.getBodyPart(i);
-                        if (isAttachment(part)) {
-                            return mail.getRecipients(); // file found
-                        }
-                    } catch (MessagingException e) {
-                        anException = e;
-                    } // ignore any messaging exception and process next bodypart
-                }
-            } else {
-                if (isAttachment(message)) {
-                    return mail.getRecipients(); // file found
-                }
-            }
-        } catch (Exception e) {
-            anException = e;
+            structure = ParsedMimeStructure.of(mail);
+        } catch (MessagingException e) {
+            throw new MessagingException("Malformed message", e);
+        }
+
+        if (hasTopLevelAttachment(structure)) {
+            return mail.getRecipients(); // file found
         }
-        
-        // if no attachment was found and at least one exception was catched rethrow it up
-        if (anException != null) {
-            throw new MessagingException("Malformed message", anException);
+        if (structure.getUndescribedMultiparts().stream().anyMatch(List::isEmpty)) {
+            throw new MessagingException("Malformed message");
         }
-        
         return null; // no attachment found
     }
 
-    private boolean isAttachment(Part part) throws MessagingException {
-        return Objects.equal(part.getDisposition(), MimeMessage.ATTACHMENT);
+    private boolean hasTopLevelAttachment(ParsedMimeStructure structure) {
+        return structure.getParts()
+            .stream()
+            .filter(part -> part.getDepth() <= 1)
+            .anyMatch(ParsedMimeStructure.PartDescription::isAttachment);
     }
 }
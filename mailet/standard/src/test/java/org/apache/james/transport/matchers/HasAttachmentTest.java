@@ -21,9 +21,11 @@ package org.apache.james.transport.matchers;
 
 import static org.apache.mailet.base.MailAddressFixture.ANY_AT_JAMES;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import javax.mail.MessagingException;
 import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMessage;
 import javax.mail.internet.MimeMultipart;
@@ -92,6 +94,62 @@ public class HasAttachmentTest {
         assertThat(testee.match(mail)).containsAll(mail.getRecipients());
     }
 
+    @Test
+    public void multipartWithAnUndecodableTextPartAndAnAttachmentShouldBeMatched() throws Exception {
+        mail.setMessage(MimeMessageUtil.mimeMessageFromString("Subject: test\r\n" +
+            "MIME-Version: 1.0\r\n" +
+            "Content-Type: multipart/mixed; boundary=\"BOUNDARY\"\r\n" +
+            "\r\n" +
+            "--BOUNDARY\r\n" +
+            "Content-Type: text/plain; charset=unknown-charset\r\n" +
+            "\r\n" +
+            "body\r\n" +
+            "--BOUNDARY\r\n" +
+            "Content-Type: application/pdf; name=\"doc.pdf\"\r\n" +
+            "Content-Disposition: attachment; filename=\"doc.pdf\"\r\n" +
+            "\r\n" +
+            "AAAA\r\n" +
+            "--BOUNDARY--\r\n"));
+
+        assertThat(testee.match(mail)).containsAll(mail.getRecipients());
+    }
+
+    @Test
+    public void multipartWithAnAttachmentAndAMalformedNestedMultipartShouldBeMatched() throws Exception {
+        MimeMultipart mimeMultipart = new MimeMultipart();
+        mimeMultipart.addBodyPart(malformedMultipart());
+        MimeBodyPart attachmentPart = new MimeBodyPart();
+        attachmentPart.setDisposition(MimeMessage.ATTACHMENT);
+        mimeMultipart.addBodyPart(attachmentPart);
+        mimeMessage.setContent(mimeMultipart);
+
+        assertThat(testee.match(mail)).containsAll(mail.getRecipients());
+    }
+
+    @Test
+    public void malformedNestedMultipartShouldNotPreventMatchingOtherParts() throws Exception {
+        MimeMultipart mimeMultipart = new MimeMultipart();
+        mimeMultipart.addBodyPart(malformedMultipart());
+        MimeBodyPart textPart = new MimeBodyPart();
+        textPart.setDisposition(MimeMessage.INLINE);
+        mimeMultipart.addBodyPart(textPart);
+        mimeMessage.setContent(mimeMultipart);
+
+        assertThat(testee.match(mail)).isNull();
+    }
+
+    @Test
+    public void malformedTopLevelMultipartShouldThrow() throws Exception {
+        MimeMessage mimeMessage = mock(MimeMessage.class);
+        when(mimeMessage.getContentType()).thenReturn("multipart/mixed");
+        when(mimeMessage.isMimeType("multipart/*")).thenReturn(true);
+        when(mimeMessage.getContent()).thenThrow(new MessagingException("Missing start boundary"));
+        mail.setMessage(mimeMessage);
+
+        assertThatThrownBy(() -> testee.match(mail))
+            .isInstanceOf(MessagingException.class);
+    }
+
     @Test
     public void attachmentMailsShouldBeMatched() throws Exception {
         MimeMessage mimeMessage = mock(MimeMessage.class);
@@ -103,4 +161,14 @@ public class HasAttachmentTest {
         assertThat(testee.match(mail)).containsAll(mail.getRecipients());
     }
 
+    private MimeBodyPart malformedMultipart() throws MessagingException {
+        MimeBodyPart part = new MimeBodyPart() {
+            @Override
+            public Object getContent() throws MessagingException {
+                throw new MessagingException("Missing start boundary");
+            }
+        };
+        part.setHeader("Content-Type", "multipart/mixed; boundary=\"inner\"");
+        return part;
+    }
 }
@@ -39,8 +39,10 @@ public interface MetricFactory {
     }
 
     default <T> Mono<T> runPublishingTimerMetric(String name, Mono<T> mono) {
-        TimeMetric timer = timer(name);
-        return mono.doOnNext(ignored -> timer.stopAndPublish());
+        return Mono.defer(() -> {
+            TimeMetric timer = timer(name);
+            return mono.doOnTerminate(timer::stopAndPublish);
+        });
     }
 
     default void runPublishingTimerMetric(String name, Runnable runnable) {
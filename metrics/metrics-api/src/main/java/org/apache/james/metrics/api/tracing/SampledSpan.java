@@ -0,0 +1,114 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.metrics.api.tracing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+public class SampledSpan implements Span {
+    private static final long NOT_FINISHED = -1;
+
+    private final Trace trace;
+    private final Optional<SampledSpan> parent;
+    private final String name;
+    private final long startNanos;
+    private final List<SampledSpan> children;
+    private volatile long endNanos;
+
+    SampledSpan(Trace trace, Optional<SampledSpan> parent, String name) {
+        this.trace = trace;
+        this.parent = parent;
+        this.name = name;
+        this.startNanos = System.nanoTime();
+        this.children = Collections.synchronizedList(new ArrayList<>());
+        this.endNanos = NOT_FINISHED;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Trace getTrace() {
+        return trace;
+    }
+
+    /**
+     * Delay between the start of the trace and the start of this span.
+     */
+    public Duration getOffset() {
+        return Duration.ofNanos(startNanos - trace.getRoot().startNanos);
+    }
+
+    public Optional<Duration> getDuration() {
+        long end = endNanos;
+        if (end == NOT_FINISHED) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.ofNanos(end - startNanos));
+    }
+
+    public List<SampledSpan> getChildren() {
+        synchronized (children) {
+            return Collections.unmodifiableList(new ArrayList<>(children));
+        }
+    }
+
+    public boolean isFinished() {
+        return endNanos != NOT_FINISHED;
+    }
+
+    /**
+     * Children started after a span ended attach to its closest running ancestor, as long as the trace is running and
+     * below its span limit.
+     */
+    Optional<SampledSpan> nearestActive() {
+        if (trace.isFinished() || trace.isFull()) {
+            return Optional.empty();
+        }
+        if (!isFinished()) {
+            return Optional.of(this);
+        }
+        return parent.flatMap(SampledSpan::nearestActive);
+    }
+
+    Span startChild(String name) {
+        if (!trace.reserveSpan()) {
+            return Span.NOOP;
+        }
+        SampledSpan child = new SampledSpan(trace, Optional.of(this), name);
+        children.add(child);
+        return child;
+    }
+
+    @Override
+    public void close() {
+        if (isFinished()) {
+            return;
+        }
+        endNanos = System.nanoTime();
+        TraceContext.restore(this, parent);
+        if (!parent.isPresent()) {
+            trace.finish();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.metrics.api.tracing;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class Trace {
+    private final String traceId;
+    private final Instant startDate;
+    private final int maxSpans;
+    private final AtomicInteger spanCount;
+    private final AtomicBoolean finished;
+    private final Consumer<Trace> onFinish;
+    private final SampledSpan root;
+
+    Trace(String name, int maxSpans, Consumer<Trace> onFinish) {
+        this.traceId = UUID.randomUUID().toString();
+        this.startDate = Instant.now();
+        this.maxSpans = maxSpans;
+        this.spanCount = new AtomicInteger(1);
+        this.finished = new AtomicBoolean(false);
+        this.onFinish = onFinish;
+        this.root = new SampledSpan(this, Optional.empty(), name);
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public Instant getStartDate() {
+        return startDate;
+    }
+
+    public SampledSpan getRoot() {
+        return root;
+    }
+
+    public String getName() {
+        return root.getName();
+    }
+
+    public Duration getDuration() {
+        return root.getDuration().orElse(Duration.ZERO);
+    }
+
+    public int getSpanCount() {
+        return spanCount.get();
+    }
+
+    boolean isFinished() {
+        return finished.get();
+    }
+
+    boolean isFull() {
+        return spanCount.get() >= maxSpans;
+    }
+
+    boolean reserveSpan() {
+        return spanCount.getAndUpdate(count -> Math.min(count + 1, maxSpans)) < maxSpans;
+    }
+
+    void finish() {
+        if (finished.compareAndSet(false, true)) {
+            onFinish.accept(this);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.metrics.api.tracing;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import reactor.util.context.Context;
+
+/**
+ * Holds the span running on the current thread so that nested layers can attach their own spans without the tracer
+ * being passed around, the same way the MDC carries logging context.
+ */
+public final class TraceContext {
+    private static final ThreadLocal<SampledSpan> CURRENT = new ThreadLocal<>();
+
+    public static Optional<SampledSpan> current() {
+        SampledSpan span = CURRENT.get();
+        if (span == null) {
+            return Optional.empty();
+        }
+        Optional<SampledSpan> active = span.nearestActive();
+        if (!active.isPresent()) {
+            CURRENT.remove();
+        } else if (active.get() != span) {
+            CURRENT.set(active.get());
+        }
+        return active;
+    }
+
+    /**
+     * Captures the span running on the current thread so that it becomes the parent of the spans of the reactive
+     * pipeline this context is applied to, whatever thread the pipeline runs on.
+     */
+    public static Function<Context, Context> propagate() {
+        Optional<SampledSpan> current = current();
+        return context -> current
+            .map(span -> context.put(SampledSpan.class, span))
+            .orElse(context);
+    }
+
+    /**
+     * Starts a span nested in the span running on the current thread. Does nothing when the current thread is not
+     * part of a sampled trace.
+     */
+    public static Span childSpan(String name) {
+        return current()
+            .map(parent -> push(parent.startChild(name)))
+            .orElse(Span.NOOP);
+    }
+
+    static Span push(Span span) {
+        if (span instanceof SampledSpan) {
+            CURRENT.set((SampledSpan) span);
+        }
+        return span;
+    }
+
+    static void restore(SampledSpan closed, Optional<SampledSpan> parent) {
+        SampledSpan current = CURRENT.get();
+        if (current == null) {
+            return;
+        }
+        if (current == closed) {
+            Optional<SampledSpan> activeParent = parent.flatMap(SampledSpan::nearestActive);
+            if (activeParent.isPresent()) {
+                CURRENT.set(activeParent.get());
+            } else {
+                CURRENT.remove();
+            }
+        } else if (!parent.isPresent() && current.getTrace() == closed.getTrace()) {
+            CURRENT.remove();
+        }
+    }
+
+    private TraceContext() {
+    }
+}
@@ -0,0 +1,123 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.metrics.api.tracing;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Starts sampled traces and keeps the slowest recent ones in a bounded in-memory buffer, newest first.
+ *
+ * Spans started on a thread nest into the span running on that thread. Spans of reactive pipelines are propagated
+ * through the Reactor subscriber context instead.
+ */
+public class Tracer {
+    public static final Tracer DISABLED = new Tracer(TracingConfiguration.DISABLED);
+
+    private final TracingConfiguration configuration;
+    private final SlowTraceBuffer slowTraces;
+
+    public Tracer(TracingConfiguration configuration) {
+        this.configuration = configuration;
+        this.slowTraces = new SlowTraceBuffer(configuration.getSlowTraceBufferSize());
+    }
+
+    public TracingConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Starts a span nested in the span running on the current thread, or a new sampled trace when there is none.
+     *
+     * The span becomes the current span of this thread until it is closed: it needs to be closed on this thread,
+     * typically with try-with-resources.
+     */
+    public Span startSpan(String name) {
+        Optional<SampledSpan> current = TraceContext.current();
+        if (current.isPresent()) {
+            return TraceContext.push(current.get().startChild(name));
+        }
+        return startTrace(name)
+            .map(TraceContext::push)
+            .orElse(Span.NOOP);
+    }
+
+    /**
+     * Starts a span nested in the span running on the current thread, or a new sampled trace when there is none,
+     * without making it the current span: it can be closed on any thread, or never, without leaking into the thread.
+     */
+    public Span startDetachedSpan(String name) {
+        return startDetachedSpan(name, Optional.empty());
+    }
+
+    public <T> Mono<T> trace(String name, Mono<T> mono) {
+        return Mono.subscriberContext()
+            .flatMap(context -> {
+                Span span = startDetachedSpan(name, context.<SampledSpan>getOrEmpty(SampledSpan.class)
+                    .flatMap(SampledSpan::nearestActive));
+
+                return mono.doFinally(signal -> span.close())
+                    .subscriberContext(innerContext -> {
+                        if (span instanceof SampledSpan) {
+                            return innerContext.put(SampledSpan.class, span);
+                        }
+                        return innerContext;
+                    });
+            });
+    }
+
+    public List<Trace> getSlowTraces() {
+        return slowTraces.list();
+    }
+
+    public void clearSlowTraces() {
+        slowTraces.clear();
+    }
+
+    private Span startDetachedSpan(String name, Optional<SampledSpan> contextParent) {
+        Optional<SampledSpan> parent = contextParent.isPresent() ? contextParent : TraceContext.current();
+        if (parent.isPresent()) {
+            return parent.get().startChild(name);
+        }
+        return startTrace(name)
+            .<Span>map(root -> root)
+            .orElse(Span.NOOP);
+    }
+
+    private Optional<SampledSpan> startTrace(String name) {
+        if (!configuration.isEnabled() || !isSampled()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Trace(name, configuration.getMaxSpansPerTrace(), this::record).getRoot());
+    }
+
+    private boolean isSampled() {
+        return ThreadLocalRandom.current().nextDouble() < configuration.getSamplingRatio();
+    }
+
+    private void record(Trace trace) {
+        if (trace.getDuration().compareTo(configuration.getSlowTraceThreshold()) >= 0) {
+            slowTraces.add(trace);
+        }
+    }
+}
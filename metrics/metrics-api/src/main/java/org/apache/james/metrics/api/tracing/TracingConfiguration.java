@@ -0,0 +1,180 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.metrics.api.tracing;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+public class TracingConfiguration {
+
+    public static class Builder {
+        private Optional<Boolean> enabled;
+        private Optional<Double> samplingRatio;
+        private Optional<Duration> slowTraceThreshold;
+        private Optional<Integer> slowTraceBufferSize;
+        private Optional<Integer> maxSpansPerTrace;
+
+        private Builder() {
+            enabled = Optional.empty();
+            samplingRatio = Optional.empty();
+            slowTraceThreshold = Optional.empty();
+            slowTraceBufferSize = Optional.empty();
+            maxSpansPerTrace = Optional.empty();
+        }
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = Optional.of(enabled);
+            return this;
+        }
+
+        public Builder enabled(Optional<Boolean> enabled) {
+            enabled.ifPresent(this::enabled);
+            return this;
+        }
+
+        public Builder samplingRatio(double samplingRatio) {
+            checkArgument(samplingRatio >= 0 && samplingRatio <= 1, "samplingRatio needs to be between 0 and 1");
+            this.samplingRatio = Optional.of(samplingRatio);
+            return this;
+        }
+
+        public Builder samplingRatio(Optional<Double> samplingRatio) {
+            samplingRatio.ifPresent(this::samplingRatio);
+            return this;
+        }
+
+        public Builder slowTraceThreshold(Duration slowTraceThreshold) {
+            checkArgument(!slowTraceThreshold.isNegative(), "slowTraceThreshold needs to be positive");
+            this.slowTraceThreshold = Optional.of(slowTraceThreshold);
+            return this;
+        }
+
+        public Builder slowTraceThreshold(Optional<Duration> slowTraceThreshold) {
+            slowTraceThreshold.ifPresent(this::slowTraceThreshold);
+            return this;
+        }
+
+        public Builder slowTraceBufferSize(int slowTraceBufferSize) {
+            checkArgument(slowTraceBufferSize > 0, "slowTraceBufferSize needs to be strictly positive");
+            this.slowTraceBufferSize = Optional.of(slowTraceBufferSize);
+            return this;
+        }
+
+        public Builder slowTraceBufferSize(Optional<Integer> slowTraceBufferSize) {
+            slowTraceBufferSize.ifPresent(this::slowTraceBufferSize);
+            return this;
+        }
+
+        public Builder maxSpansPerTrace(int maxSpansPerTrace) {
+            checkArgument(maxSpansPerTrace > 0, "maxSpansPerTrace needs to be strictly positive");
+            this.maxSpansPerTrace = Optional.of(maxSpansPerTrace);
+            return this;
+        }
+
+        public Builder maxSpansPerTrace(Optional<Integer> maxSpansPerTrace) {
+            maxSpansPerTrace.ifPresent(this::maxSpansPerTrace);
+            return this;
+        }
+
+        public TracingConfiguration build() {
+            return new TracingConfiguration(
+                enabled.orElse(DEFAULT_ENABLED),
+                samplingRatio.orElse(DEFAULT_SAMPLING_RATIO),
+                slowTraceThreshold.orElse(DEFAULT_SLOW_TRACE_THRESHOLD),
+                slowTraceBufferSize.orElse(DEFAULT_SLOW_TRACE_BUFFER_SIZE),
+                maxSpansPerTrace.orElse(DEFAULT_MAX_SPANS_PER_TRACE));
+        }
+
+        private static void checkArgument(boolean condition, String message) {
+            if (!condition) {
+                throw new IllegalArgumentException(message);
+            }
+        }
+    }
+
+    public static final boolean DEFAULT_ENABLED = false;
+    public static final double DEFAULT_SAMPLING_RATIO = 0.01;
+    public static final Duration DEFAULT_SLOW_TRACE_THRESHOLD = Duration.ofSeconds(1);
+    public static final int DEFAULT_SLOW_TRACE_BUFFER_SIZE = 100;
+    /**
+     * Bounds the memory held by a trace, including one whose root span would never be closed.
+     */
+    public static final int DEFAULT_MAX_SPANS_PER_TRACE = 1000;
+
+    public static final TracingConfiguration DISABLED = builder().enabled(false).build();
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final boolean enabled;
+    private final double samplingRatio;
+    private final Duration slowTraceThreshold;
+    private final int slowTraceBufferSize;
+    private final int maxSpansPerTrace;
+
+    private TracingConfiguration(boolean enabled, double samplingRatio, Duration slowTraceThreshold, int slowTraceBufferSize, int maxSpansPerTrace) {
+        this.enabled = enabled;
+        this.samplingRatio = samplingRatio;
+        this.slowTraceThreshold = slowTraceThreshold;
+        this.slowTraceBufferSize = slowTraceBufferSize;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public double getSamplingRatio() {
+        return samplingRatio;
+    }
+
+    public Duration getSlowTraceThreshold() {
+        return slowTraceThreshold;
+    }
+
+    public int getSlowTraceBufferSize() {
+        return slowTraceBufferSize;
+    }
+
+    public int getMaxSpansPerTrace() {
+        return maxSpansPerTrace;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof TracingConfiguration) {
+            TracingConfiguration that = (TracingConfiguration) o;
+
+            return Objects.equals(this.enabled, that.enabled)
+                && Objects.equals(this.samplingRatio, that.samplingRatio)
+                && Objects.equals(this.slowTraceThreshold, that.slowTraceThreshold)
+                && Objects.equals(this.slowTraceBufferSize, that.slowTraceBufferSize)
+                && Objects.equals(this.maxSpansPerTrace, that.maxSpansPerTrace);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(enabled, samplingRatio, slowTraceThreshold, slowTraceBufferSize, maxSpansPerTrace);
+    }
+}
@@ -0,0 +1,90 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.metrics.api.tracing;
+
+import java.util.function.Supplier;
+
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Opens a span for each timer of the decorated {@link MetricFactory}: the instrumented protocol commands, mailet
+ * processing and BlobStore operations thus show up in traces.
+ *
+ * Spans of plain timers are detached, as nothing guarantees they are stopped, nor stopped on the thread that started
+ * them. Only the spans of the scoped {@link #runPublishingTimerMetric} variants become the parent of the spans started
+ * while they run.
+ */
+public class TracingMetricFactory implements MetricFactory {
+
+    private static class TracingTimeMetric implements TimeMetric {
+        private final TimeMetric timeMetric;
+        private final Span span;
+
+        private TracingTimeMetric(TimeMetric timeMetric, Span span) {
+            this.timeMetric = timeMetric;
+            this.span = span;
+        }
+
+        @Override
+        public String name() {
+            return timeMetric.name();
+        }
+
+        @Override
+        public long stopAndPublish() {
+            span.close();
+            return timeMetric.stopAndPublish();
+        }
+    }
+
+    private final MetricFactory metricFactory;
+    private final Tracer tracer;
+
+    public TracingMetricFactory(MetricFactory metricFactory, Tracer tracer) {
+        this.metricFactory = metricFactory;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Metric generate(String name) {
+        return metricFactory.generate(name);
+    }
+
+    @Override
+    public TimeMetric timer(String name) {
+        return new TracingTimeMetric(metricFactory.timer(name), tracer.startDetachedSpan(name));
+    }
+
+    @Override
+    public <T> T runPublishingTimerMetric(String name, Supplier<T> operation) {
+        try (Span span = tracer.startSpan(name)) {
+            return metricFactory.runPublishingTimerMetric(name, operation);
+        }
+    }
+
+    @Override
+    public <T> Mono<T> runPublishingTimerMetric(String name, Mono<T> mono) {
+        return tracer.trace(name, metricFactory.runPublishingTimerMetric(name, mono));
+    }
+}
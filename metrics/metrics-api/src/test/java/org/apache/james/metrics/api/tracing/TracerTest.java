@@ -0,0 +1,188 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.metrics.api.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+class TracerTest {
+    private static final TracingConfiguration ALWAYS_SAMPLED = TracingConfiguration.builder()
+        .enabled(true)
+        .samplingRatio(1)
+        .slowTraceThreshold(Duration.ZERO)
+        .build();
+
+    private Tracer testee;
+
+    @BeforeEach
+    void setUp() {
+        testee = new Tracer(ALWAYS_SAMPLED);
+    }
+
+    @Test
+    void startSpanShouldReturnNoopWhenDisabled() {
+        assertThat(Tracer.DISABLED.startSpan("root")).isSameAs(Span.NOOP);
+        assertThat(TraceContext.current()).isEmpty();
+    }
+
+    @Test
+    void startSpanShouldReturnNoopWhenNotSampled() {
+        Tracer tracer = new Tracer(TracingConfiguration.builder()
+            .enabled(true)
+            .samplingRatio(0)
+            .build());
+
+        assertThat(tracer.startSpan("root")).isSameAs(Span.NOOP);
+    }
+
+    @Test
+    void startSpanShouldBecomeTheCurrentSpanUntilClosed() {
+        try (Span root = testee.startSpan("root")) {
+            assertThat(TraceContext.current()).contains((SampledSpan) root);
+        }
+
+        assertThat(TraceContext.current()).isEmpty();
+    }
+
+    @Test
+    void startSpanShouldNestIntoTheCurrentSpan() {
+        try (Span root = testee.startSpan("root")) {
+            try (Span child = testee.startSpan("child")) {
+                assertThat(((SampledSpan) root).getChildren()).containsExactly((SampledSpan) child);
+                assertThat(TraceContext.current()).contains((SampledSpan) child);
+            }
+            assertThat(TraceContext.current()).contains((SampledSpan) root);
+        }
+    }
+
+    @Test
+    void closingTheRootSpanShouldRecordSlowTraces() {
+        testee.startSpan("root").close();
+
+        assertThat(testee.getSlowTraces())
+            .extracting(Trace::getName)
+            .containsExactly("root");
+    }
+
+    @Test
+    void tracesFasterThanTheThresholdShouldNotBeRecorded() {
+        Tracer tracer = new Tracer(TracingConfiguration.builder()
+            .enabled(true)
+            .samplingRatio(1)
+            .slowTraceThreshold(Duration.ofHours(1))
+            .build());
+
+        tracer.startSpan("root").close();
+
+        assertThat(tracer.getSlowTraces()).isEmpty();
+    }
+
+    @Test
+    void clearSlowTracesShouldRemoveRecordedTraces() {
+        testee.startSpan("root").close();
+
+        testee.clearSlowTraces();
+
+        assertThat(testee.getSlowTraces()).isEmpty();
+    }
+
+    @Test
+    void spansBeyondTheTraceLimitShouldBeNoop() {
+        Tracer tracer = new Tracer(TracingConfiguration.builder()
+            .enabled(true)
+            .samplingRatio(1)
+            .maxSpansPerTrace(2)
+            .build());
+
+        try (Span root = tracer.startSpan("root")) {
+            tracer.startSpan("first").close();
+
+            assertThat(tracer.startSpan("second")).isSameAs(Span.NOOP);
+            assertThat(((SampledSpan) root).getTrace().getSpanCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void startDetachedSpanShouldNotBecomeTheCurrentSpan() {
+        Span span = testee.startDetachedSpan("detached");
+
+        assertThat(TraceContext.current()).isEmpty();
+        span.close();
+        assertThat(testee.getSlowTraces())
+            .extracting(Trace::getName)
+            .containsExactly("detached");
+    }
+
+    @Test
+    void startDetachedSpanShouldNestIntoTheCurrentSpan() {
+        try (Span root = testee.startSpan("root")) {
+            Span detached = testee.startDetachedSpan("detached");
+
+            assertThat(((SampledSpan) root).getChildren()).containsExactly((SampledSpan) detached);
+            assertThat(TraceContext.current()).contains((SampledSpan) root);
+            detached.close();
+        }
+    }
+
+    @Test
+    void detachedSpansClosedOnAnotherThreadShouldNotAlterTheCurrentSpan() throws Exception {
+        try (Span root = testee.startSpan("root")) {
+            Span detached = testee.startDetachedSpan("detached");
+
+            CompletableFuture.runAsync(detached::close).get();
+
+            assertThat(((SampledSpan) detached).isFinished()).isTrue();
+            assertThat(TraceContext.current()).contains((SampledSpan) root);
+        }
+    }
+
+    @Test
+    void unclosedDetachedSpansShouldNotLeakIntoTheThread() {
+        testee.startDetachedSpan("never closed");
+
+        assertThat(TraceContext.current()).isEmpty();
+        assertThat(TraceContext.childSpan("child")).isSameAs(Span.NOOP);
+    }
+
+    @Test
+    void traceShouldPropagateTheSpanThroughTheSubscriberContext() {
+        testee.trace("outer", Mono.defer(() -> testee.trace("inner", Mono.just(1))))
+            .block();
+
+        assertThat(testee.getSlowTraces()).hasSize(1);
+        assertThat(testee.getSlowTraces().get(0).getRoot().getChildren())
+            .extracting(SampledSpan::getName)
+            .containsExactly("inner");
+    }
+
+    @Test
+    void traceShouldNotLeaveTheSpanOnTheThread() {
+        testee.trace("outer", Mono.just(1)).block();
+
+        assertThat(TraceContext.current()).isEmpty();
+    }
+}
@@ -0,0 +1,125 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.metrics.api.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.james.metrics.api.NoopMetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+class TracingMetricFactoryTest {
+    private Tracer tracer;
+    private TracingMetricFactory testee;
+
+    @BeforeEach
+    void setUp() {
+        tracer = new Tracer(TracingConfiguration.builder()
+            .enabled(true)
+            .samplingRatio(1)
+            .slowTraceThreshold(Duration.ZERO)
+            .build());
+        testee = new TracingMetricFactory(new NoopMetricFactory(), tracer);
+    }
+
+    @Test
+    void timerShouldNotBecomeTheCurrentSpan() {
+        TimeMetric timer = testee.timer("timer");
+
+        assertThat(TraceContext.current()).isEmpty();
+        timer.stopAndPublish();
+    }
+
+    @Test
+    void stoppingATimerShouldEndItsSpan() {
+        testee.timer("timer").stopAndPublish();
+
+        assertThat(tracer.getSlowTraces())
+            .extracting(Trace::getName)
+            .containsExactly("timer");
+    }
+
+    @Test
+    void timersStoppedOnAnotherThreadShouldEndTheirSpan() throws Exception {
+        TimeMetric timer = testee.timer("timer");
+
+        CompletableFuture.runAsync(timer::stopAndPublish).get();
+
+        assertThat(tracer.getSlowTraces())
+            .extracting(Trace::getName)
+            .containsExactly("timer");
+        assertThat(TraceContext.current()).isEmpty();
+    }
+
+    @Test
+    void timersShouldNestIntoTheCurrentSpan() {
+        try (Span root = tracer.startSpan("root")) {
+            testee.timer("timer").stopAndPublish();
+
+            assertThat(((SampledSpan) root).getChildren())
+                .extracting(SampledSpan::getName)
+                .containsExactly("timer");
+        }
+    }
+
+    @Test
+    void runPublishingTimerMetricShouldScopeTheSpanToTheOperation() {
+        testee.runPublishingTimerMetric("operation", () -> {
+            assertThat(TraceContext.current().map(SampledSpan::getName)).contains("operation");
+            TraceContext.childSpan("nested").close();
+        });
+
+        assertThat(TraceContext.current()).isEmpty();
+        assertThat(tracer.getSlowTraces()).hasSize(1);
+        assertThat(tracer.getSlowTraces().get(0).getRoot().getChildren())
+            .extracting(SampledSpan::getName)
+            .containsExactly("nested");
+    }
+
+    @Test
+    void runPublishingTimerMetricShouldEndTheSpanWhenTheOperationFails() {
+        assertThatThrownBy(() -> testee.runPublishingTimerMetric("operation", () -> {
+                throw new RuntimeException();
+            }))
+            .isInstanceOf(RuntimeException.class);
+
+        assertThat(TraceContext.current()).isEmpty();
+        assertThat(tracer.getSlowTraces())
+            .extracting(Trace::getName)
+            .containsExactly("operation");
+    }
+
+    @Test
+    void runPublishingTimerMetricShouldTraceMonos() {
+        testee.runPublishingTimerMetric("reactive", Mono.just(1)).block();
+
+        assertThat(TraceContext.current()).isEmpty();
+        assertThat(tracer.getSlowTraces())
+            .extracting(Trace::getName)
+            .containsExactly("reactive");
+    }
+}
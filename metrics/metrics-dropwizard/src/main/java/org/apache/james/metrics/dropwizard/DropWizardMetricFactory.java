@@ -29,6 +29,7 @@ import org.apache.james.metrics.api.TimeMetric;
 
 import com.codahale.metrics.JmxReporter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 
 public class DropWizardMetricFactory implements MetricFactory {
 
@@ -49,7 +50,7 @@ public class DropWizardMetricFactory implements MetricFactory {
 
     @Override
     public TimeMetric timer(String name) {
-        return new DropWizardTimeMetric(name, metricRegistry.timer(name).time());
+        return new DropWizardTimeMetric(name, metricRegistry.timer(name, () -> new Timer(new HdrHistogramReservoir())).time());
     }
 
     @PostConstruct
@@ -0,0 +1,126 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.metrics.dropwizard;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.inject.Inject;
+
+import org.apache.james.metrics.api.MetricsExporter;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.ImmutableMap;
+
+public class DropWizardMetricsExporter implements MetricsExporter {
+    private static final Pattern INVALID_NAME_CHARACTERS = Pattern.compile("[^a-zA-Z0-9_:]");
+    private static final ImmutableMap<String, Double> EXPORTED_QUANTILES = ImmutableMap.of(
+        "0.5", 0.5,
+        "0.99", 0.99,
+        "0.999", 0.999);
+    private static final double NANOSECONDS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final double NO_SCALING = 1;
+
+    private final MetricRegistry metricRegistry;
+
+    @Inject
+    public DropWizardMetricsExporter(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    @Override
+    public String exportAsText() {
+        StringBuilder builder = new StringBuilder();
+        metricRegistry.getCounters().forEach((name, counter) -> appendCounter(builder, sanitize(name), counter));
+        metricRegistry.getGauges().forEach((name, gauge) -> appendGauge(builder, sanitize(name), gauge));
+        metricRegistry.getMeters().forEach((name, meter) -> appendMeter(builder, sanitize(name), meter));
+        metricRegistry.getHistograms().forEach((name, histogram) -> appendHistogram(builder, sanitize(name), histogram));
+        metricRegistry.getTimers().forEach((name, timer) -> appendTimer(builder, sanitize(name), timer));
+        return builder.toString();
+    }
+
+    private void appendCounter(StringBuilder builder, String name, Counter counter) {
+        appendType(builder, name, "gauge");
+        appendSample(builder, name, counter.getCount());
+    }
+
+    private void appendGauge(StringBuilder builder, String name, Gauge<?> gauge) {
+        Object value = gauge.getValue();
+        if (value instanceof Number) {
+            appendType(builder, name, "gauge");
+            appendSample(builder, name, ((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            appendType(builder, name, "gauge");
+            appendSample(builder, name, (Boolean) value ? 1 : 0);
+        }
+    }
+
+    private void appendMeter(StringBuilder builder, String name, Meter meter) {
+        appendType(builder, name + "_total", "counter");
+        appendSample(builder, name + "_total", meter.getCount());
+    }
+
+    private void appendHistogram(StringBuilder builder, String name, Histogram histogram) {
+        appendSummary(builder, name, histogram.getSnapshot(), histogram.getCount(), NO_SCALING);
+    }
+
+    /**
+     * Timers record nanoseconds, exported in seconds as advised by the exposition format.
+     */
+    private void appendTimer(StringBuilder builder, String name, Timer timer) {
+        appendSummary(builder, name + "_seconds", timer.getSnapshot(), timer.getCount(), NANOSECONDS_PER_SECOND);
+    }
+
+    private void appendSummary(StringBuilder builder, String name, Snapshot snapshot, long count, double scale) {
+        appendType(builder, name, "summary");
+        for (Map.Entry<String, Double> quantile : EXPORTED_QUANTILES.entrySet()) {
+            builder.append(name)
+                .append("{quantile=\"").append(quantile.getKey()).append("\"} ")
+                .append(snapshot.getValue(quantile.getValue()) / scale)
+                .append('\n');
+        }
+        appendSample(builder, name + "_count", count);
+        appendType(builder, name + "_max", "gauge");
+        appendSample(builder, name + "_max", snapshot.getMax() / scale);
+    }
+
+    private void appendType(StringBuilder builder, String name, String type) {
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private void appendSample(StringBuilder builder, String name, double value) {
+        builder.append(name).append(' ').append(value).append('\n');
+    }
+
+    private String sanitize(String name) {
+        String sanitized = INVALID_NAME_CHARACTERS.matcher(name).replaceAll("_");
+        if (!sanitized.isEmpty() && Character.isDigit(sanitized.charAt(0))) {
+            return "_" + sanitized;
+        }
+        return sanitized;
+    }
+}
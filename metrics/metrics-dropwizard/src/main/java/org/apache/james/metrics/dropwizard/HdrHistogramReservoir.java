@@ -0,0 +1,80 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.metrics.dropwizard;
+
+import java.time.Duration;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link Reservoir} recording every value in a lock free HdrHistogram {@link Recorder}.
+ *
+ * Snapshots describe the values recorded during the last completed interval: the recorder is swapped at most once per
+ * interval, upon snapshot, so that several reporters reading the same reservoir observe consistent percentiles.
+ */
+public class HdrHistogramReservoir implements Reservoir {
+    public static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(1);
+    private static final int SIGNIFICANT_VALUE_DIGITS = 2;
+
+    private final Recorder recorder;
+    private final Clock clock;
+    private final long intervalInNanos;
+    private Histogram lastIntervalHistogram;
+    private long lastRotationTick;
+
+    public HdrHistogramReservoir() {
+        this(DEFAULT_INTERVAL, Clock.defaultClock());
+    }
+
+    public HdrHistogramReservoir(Duration interval, Clock clock) {
+        Preconditions.checkArgument(!interval.isNegative() && !interval.isZero(), "interval needs to be strictly positive");
+        this.recorder = new Recorder(SIGNIFICANT_VALUE_DIGITS);
+        this.clock = clock;
+        this.intervalInNanos = interval.toNanos();
+        this.lastIntervalHistogram = recorder.getIntervalHistogram();
+        this.lastRotationTick = clock.getTick();
+    }
+
+    @Override
+    public int size() {
+        return getSnapshot().size();
+    }
+
+    @Override
+    public void update(long value) {
+        recorder.recordValue(value);
+    }
+
+    @Override
+    public synchronized Snapshot getSnapshot() {
+        long tick = clock.getTick();
+        if (tick - lastRotationTick >= intervalInNanos) {
+            lastIntervalHistogram = recorder.getIntervalHistogram();
+            lastRotationTick = tick;
+        }
+        return new HdrHistogramSnapshot(lastIntervalHistogram);
+    }
+}
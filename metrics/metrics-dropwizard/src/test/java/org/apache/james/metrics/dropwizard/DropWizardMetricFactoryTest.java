@@ -0,0 +1,89 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.metrics.dropwizard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.codahale.metrics.MetricRegistry;
+
+import reactor.core.publisher.Mono;
+
+class DropWizardMetricFactoryTest {
+    private static final String TIMER_NAME = "timer";
+
+    private MetricRegistry metricRegistry;
+    private DropWizardMetricFactory testee;
+
+    @BeforeEach
+    void setUp() {
+        metricRegistry = new MetricRegistry();
+        testee = new DropWizardMetricFactory(metricRegistry);
+    }
+
+    @Test
+    void timerShouldUseHdrHistogramReservoir() {
+        testee.timer(TIMER_NAME).stopAndPublish();
+
+        assertThat(metricRegistry.timer(TIMER_NAME).getSnapshot()).isInstanceOf(HdrHistogramSnapshot.class);
+    }
+
+    @Test
+    void runPublishingTimerMetricShouldTimeMonosEmittingAValue() {
+        testee.runPublishingTimerMetric(TIMER_NAME, Mono.just(1)).block();
+
+        assertThat(metricRegistry.timer(TIMER_NAME).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void runPublishingTimerMetricShouldTimeEmptyMonos() {
+        testee.runPublishingTimerMetric(TIMER_NAME, Mono.empty()).block();
+
+        assertThat(metricRegistry.timer(TIMER_NAME).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void runPublishingTimerMetricShouldTimeFailingMonos() {
+        assertThatThrownBy(() -> testee.runPublishingTimerMetric(TIMER_NAME, Mono.error(new RuntimeException())).block())
+            .isInstanceOf(RuntimeException.class);
+
+        assertThat(metricRegistry.timer(TIMER_NAME).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void runPublishingTimerMetricShouldNotTimeBeforeSubscription() {
+        testee.runPublishingTimerMetric(TIMER_NAME, Mono.just(1));
+
+        assertThat(metricRegistry.getTimers()).doesNotContainKey(TIMER_NAME);
+    }
+
+    @Test
+    void runPublishingTimerMetricShouldTimeEachSubscription() {
+        Mono<Integer> timed = testee.runPublishingTimerMetric(TIMER_NAME, Mono.just(1));
+
+        timed.block();
+        timed.block();
+
+        assertThat(metricRegistry.timer(TIMER_NAME).getCount()).isEqualTo(2);
+    }
+}
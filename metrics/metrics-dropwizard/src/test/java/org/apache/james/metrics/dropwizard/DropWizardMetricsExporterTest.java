@@ -0,0 +1,125 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.metrics.dropwizard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+class DropWizardMetricsExporterTest {
+
+    private MetricRegistry metricRegistry;
+    private DropWizardMetricsExporter testee;
+
+    @BeforeEach
+    void setUp() {
+        metricRegistry = new MetricRegistry();
+        testee = new DropWizardMetricsExporter(metricRegistry);
+    }
+
+    @Test
+    void exportAsTextShouldBeEmptyWhenNoMetrics() {
+        assertThat(testee.exportAsText()).isEmpty();
+    }
+
+    @Test
+    void exportAsTextShouldRenderCountersAsGauges() {
+        metricRegistry.counter("imap.connections").inc(3);
+
+        assertThat(testee.exportAsText()).isEqualTo(
+            "# TYPE imap_connections gauge\n" +
+            "imap_connections 3.0\n");
+    }
+
+    @Test
+    void exportAsTextShouldRenderNumericGauges() {
+        metricRegistry.register("spool.size", (Gauge<Integer>) () -> 12);
+
+        assertThat(testee.exportAsText()).isEqualTo(
+            "# TYPE spool_size gauge\n" +
+            "spool_size 12.0\n");
+    }
+
+    @Test
+    void exportAsTextShouldRenderBooleanGaugesAsZeroOrOne() {
+        metricRegistry.register("healthy", (Gauge<Boolean>) () -> true);
+
+        assertThat(testee.exportAsText()).isEqualTo(
+            "# TYPE healthy gauge\n" +
+            "healthy 1.0\n");
+    }
+
+    @Test
+    void exportAsTextShouldIgnoreNonNumericGauges() {
+        metricRegistry.register("version", (Gauge<String>) () -> "3.4.0");
+
+        assertThat(testee.exportAsText()).isEmpty();
+    }
+
+    @Test
+    void exportAsTextShouldRenderMetersAsCounters() {
+        metricRegistry.meter("deliveries").mark(2);
+
+        assertThat(testee.exportAsText()).isEqualTo(
+            "# TYPE deliveries_total counter\n" +
+            "deliveries_total 2.0\n");
+    }
+
+    @Test
+    void exportAsTextShouldRenderTimersAsSummariesInSeconds() {
+        Timer timer = new Timer(new HdrHistogramReservoir(Duration.ofNanos(1), new Clock() {
+            private long tick;
+
+            @Override
+            public long getTick() {
+                return tick++;
+            }
+        }));
+        metricRegistry.register("imap.fetch", timer);
+        timer.update(100, TimeUnit.NANOSECONDS);
+
+        assertThat(testee.exportAsText()).isEqualTo(
+            "# TYPE imap_fetch_seconds summary\n" +
+            "imap_fetch_seconds{quantile=\"0.5\"} 1.0E-7\n" +
+            "imap_fetch_seconds{quantile=\"0.99\"} 1.0E-7\n" +
+            "imap_fetch_seconds{quantile=\"0.999\"} 1.0E-7\n" +
+            "imap_fetch_seconds_count 1.0\n" +
+            "# TYPE imap_fetch_seconds_max gauge\n" +
+            "imap_fetch_seconds_max 1.0E-7\n");
+    }
+
+    @Test
+    void exportAsTextShouldPrefixNamesStartingWithADigit() {
+        metricRegistry.counter("3rd-party").inc();
+
+        assertThat(testee.exportAsText()).isEqualTo(
+            "# TYPE _3rd_party gauge\n" +
+            "_3rd_party 1.0\n");
+    }
+}
@@ -0,0 +1,130 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.metrics.dropwizard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Snapshot;
+
+class HdrHistogramReservoirTest {
+    private static final Duration INTERVAL = Duration.ofMinutes(1);
+
+    private AtomicLong tick;
+    private HdrHistogramReservoir testee;
+
+    @BeforeEach
+    void setUp() {
+        tick = new AtomicLong();
+        testee = new HdrHistogramReservoir(INTERVAL, new Clock() {
+            @Override
+            public long getTick() {
+                return tick.get();
+            }
+        });
+    }
+
+    @Test
+    void constructorShouldRejectZeroInterval() {
+        assertThatThrownBy(() -> new HdrHistogramReservoir(Duration.ZERO, Clock.defaultClock()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void constructorShouldRejectNegativeInterval() {
+        assertThatThrownBy(() -> new HdrHistogramReservoir(Duration.ofSeconds(-1), Clock.defaultClock()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void snapshotShouldBeEmptyBeforeTheFirstIntervalCompletes() {
+        recordOneToHundred();
+
+        assertThat(testee.getSnapshot().size()).isEqualTo(0);
+    }
+
+    @Test
+    void snapshotShouldDescribeValuesOfTheLastCompletedInterval() {
+        recordOneToHundred();
+        elapseInterval();
+
+        Snapshot snapshot = testee.getSnapshot();
+
+        assertThat(snapshot.size()).isEqualTo(100);
+        assertThat(snapshot.getMin()).isEqualTo(1);
+        assertThat(snapshot.getMax()).isEqualTo(100);
+        assertThat(snapshot.getMedian()).isEqualTo(50);
+        assertThat(snapshot.get99thPercentile()).isEqualTo(99);
+        assertThat(snapshot.getMean()).isEqualTo(50.5);
+    }
+
+    @Test
+    void snapshotShouldBeStableWithinAnInterval() {
+        recordOneToHundred();
+        elapseInterval();
+        testee.getSnapshot();
+
+        testee.update(1000);
+
+        assertThat(testee.getSnapshot().getMax()).isEqualTo(100);
+        assertThat(testee.size()).isEqualTo(100);
+    }
+
+    @Test
+    void snapshotShouldOnlyDescribeValuesOfTheNextIntervalOnceItCompletes() {
+        recordOneToHundred();
+        elapseInterval();
+        testee.getSnapshot();
+
+        testee.update(200);
+        elapseInterval();
+
+        Snapshot snapshot = testee.getSnapshot();
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThat(snapshot.getMin()).isEqualTo(200);
+        assertThat(snapshot.getMax()).isEqualTo(200);
+    }
+
+    @Test
+    void getValuesShouldReturnOneValuePerRecordedBucket() {
+        testee.update(5);
+        testee.update(5);
+        testee.update(7);
+        elapseInterval();
+
+        assertThat(testee.getSnapshot().getValues()).containsExactly(5, 7);
+    }
+
+    private void recordOneToHundred() {
+        LongStream.rangeClosed(1, 100).forEach(testee::update);
+    }
+
+    private void elapseInterval() {
+        tick.addAndGet(INTERVAL.toNanos());
+    }
+}
@@ -64,7 +64,6 @@ import org.apache.james.mailbox.model.MessageResult;
 import org.apache.james.mailbox.model.MessageResultIterator;
 import org.apache.james.mailbox.model.SearchQuery;
 import org.apache.james.metrics.api.MetricFactory;
-import org.apache.james.metrics.api.TimeMetric;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -93,9 +92,8 @@ public abstract class AbstractMailboxProcessor<M extends ImapRequest> extends Ab
         ImapCommand command = message.getCommand();
         String tag = message.getTag();
 
-        TimeMetric timeMetric = metricFactory.timer(IMAP_PREFIX + command.getName());
-        doProcess(message, command, tag, responder, session);
-        timeMetric.stopAndPublish();
+        metricFactory.runPublishingTimerMetric(IMAP_PREFIX + command.getName(),
+            () -> doProcess(message, command, tag, responder, session));
     }
 
     final void doProcess(M message, ImapCommand command, String tag, Responder responder, ImapSession session) {
@@ -28,7 +28,24 @@ public interface BlobStore {
 
     Mono<BlobId> save(InputStream data);
 
+    /**
+     * Saves the data under the given blob id rather than under an id derived from the content.
+     *
+     * Such a blob is never shared with identical content saved by other callers: its owner can delete it without
+     * checking for other references.
+     */
+    Mono<BlobId> save(BlobId blobId, byte[] data);
+
     Mono<byte[]> readBytes(BlobId blobId);
 
     InputStream read(BlobId blobId);
+
+    /**
+     * Deletes the blob. Deleting an unknown blob has no effect.
+     *
+     * Blob ids returned by {@link #save(byte[])} and {@link #save(InputStream)} being derived from the content, callers
+     * need to make sure no other reference to the same content remains. Blobs saved through
+     * {@link #save(BlobId, byte[])} belong to their caller only.
+     */
+    Mono<Void> delete(BlobId blobId);
 }
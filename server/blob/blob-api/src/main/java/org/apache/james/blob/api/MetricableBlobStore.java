@@ -33,9 +33,11 @@ public class MetricableBlobStore implements BlobStore {
 
     static final String BLOB_STORE_METRIC_PREFIX = "blobStore:";
     static final String SAVE_BYTES_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "saveBytes";
+    static final String SAVE_BYTES_WITH_ID_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "saveBytesWithId";
     static final String SAVE_INPUT_STREAM_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "saveInputStream";
     static final String READ_BYTES_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "readBytes";
     static final String READ_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "read";
+    static final String DELETE_TIMER_NAME = BLOB_STORE_METRIC_PREFIX + "delete";
 
     private final MetricFactory metricFactory;
     private final BlobStore blobStoreImpl;
@@ -53,6 +55,12 @@ public class MetricableBlobStore implements BlobStore {
             .runPublishingTimerMetric(SAVE_BYTES_TIMER_NAME, blobStoreImpl.save(data));
     }
 
+    @Override
+    public Mono<BlobId> save(BlobId blobId, byte[] data) {
+        return metricFactory
+            .runPublishingTimerMetric(SAVE_BYTES_WITH_ID_TIMER_NAME, blobStoreImpl.save(blobId, data));
+    }
+
     @Override
     public Mono<BlobId> save(InputStream data) {
         return metricFactory
@@ -70,4 +78,10 @@ public class MetricableBlobStore implements BlobStore {
         return metricFactory
             .runPublishingTimerMetric(READ_TIMER_NAME, () -> blobStoreImpl.read(blobId));
     }
+
+    @Override
+    public Mono<Void> delete(BlobId blobId) {
+        return metricFactory
+            .runPublishingTimerMetric(DELETE_TIMER_NAME, blobStoreImpl.delete(blobId));
+    }
 }
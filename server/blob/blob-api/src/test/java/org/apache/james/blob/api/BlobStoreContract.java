@@ -152,4 +152,83 @@ public interface BlobStoreContract {
 
         assertThat(read).hasSameContentAs(new ByteArrayInputStream(TWELVE_MEGABYTES));
     }
+
+    @Test
+    default void deleteShouldRemoveTheBlob() {
+        BlobId blobId = testee().save(SHORT_BYTEARRAY).block();
+
+        testee().delete(blobId).block();
+
+        assertThatThrownBy(() -> testee().readBytes(blobId).block())
+            .isExactlyInstanceOf(ObjectStoreException.class);
+    }
+
+    @Test
+    default void deleteShouldRemoveBigBlobs() {
+        BlobId blobId = testee().save(TWELVE_MEGABYTES).block();
+
+        testee().delete(blobId).block();
+
+        assertThatThrownBy(() -> testee().readBytes(blobId).block())
+            .isExactlyInstanceOf(ObjectStoreException.class);
+    }
+
+    @Test
+    default void deleteShouldNotAffectOtherBlobs() {
+        BlobId blobId = testee().save(SHORT_BYTEARRAY).block();
+        BlobId otherBlobId = testee().save(ELEVEN_KILOBYTES).block();
+
+        testee().delete(blobId).block();
+
+        assertThat(testee().readBytes(otherBlobId).block()).isEqualTo(ELEVEN_KILOBYTES);
+    }
+
+    @Test
+    default void deleteShouldNotFailWhenTheBlobDoesNotExist() {
+        testee().delete(blobIdFactory().from("unknown")).block();
+    }
+
+    @Test
+    default void saveShouldStoreAgainADeletedBlob() {
+        BlobId blobId = testee().save(SHORT_BYTEARRAY).block();
+        testee().delete(blobId).block();
+
+        testee().save(SHORT_BYTEARRAY).block();
+
+        assertThat(testee().readBytes(blobId).block()).isEqualTo(SHORT_BYTEARRAY);
+    }
+
+    @Test
+    default void saveWithIdShouldReturnTheGivenBlobId() {
+        BlobId blobId = blobIdFactory().randomId();
+
+        assertThat(testee().save(blobId, SHORT_BYTEARRAY).block()).isEqualTo(blobId);
+    }
+
+    @Test
+    default void readBytesShouldReturnDataSavedWithId() {
+        BlobId blobId = testee().save(blobIdFactory().randomId(), ELEVEN_KILOBYTES).block();
+
+        assertThat(testee().readBytes(blobId).block()).isEqualTo(ELEVEN_KILOBYTES);
+    }
+
+    @Test
+    default void deleteOfABlobSavedWithIdShouldNotAffectTheSameContentSavedWithoutId() {
+        BlobId blobId = testee().save(SHORT_BYTEARRAY).block();
+        BlobId privateBlobId = testee().save(blobIdFactory().randomId(), SHORT_BYTEARRAY).block();
+
+        testee().delete(privateBlobId).block();
+
+        assertThat(testee().readBytes(blobId).block()).isEqualTo(SHORT_BYTEARRAY);
+    }
+
+    @Test
+    default void deleteOfABlobSavedWithIdShouldNotAffectOtherBlobsSavedWithId() {
+        BlobId blobId = testee().save(blobIdFactory().randomId(), SHORT_BYTEARRAY).block();
+        BlobId otherBlobId = testee().save(blobIdFactory().randomId(), SHORT_BYTEARRAY).block();
+
+        testee().delete(blobId).block();
+
+        assertThat(testee().readBytes(otherBlobId).block()).isEqualTo(SHORT_BYTEARRAY);
+    }
 }
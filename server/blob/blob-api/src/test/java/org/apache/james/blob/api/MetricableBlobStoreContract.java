@@ -19,9 +19,11 @@
 
 package org.apache.james.blob.api;
 
+import static org.apache.james.blob.api.MetricableBlobStore.DELETE_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.READ_BYTES_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.READ_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.SAVE_BYTES_TIMER_NAME;
+import static org.apache.james.blob.api.MetricableBlobStore.SAVE_BYTES_WITH_ID_TIMER_NAME;
 import static org.apache.james.blob.api.MetricableBlobStore.SAVE_INPUT_STREAM_TIMER_NAME;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -43,17 +45,21 @@ public interface MetricableBlobStoreContract extends BlobStoreContract {
     class MetricableBlobStoreExtension implements BeforeEachCallback {
         private MetricFactory metricFactory;
         private TimeMetric saveBytesTimeMetric;
+        private TimeMetric saveBytesWithIdTimeMetric;
         private TimeMetric saveInputStreamTimeMetric;
         private TimeMetric readBytesTimeMetric;
         private TimeMetric readTimeMetric;
+        private TimeMetric deleteTimeMetric;
 
         @Override
         public void beforeEach(ExtensionContext extensionContext) {
             this.metricFactory = spy(MetricFactory.class);
             this.saveBytesTimeMetric = spy(TimeMetric.class);
+            this.saveBytesWithIdTimeMetric = spy(TimeMetric.class);
             this.saveInputStreamTimeMetric = spy(TimeMetric.class);
             this.readBytesTimeMetric = spy(TimeMetric.class);
             this.readTimeMetric = spy(TimeMetric.class);
+            this.deleteTimeMetric = spy(TimeMetric.class);
             setupExpectations();
         }
 
@@ -64,12 +70,16 @@ public interface MetricableBlobStoreContract extends BlobStoreContract {
         private void setupExpectations() {
             when(metricFactory.timer(SAVE_BYTES_TIMER_NAME))
                 .thenReturn(saveBytesTimeMetric);
+            when(metricFactory.timer(SAVE_BYTES_WITH_ID_TIMER_NAME))
+                .thenReturn(saveBytesWithIdTimeMetric);
             when(metricFactory.timer(SAVE_INPUT_STREAM_TIMER_NAME))
                 .thenReturn(saveInputStreamTimeMetric);
             when(metricFactory.timer(READ_BYTES_TIMER_NAME))
                 .thenReturn(readBytesTimeMetric);
             when(metricFactory.timer(READ_TIMER_NAME))
                 .thenReturn(readTimeMetric);
+            when(metricFactory.timer(DELETE_TIMER_NAME))
+                .thenReturn(deleteTimeMetric);
         }
     }
 
@@ -84,6 +94,13 @@ public interface MetricableBlobStoreContract extends BlobStoreContract {
         verify(metricsTestExtension.saveBytesTimeMetric, times(2)).stopAndPublish();
     }
 
+    @Test
+    default void saveBytesWithIdShouldPublishSaveBytesWithIdTimerMetrics() {
+        testee().save(blobIdFactory().randomId(), BYTES_CONTENT).block();
+        testee().save(blobIdFactory().randomId(), BYTES_CONTENT).block();
+        verify(metricsTestExtension.saveBytesWithIdTimeMetric, times(2)).stopAndPublish();
+    }
+
     @Test
     default void saveInputStreamShouldPublishSaveInputStreamTimerMetrics() {
         testee().save(new ByteArrayInputStream(BYTES_CONTENT)).block();
@@ -107,4 +124,12 @@ public interface MetricableBlobStoreContract extends BlobStoreContract {
         testee().read(blobId);
         verify(metricsTestExtension.readTimeMetric, times(2)).stopAndPublish();
     }
-}
\ No newline at end of file
+
+    @Test
+    default void deleteShouldPublishDeleteTimerMetrics() {
+        BlobId blobId = testee().save(BYTES_CONTENT).block();
+        testee().delete(blobId).block();
+        testee().delete(blobId).block();
+        verify(metricsTestExtension.deleteTimeMetric, times(2)).stopAndPublish();
+    }
+}
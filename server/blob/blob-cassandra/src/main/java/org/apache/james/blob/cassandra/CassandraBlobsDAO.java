@@ -20,12 +20,14 @@
 package org.apache.james.blob.cassandra;
 
 import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.delete;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
 
 import java.io.InputStream;
 import java.io.PipedInputStream;
+import java.math.RoundingMode;
 import java.nio.ByteBuffer;
 import java.util.Comparator;
 import java.util.stream.Collectors;
@@ -44,12 +46,16 @@ import org.apache.james.blob.api.ObjectStoreException;
 import org.apache.james.blob.cassandra.BlobTable.BlobParts;
 import org.apache.james.blob.cassandra.utils.DataChunker;
 import org.apache.james.blob.cassandra.utils.PipedStreamSubscriber;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.NoopMetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
 
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.math.IntMath;
 import com.google.common.primitives.Bytes;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -57,28 +63,40 @@ import reactor.core.scheduler.Schedulers;
 
 public class CassandraBlobsDAO implements BlobStore {
 
-    private static final int PREFETCH = 16;
-    private static final int MAX_CONCURRENCY = 2;
+    public static final String WRITE_PARTS_TIMER_NAME = "blobStore:cassandra:writeParts";
+    public static final String READ_PARTS_TIMER_NAME = "blobStore:cassandra:readParts";
+
     private final CassandraAsyncExecutor cassandraAsyncExecutor;
     private final PreparedStatement insert;
     private final PreparedStatement insertPart;
     private final PreparedStatement select;
     private final PreparedStatement selectPart;
+    private final PreparedStatement delete;
+    private final PreparedStatement deleteParts;
     private final DataChunker dataChunker;
     private final CassandraConfiguration configuration;
     private final HashBlobId.Factory blobIdFactory;
+    private final MetricFactory metricFactory;
 
     @Inject
-    public CassandraBlobsDAO(Session session, CassandraConfiguration cassandraConfiguration, HashBlobId.Factory blobIdFactory) {
+    public CassandraBlobsDAO(Session session, CassandraConfiguration cassandraConfiguration, HashBlobId.Factory blobIdFactory,
+                             MetricFactory metricFactory) {
         this.cassandraAsyncExecutor = new CassandraAsyncExecutor(session);
         this.configuration = cassandraConfiguration;
         this.blobIdFactory = blobIdFactory;
+        this.metricFactory = metricFactory;
         this.dataChunker = new DataChunker();
         this.insert = prepareInsert(session);
         this.select = prepareSelect(session);
 
         this.insertPart = prepareInsertPart(session);
         this.selectPart = prepareSelectPart(session);
+        this.delete = prepareDelete(session);
+        this.deleteParts = prepareDeleteParts(session);
+    }
+
+    public CassandraBlobsDAO(Session session, CassandraConfiguration cassandraConfiguration, HashBlobId.Factory blobIdFactory) {
+        this(session, cassandraConfiguration, blobIdFactory, new NoopMetricFactory());
     }
 
     @VisibleForTesting
@@ -105,6 +123,18 @@ public class CassandraBlobsDAO implements BlobStore {
             .value(BlobTable.NUMBER_OF_CHUNK, bindMarker(BlobTable.NUMBER_OF_CHUNK)));
     }
 
+    private PreparedStatement prepareDelete(Session session) {
+        return session.prepare(delete()
+            .from(BlobTable.TABLE_NAME)
+            .where(eq(BlobTable.ID, bindMarker(BlobTable.ID))));
+    }
+
+    private PreparedStatement prepareDeleteParts(Session session) {
+        return session.prepare(delete()
+            .from(BlobParts.TABLE_NAME)
+            .where(eq(BlobTable.ID, bindMarker(BlobTable.ID))));
+    }
+
     private PreparedStatement prepareInsertPart(Session session) {
         return session.prepare(insertInto(BlobParts.TABLE_NAME)
             .value(BlobTable.ID, bindMarker(BlobTable.ID))
@@ -116,24 +146,46 @@ public class CassandraBlobsDAO implements BlobStore {
     public Mono<BlobId> save(byte[] data) {
         Preconditions.checkNotNull(data);
 
-        return saveAsMono(data);
+        return saveAsMono(blobIdFactory.forPayload(data), data);
     }
 
-    private Mono<BlobId> saveAsMono(byte[] data) {
-        BlobId blobId = blobIdFactory.forPayload(data);
+    @Override
+    public Mono<BlobId> save(BlobId blobId, byte[] data) {
+        Preconditions.checkNotNull(blobId);
+        Preconditions.checkNotNull(data);
+
+        return saveAsMono(blobId, data);
+    }
+
+    private Mono<BlobId> saveAsMono(BlobId blobId, byte[] data) {
         return saveBlobParts(data, blobId)
             .flatMap(numberOfChunk -> saveBlobPartsReferences(blobId, numberOfChunk));
     }
 
     private Mono<Integer> saveBlobParts(byte[] data, BlobId blobId) {
-        Stream<Pair<Integer, ByteBuffer>> chunks = dataChunker.chunk(data, configuration.getBlobPartSize());
-        return Flux.fromStream(chunks)
-            .publishOn(Schedulers.elastic(), PREFETCH)
-            .flatMap(pair -> writePart(pair.getValue(), blobId, getChunkNum(pair)))
+        int writeConcurrency = configuration.getBlobPartWriteConcurrency();
+        Stream<Pair<Integer, ByteBuffer>> chunks = dataChunker.chunk(data, partSize(data.length));
+        return metricFactory.runPublishingTimerMetric(WRITE_PARTS_TIMER_NAME, Flux.fromStream(chunks)
+            .publishOn(Schedulers.elastic(), writeConcurrency)
+            .flatMap(pair -> writePart(pair.getValue(), blobId, getChunkNum(pair)), writeConcurrency)
             .collect(Collectors.maxBy(Comparator.comparingInt(x -> x)))
             .flatMap(Mono::justOrEmpty)
             .map(this::numToCount)
-            .defaultIfEmpty(0);
+            .defaultIfEmpty(0));
+    }
+
+    /**
+     * Big blobs are split in bigger parts when a maximum part count is configured, limiting the number of
+     * round-trips needed to read them.
+     *
+     * Readers only rely on the stored number of parts, thus the part size can change without migration.
+     */
+    @VisibleForTesting
+    int partSize(int dataLength) {
+        int configuredPartSize = configuration.getBlobPartSize();
+        return configuration.getBlobPartMaxCount()
+            .map(maxCount -> Math.max(configuredPartSize, IntMath.divide(dataLength, maxCount, RoundingMode.CEILING)))
+            .orElse(configuredPartSize);
     }
 
     private int numToCount(int number) {
@@ -205,15 +257,33 @@ public class CassandraBlobsDAO implements BlobStore {
             .switchIfEmpty(Mono.error(
                 new ObjectStoreException(String.format("Could not retrieve blob metadata for %s", blobId))))
             .block();
-        return Flux.range(0, rowCount)
-            .publishOn(Schedulers.elastic(), PREFETCH)
-            .flatMapSequential(partIndex -> readPart(blobId, partIndex), MAX_CONCURRENCY, PREFETCH);
+        int readAhead = configuration.getBlobPartReadAhead();
+        Flux<byte[]> parts = Flux.range(0, rowCount)
+            .publishOn(Schedulers.elastic(), readAhead)
+            .flatMapSequential(partIndex -> readPart(blobId, partIndex), readAhead, readAhead);
+        return Flux.defer(() -> {
+            TimeMetric timer = metricFactory.timer(READ_PARTS_TIMER_NAME);
+            return parts.doOnTerminate(timer::stopAndPublish);
+        });
     }
 
     @Override
     public Mono<BlobId> save(InputStream data) {
         Preconditions.checkNotNull(data);
         return Mono.fromCallable(() -> IOUtils.toByteArray(data))
-            .flatMap(this::saveAsMono);
+            .flatMap(bytes -> saveAsMono(blobIdFactory.forPayload(bytes), bytes));
+    }
+
+    /**
+     * The part references are deleted first so that the blob is never read with missing parts.
+     */
+    @Override
+    public Mono<Void> delete(BlobId blobId) {
+        return cassandraAsyncExecutor.executeVoid(
+                delete.bind()
+                    .setString(BlobTable.ID, blobId.asString()))
+            .then(cassandraAsyncExecutor.executeVoid(
+                deleteParts.bind()
+                    .setString(BlobTable.ID, blobId.asString())));
     }
 }
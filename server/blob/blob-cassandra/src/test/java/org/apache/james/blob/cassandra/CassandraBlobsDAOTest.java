@@ -21,6 +21,7 @@ package org.apache.james.blob.cassandra;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 
@@ -79,6 +80,70 @@ public class CassandraBlobsDAOTest implements MetricableBlobStoreContract {
         assertThat(new String(bytes, StandardCharsets.UTF_8)).isEqualTo(longString);
     }
 
+    @Test
+    void readShouldPreservePartOrderWhenReadingAhead(CassandraCluster cassandra) {
+        CassandraBlobsDAO blobsDAO = new CassandraBlobsDAO(cassandra.getConf(),
+            CassandraConfiguration.builder()
+                .blobPartSize(10)
+                .blobPartReadAhead(5)
+                .blobPartWriteConcurrency(3)
+                .build(),
+            new HashBlobId.Factory());
+        String longString = Strings.repeat("0123456789\n", 100);
+        BlobId blobId = blobsDAO.save(longString.getBytes(StandardCharsets.UTF_8)).block();
+
+        assertThat(blobsDAO.read(blobId)).hasSameContentAs(new ByteArrayInputStream(longString.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void readBytesShouldReturnSavedDataWhenPartCountIsLimited(CassandraCluster cassandra) {
+        CassandraBlobsDAO blobsDAO = new CassandraBlobsDAO(cassandra.getConf(),
+            CassandraConfiguration.builder()
+                .blobPartSize(10)
+                .blobPartMaxCount(4)
+                .build(),
+            new HashBlobId.Factory());
+        String longString = Strings.repeat("0123456789\n", 100);
+        BlobId blobId = blobsDAO.save(longString.getBytes(StandardCharsets.UTF_8)).block();
+
+        assertThat(new String(blobsDAO.readBytes(blobId).block(), StandardCharsets.UTF_8)).isEqualTo(longString);
+    }
+
+    @Test
+    void partSizeShouldBeTheConfiguredOneByDefault(CassandraCluster cassandra) {
+        CassandraBlobsDAO blobsDAO = new CassandraBlobsDAO(cassandra.getConf(),
+            CassandraConfiguration.builder()
+                .blobPartSize(10)
+                .build(),
+            new HashBlobId.Factory());
+
+        assertThat(blobsDAO.partSize(1000)).isEqualTo(10);
+    }
+
+    @Test
+    void partSizeShouldGrowWhenBlobExceedsMaxPartCount(CassandraCluster cassandra) {
+        CassandraBlobsDAO blobsDAO = new CassandraBlobsDAO(cassandra.getConf(),
+            CassandraConfiguration.builder()
+                .blobPartSize(10)
+                .blobPartMaxCount(3)
+                .build(),
+            new HashBlobId.Factory());
+
+        assertThat(blobsDAO.partSize(1000)).isEqualTo(334);
+    }
+
+    @Test
+    void partSizeShouldNotShrinkBelowTheConfiguredOne(CassandraCluster cassandra) {
+        CassandraBlobsDAO blobsDAO = new CassandraBlobsDAO(cassandra.getConf(),
+            CassandraConfiguration.builder()
+                .blobPartSize(10)
+                .blobPartMaxCount(3)
+                .build(),
+            new HashBlobId.Factory());
+
+        assertThat(blobsDAO.partSize(5)).isEqualTo(10);
+    }
+
     @Test
     void blobStoreShouldSupport100MBBlob() {
         BlobId blobId = testee.save(new ZeroedInputStream(100_000_000)).block();
@@ -52,6 +52,16 @@ public class MemoryBlobStore implements BlobStore {
         return Mono.just(blobId);
     }
 
+    @Override
+    public Mono<BlobId> save(BlobId blobId, byte[] data) {
+        Preconditions.checkNotNull(blobId);
+        Preconditions.checkNotNull(data);
+
+        blobs.put(blobId, data);
+
+        return Mono.just(blobId);
+    }
+
     @Override
     public Mono<BlobId> save(InputStream data) {
         Preconditions.checkNotNull(data);
@@ -73,6 +83,11 @@ public class MemoryBlobStore implements BlobStore {
         return new ByteArrayInputStream(retrieveStoredValue(blobId));
     }
 
+    @Override
+    public Mono<Void> delete(BlobId blobId) {
+        return Mono.fromRunnable(() -> blobs.remove(blobId));
+    }
+
     private byte[] retrieveStoredValue(BlobId blobId) {
         return Optional.ofNullable(blobs.get(blobId))
             .orElseThrow(() -> new ObjectStoreException("unable to find blob with id " + blobId));
@@ -94,6 +94,15 @@ public class ObjectStorageBlobsDAO implements BlobStore {
             .flatMap(id -> updateBlobId(tmpId, id));
     }
 
+    @Override
+    public Mono<BlobId> save(BlobId blobId, byte[] data) {
+        Preconditions.checkNotNull(blobId);
+        Preconditions.checkNotNull(data);
+
+        return save(new ByteArrayInputStream(data), blobId)
+            .thenReturn(blobId);
+    }
+
     private Mono<BlobId> updateBlobId(BlobId from, BlobId to) {
         String containerName = this.containerName.value();
         return Mono
@@ -135,6 +144,11 @@ public class ObjectStorageBlobsDAO implements BlobStore {
 
     }
 
+    @Override
+    public Mono<Void> delete(BlobId blobId) {
+        return Mono.fromRunnable(() -> blobStore.removeBlob(containerName.value(), blobId.asString()));
+    }
+
     public void deleteContainer() {
         blobStore.deleteContainer(containerName.value());
     }
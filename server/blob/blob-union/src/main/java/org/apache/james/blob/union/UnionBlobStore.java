@@ -91,6 +91,18 @@ public class UnionBlobStore implements BlobStore {
         }
     }
 
+    @Override
+    public Mono<BlobId> save(BlobId blobId, byte[] data) {
+        try {
+            return saveToCurrentFallbackIfFails(
+                Mono.defer(() -> currentBlobStore.save(blobId, data)),
+                () -> Mono.defer(() -> legacyBlobStore.save(blobId, data)));
+        } catch (Exception e) {
+            LOGGER.error("exception directly happens while saving bytes data under a given id, fall back to legacy blob store", e);
+            return legacyBlobStore.save(blobId, data);
+        }
+    }
+
     @Override
     public Mono<BlobId> save(InputStream data) {
         try {
@@ -123,6 +135,15 @@ public class UnionBlobStore implements BlobStore {
         }
     }
 
+    /**
+     * The blob is deleted from both blob stores, as it might have been saved in the legacy one.
+     */
+    @Override
+    public Mono<Void> delete(BlobId blobId) {
+        return Mono.defer(() -> currentBlobStore.delete(blobId))
+            .then(Mono.defer(() -> legacyBlobStore.delete(blobId)));
+    }
+
     private InputStream readFallBackIfEmptyResult(BlobId blobId) {
         return Optional.ofNullable(currentBlobStore.read(blobId))
             .map(PushbackInputStream::new)
@@ -64,6 +64,11 @@ class UnionBlobStoreTest implements BlobStoreContract {
             return Mono.error(new RuntimeException("broken everywhere"));
         }
 
+        @Override
+        public Mono<BlobId> save(BlobId blobId, byte[] data) {
+            return Mono.error(new RuntimeException("broken everywhere"));
+        }
+
         @Override
         public Mono<byte[]> readBytes(BlobId blobId) {
             return Mono.error(new RuntimeException("broken everywhere"));
@@ -74,6 +79,11 @@ class UnionBlobStoreTest implements BlobStoreContract {
             throw new RuntimeException("broken everywhere");
         }
 
+        @Override
+        public Mono<Void> delete(BlobId blobId) {
+            return Mono.error(new RuntimeException("broken everywhere"));
+        }
+
         @Override
         public String toString() {
             return MoreObjects.toStringHelper(this)
@@ -93,6 +103,11 @@ class UnionBlobStoreTest implements BlobStoreContract {
             throw new RuntimeException("broken everywhere");
         }
 
+        @Override
+        public Mono<BlobId> save(BlobId blobId, byte[] data) {
+            throw new RuntimeException("broken everywhere");
+        }
+
         @Override
         public Mono<byte[]> readBytes(BlobId blobId) {
             throw new RuntimeException("broken everywhere");
@@ -103,6 +118,11 @@ class UnionBlobStoreTest implements BlobStoreContract {
             throw new RuntimeException("broken everywhere");
         }
 
+        @Override
+        public Mono<Void> delete(BlobId blobId) {
+            throw new RuntimeException("broken everywhere");
+        }
+
         @Override
         public String toString() {
             return MoreObjects.toStringHelper(this)
@@ -449,4 +469,19 @@ class UnionBlobStoreTest implements BlobStoreContract {
         assertThat(pushBackIS)
             .hasSameContentAs(new ByteArrayInputStream(new byte[0]));
     }
+
+    @Test
+    void deleteShouldDeleteTheBlobInBothBlobStores() {
+        BlobId blobId = currentBlobStore.save(BLOB_CONTENT).block();
+        legacyBlobStore.save(BLOB_CONTENT).block();
+
+        unionBlobStore.delete(blobId).block();
+
+        SoftAssertions.assertSoftly(softly -> {
+            softly.assertThatThrownBy(() -> currentBlobStore.readBytes(blobId).block())
+                .isInstanceOf(ObjectStoreException.class);
+            softly.assertThatThrownBy(() -> legacyBlobStore.readBytes(blobId).block())
+                .isInstanceOf(ObjectStoreException.class);
+        });
+    }
 }
@@ -0,0 +1,267 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.server.core;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import javax.mail.internet.AddressException;
+
+import org.apache.james.core.MailAddress;
+import org.apache.mailet.Attribute;
+import org.apache.mailet.AttributeName;
+import org.apache.mailet.AttributeValue;
+import org.apache.mailet.Mail;
+import org.apache.mailet.PerRecipientHeaders;
+import org.apache.mailet.PerRecipientHeaders.Header;
+
+import com.github.steveash.guavate.Guavate;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Compact binary representation of the envelope of a {@link Mail}: name, sender, recipients, state, error message,
+ * remote host and address, last update date, attributes and per recipient headers. The message itself is not part
+ * of it and needs to be stored separately.
+ *
+ * The encoded form starts with a magic number followed by a version number. {@link #decode(InputStream)} falls back
+ * to Java deserialization for data not starting with the magic number, so that mails stored by previous versions
+ * remain readable.
+ *
+ * Attribute values are stored using their JSON representation, as done by {@link MailImpl} Java serialization.
+ */
+public class MailImplCodec {
+
+    private static final short MAGIC_NUMBER = 0x4A4D;
+    private static final byte VERSION_1 = 1;
+    private static final int NULL_LENGTH = -1;
+
+    public static byte[] encode(Mail mail) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        encode(mail, output);
+        return output.toByteArray();
+    }
+
+    /**
+     * Writes the envelope of the mail to the given stream. The stream is flushed but not closed.
+     */
+    public static void encode(Mail mail, OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeShort(MAGIC_NUMBER);
+        out.writeByte(VERSION_1);
+
+        writeString(out, mail.getName());
+        writeString(out, mail.getMaybeSender().asOptional().map(MailAddress::asString).orElse(null));
+        writeAddresses(out, mail.getRecipients());
+        writeString(out, mail.getState());
+        writeString(out, mail.getErrorMessage());
+        writeString(out, mail.getRemoteHost());
+        writeString(out, mail.getRemoteAddr());
+        writeDate(out, mail.getLastUpdated());
+        writeAttributes(out, mail.attributes().collect(Guavate.toImmutableList()));
+        writePerRecipientHeaders(out, mail.getPerRecipientSpecificHeaders());
+        out.flush();
+    }
+
+    public static MailImpl decode(byte[] bytes) throws IOException {
+        return decode(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Reads a mail envelope written either by {@link #encode(Mail, OutputStream)} or by Java serialization.
+     */
+    public static MailImpl decode(InputStream input) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(input);
+        DataInputStream dataIn = new DataInputStream(in);
+        in.mark(Short.BYTES);
+        if (dataIn.readShort() != MAGIC_NUMBER) {
+            in.reset();
+            return decodeJavaSerialized(in);
+        }
+        byte version = dataIn.readByte();
+        if (version != VERSION_1) {
+            throw new IOException("Unsupported mail encoding version " + version);
+        }
+        return decodeVersion1(dataIn);
+    }
+
+    private static MailImpl decodeVersion1(DataInputStream in) throws IOException {
+        String name = readString(in);
+        String sender = readString(in);
+        List<MailAddress> recipients = readAddresses(in);
+        String state = readString(in);
+        String errorMessage = readString(in);
+        String remoteHost = readString(in);
+        String remoteAddr = readString(in);
+        Date lastUpdated = readDate(in);
+        List<Attribute> attributes = readAttributes(in);
+        PerRecipientHeaders perRecipientHeaders = readPerRecipientHeaders(in);
+
+        return MailImpl.builder()
+            .name(name)
+            .sender(sender == null ? null : asMailAddress(sender))
+            .addRecipients(recipients)
+            .state(state)
+            .errorMessage(errorMessage)
+            .remoteHost(remoteHost)
+            .remoteAddr(remoteAddr)
+            .lastUpdated(lastUpdated)
+            .addAttributes(attributes)
+            .addAllHeadersForRecipients(perRecipientHeaders)
+            .build();
+    }
+
+    private static MailImpl decodeJavaSerialized(InputStream in) throws IOException {
+        try {
+            Object object = new ObjectInputStream(in).readObject();
+            if (object instanceof MailImpl) {
+                return (MailImpl) object;
+            }
+            throw new IOException("Unexpected serialized object " + object);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unable to deserialize mail", e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IOException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutputStream out, Date date) throws IOException {
+        out.writeBoolean(date != null);
+        if (date != null) {
+            out.writeLong(date.getTime());
+        }
+    }
+
+    private static Date readDate(DataInputStream in) throws IOException {
+        if (in.readBoolean()) {
+            return new Date(in.readLong());
+        }
+        return null;
+    }
+
+    private static void writeAddresses(DataOutputStream out, Collection<MailAddress> addresses) throws IOException {
+        out.writeInt(addresses.size());
+        for (MailAddress address : addresses) {
+            writeString(out, address.asString());
+        }
+    }
+
+    private static List<MailAddress> readAddresses(DataInputStream in) throws IOException {
+        int count = readCount(in);
+        ImmutableList.Builder<MailAddress> addresses = ImmutableList.builder();
+        for (int i = 0; i < count; i++) {
+            addresses.add(asMailAddress(readString(in)));
+        }
+        return addresses.build();
+    }
+
+    private static void writeAttributes(DataOutputStream out, List<Attribute> attributes) throws IOException {
+        out.writeInt(attributes.size());
+        for (Attribute attribute : attributes) {
+            writeString(out, attribute.getName().asString());
+            writeString(out, attribute.getValue().toJson().toString());
+        }
+    }
+
+    private static List<Attribute> readAttributes(DataInputStream in) throws IOException {
+        int count = readCount(in);
+        ImmutableList.Builder<Attribute> attributes = ImmutableList.builder();
+        for (int i = 0; i < count; i++) {
+            AttributeName name = AttributeName.of(readString(in));
+            attributes.add(new Attribute(name, AttributeValue.fromJsonString(readString(in))));
+        }
+        return attributes.build();
+    }
+
+    private static void writePerRecipientHeaders(DataOutputStream out, PerRecipientHeaders perRecipientHeaders) throws IOException {
+        Collection<MailAddress> recipients = perRecipientHeaders.getRecipientsWithSpecificHeaders();
+        out.writeInt(recipients.size());
+        for (MailAddress recipient : recipients) {
+            Collection<Header> headers = perRecipientHeaders.getHeadersForRecipient(recipient);
+            writeString(out, recipient.asString());
+            out.writeInt(headers.size());
+            for (Header header : headers) {
+                writeString(out, header.getName());
+                writeString(out, header.getValue());
+            }
+        }
+    }
+
+    private static PerRecipientHeaders readPerRecipientHeaders(DataInputStream in) throws IOException {
+        PerRecipientHeaders perRecipientHeaders = new PerRecipientHeaders();
+        int recipientCount = readCount(in);
+        for (int i = 0; i < recipientCount; i++) {
+            MailAddress recipient = asMailAddress(readString(in));
+            int headerCount = readCount(in);
+            for (int j = 0; j < headerCount; j++) {
+                perRecipientHeaders.addHeaderForRecipient(Header.builder()
+                    .name(readString(in))
+                    .value(readString(in)), recipient);
+            }
+        }
+        return perRecipientHeaders;
+    }
+
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid element count " + count);
+        }
+        return count;
+    }
+
+    private static MailAddress asMailAddress(String address) throws IOException {
+        try {
+            return new MailAddress(address);
+        } catch (AddressException e) {
+            throw new IOException("Error parsing address " + address, e);
+        }
+    }
+}
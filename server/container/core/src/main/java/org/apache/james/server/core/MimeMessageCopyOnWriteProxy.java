@@ -40,12 +40,16 @@ import javax.mail.search.SearchTerm;
 
 import org.apache.james.lifecycle.api.Disposable;
 import org.apache.james.lifecycle.api.LifecycleUtil;
+import org.apache.mailet.ParsedMimeStructure;
 
 /**
  * This object wraps a "possibly shared" MimeMessage tracking copies and
  * automatically cloning it (if shared) when a write operation is invoked.
+ *
+ * The {@link ParsedMimeStructure} of the wrapped message is computed once and
+ * shared by all the copies, until a write operation is invoked.
  */
-public class MimeMessageCopyOnWriteProxy extends MimeMessage implements Disposable {
+public class MimeMessageCopyOnWriteProxy extends MimeMessage implements Disposable, ParsedMimeStructure.Provider {
 
     /**
      * Used internally to track the reference count It is important that this is
@@ -63,6 +67,11 @@ public class MimeMessageCopyOnWriteProxy extends MimeMessage implements Disposab
          */
         private MimeMessage wrapped = null;
 
+        /**
+         * The structure of the mime message, lazily parsed
+         */
+        private ParsedMimeStructure parsedStructure = null;
+
         public MessageReferenceTracker(MimeMessage ref) {
             wrapped = ref;
         }
@@ -87,6 +96,17 @@ public class MimeMessageCopyOnWriteProxy extends MimeMessage implements Disposab
             return wrapped;
         }
 
+        protected synchronized ParsedMimeStructure getParsedStructure() throws MessagingException {
+            if (parsedStructure == null) {
+                parsedStructure = ParsedMimeStructure.parse(wrapped);
+            }
+            return parsedStructure;
+        }
+
+        protected synchronized void invalidateParsedStructure() {
+            parsedStructure = null;
+        }
+
     }
 
     protected MessageReferenceTracker refCount;
@@ -127,6 +147,8 @@ public class MimeMessageCopyOnWriteProxy extends MimeMessage implements Disposab
         if (refCount.getReferenceCount() > 1) {
             refCount.decrementReferenceCount();
             refCount = new MessageReferenceTracker(new MimeMessageWrapper(refCount.getWrapped()));
+        } else {
+            refCount.invalidateParsedStructure();
         }
         return refCount.getWrapped();
     }
@@ -140,6 +162,11 @@ public class MimeMessageCopyOnWriteProxy extends MimeMessage implements Disposab
         return refCount.getWrapped();
     }
 
+    @Override
+    public synchronized ParsedMimeStructure getParsedMimeStructure() throws MessagingException {
+        return refCount.getParsedStructure();
+    }
+
     @Override
     public synchronized void dispose() {
         if (refCount != null) {
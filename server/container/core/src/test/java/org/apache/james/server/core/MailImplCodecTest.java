@@ -0,0 +1,151 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.server.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Date;
+
+import org.apache.james.core.MailAddress;
+import org.apache.james.core.MaybeSender;
+import org.apache.mailet.Attribute;
+import org.apache.mailet.AttributeName;
+import org.apache.mailet.AttributeValue;
+import org.apache.mailet.Mail;
+import org.apache.mailet.PerRecipientHeaders;
+import org.apache.mailet.base.MailAddressFixture;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+class MailImplCodecTest {
+    private static final Attribute ATTRIBUTE = new Attribute(AttributeName.of("name"), AttributeValue.of(ImmutableList.<AttributeValue<?>>of(AttributeValue.of("value"), AttributeValue.of(42))));
+    private static final PerRecipientHeaders.Header HEADER = PerRecipientHeaders.Header.builder()
+        .name("X-Custom")
+        .value("value")
+        .build();
+
+    private MailImpl mail() throws Exception {
+        return MailImpl.builder()
+            .name("mail-id")
+            .sender(MailAddressFixture.SENDER)
+            .addRecipients(MailAddressFixture.RECIPIENT1, MailAddressFixture.RECIPIENT2)
+            .state(Mail.ERROR)
+            .errorMessage("error")
+            .remoteHost("remote.host")
+            .remoteAddr("10.0.0.1")
+            .lastUpdated(new Date(1556700000000L))
+            .addAttribute(ATTRIBUTE)
+            .addHeaderForRecipient(HEADER, MailAddressFixture.RECIPIENT1)
+            .build();
+    }
+
+    @Test
+    void decodeShouldReturnEncodedMail() throws Exception {
+        MailImpl mail = mail();
+
+        MailImpl decoded = MailImplCodec.decode(MailImplCodec.encode(mail));
+
+        assertSameEnvelope(decoded, mail);
+    }
+
+    @Test
+    void decodeShouldHandleNullSender() throws Exception {
+        MailImpl mail = MailImpl.builder()
+            .name("mail-id")
+            .sender(MailAddress.nullSender())
+            .build();
+
+        MailImpl decoded = MailImplCodec.decode(MailImplCodec.encode(mail));
+
+        assertThat(decoded.getMaybeSender()).isEqualTo(MaybeSender.nullSender());
+    }
+
+    @Test
+    void decodeShouldHandleMissingOptionalFields() throws Exception {
+        MailImpl mail = MailImpl.builder()
+            .name("mail-id")
+            .build();
+        mail.setLastUpdated(null);
+
+        MailImpl decoded = MailImplCodec.decode(MailImplCodec.encode(mail));
+
+        assertSameEnvelope(decoded, mail);
+    }
+
+    @Test
+    void decodeShouldReadJavaSerializedMails() throws Exception {
+        MailImpl mail = mail();
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(mail);
+        }
+
+        MailImpl decoded = MailImplCodec.decode(byteArrayOutputStream.toByteArray());
+
+        assertSameEnvelope(decoded, mail);
+    }
+
+    @Test
+    void encodeShouldBeMoreCompactThanJavaSerialization() throws Exception {
+        MailImpl mail = mail();
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(mail);
+        }
+
+        assertThat(MailImplCodec.encode(mail).length).isLessThan(byteArrayOutputStream.size());
+    }
+
+    @Test
+    void decodeShouldThrowOnUnknownVersion() throws Exception {
+        byte[] encoded = MailImplCodec.encode(mail());
+        encoded[2] = 42;
+
+        assertThatThrownBy(() -> MailImplCodec.decode(encoded))
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void decodeShouldThrowOnTruncatedContent() throws Exception {
+        byte[] encoded = MailImplCodec.encode(mail());
+        byte[] truncated = new byte[encoded.length / 2];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+
+        assertThatThrownBy(() -> MailImplCodec.decode(truncated))
+            .isInstanceOf(IOException.class);
+    }
+
+    private void assertSameEnvelope(MailImpl actual, MailImpl expected) {
+        assertThat(actual.getName()).isEqualTo(expected.getName());
+        assertThat(actual.getMaybeSender()).isEqualTo(expected.getMaybeSender());
+        assertThat(actual.getRecipients()).containsExactlyElementsOf(expected.getRecipients());
+        assertThat(actual.getState()).isEqualTo(expected.getState());
+        assertThat(actual.getErrorMessage()).isEqualTo(expected.getErrorMessage());
+        assertThat(actual.getRemoteHost()).isEqualTo(expected.getRemoteHost());
+        assertThat(actual.getRemoteAddr()).isEqualTo(expected.getRemoteAddr());
+        assertThat(actual.getLastUpdated()).isEqualTo(expected.getLastUpdated());
+        assertThat(actual.attributesMap()).isEqualTo(expected.attributesMap());
+        assertThat(actual.getPerRecipientSpecificHeaders()).isEqualTo(expected.getPerRecipientSpecificHeaders());
+    }
+}
@@ -22,12 +22,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Fail.fail;
 
 import javax.mail.MessagingException;
+import javax.mail.Part;
 import javax.mail.internet.MimeMessage;
 import javax.mail.util.SharedByteArrayInputStream;
 
 import org.apache.james.core.builder.MimeMessageBuilder;
 import org.apache.james.lifecycle.api.LifecycleUtil;
 import org.apache.mailet.Mail;
+import org.apache.mailet.ParsedMimeStructure;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -277,6 +279,60 @@ public class MimeMessageCopyOnWriteProxyTest extends MimeMessageFromStreamTest {
         LifecycleUtil.dispose(messageFromSources);
     }
 
+    @Test
+    void parsedMimeStructureShouldBeSharedAcrossCopies() throws Exception {
+        MimeMessageCopyOnWriteProxy messageFromSources = (MimeMessageCopyOnWriteProxy) getMessageFromSources(
+                mimeMessageAsString);
+        MailImpl mail = MailImpl.builder()
+            .name("test")
+            .sender("test@test.com")
+            .addRecipient("recipient@test.com")
+            .mimeMessage(messageFromSources)
+            .build();
+        MailImpl m2 = MailImpl.duplicate(mail);
+
+        assertThat(ParsedMimeStructure.of(m2)).isSameAs(ParsedMimeStructure.of(mail));
+        LifecycleUtil.dispose(mail);
+        LifecycleUtil.dispose(m2);
+        LifecycleUtil.dispose(messageFromSources);
+    }
+
+    @Test
+    void parsedMimeStructureShouldBeRecomputedAfterAWriteOperation() throws Exception {
+        MimeMessageCopyOnWriteProxy messageFromSources = (MimeMessageCopyOnWriteProxy) getMessageFromSources(
+                mimeMessageAsString);
+        MailImpl mail = MailImpl.builder()
+            .name("test")
+            .sender("test@test.com")
+            .addRecipient("recipient@test.com")
+            .mimeMessage(messageFromSources)
+            .build();
+        MailImpl m2 = MailImpl.duplicate(mail);
+        ParsedMimeStructure original = ParsedMimeStructure.of(mail);
+
+        m2.getMessage().setDisposition(Part.ATTACHMENT);
+        m2.getMessage().saveChanges();
+
+        assertThat(ParsedMimeStructure.of(m2).getAttachments()).hasSize(1);
+        assertThat(ParsedMimeStructure.of(mail)).isSameAs(original);
+        LifecycleUtil.dispose(mail);
+        LifecycleUtil.dispose(m2);
+        LifecycleUtil.dispose(messageFromSources);
+    }
+
+    @Test
+    void parsedMimeStructureShouldBeRecomputedAfterAWriteOperationOnAnUnsharedMessage() throws Exception {
+        MimeMessageCopyOnWriteProxy messageFromSources = (MimeMessageCopyOnWriteProxy) getMessageFromSources(
+                mimeMessageAsString);
+        ParsedMimeStructure original = messageFromSources.getParsedMimeStructure();
+
+        messageFromSources.setText("new body");
+        messageFromSources.saveChanges();
+
+        assertThat(messageFromSources.getParsedMimeStructure()).isNotEqualTo(original);
+        LifecycleUtil.dispose(messageFromSources);
+    }
+
     private static MimeMessage getWrappedMessage(MimeMessage m) {
         while (m instanceof MimeMessageCopyOnWriteProxy) {
             m = ((MimeMessageCopyOnWriteProxy) m).getWrappedMessage();
@@ -59,7 +59,8 @@ import org.apache.james.modules.server.SieveRoutesModule;
 import org.apache.james.modules.server.SwaggerRoutesModule;
 import org.apache.james.modules.server.WebAdminServerModule;
 import org.apache.james.modules.spamassassin.SpamAssassinListenerModule;
-import org.apache.james.modules.vault.DeletedMessageVaultModule;
+import org.apache.james.modules.task.CassandraTaskManagerModule;
+import org.apache.james.modules.vault.CassandraDeletedMessageVaultModule;
 import org.apache.james.modules.vault.DeletedMessageVaultRoutesModule;
 import org.apache.james.server.core.configuration.Configuration;
 
@@ -112,8 +113,8 @@ public class CassandraJamesServerMain {
         new CassandraUsersRepositoryModule());
 
     public static final Module CASSANDRA_MAILBOX_MODULE = Modules.combine(
+        new CassandraDeletedMessageVaultModule(),
         new CassandraMailboxModule(),
-        new DeletedMessageVaultModule(),
         new ElasticSearchMailboxModule(),
         new ElasticSearchMetricReporterModule(),
         new MailboxModule(),
@@ -132,7 +133,8 @@ public class CassandraJamesServerMain {
             .build();
 
         GuiceJamesServer server = GuiceJamesServer.forConfiguration(configuration)
-                    .combineWith(ALL_BUT_JMX_CASSANDRA_MODULE, new JMXServerModule());
+                    .combineWith(ALL_BUT_JMX_CASSANDRA_MODULE, new JMXServerModule())
+                    .overrideWith(new CassandraTaskManagerModule());
         server.start();
     }
 
@@ -20,8 +20,14 @@ package org.apache.james.modules.mailbox;
 
 import static org.apache.james.modules.Names.MAILBOXMANAGER_NAME;
 
+import java.io.FileNotFoundException;
+import java.time.Duration;
+import java.util.Optional;
+
 import javax.inject.Singleton;
 
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationException;
 import org.apache.james.adapter.mailbox.store.UserRepositoryAuthenticator;
 import org.apache.james.adapter.mailbox.store.UserRepositoryAuthorizator;
 import org.apache.james.backends.cassandra.components.CassandraModule;
@@ -32,6 +38,10 @@ import org.apache.james.mailbox.MailboxPathLocker;
 import org.apache.james.mailbox.MessageIdManager;
 import org.apache.james.mailbox.RightManager;
 import org.apache.james.mailbox.SubscriptionManager;
+import org.apache.james.mailbox.caching.MailboxByPathCache;
+import org.apache.james.mailbox.caching.MailboxByPathCacheConfiguration;
+import org.apache.james.mailbox.caching.NoopMailboxByPathCache;
+import org.apache.james.mailbox.caching.SharedMailboxByPathCache;
 import org.apache.james.mailbox.cassandra.CassandraMailboxManager;
 import org.apache.james.mailbox.cassandra.CassandraMailboxSessionMapperFactory;
 import org.apache.james.mailbox.cassandra.CassandraSubscriptionManager;
@@ -69,6 +79,7 @@ import org.apache.james.mailbox.cassandra.modules.CassandraMessageModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraModSeqModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraSubscriptionModule;
 import org.apache.james.mailbox.cassandra.modules.CassandraUidModule;
+import org.apache.james.mailbox.events.EventBus;
 import org.apache.james.mailbox.events.MailboxListener;
 import org.apache.james.mailbox.indexer.MessageIdReIndexer;
 import org.apache.james.mailbox.indexer.ReIndexer;
@@ -89,17 +100,26 @@ import org.apache.james.mailbox.store.mail.MailboxMapperFactory;
 import org.apache.james.mailbox.store.mail.MessageMapperFactory;
 import org.apache.james.mailbox.store.mail.ModSeqProvider;
 import org.apache.james.mailbox.store.mail.UidProvider;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.util.TimeConverter;
 import org.apache.james.utils.MailboxManagerDefinition;
+import org.apache.james.utils.PropertiesProvider;
 import org.apache.mailbox.tools.indexer.MessageIdReIndexerImpl;
 import org.apache.mailbox.tools.indexer.ReIndexerImpl;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Inject;
+import com.google.inject.Provides;
 import com.google.inject.Scopes;
 import com.google.inject.multibindings.Multibinder;
 import com.google.inject.name.Names;
 
 public class CassandraMailboxModule extends AbstractModule {
+    private static final String CASSANDRA_FILE_NAME = "cassandra";
+    private static final String MAILBOX_PATH_CACHE_ENABLED = "mailbox.path.cache.enabled";
+    private static final String MAILBOX_PATH_CACHE_SIZE = "mailbox.path.cache.size";
+    private static final String MAILBOX_PATH_CACHE_TTL = "mailbox.path.cache.ttl";
+    private static final String MAILBOX_PATH_CACHE_MAX_STALENESS = "mailbox.path.cache.max.staleness";
 
     @Override
     protected void configure() {
@@ -191,6 +211,37 @@ public class CassandraMailboxModule extends AbstractModule {
 
         bind(MailboxManager.class).annotatedWith(Names.named(MAILBOXMANAGER_NAME)).to(MailboxManager.class);
     }
+
+    @Provides
+    @Singleton
+    MailboxByPathCacheConfiguration provideMailboxByPathCacheConfiguration(PropertiesProvider propertiesProvider) throws ConfigurationException {
+        try {
+            Configuration configuration = propertiesProvider.getConfiguration(CASSANDRA_FILE_NAME);
+            return MailboxByPathCacheConfiguration.builder()
+                .enabled(Optional.ofNullable(configuration.getBoolean(MAILBOX_PATH_CACHE_ENABLED, null)))
+                .maximumSize(Optional.ofNullable(configuration.getLong(MAILBOX_PATH_CACHE_SIZE, null)))
+                .timeToLive(readDuration(configuration, MAILBOX_PATH_CACHE_TTL))
+                .maxStaleness(readDuration(configuration, MAILBOX_PATH_CACHE_MAX_STALENESS))
+                .build();
+        } catch (FileNotFoundException e) {
+            return MailboxByPathCacheConfiguration.DEFAULT_CONFIGURATION;
+        }
+    }
+
+    @Provides
+    @Singleton
+    MailboxByPathCache provideMailboxByPathCache(MailboxByPathCacheConfiguration configuration, EventBus eventBus, MetricFactory metricFactory) {
+        if (configuration.isEnabled()) {
+            return new SharedMailboxByPathCache(eventBus, metricFactory, configuration);
+        }
+        return new NoopMailboxByPathCache();
+    }
+
+    private Optional<Duration> readDuration(Configuration configuration, String key) {
+        return Optional.ofNullable(configuration.getString(key, null))
+            .map(rawString -> TimeConverter.getMilliSeconds(rawString, TimeConverter.Unit.MILLI_SECONDS))
+            .map(Duration::ofMillis);
+    }
     
     @Singleton
     private static class CassandraMailboxManagerDefinition extends MailboxManagerDefinition {
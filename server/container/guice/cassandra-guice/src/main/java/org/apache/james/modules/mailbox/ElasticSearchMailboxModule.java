@@ -24,6 +24,7 @@ import static org.apache.james.mailbox.elasticsearch.search.ElasticSearchSearche
 import java.io.FileNotFoundException;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 
 import javax.inject.Named;
@@ -49,6 +50,7 @@ import org.apache.james.mailbox.store.search.MessageSearchIndex;
 import org.apache.james.quota.search.elasticsearch.ElasticSearchQuotaConfiguration;
 import org.apache.james.quota.search.elasticsearch.QuotaSearchIndexCreationUtil;
 import org.apache.james.utils.PropertiesProvider;
+import org.apache.mailbox.tools.indexer.ReIndexingConfiguration;
 import org.elasticsearch.client.Client;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,6 +67,9 @@ public class ElasticSearchMailboxModule extends AbstractModule {
     private static final Logger LOGGER = LoggerFactory.getLogger(ElasticSearchMailboxModule.class);
 
     public static final String ELASTICSEARCH_CONFIGURATION_NAME = "elasticsearch";
+    private static final String REINDEXING_MAILBOX_CONCURRENCY = "reindexing.mailbox.concurrency";
+    private static final String REINDEXING_MESSAGE_BATCH_SIZE = "reindexing.message.batch.size";
+    private static final String REINDEXING_MESSAGES_PER_SECOND = "reindexing.messages.per.second";
 
     @Override
     protected void configure() {
@@ -133,6 +138,22 @@ public class ElasticSearchMailboxModule extends AbstractModule {
         }
     }
 
+    @Provides
+    @Singleton
+    private ReIndexingConfiguration getReIndexingConfiguration(PropertiesProvider propertiesProvider) throws ConfigurationException {
+        try {
+            Configuration configuration = propertiesProvider.getConfiguration(ELASTICSEARCH_CONFIGURATION_NAME);
+            return ReIndexingConfiguration.builder()
+                .mailboxConcurrency(Optional.ofNullable(configuration.getInteger(REINDEXING_MAILBOX_CONCURRENCY, null)))
+                .messageBatchSize(Optional.ofNullable(configuration.getInteger(REINDEXING_MESSAGE_BATCH_SIZE, null)))
+                .messagesPerSecond(Optional.ofNullable(configuration.getInteger(REINDEXING_MESSAGES_PER_SECOND, null)))
+                .build();
+        } catch (FileNotFoundException e) {
+            LOGGER.warn("Could not find " + ELASTICSEARCH_CONFIGURATION_NAME + " configuration file. Providing a default ReIndexingConfiguration");
+            return ReIndexingConfiguration.DEFAULT_CONFIGURATION;
+        }
+    }
+
     @Provides
     @Singleton
     protected Client provideClient(ElasticSearchConfiguration configuration,
@@ -0,0 +1,131 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.modules.task;
+
+import java.io.FileNotFoundException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import javax.inject.Singleton;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.james.backends.cassandra.components.CassandraModule;
+import org.apache.james.eventsourcing.eventstore.cassandra.dto.EventDTOModule;
+import org.apache.james.lifecycle.api.Startable;
+import org.apache.james.task.TaskManager;
+import org.apache.james.task.eventsourcing.EventSourcingTaskManager;
+import org.apache.james.task.eventsourcing.EventSourcingTaskManagerConfiguration;
+import org.apache.james.task.eventsourcing.TaskExecutionDetailsProjection;
+import org.apache.james.task.eventsourcing.cassandra.CassandraTaskExecutionDetailsProjection;
+import org.apache.james.task.eventsourcing.cassandra.CassandraTaskExecutionDetailsProjectionModule;
+import org.apache.james.task.eventsourcing.cassandra.TaskEventModules;
+import org.apache.james.util.TimeConverter;
+import org.apache.james.utils.ConfigurationPerformer;
+import org.apache.james.utils.PropertiesProvider;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.google.inject.Provides;
+import com.google.inject.Scopes;
+import com.google.inject.multibindings.Multibinder;
+
+/**
+ * Replaces the in-memory task manager by one persisting task events in Cassandra. Needs to override
+ * the bindings of the common services module.
+ */
+public class CassandraTaskManagerModule extends AbstractModule {
+    private static final String CASSANDRA_FILE_NAME = "cassandra";
+    private static final String NODE_ID = "task.manager.node.id";
+    private static final String WORKERS = "task.manager.workers";
+    private static final String POLLING_INTERVAL = "task.manager.polling.interval";
+
+    @Override
+    protected void configure() {
+        bind(CassandraTaskExecutionDetailsProjection.class).in(Scopes.SINGLETON);
+        bind(TaskExecutionDetailsProjection.class).to(CassandraTaskExecutionDetailsProjection.class);
+
+        bind(EventSourcingTaskManager.class).in(Scopes.SINGLETON);
+        bind(TaskManager.class).to(EventSourcingTaskManager.class);
+
+        Multibinder.newSetBinder(binder(), CassandraModule.class)
+            .addBinding()
+            .toInstance(CassandraTaskExecutionDetailsProjectionModule.MODULE);
+
+        @SuppressWarnings("rawtypes")
+        Multibinder<EventDTOModule> eventDTOModuleBinder = Multibinder.newSetBinder(binder(), EventDTOModule.class);
+        eventDTOModuleBinder.addBinding().toInstance(TaskEventModules.TASK_CREATED);
+        eventDTOModuleBinder.addBinding().toInstance(TaskEventModules.TASK_STARTED);
+        eventDTOModuleBinder.addBinding().toInstance(TaskEventModules.TASK_COMPLETED);
+        eventDTOModuleBinder.addBinding().toInstance(TaskEventModules.TASK_FAILED);
+        eventDTOModuleBinder.addBinding().toInstance(TaskEventModules.TASK_CANCEL_REQUESTED);
+        eventDTOModuleBinder.addBinding().toInstance(TaskEventModules.TASK_CANCELLED);
+
+        Multibinder.newSetBinder(binder(), ConfigurationPerformer.class)
+            .addBinding()
+            .to(TaskManagerStarter.class);
+    }
+
+    @Provides
+    @Singleton
+    EventSourcingTaskManagerConfiguration provideConfiguration(PropertiesProvider propertiesProvider) throws ConfigurationException, UnknownHostException {
+        try {
+            Configuration configuration = propertiesProvider.getConfiguration(CASSANDRA_FILE_NAME);
+            return EventSourcingTaskManagerConfiguration.builder()
+                .nodeId(configuration.getString(NODE_ID, defaultNodeId()))
+                .workerCount(Optional.ofNullable(configuration.getInteger(WORKERS, null)))
+                .pollingInterval(Optional.ofNullable(configuration.getString(POLLING_INTERVAL, null))
+                    .map(rawString -> TimeConverter.getMilliSeconds(rawString, TimeConverter.Unit.MILLI_SECONDS))
+                    .map(Duration::ofMillis))
+                .build();
+        } catch (FileNotFoundException e) {
+            return EventSourcingTaskManagerConfiguration.builder()
+                .nodeId(defaultNodeId())
+                .build();
+        }
+    }
+
+    private String defaultNodeId() throws UnknownHostException {
+        return InetAddress.getLocalHost().getHostName();
+    }
+
+    static class TaskManagerStarter implements ConfigurationPerformer {
+        private final EventSourcingTaskManager taskManager;
+
+        @Inject
+        TaskManagerStarter(EventSourcingTaskManager taskManager) {
+            this.taskManager = taskManager;
+        }
+
+        @Override
+        public void initModule() {
+            taskManager.start();
+        }
+
+        @Override
+        public List<Class<? extends Startable>> forClasses() {
+            return ImmutableList.of();
+        }
+    }
+}
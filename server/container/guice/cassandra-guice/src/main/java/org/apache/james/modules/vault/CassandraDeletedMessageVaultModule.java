@@ -0,0 +1,45 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.modules.vault;
+
+import org.apache.james.backends.cassandra.components.CassandraModule;
+import org.apache.james.vault.DeletedMessageVault;
+import org.apache.james.vault.cassandra.CassandraDeletedMessageVault;
+import org.apache.james.vault.cassandra.DeletedMessageMetadataDAO;
+import org.apache.james.vault.cassandra.UserPerBucketDAO;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Scopes;
+import com.google.inject.multibindings.Multibinder;
+
+public class CassandraDeletedMessageVaultModule extends AbstractModule {
+    @Override
+    protected void configure() {
+        Multibinder.newSetBinder(binder(), CassandraModule.class)
+            .addBinding()
+            .toInstance(org.apache.james.vault.cassandra.CassandraDeletedMessageVaultModule.MODULE);
+
+        bind(DeletedMessageMetadataDAO.class).in(Scopes.SINGLETON);
+        bind(UserPerBucketDAO.class).in(Scopes.SINGLETON);
+        bind(CassandraDeletedMessageVault.class).in(Scopes.SINGLETON);
+
+        bind(DeletedMessageVault.class).to(CassandraDeletedMessageVault.class);
+    }
+}
@@ -25,6 +25,7 @@ import org.apache.james.modules.blobstore.BlobStoreChoosingModule;
 import org.apache.james.modules.event.RabbitMQEventBusModule;
 import org.apache.james.modules.rabbitmq.RabbitMQModule;
 import org.apache.james.modules.server.JMXServerModule;
+import org.apache.james.modules.task.CassandraTaskManagerModule;
 import org.apache.james.server.core.configuration.Configuration;
 
 import com.google.inject.Module;
@@ -42,7 +43,8 @@ public class CassandraRabbitMQJamesServerMain {
             .build();
 
         GuiceJamesServer server = GuiceJamesServer.forConfiguration(configuration)
-                    .combineWith(MODULES, new JMXServerModule());
+                    .combineWith(MODULES, new JMXServerModule())
+                    .overrideWith(new CassandraTaskManagerModule());
         server.start();
     }
 }
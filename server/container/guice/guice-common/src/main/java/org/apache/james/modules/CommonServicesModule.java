@@ -28,6 +28,7 @@ import org.apache.james.modules.server.AsyncTasksExecutorModule;
 import org.apache.james.modules.server.DNSServiceModule;
 import org.apache.james.modules.server.DropWizardMetricsModule;
 import org.apache.james.modules.server.TaskManagerModule;
+import org.apache.james.modules.server.TracingModule;
 import org.apache.james.onami.lifecycle.PreDestroyModule;
 import org.apache.james.server.core.configuration.Configuration;
 import org.apache.james.server.core.configuration.ConfigurationProvider;
@@ -59,6 +60,7 @@ public class CommonServicesModule extends AbstractModule {
         install(new DNSServiceModule());
         install(new AsyncTasksExecutorModule());
         install(new DropWizardMetricsModule());
+        install(new TracingModule());
         install(new TaskManagerModule());
         install(new CleanupTaskModule());
         install(new MimeMessageModule());
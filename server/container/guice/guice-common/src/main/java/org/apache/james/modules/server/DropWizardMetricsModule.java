@@ -27,15 +27,20 @@ import org.apache.james.lifecycle.api.Configurable;
 import org.apache.james.lifecycle.api.Startable;
 import org.apache.james.metrics.api.GaugeRegistry;
 import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.MetricsExporter;
+import org.apache.james.metrics.api.tracing.Tracer;
+import org.apache.james.metrics.api.tracing.TracingMetricFactory;
 import org.apache.james.metrics.dropwizard.DropWizardGaugeRegistry;
 import org.apache.james.metrics.dropwizard.DropWizardJVMMetrics;
 import org.apache.james.metrics.dropwizard.DropWizardMetricFactory;
+import org.apache.james.metrics.dropwizard.DropWizardMetricsExporter;
 import org.apache.james.utils.ConfigurationPerformer;
 
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableList;
 import com.google.inject.AbstractModule;
 import com.google.inject.Inject;
+import com.google.inject.Provides;
 import com.google.inject.Scopes;
 import com.google.inject.Singleton;
 import com.google.inject.multibindings.Multibinder;
@@ -48,13 +53,23 @@ public class DropWizardMetricsModule extends AbstractModule {
         bind(DropWizardMetricFactory.class).in(Scopes.SINGLETON);
         bind(DropWizardGaugeRegistry.class).in(Scopes.SINGLETON);
         bind(DropWizardJVMMetrics.class).in(Scopes.SINGLETON);
-        bind(MetricFactory.class).to(DropWizardMetricFactory.class);
+        bind(DropWizardMetricsExporter.class).in(Scopes.SINGLETON);
+        bind(MetricsExporter.class).to(DropWizardMetricsExporter.class);
 
         bind(GaugeRegistry.class).to(DropWizardGaugeRegistry.class);
 
         Multibinder.newSetBinder(binder(), ConfigurationPerformer.class).addBinding().to(DropWizardConfigurationPerformer.class);
     }
 
+    @Provides
+    @Singleton
+    MetricFactory provideMetricFactory(DropWizardMetricFactory dropWizardMetricFactory, Tracer tracer) {
+        if (tracer.getConfiguration().isEnabled()) {
+            return new TracingMetricFactory(dropWizardMetricFactory, tracer);
+        }
+        return dropWizardMetricFactory;
+    }
+
     @Singleton
     public static class DropWizardConfigurationPerformer implements ConfigurationPerformer {
         public static final HierarchicalConfiguration NO_CONFIGURATION = null;
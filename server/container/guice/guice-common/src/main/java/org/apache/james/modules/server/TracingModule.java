@@ -0,0 +1,80 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.modules.server;
+
+import java.io.FileNotFoundException;
+import java.time.Duration;
+import java.util.Optional;
+
+import javax.inject.Singleton;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.james.metrics.api.tracing.Tracer;
+import org.apache.james.metrics.api.tracing.TracingConfiguration;
+import org.apache.james.util.TimeConverter;
+import org.apache.james.utils.PropertiesProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+
+public class TracingModule extends AbstractModule {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TracingModule.class);
+
+    private static final String TRACING_CONFIGURATION_NAME = "tracing";
+    private static final String ENABLED = "enabled";
+    private static final String SAMPLING_RATIO = "sampling.ratio";
+    private static final String SLOW_TRACE_THRESHOLD = "slow.trace.threshold";
+    private static final String SLOW_TRACE_BUFFER_SIZE = "slow.trace.buffer.size";
+    private static final String MAX_SPANS_PER_TRACE = "max.spans.per.trace";
+
+    @Override
+    protected void configure() {
+
+    }
+
+    @Provides
+    @Singleton
+    TracingConfiguration provideTracingConfiguration(PropertiesProvider propertiesProvider) throws ConfigurationException {
+        try {
+            Configuration configuration = propertiesProvider.getConfiguration(TRACING_CONFIGURATION_NAME);
+            return TracingConfiguration.builder()
+                .enabled(Optional.ofNullable(configuration.getBoolean(ENABLED, null)))
+                .samplingRatio(Optional.ofNullable(configuration.getDouble(SAMPLING_RATIO, null)))
+                .slowTraceThreshold(Optional.ofNullable(configuration.getString(SLOW_TRACE_THRESHOLD, null))
+                    .map(rawString -> TimeConverter.getMilliSeconds(rawString, TimeConverter.Unit.MILLI_SECONDS))
+                    .map(Duration::ofMillis))
+                .slowTraceBufferSize(Optional.ofNullable(configuration.getInteger(SLOW_TRACE_BUFFER_SIZE, null)))
+                .maxSpansPerTrace(Optional.ofNullable(configuration.getInteger(MAX_SPANS_PER_TRACE, null)))
+                .build();
+        } catch (FileNotFoundException e) {
+            LOGGER.info("Could not find {} configuration file. Tracing is disabled.", TRACING_CONFIGURATION_NAME);
+            return TracingConfiguration.DISABLED;
+        }
+    }
+
+    @Provides
+    @Singleton
+    Tracer provideTracer(TracingConfiguration configuration) {
+        return new Tracer(configuration);
+    }
+}
@@ -0,0 +1,63 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.modules.mailbox;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.apache.james.mailbox.jpa.JPAMailboxSessionMapperFactory;
+import org.apache.james.mailbox.jpa.mail.model.openjpa.JPABlobContentStore;
+import org.apache.james.mailbox.store.mail.ModSeqProvider;
+import org.apache.james.mailbox.store.mail.UidProvider;
+import org.apache.james.webadmin.Routes;
+import org.apache.james.webadmin.routes.JPAMessageContentMigrationRoutes;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.Scopes;
+import com.google.inject.Singleton;
+import com.google.inject.multibindings.Multibinder;
+
+/**
+ * Stores the content of the messages in a {@link org.apache.james.blob.api.BlobStore} instead of the JAMES_MAIL table,
+ * and exposes the webadmin route migrating the content of the existing messages.
+ *
+ * As it replaces the {@link JPAMailboxSessionMapperFactory} binding of {@link JPAMailboxModule}, this module needs to
+ * be applied with {@link com.google.inject.util.Modules#override(com.google.inject.Module...)}, along with modules
+ * binding a {@link org.apache.james.blob.api.BlobStore} and a {@link org.apache.james.blob.api.BlobId.Factory}.
+ */
+public class JPABlobContentModule extends AbstractModule {
+
+    @Override
+    protected void configure() {
+        bind(JPABlobContentStore.class).in(Scopes.SINGLETON);
+        bind(JPAMessageContentMigrationRoutes.class).in(Scopes.SINGLETON);
+
+        Multibinder.newSetBinder(binder(), Routes.class)
+            .addBinding()
+            .to(JPAMessageContentMigrationRoutes.class);
+    }
+
+    @Provides
+    @Singleton
+    JPAMailboxSessionMapperFactory provideMailboxSessionMapperFactory(EntityManagerFactory entityManagerFactory, UidProvider uidProvider,
+                                                                      ModSeqProvider modSeqProvider, JPABlobContentStore blobContentStore) {
+        return new JPAMailboxSessionMapperFactory(entityManagerFactory, uidProvider, modSeqProvider, blobContentStore);
+    }
+}
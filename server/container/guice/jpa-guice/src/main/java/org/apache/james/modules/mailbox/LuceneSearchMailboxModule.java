@@ -19,15 +19,27 @@
 
 package org.apache.james.modules.mailbox;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
 
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationException;
 import org.apache.james.filesystem.api.FileSystem;
 import org.apache.james.mailbox.events.MailboxListener;
+import org.apache.james.mailbox.lucene.search.LuceneConfiguration;
 import org.apache.james.mailbox.lucene.search.LuceneMessageSearchIndex;
 import org.apache.james.mailbox.store.search.ListeningMessageSearchIndex;
 import org.apache.james.mailbox.store.search.MessageSearchIndex;
+import org.apache.james.util.TimeConverter;
+import org.apache.james.utils.PropertiesProvider;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
+import org.apache.mailbox.tools.indexer.ReIndexingConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
@@ -36,6 +48,19 @@ import com.google.inject.Singleton;
 import com.google.inject.multibindings.Multibinder;
 
 public class LuceneSearchMailboxModule extends AbstractModule {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LuceneSearchMailboxModule.class);
+
+    private static final String LUCENE_CONFIGURATION_NAME = "lucene";
+    private static final String REFRESH_INTERVAL = "searcher.refresh.interval";
+    private static final String REFRESH_WRITE_THRESHOLD = "searcher.refresh.write.threshold";
+    private static final String COMMIT_INTERVAL = "index.commit.interval";
+    private static final String SHARD_COUNT = "shard.count";
+    private static final String SHARDING_STRATEGY = "shard.strategy";
+    private static final String MAX_OPEN_SHARDS = "shard.max.open";
+    private static final String SEARCH_PARALLELISM = "search.parallelism";
+    private static final String REINDEXING_MAILBOX_CONCURRENCY = "reindexing.mailbox.concurrency";
+    private static final String REINDEXING_MESSAGE_BATCH_SIZE = "reindexing.message.batch.size";
+    private static final String REINDEXING_MESSAGES_PER_SECOND = "reindexing.messages.per.second";
 
     @Override
     protected void configure() {
@@ -53,4 +78,47 @@ public class LuceneSearchMailboxModule extends AbstractModule {
     Directory provideDirectory(FileSystem fileSystem) throws IOException {
         return FSDirectory.open(fileSystem.getBasedir());
     }
+
+    @Provides
+    @Singleton
+    LuceneConfiguration provideLuceneConfiguration(PropertiesProvider propertiesProvider) throws ConfigurationException {
+        try {
+            Configuration configuration = propertiesProvider.getConfiguration(LUCENE_CONFIGURATION_NAME);
+            return LuceneConfiguration.builder()
+                .refreshInterval(readDuration(configuration, REFRESH_INTERVAL))
+                .refreshWriteThreshold(Optional.ofNullable(configuration.getInteger(REFRESH_WRITE_THRESHOLD, null)))
+                .commitInterval(readDuration(configuration, COMMIT_INTERVAL))
+                .shardCount(Optional.ofNullable(configuration.getInteger(SHARD_COUNT, null)))
+                .shardingStrategy(Optional.ofNullable(configuration.getString(SHARDING_STRATEGY, null))
+                    .map(value -> LuceneConfiguration.ShardingStrategy.valueOf(value.toUpperCase(Locale.US))))
+                .maxOpenShards(Optional.ofNullable(configuration.getInteger(MAX_OPEN_SHARDS, null)))
+                .searchParallelism(Optional.ofNullable(configuration.getInteger(SEARCH_PARALLELISM, null)))
+                .build();
+        } catch (FileNotFoundException e) {
+            LOGGER.info("Could not find {} configuration file. Using default Lucene configuration.", LUCENE_CONFIGURATION_NAME);
+            return LuceneConfiguration.DEFAULT_CONFIGURATION;
+        }
+    }
+
+    @Provides
+    @Singleton
+    ReIndexingConfiguration provideReIndexingConfiguration(PropertiesProvider propertiesProvider) throws ConfigurationException {
+        try {
+            Configuration configuration = propertiesProvider.getConfiguration(LUCENE_CONFIGURATION_NAME);
+            return ReIndexingConfiguration.builder()
+                .mailboxConcurrency(Optional.ofNullable(configuration.getInteger(REINDEXING_MAILBOX_CONCURRENCY, null)))
+                .messageBatchSize(Optional.ofNullable(configuration.getInteger(REINDEXING_MESSAGE_BATCH_SIZE, null)))
+                .messagesPerSecond(Optional.ofNullable(configuration.getInteger(REINDEXING_MESSAGES_PER_SECOND, null)))
+                .build();
+        } catch (FileNotFoundException e) {
+            LOGGER.info("Could not find {} configuration file. Using default re-indexing configuration.", LUCENE_CONFIGURATION_NAME);
+            return ReIndexingConfiguration.DEFAULT_CONFIGURATION;
+        }
+    }
+
+    private Optional<Duration> readDuration(Configuration configuration, String key) {
+        return Optional.ofNullable(configuration.getString(key, null))
+            .map(rawString -> TimeConverter.getMilliSeconds(rawString, TimeConverter.Unit.MILLI_SECONDS))
+            .map(Duration::ofMillis);
+    }
 }
@@ -126,9 +126,20 @@ public class CassandraSieveRepository implements SieveRepository {
             spaceThatWillBeUsedByNewScript(user, name, content.length())
                 .flatMap(spaceUsed -> throwOnOverQuota(user, spaceUsed)
                         .thenEmpty(updateAndInsert.apply(spaceUsed)))
+                .then(refreshActivationDateIfActive(user, name))
                 .block());
     }
 
+    /**
+     * Overriding the active script bumps its activation date so that parsed versions cached by readers
+     * relying on {@link #getActivationDateForActiveScript(User)} get invalidated.
+     */
+    private Mono<Void> refreshActivationDateIfActive(User user, ScriptName name) {
+        return cassandraActiveScriptDAO.getActiveSctiptInfo(user)
+            .filter(activeScriptInfo -> activeScriptInfo.getName().equals(name))
+            .flatMap(activeScriptInfo -> cassandraActiveScriptDAO.activate(user, name));
+    }
+
     private void reThrowQuotaExceededException(Runnable runnable) throws QuotaExceededException {
        try {
            runnable.run();
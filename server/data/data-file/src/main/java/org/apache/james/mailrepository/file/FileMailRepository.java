@@ -26,7 +26,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.Set;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -38,7 +42,6 @@ import org.apache.commons.configuration.HierarchicalConfiguration;
 import org.apache.james.filesystem.api.FileSystem;
 import org.apache.james.mailrepository.api.MailKey;
 import org.apache.james.mailrepository.lib.AbstractMailRepository;
-import org.apache.james.repository.file.FilePersistentObjectRepository;
 import org.apache.james.repository.file.FilePersistentStreamRepository;
 import org.apache.james.server.core.MimeMessageCopyOnWriteProxy;
 import org.apache.james.server.core.MimeMessageWrapper;
@@ -66,9 +69,9 @@ public class FileMailRepository extends AbstractMailRepository {
     private static final Logger LOGGER = LoggerFactory.getLogger(FileMailRepository.class);
 
     private FilePersistentStreamRepository streamRepository;
-    private FilePersistentObjectRepository objectRepository;
+    private FilePersistentMailEnvelopeRepository objectRepository;
     private String destination;
-    private Set<String> keys;
+    private NavigableSet<String> keys;
     private final Object lock = new Object();
     private boolean fifo;
     private boolean cacheKeys; // experimental: for use with write mostly
@@ -97,7 +100,7 @@ public class FileMailRepository extends AbstractMailRepository {
             DefaultConfigurationBuilder reposConfiguration = new DefaultConfigurationBuilder();
 
             reposConfiguration.addProperty("[@destinationURL]", destination);
-            objectRepository = new FilePersistentObjectRepository();
+            objectRepository = new FilePersistentMailEnvelopeRepository();
             objectRepository.setFileSystem(fileSystem);
             objectRepository.configure(reposConfiguration);
             objectRepository.init();
@@ -108,7 +111,7 @@ public class FileMailRepository extends AbstractMailRepository {
             streamRepository.init();
 
             if (cacheKeys) {
-                keys = Collections.synchronizedSet(new HashSet<String>());
+                keys = new ConcurrentSkipListSet<>();
             }
 
             // Finds non-matching pairs and deletes the extra files
@@ -223,7 +226,7 @@ public class FileMailRepository extends AbstractMailRepository {
         try {
             Mail mc;
             try {
-                mc = (Mail) objectRepository.get(key.asString());
+                mc = objectRepository.get(key.asString());
             } catch (RuntimeException re) {
                 if (re.getCause() instanceof Error) {
                     LOGGER.warn("Error when retrieving mail, not deleting: {}", re, re);
@@ -275,4 +278,19 @@ public class FileMailRepository extends AbstractMailRepository {
             .map(MailKey::new)
             .iterator();
     }
+
+    @Override
+    public List<MailKey> list(Optional<MailKey> after, int limit) throws MessagingException {
+        if (keys == null) {
+            return super.list(after, limit);
+        }
+        NavigableSet<String> page = after
+            .map(key -> keys.tailSet(key.asString(), false))
+            .orElse(keys);
+
+        return page.stream()
+            .limit(limit)
+            .map(MailKey::new)
+            .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,57 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailrepository.file;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.james.repository.file.AbstractFileRepository;
+import org.apache.james.server.core.MailImplCodec;
+import org.apache.mailet.Mail;
+
+/**
+ * Persistent store of mail envelopes on the file system, encoded with {@link MailImplCodec}.
+ *
+ * It shares its files with {@link org.apache.james.repository.file.FilePersistentObjectRepository}, so that
+ * envelopes stored with Java serialization by previous versions remain readable.
+ */
+public class FilePersistentMailEnvelopeRepository extends AbstractFileRepository {
+
+    @Override
+    protected String getExtensionDecorator() {
+        return ".FileObjectStore";
+    }
+
+    public synchronized Mail get(String key) {
+        try (InputStream inputStream = getInputStream(key)) {
+            return MailImplCodec.decode(inputStream);
+        } catch (Throwable e) {
+            throw new RuntimeException("Exception caught while retrieving a mail envelope", e);
+        }
+    }
+
+    public synchronized void put(String key, Mail mail) {
+        try (OutputStream outputStream = getOutputStream(key)) {
+            MailImplCodec.encode(mail, outputStream);
+        } catch (Exception e) {
+            throw new RuntimeException("Exception caught while storing a mail envelope", e);
+        }
+    }
+}
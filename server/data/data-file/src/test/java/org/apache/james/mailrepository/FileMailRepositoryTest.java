@@ -19,14 +19,19 @@
 
 package org.apache.james.mailrepository;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import org.apache.commons.configuration.DefaultConfigurationBuilder;
 import org.apache.james.filesystem.api.mock.MockFileSystem;
 import org.apache.james.mailrepository.api.MailRepository;
 import org.apache.james.mailrepository.file.FileMailRepository;
+import org.apache.james.repository.file.FilePersistentObjectRepository;
+import org.apache.james.server.core.MailImpl;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 
 public class FileMailRepositoryTest {
 
@@ -60,6 +65,19 @@ public class FileMailRepositoryTest {
         public MailRepository retrieveRepository() {
             return mailRepository;
         }
+
+        @Test
+        void retrieveShouldReadEnvelopesStoredWithJavaSerialization() throws Exception {
+            MailImpl mail = createMail(MAIL_1);
+            mailRepository.store(mail);
+            FilePersistentObjectRepository legacyRepository = new FilePersistentObjectRepository();
+            legacyRepository.setFileSystem(filesystem);
+            legacyRepository.configure(getConfiguration());
+            legacyRepository.init();
+            legacyRepository.put(MAIL_1.asString(), mail);
+
+            assertThat(mailRepository.retrieve(MAIL_1)).satisfies(actual -> checkMailEquality(actual, mail));
+        }
     }
 
     @Nested
@@ -56,12 +56,12 @@ public class XMLRecipientRewriteTableTest extends AbstractRecipientRewriteTableT
     protected AbstractRecipientRewriteTable getRecipientRewriteTable() {
         return new XMLRecipientRewriteTable() {
             @Override
-            public void addMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
+            protected void addMappingInternal(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
                 addMappingToConfiguration(source, mapping.getType().withoutPrefix(mapping.asString()), mapping.getType());
             }
 
             @Override
-            public void removeMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
+            protected void removeMappingInternal(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
                 removeMappingFromConfiguration(source, mapping.getType().withoutPrefix(mapping.asString()), mapping.getType());
             }
 
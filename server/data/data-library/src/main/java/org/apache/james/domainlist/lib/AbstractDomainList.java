@@ -21,7 +21,11 @@ package org.apache.james.domainlist.lib;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import org.apache.commons.configuration.ConfigurationException;
@@ -38,16 +42,35 @@ import com.github.fge.lambdas.Throwing;
 import com.github.steveash.guavate.Guavate;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 /**
  * All implementations of the DomainList interface should extends this abstract
  * class
+ *
+ * Domain checks are answered from an in-memory snapshot of the domains, detected hostnames and IPs, reloaded in the
+ * background once older than the configured refresh interval. Domains missing from the snapshot are looked up in the
+ * backend. When a negative cache TTL is configured, unknown ones are remembered that long. Adding or removing a domain
+ * invalidates both caches: changes done on this node are seen immediately, changes done on other nodes sharing the
+ * backend are seen after at most the refresh interval for removals, and the negative cache TTL for additions.
  */
 public abstract class AbstractDomainList implements DomainList, Configurable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractDomainList.class);
+    private static final String SNAPSHOT_KEY = "domains";
+    private static final long NEGATIVE_CACHE_MAXIMUM_SIZE = 10000;
+    private static final ExecutorService REFRESH_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+        .setDaemon(true)
+        .setNameFormat("domain-list-refresh-%d")
+        .build());
 
     public static final String CONFIGURE_AUTODETECT = "autodetect";
     public static final String CONFIGURE_AUTODETECT_IP = "autodetectIP";
@@ -60,10 +83,14 @@ public abstract class AbstractDomainList implements DomainList, Configurable {
     private boolean autoDetect = true;
     private boolean autoDetectIP = true;
     private Domain defaultDomain;
+    private volatile LoadingCache<String, ImmutableSet<Domain>> domainSnapshot;
+    private volatile Cache<Domain, Boolean> unknownDomains;
+    private volatile boolean negativeCacheEnabled;
 
     public AbstractDomainList(DNSService dns, EnvDetector envDetector) {
         this.dns = dns;
         this.envDetector = envDetector;
+        configureCaches(DomainListConfiguration.DEFAULT_CACHE_REFRESH_INTERVAL, DomainListConfiguration.DEFAULT_NEGATIVE_CACHE_TTL);
     }
 
     public AbstractDomainList(DNSService dns) {
@@ -78,6 +105,7 @@ public abstract class AbstractDomainList implements DomainList, Configurable {
     }
 
     public void configure(DomainListConfiguration domainListConfiguration) throws ConfigurationException {
+        configureCaches(domainListConfiguration.getCacheRefreshInterval(), domainListConfiguration.getNegativeCacheTtl());
         setAutoDetect(domainListConfiguration.isAutoDetect());
         setAutoDetectIP(domainListConfiguration.isAutoDetectIp());
 
@@ -85,6 +113,7 @@ public abstract class AbstractDomainList implements DomainList, Configurable {
 
         addEnvDomain();
         addConfiguredDomains(domainListConfiguration.getConfiguredDomains());
+        invalidateCaches();
     }
     
     public void configure(DomainListConfiguration.Builder configurationBuilder) throws ConfigurationException {
@@ -147,8 +176,70 @@ public abstract class AbstractDomainList implements DomainList, Configurable {
 
     @Override
     public boolean containsDomain(Domain domain) throws DomainListException {
+        if (domainSnapshot().contains(domain)) {
+            return true;
+        }
+        if (unknownDomains.getIfPresent(domain) != null) {
+            return false;
+        }
         boolean internalAnswer = containsDomainInternal(domain);
-        return internalAnswer || getDomains().contains(domain);
+        if (internalAnswer) {
+            // Added by another node: reload the snapshot in the background
+            domainSnapshot.refresh(SNAPSHOT_KEY);
+        } else if (negativeCacheEnabled) {
+            unknownDomains.put(domain, true);
+        }
+        return internalAnswer;
+    }
+
+    @Override
+    public final void addDomain(Domain domain) throws DomainListException {
+        try {
+            doAddDomain(domain);
+        } finally {
+            invalidateCaches();
+        }
+    }
+
+    @Override
+    public final void removeDomain(Domain domain) throws DomainListException {
+        try {
+            doRemoveDomain(domain);
+        } finally {
+            invalidateCaches();
+        }
+    }
+
+    private ImmutableSet<Domain> domainSnapshot() throws DomainListException {
+        try {
+            return domainSnapshot.getUnchecked(SNAPSHOT_KEY);
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof DomainListException) {
+                throw (DomainListException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void configureCaches(Duration refreshInterval, Duration negativeCacheTtl) {
+        this.domainSnapshot = CacheBuilder.newBuilder()
+            .refreshAfterWrite(refreshInterval.toMillis(), TimeUnit.MILLISECONDS)
+            .build(CacheLoader.asyncReloading(new CacheLoader<String, ImmutableSet<Domain>>() {
+                @Override
+                public ImmutableSet<Domain> load(String key) throws DomainListException {
+                    return ImmutableSet.copyOf(getDomains());
+                }
+            }, REFRESH_EXECUTOR));
+        this.unknownDomains = CacheBuilder.newBuilder()
+            .expireAfterWrite(negativeCacheTtl.toMillis(), TimeUnit.MILLISECONDS)
+            .maximumSize(NEGATIVE_CACHE_MAXIMUM_SIZE)
+            .build();
+        this.negativeCacheEnabled = !negativeCacheTtl.isZero();
+    }
+
+    private void invalidateCaches() {
+        domainSnapshot.invalidateAll();
+        unknownDomains.invalidateAll();
     }
 
     @Override
@@ -232,6 +323,7 @@ public abstract class AbstractDomainList implements DomainList, Configurable {
     public synchronized void setAutoDetect(boolean autoDetect) {
         LOGGER.info("Set autodetect to: {}", autoDetect);
         this.autoDetect = autoDetect;
+        invalidateCaches();
     }
 
     /**
@@ -244,6 +336,7 @@ public abstract class AbstractDomainList implements DomainList, Configurable {
     public synchronized void setAutoDetectIP(boolean autoDetectIP) {
         LOGGER.info("Set autodetectIP to: {}", autoDetectIP);
         this.autoDetectIP = autoDetectIP;
+        invalidateCaches();
     }
 
     /**
@@ -255,4 +348,14 @@ public abstract class AbstractDomainList implements DomainList, Configurable {
 
     protected abstract boolean containsDomainInternal(Domain domain) throws DomainListException;
 
+    /**
+     * Add the given domain to the underlying storage
+     */
+    protected abstract void doAddDomain(Domain domain) throws DomainListException;
+
+    /**
+     * Remove the given domain from the underlying storage
+     */
+    protected abstract void doRemoveDomain(Domain domain) throws DomainListException;
+
 }
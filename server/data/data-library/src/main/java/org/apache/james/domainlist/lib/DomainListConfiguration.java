@@ -19,6 +19,7 @@
 
 package org.apache.james.domainlist.lib;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -28,8 +29,10 @@ import java.util.Optional;
 import org.apache.commons.configuration.HierarchicalConfiguration;
 import org.apache.james.core.Domain;
 import org.apache.james.util.StreamUtils;
+import org.apache.james.util.TimeConverter;
 
 import com.github.steveash.guavate.Guavate;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 
 public class DomainListConfiguration {
@@ -38,12 +41,16 @@ public class DomainListConfiguration {
         private Optional<Boolean> autoDetect;
         private Optional<Domain> defaultDomain;
         private ImmutableList.Builder<Domain> configuredDomains;
+        private Optional<Duration> cacheRefreshInterval;
+        private Optional<Duration> negativeCacheTtl;
 
         public Builder() {
             autoDetectIp = Optional.empty();
             autoDetect = Optional.empty();
             defaultDomain = Optional.empty();
             configuredDomains = ImmutableList.builder();
+            cacheRefreshInterval = Optional.empty();
+            negativeCacheTtl = Optional.empty();
         }
 
         public Builder defaultDomain(Domain defaultDomain) {
@@ -90,12 +97,36 @@ public class DomainListConfiguration {
             return this.addConfiguredDomains(Arrays.asList(domains));
         }
 
+        public Builder cacheRefreshInterval(Duration cacheRefreshInterval) {
+            Preconditions.checkArgument(!cacheRefreshInterval.isNegative() && !cacheRefreshInterval.isZero(), "cacheRefreshInterval needs to be strictly positive");
+            this.cacheRefreshInterval = Optional.of(cacheRefreshInterval);
+            return this;
+        }
+
+        public Builder cacheRefreshInterval(Optional<Duration> cacheRefreshInterval) {
+            cacheRefreshInterval.ifPresent(this::cacheRefreshInterval);
+            return this;
+        }
+
+        public Builder negativeCacheTtl(Duration negativeCacheTtl) {
+            Preconditions.checkArgument(!negativeCacheTtl.isNegative(), "negativeCacheTtl needs to be positive");
+            this.negativeCacheTtl = Optional.of(negativeCacheTtl);
+            return this;
+        }
+
+        public Builder negativeCacheTtl(Optional<Duration> negativeCacheTtl) {
+            negativeCacheTtl.ifPresent(this::negativeCacheTtl);
+            return this;
+        }
+
         public DomainListConfiguration build() {
             return new DomainListConfiguration(
                 autoDetectIp.orElse(true),
                 autoDetect.orElse(true),
                 defaultDomain.orElse(Domain.LOCALHOST),
-                configuredDomains.build());
+                configuredDomains.build(),
+                cacheRefreshInterval.orElse(DEFAULT_CACHE_REFRESH_INTERVAL),
+                negativeCacheTtl.orElse(DEFAULT_NEGATIVE_CACHE_TTL));
         }
     }
 
@@ -103,6 +134,15 @@ public class DomainListConfiguration {
     public static final String CONFIGURE_AUTODETECT_IP = "autodetectIP";
     public static final String CONFIGURE_DEFAULT_DOMAIN = "defaultDomain";
     public static final String CONFIGURE_DOMAIN_NAMES = "domainnames.domainname";
+    public static final String CONFIGURE_CACHE_REFRESH_INTERVAL = "cacheRefreshInterval";
+    public static final String CONFIGURE_NEGATIVE_CACHE_TTL = "negativeCacheTtl";
+
+    public static final Duration DEFAULT_CACHE_REFRESH_INTERVAL = Duration.ofMinutes(1);
+    /**
+     * Unknown domains are not remembered by default: the domain list has no cross-node notification channel, and a domain
+     * added on another node would otherwise be rejected until its negative cache entry expires.
+     */
+    public static final Duration DEFAULT_NEGATIVE_CACHE_TTL = Duration.ZERO;
 
     public static Builder builder() {
         return new Builder();
@@ -120,19 +160,36 @@ public class DomainListConfiguration {
             .defaultDomain(Optional.ofNullable(config.getString(CONFIGURE_DEFAULT_DOMAIN, null))
                 .map(Domain::of))
             .addConfiguredDomains(configuredDomains)
+            .cacheRefreshInterval(readDuration(config, CONFIGURE_CACHE_REFRESH_INTERVAL))
+            .negativeCacheTtl(readDuration(config, CONFIGURE_NEGATIVE_CACHE_TTL))
             .build();
     }
 
+    private static Optional<Duration> readDuration(HierarchicalConfiguration config, String key) {
+        return Optional.ofNullable(config.getString(key, null))
+            .map(rawString -> TimeConverter.getMilliSeconds(rawString, TimeConverter.Unit.MILLI_SECONDS))
+            .map(Duration::ofMillis);
+    }
+
     private final boolean autoDetectIp;
     private final boolean autoDetect;
     private final Domain defaultDomain;
     private final List<Domain> configuredDomains;
+    private final Duration cacheRefreshInterval;
+    private final Duration negativeCacheTtl;
 
-    public DomainListConfiguration(boolean autoDetectIp, boolean autoDetect, Domain defaultDomain, List<Domain> configuredDomains) {
+    public DomainListConfiguration(boolean autoDetectIp, boolean autoDetect, Domain defaultDomain, List<Domain> configuredDomains,
+                                   Duration cacheRefreshInterval, Duration negativeCacheTtl) {
         this.autoDetectIp = autoDetectIp;
         this.autoDetect = autoDetect;
         this.defaultDomain = defaultDomain;
         this.configuredDomains = configuredDomains;
+        this.cacheRefreshInterval = cacheRefreshInterval;
+        this.negativeCacheTtl = negativeCacheTtl;
+    }
+
+    public DomainListConfiguration(boolean autoDetectIp, boolean autoDetect, Domain defaultDomain, List<Domain> configuredDomains) {
+        this(autoDetectIp, autoDetect, defaultDomain, configuredDomains, DEFAULT_CACHE_REFRESH_INTERVAL, DEFAULT_NEGATIVE_CACHE_TTL);
     }
 
     public boolean isAutoDetectIp() {
@@ -151,6 +208,20 @@ public class DomainListConfiguration {
         return configuredDomains;
     }
 
+    /**
+     * Delay after which the in-memory snapshot of domains, detected hostnames and IPs is reloaded in the background.
+     */
+    public Duration getCacheRefreshInterval() {
+        return cacheRefreshInterval;
+    }
+
+    /**
+     * Delay during which a domain found to be unknown is answered as such without querying the backend.
+     */
+    public Duration getNegativeCacheTtl() {
+        return negativeCacheTtl;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (o instanceof DomainListConfiguration) {
@@ -158,13 +229,15 @@ public class DomainListConfiguration {
 
             return Objects.equals(this.autoDetectIp, that.autoDetectIp)
                 && Objects.equals(this.autoDetect, that.autoDetect)
-                && Objects.equals(this.defaultDomain, that.defaultDomain);
+                && Objects.equals(this.defaultDomain, that.defaultDomain)
+                && Objects.equals(this.cacheRefreshInterval, that.cacheRefreshInterval)
+                && Objects.equals(this.negativeCacheTtl, that.negativeCacheTtl);
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(autoDetectIp, autoDetect, defaultDomain);
+        return Objects.hash(autoDetectIp, autoDetect, defaultDomain, cacheRefreshInterval, negativeCacheTtl);
     }
 }
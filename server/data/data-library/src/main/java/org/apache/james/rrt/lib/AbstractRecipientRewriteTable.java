@@ -18,7 +18,11 @@
  ****************************************************************/
 package org.apache.james.rrt.lib;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -34,19 +38,35 @@ import org.apache.james.core.User;
 import org.apache.james.domainlist.api.DomainList;
 import org.apache.james.domainlist.api.DomainListException;
 import org.apache.james.lifecycle.api.Configurable;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.NoopMetricFactory;
 import org.apache.james.rrt.api.MappingAlreadyExistsException;
 import org.apache.james.rrt.api.RecipientRewriteTable;
 import org.apache.james.rrt.api.RecipientRewriteTableException;
 import org.apache.james.rrt.api.SameSourceAndDestinationException;
 import org.apache.james.rrt.lib.Mapping.Type;
+import org.apache.james.util.TimeConverter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.fge.lambdas.Throwing;
-
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * When a cacheSize is configured, resolution results and the per address backend lookups they rely on are memoized.
+ * Mapping changes made through this instance flush both caches. Nothing notifies other instances sharing the storage:
+ * their entries live until cacheTtl, which is why caching is disabled unless explicitly configured.
+ */
 public abstract class AbstractRecipientRewriteTable implements RecipientRewriteTable, Configurable {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractRecipientRewriteTable.class);
 
+    public static final String CACHE_HITS_METRIC_NAME = "recipientRewriteTable:cache:hits";
+    public static final String CACHE_MISSES_METRIC_NAME = "recipientRewriteTable:cache:misses";
+    public static final long DEFAULT_CACHE_SIZE = 0;
+    public static final Duration DEFAULT_CACHE_TTL = Duration.ofSeconds(30);
+
     // The maximum mappings which will process before throwing exception
     private int mappingLimit = 10;
 
@@ -54,16 +74,37 @@ public abstract class AbstractRecipientRewriteTable implements RecipientRewriteT
 
     private DomainList domainList;
 
+    private final AtomicLong cacheGeneration = new AtomicLong();
+    private volatile Cache<User, Mappings> resolvedMappings;
+    private volatile Cache<User, Mappings> storedMappings;
+    private Metric cacheHits;
+    private Metric cacheMisses;
+
+    public AbstractRecipientRewriteTable() {
+        configureCaches(DEFAULT_CACHE_SIZE, DEFAULT_CACHE_TTL);
+        setMetricFactory(new NoopMetricFactory());
+    }
+
     @Inject
     public void setDomainList(DomainList domainList) {
         this.domainList = domainList;
     }
 
+    @Inject
+    public void setMetricFactory(MetricFactory metricFactory) {
+        this.cacheHits = metricFactory.generate(CACHE_HITS_METRIC_NAME);
+        this.cacheMisses = metricFactory.generate(CACHE_MISSES_METRIC_NAME);
+    }
+
     @Override
     public void configure(HierarchicalConfiguration config) throws ConfigurationException {
         setRecursiveMapping(config.getBoolean("recursiveMapping", true));
         try {
             setMappingLimit(config.getInt("mappingLimit", 10));
+            setCache(config.getLong("cacheSize", DEFAULT_CACHE_SIZE),
+                Optional.ofNullable(config.getString("cacheTtl", null))
+                    .map(rawString -> Duration.ofMillis(TimeConverter.getMilliSeconds(rawString, TimeConverter.Unit.MILLI_SECONDS)))
+                    .orElse(DEFAULT_CACHE_TTL));
         } catch (IllegalArgumentException e) {
             throw new ConfigurationException(e.getMessage());
         }
@@ -78,6 +119,24 @@ public abstract class AbstractRecipientRewriteTable implements RecipientRewriteT
 
     public void setRecursiveMapping(boolean recursive) {
         this.recursive = recursive;
+        invalidateCaches();
+    }
+
+    /**
+     * Set the bounds of the mapping caches
+     *
+     * @param size
+     *            the maximum count of cached entries, 0 disables caching
+     * @param ttl
+     *            the delay after which a cached entry expires, bounding how long a change done on another node is ignored
+     * @throws IllegalArgumentException
+     *             get thrown if a negative size or ttl is used
+     */
+    public void setCache(long size, Duration ttl) throws IllegalArgumentException {
+        if (size < 0 || ttl.isNegative()) {
+            throw new IllegalArgumentException("cacheSize and cacheTtl can not be negative");
+        }
+        configureCaches(size, ttl);
     }
 
     /**
@@ -93,11 +152,79 @@ public abstract class AbstractRecipientRewriteTable implements RecipientRewriteT
             throw new IllegalArgumentException("The minimum mappingLimit is 1");
         }
         this.mappingLimit = mappingLimit;
+        invalidateCaches();
+    }
+
+    @Override
+    public final void addMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
+        try {
+            addMappingInternal(source, mapping);
+        } finally {
+            invalidateCaches();
+        }
+    }
+
+    @Override
+    public final void removeMapping(MappingSource source, Mapping mapping) throws RecipientRewriteTableException {
+        try {
+            removeMappingInternal(source, mapping);
+        } finally {
+            invalidateCaches();
+        }
     }
 
     @Override
     public Mappings getResolvedMappings(String user, Domain domain) throws ErrorMappingException, RecipientRewriteTableException {
-        return getMappings(User.fromLocalPartWithDomain(user, domain), mappingLimit);
+        User key = User.fromLocalPartWithDomain(user, domain);
+        Mappings cached = resolvedMappings.getIfPresent(key);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+        cacheMisses.increment();
+        long generation = cacheGeneration.get();
+        Mappings mappings = getMappings(key, mappingLimit);
+        cacheIfUnchanged(resolvedMappings, key, mappings, generation);
+        return mappings;
+    }
+
+    private Mappings lookupMappings(User user) throws RecipientRewriteTableException {
+        Mappings cached = storedMappings.getIfPresent(user);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cacheGeneration.get();
+        Mappings mappings = mapAddress(user.getLocalPart(), user.getDomainPart().get());
+        cacheIfUnchanged(storedMappings, user, mappings, generation);
+        return mappings;
+    }
+
+    /**
+     * A value computed while mappings were changed might be stale: only cache it when no change happened meanwhile.
+     */
+    private void cacheIfUnchanged(Cache<User, Mappings> cache, User user, Mappings mappings, long generation) {
+        if (cacheGeneration.get() == generation) {
+            cache.put(user, mappings);
+        }
+    }
+
+    private void configureCaches(long size, Duration ttl) {
+        this.resolvedMappings = buildCache(size, ttl);
+        this.storedMappings = buildCache(size, ttl);
+        cacheGeneration.incrementAndGet();
+    }
+
+    private Cache<User, Mappings> buildCache(long size, Duration ttl) {
+        return CacheBuilder.newBuilder()
+            .maximumSize(size)
+            .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+            .build();
+    }
+
+    private void invalidateCaches() {
+        cacheGeneration.incrementAndGet();
+        resolvedMappings.invalidateAll();
+        storedMappings.invalidateAll();
     }
 
     private Mappings getMappings(User user, int mappingLimit) throws ErrorMappingException, RecipientRewriteTableException {
@@ -108,7 +235,7 @@ public abstract class AbstractRecipientRewriteTable implements RecipientRewriteT
             throw new TooManyMappingException("554 Too many mappings to process");
         }
 
-        Mappings targetMappings = mapAddress(user.getLocalPart(), user.getDomainPart().get());
+        Mappings targetMappings = lookupMappings(user);
 
 
         try {
@@ -321,6 +448,16 @@ public abstract class AbstractRecipientRewriteTable implements RecipientRewriteT
         removeMapping(source, mapping);
     }
 
+    /**
+     * Add the given mapping to the underlying storage
+     */
+    protected abstract void addMappingInternal(MappingSource source, Mapping mapping) throws RecipientRewriteTableException;
+
+    /**
+     * Remove the given mapping from the underlying storage
+     */
+    protected abstract void removeMappingInternal(MappingSource source, Mapping mapping) throws RecipientRewriteTableException;
+
     /**
      * Return a Map which holds all Mappings
      * 
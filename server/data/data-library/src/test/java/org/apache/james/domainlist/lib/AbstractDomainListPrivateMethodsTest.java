@@ -22,10 +22,13 @@ package org.apache.james.domainlist.lib;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.net.InetAddress;
+import java.time.Duration;
 import java.util.List;
 
 import org.apache.james.core.Domain;
@@ -63,12 +66,12 @@ public class AbstractDomainListPrivateMethodsTest {
         }
 
         @Override
-        public void addDomain(Domain domain) {
+        protected void doAddDomain(Domain domain) {
             domains.add(domain);
         }
 
         @Override
-        public void removeDomain(Domain domain) {
+        protected void doRemoveDomain(Domain domain) {
             domains.remove(domain);
         }
 
@@ -316,4 +319,89 @@ public class AbstractDomainListPrivateMethodsTest {
         assertThat(domainList.getDefaultDomain()).isEqualTo(Domain.LOCALHOST);
     }
 
+    @Test
+    public void containsDomainShouldNotResolveDomainsAgainWhenCached() throws Exception {
+        domainList.configure(DomainListConfiguration.builder()
+            .autoDetect(true)
+            .autoDetectIp(true));
+
+        String detected = "detected.tld";
+        when(dnsService.getLocalHost()).thenReturn(InetAddress.getByName("127.0.0.1"));
+        when(dnsService.getHostName(any(InetAddress.class))).thenReturn(detected);
+        when(dnsService.getAllByName(detected)).thenReturn(ImmutableList.of());
+
+        domainList.containsDomain(Domain.of("remote1.tld"));
+        domainList.containsDomain(Domain.of("remote2.tld"));
+
+        verify(dnsService, times(1)).getAllByName(detected);
+    }
+
+    @Test
+    public void containsDomainShouldNotRememberUnknownDomainsByDefault() throws Exception {
+        Domain domain = Domain.of("added.tld");
+        domainList.configure(DomainListConfiguration.builder()
+            .autoDetect(false)
+            .autoDetectIp(false));
+
+        domainList.containsDomain(domain);
+        domainList.domains.add(domain);
+
+        assertThat(domainList.containsDomain(domain)).isTrue();
+    }
+
+    @Test
+    public void containsDomainShouldRememberUnknownDomainsWhenNegativeCacheEnabled() throws Exception {
+        Domain domain = Domain.of("added.tld");
+        domainList.configure(DomainListConfiguration.builder()
+            .autoDetect(false)
+            .autoDetectIp(false)
+            .negativeCacheTtl(Duration.ofSeconds(30)));
+
+        domainList.containsDomain(domain);
+        domainList.domains.add(domain);
+
+        assertThat(domainList.containsDomain(domain)).isFalse();
+    }
+
+    @Test
+    public void containsDomainShouldLookupUnknownDomainsAgainWhenNegativeCacheExpired() throws Exception {
+        Domain domain = Domain.of("added.tld");
+        domainList.configure(DomainListConfiguration.builder()
+            .autoDetect(false)
+            .autoDetectIp(false)
+            .negativeCacheTtl(Duration.ZERO));
+
+        domainList.containsDomain(domain);
+        domainList.domains.add(domain);
+
+        assertThat(domainList.containsDomain(domain)).isTrue();
+    }
+
+    @Test
+    public void addDomainShouldInvalidateUnknownDomains() throws Exception {
+        Domain domain = Domain.of("added.tld");
+        domainList.configure(DomainListConfiguration.builder()
+            .autoDetect(false)
+            .autoDetectIp(false)
+            .negativeCacheTtl(Duration.ofSeconds(30)));
+
+        domainList.containsDomain(domain);
+        domainList.addDomain(domain);
+
+        assertThat(domainList.containsDomain(domain)).isTrue();
+    }
+
+    @Test
+    public void removeDomainShouldInvalidateDomainSnapshot() throws Exception {
+        Domain domain = Domain.of("added.tld");
+        domainList.configure(DomainListConfiguration.builder()
+            .autoDetect(false)
+            .autoDetectIp(false));
+        domainList.addDomain(domain);
+        domainList.containsDomain(domain);
+
+        domainList.removeDomain(domain);
+
+        assertThat(domainList.containsDomain(domain)).isFalse();
+    }
 }
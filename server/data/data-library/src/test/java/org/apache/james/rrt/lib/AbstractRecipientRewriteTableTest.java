@@ -21,6 +21,7 @@ package org.apache.james.rrt.lib;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.time.Duration;
 import java.util.Map;
 
 import org.apache.commons.lang3.tuple.Pair;
@@ -533,4 +534,40 @@ public abstract class AbstractRecipientRewriteTableTest {
             .containsExactly(mapping1, mapping2, mapping3);
     }
 
+    @Test
+    public void getResolvedMappingsShouldNotReturnRemovedMappingOnceResolved() throws Exception {
+        virtualUserTable.setCache(100, Duration.ofMinutes(1));
+        virtualUserTable.addAliasMapping(SOURCE, ADDRESS);
+        assertThat(virtualUserTable.getResolvedMappings(USER, Domain.LOCALHOST)).isNotEmpty();
+
+        virtualUserTable.removeAliasMapping(SOURCE, ADDRESS);
+
+        assertThat(virtualUserTable.getResolvedMappings(USER, Domain.LOCALHOST)).isEmpty();
+    }
+
+    @Test
+    public void getResolvedMappingsShouldReturnDomainMappingAddedOnceResolved() throws Exception {
+        virtualUserTable.setCache(100, Duration.ofMinutes(1));
+        Domain aliasDomain = Domain.of("aliasdomain");
+        assertThat(virtualUserTable.getResolvedMappings(USER, aliasDomain)).isEmpty();
+
+        virtualUserTable.addAliasDomainMapping(MappingSource.fromDomain(aliasDomain), Domain.LOCALHOST);
+
+        assertThat(virtualUserTable.getResolvedMappings(USER, aliasDomain))
+            .containsOnly(Mapping.address(USER + "@" + Domain.LOCALHOST.asString()));
+    }
+
+    @Test
+    public void getResolvedMappingsShouldHonorMappingLimitChangeOnceResolved() throws Exception {
+        virtualUserTable.setCache(100, Duration.ofMinutes(1));
+        virtualUserTable.addAliasMapping(SOURCE, ADDRESS);
+        virtualUserTable.addAliasMapping(MappingSource.fromUser("test", Domain.of("localhost2")), ADDRESS_2);
+        assertThat(virtualUserTable.getResolvedMappings(USER, Domain.LOCALHOST)).isNotEmpty();
+
+        virtualUserTable.setMappingLimit(1);
+
+        assertThatThrownBy(() -> virtualUserTable.getResolvedMappings(USER, Domain.LOCALHOST))
+            .isInstanceOf(ErrorMappingException.class);
+    }
+
 }
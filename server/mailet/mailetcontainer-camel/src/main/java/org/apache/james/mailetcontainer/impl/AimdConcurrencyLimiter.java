@@ -0,0 +1,153 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailetcontainer.impl;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Bounds the number of mails processed concurrently by the spooler, adapting the bound to the observed processing
+ * latency (Additive Increase, Multiplicative Decrease):
+ *
+ *  - when processing a mail takes longer than the latency threshold, the limit is multiplied by the backoff ratio,
+ *  - otherwise, if mails are waiting for a permit, the limit grows by one every "limit" completions.
+ *
+ * The limit always stays within [minimum, maximum]. Using the same value for both disables adaptation.
+ */
+class AimdConcurrencyLimiter {
+
+    public static AimdConcurrencyLimiter fixed(int limit) {
+        return new AimdConcurrencyLimiter(limit, limit, limit, Duration.ofMillis(Long.MAX_VALUE), 1.0);
+    }
+
+    private final int minimum;
+    private final int maximum;
+    private final Duration latencyThreshold;
+    private final double backoffRatio;
+    private final Queue<MonoSink<Void>> waiting = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+
+    AimdConcurrencyLimiter(int minimum, int initial, int maximum, Duration latencyThreshold, double backoffRatio) {
+        Preconditions.checkArgument(minimum > 0, "'minimum' needs to be strictly positive");
+        Preconditions.checkArgument(minimum <= initial && initial <= maximum, "'initial' needs to be within [minimum, maximum]");
+        Preconditions.checkArgument(backoffRatio > 0 && backoffRatio <= 1, "'backoffRatio' needs to be within ]0, 1]");
+
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.latencyThreshold = latencyThreshold;
+        this.backoffRatio = backoffRatio;
+        this.limit = initial;
+    }
+
+    /**
+     * Completes once a permit is granted. Each granted permit needs to be released.
+     */
+    Mono<Void> acquire() {
+        return Mono.create(sink -> {
+            boolean granted;
+            synchronized (this) {
+                granted = inFlight < currentLimit();
+                if (granted) {
+                    inFlight++;
+                } else {
+                    waiting.add(sink);
+                }
+            }
+            if (granted) {
+                sink.success();
+            } else {
+                sink.onCancel(() -> cancel(sink));
+            }
+        });
+    }
+
+    void release(Duration latency) {
+        release(Optional.of(latency));
+    }
+
+    /**
+     * Releases a permit whose mail was not processed, for instance because it was deferred, without adapting the
+     * limit to its latency.
+     */
+    void releaseWithoutSample() {
+        release(Optional.empty());
+    }
+
+    private void release(Optional<Duration> latency) {
+        List<MonoSink<Void>> granted = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            latency.ifPresent(this::adjustLimit);
+            while (inFlight < currentLimit() && !waiting.isEmpty()) {
+                inFlight++;
+                granted.add(waiting.poll());
+            }
+        }
+        granted.forEach(MonoSink::success);
+    }
+
+    synchronized int currentLimit() {
+        return (int) limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    @VisibleForTesting
+    synchronized int waitingCount() {
+        return waiting.size();
+    }
+
+    private void adjustLimit(Duration latency) {
+        if (latency.compareTo(latencyThreshold) > 0) {
+            limit = Math.max(minimum, limit * backoffRatio);
+        } else if (!waiting.isEmpty()) {
+            limit = Math.min(maximum, limit + 1 / limit);
+        }
+    }
+
+    private synchronized void cancel(MonoSink<Void> sink) {
+        waiting.remove(sink);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("minimum", minimum)
+            .add("maximum", maximum)
+            .add("latencyThreshold", latencyThreshold)
+            .add("backoffRatio", backoffRatio)
+            .add("limit", limit)
+            .add("inFlight", inFlight)
+            .toString();
+    }
+}
@@ -19,12 +19,16 @@
 
 package org.apache.james.mailetcontainer.impl;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.mail.MessagingException;
 
 import org.apache.commons.configuration.HierarchicalConfiguration;
 import org.apache.james.lifecycle.api.Configurable;
@@ -32,16 +36,21 @@ import org.apache.james.lifecycle.api.Disposable;
 import org.apache.james.lifecycle.api.LifecycleUtil;
 import org.apache.james.mailetcontainer.api.MailProcessor;
 import org.apache.james.mailetcontainer.api.jmx.MailSpoolerMBean;
+import org.apache.james.mailetcontainer.lib.ProcessorSaturatedException;
+import org.apache.james.metrics.api.GaugeRegistry;
 import org.apache.james.metrics.api.MetricFactory;
 import org.apache.james.metrics.api.TimeMetric;
 import org.apache.james.queue.api.MailQueue;
 import org.apache.james.queue.api.MailQueue.MailQueueItem;
 import org.apache.james.queue.api.MailQueueFactory;
+import org.apache.james.util.TimeConverter;
 import org.apache.james.util.concurrent.NamedThreadFactory;
 import org.apache.mailet.Mail;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableList;
+
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
@@ -56,6 +65,12 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
     private static final Logger LOGGER = LoggerFactory.getLogger(JamesMailSpooler.class);
 
     public static final String SPOOL_PROCESSING = "spoolProcessing";
+    public static final String SPOOL_CONCURRENCY_LIMIT = "spoolConcurrencyLimit";
+    public static final String SPOOL_IN_FLIGHT = "spoolInFlight";
+    private static final String DEFAULT_LATENCY_THRESHOLD = "1s";
+    private static final String DEFAULT_DEFERRAL_DELAY = "1s";
+    private static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
     private MailQueue queue;
 
     /**
@@ -66,6 +81,17 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
     private final AtomicInteger processingActive = new AtomicInteger(0);
 
     private final MetricFactory metricFactory;
+    private final GaugeRegistry gaugeRegistry;
+
+    /**
+     * Bounds the number of mails processed concurrently, below numThreads.
+     */
+    private AimdConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * Delay before servicing again a mail deferred by a saturated processor.
+     */
+    private Duration deferralDelay;
 
     /**
      * The mail processor
@@ -77,8 +103,9 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
     private Scheduler spooler;
 
     @Inject
-    public JamesMailSpooler(MetricFactory metricFactory) {
+    public JamesMailSpooler(MetricFactory metricFactory, GaugeRegistry gaugeRegistry) {
         this.metricFactory = metricFactory;
+        this.gaugeRegistry = gaugeRegistry;
     }
 
     @Inject
@@ -94,6 +121,25 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
     @Override
     public void configure(HierarchicalConfiguration config) {
         numThreads = config.getInt("threads", 100);
+        concurrencyLimiter = configureConcurrencyLimiter(config);
+        deferralDelay = Duration.ofMillis(
+            TimeConverter.getMilliSeconds(config.getString("deferralDelay", DEFAULT_DEFERRAL_DELAY)));
+    }
+
+    /**
+     * Without an adaptiveConcurrency section, up to numThreads mails are processed concurrently.
+     */
+    private AimdConcurrencyLimiter configureConcurrencyLimiter(HierarchicalConfiguration config) {
+        if (config.configurationsAt("adaptiveConcurrency").isEmpty()) {
+            return AimdConcurrencyLimiter.fixed(numThreads);
+        }
+        HierarchicalConfiguration adaptiveConfig = config.configurationAt("adaptiveConcurrency");
+        int minimum = adaptiveConfig.getInt("minimum", 1);
+        int initial = adaptiveConfig.getInt("initial", minimum);
+        Duration latencyThreshold = Duration.ofMillis(
+            TimeConverter.getMilliSeconds(adaptiveConfig.getString("latencyThreshold", DEFAULT_LATENCY_THRESHOLD)));
+        double backoffRatio = adaptiveConfig.getDouble("backoffRatio", DEFAULT_BACKOFF_RATIO);
+        return new AimdConcurrencyLimiter(minimum, initial, numThreads, latencyThreshold, backoffRatio);
     }
 
     /**
@@ -104,46 +150,88 @@ public class JamesMailSpooler implements Disposable, Configurable, MailSpoolerMB
         LOGGER.info("init...");
         queue = queueFactory.createQueue(MailQueueFactory.SPOOL);
         spooler = Schedulers.fromExecutor(Executors.newFixedThreadPool(numThreads, NamedThreadFactory.withName("spooler")));
-        LOGGER.info("uses {} Thread(s)", numThreads);
+        gaugeRegistry.register(SPOOL_CONCURRENCY_LIMIT, concurrencyLimiter::currentLimit);
+        gaugeRegistry.register(SPOOL_IN_FLIGHT, concurrencyLimiter::inFlight);
+        LOGGER.info("uses {} Thread(s), concurrency {}", numThreads, concurrencyLimiter);
     }
 
     public void run() {
         LOGGER.info("Queue={}", queue);
 
         disposable = Flux.from(queue.deQueue())
-            .publishOn(spooler)
-            .flatMap(this::handleOnQueueItem)
+            .flatMap(this::scheduleOnQueueItem, numThreads)
             .onErrorContinue((throwable, item) -> LOGGER.error("Exception processing mail while spooling {}", item, throwable))
             .subscribeOn(Schedulers.elastic())
             .subscribe();
     }
 
-    private Mono<Void> handleOnQueueItem(MailQueueItem queueItem) {
-        TimeMetric timeMetric = metricFactory.timer(SPOOL_PROCESSING);
-        try {
-            processingActive.incrementAndGet();
-            return processMail(queueItem);
-        } catch (Throwable e) {
-            return Mono.error(e);
-        } finally {
-            processingActive.decrementAndGet();
-            timeMetric.stopAndPublish();
+    /**
+     * The queue item is only acknowledged once its mail, and the mails deferred while servicing it, are processed.
+     */
+    private Mono<Void> scheduleOnQueueItem(MailQueueItem queueItem) {
+        return service(queueItem.getMail())
+            .then(Mono.fromCallable(() -> acknowledge(queueItem, true)))
+            .onErrorResume(e -> Mono.fromCallable(() -> acknowledge(queueItem, false))
+                .then(Mono.<Boolean>error(e)))
+            .then();
+    }
+
+    private boolean acknowledge(MailQueueItem queueItem, boolean success) throws MailQueue.MailQueueException {
+        queueItem.done(success);
+        return success;
+    }
+
+    /**
+     * Mails deferred by a saturated processor are parked here rather than enqueued back: they keep their queue item,
+     * and thus their dequeue slot, and are serviced again after the deferral delay, without holding a spooler thread
+     * nor a permit meanwhile. Deferrals do not adapt the concurrency limit.
+     */
+    private Mono<Void> service(Mail mail) {
+        return concurrencyLimiter.acquire()
+            .then(Mono.defer(() -> {
+                long startNanos = System.nanoTime();
+                AtomicBoolean deferred = new AtomicBoolean(false);
+                return Mono.fromCallable(() -> processMail(mail))
+                    .subscribeOn(spooler)
+                    .doOnNext(deferredMails -> deferred.set(!deferredMails.isEmpty()))
+                    .doFinally(any -> release(deferred.get(), startNanos));
+            }))
+            .flatMapMany(Flux::fromIterable)
+            .concatMap(deferredMail -> Mono.delay(deferralDelay)
+                .then(service(deferredMail)))
+            .then();
+    }
+
+    private void release(boolean deferred, long startNanos) {
+        if (deferred) {
+            concurrencyLimiter.releaseWithoutSample();
+        } else {
+            concurrencyLimiter.release(Duration.ofNanos(System.nanoTime() - startNanos));
         }
     }
 
-    private Mono<Void> processMail(MailQueueItem queueItem) throws MailQueue.MailQueueException {
-        Mail mail = queueItem.getMail();
+    /**
+     * @return the mails deferred by a saturated processor, empty once the mail is processed
+     */
+    private List<Mail> processMail(Mail mail) throws MessagingException {
+        TimeMetric timeMetric = metricFactory.timer(SPOOL_PROCESSING);
+        processingActive.incrementAndGet();
         LOGGER.debug("==== Begin processing mail {} ====", mail.getName());
+        boolean disposeMail = true;
         try {
             mailProcessor.service(mail);
-            queueItem.done(true);
-            return Mono.empty();
-        } catch (Exception e) {
-            queueItem.done(false);
-            return Mono.error(e);
+            return ImmutableList.of();
+        } catch (ProcessorSaturatedException e) {
+            LOGGER.debug("Deferring {} mail(s) while processing mail {}", e.getDeferredMails().size(), mail.getName());
+            disposeMail = e.getDeferredMails().stream().noneMatch(deferredMail -> deferredMail == mail);
+            return e.getDeferredMails();
         } finally {
             LOGGER.debug("==== End processing mail {} ====", mail.getName());
-            LifecycleUtil.dispose(mail);
+            if (disposeMail) {
+                LifecycleUtil.dispose(mail);
+            }
+            processingActive.decrementAndGet();
+            timeMetric.stopAndPublish();
         }
     }
 
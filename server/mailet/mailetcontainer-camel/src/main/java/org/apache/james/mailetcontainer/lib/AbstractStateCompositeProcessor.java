@@ -47,6 +47,8 @@ public abstract class AbstractStateCompositeProcessor implements MailProcessor,
 
     private final List<CompositeProcessorListener> listeners = Collections.synchronizedList(new ArrayList<CompositeProcessorListener>());
     private final Map<String, MailProcessor> processors = new HashMap<>();
+    private final ProcessorBulkheads bulkheads = new ProcessorBulkheads();
+    private final ThreadLocal<List<Mail>> deferredMails = new ThreadLocal<>();
     protected HierarchicalConfiguration config;
 
     private JMXStateCompositeProcessorListener jmxListener;
@@ -72,14 +74,42 @@ public abstract class AbstractStateCompositeProcessor implements MailProcessor,
 
     }
 
+    /**
+     * Mails that can not enter their saturated processor are deferred: they are left in their current state, and the
+     * outermost call throws a {@link ProcessorSaturatedException} listing them once the mail is serviced, so that the
+     * caller services them again later. Nested calls, handing a mail over to another processor, never throw it.
+     */
     @Override
     public void service(Mail mail) throws MessagingException {
+        if (deferredMails.get() != null) {
+            serviceInState(mail);
+            return;
+        }
+        List<Mail> deferred = new ArrayList<>();
+        deferredMails.set(deferred);
+        try {
+            serviceInState(mail);
+        } finally {
+            deferredMails.remove();
+        }
+        if (!deferred.isEmpty()) {
+            throw new ProcessorSaturatedException(deferred);
+        }
+    }
+
+    private void serviceInState(Mail mail) throws MessagingException {
         long start = System.currentTimeMillis();
         MessagingException ex = null;
         MailProcessor processor = getProcessor(mail.getState());
 
         if (processor != null) {
-            LOGGER.debug("Call MailProcessor {}", mail.getState());
+            String state = mail.getState();
+            if (!bulkheads.tryEnter(state)) {
+                LOGGER.debug("MailProcessor {} is saturated, deferring mail {}", state, mail.getName());
+                deferredMails.get().add(mail);
+                return;
+            }
+            LOGGER.debug("Call MailProcessor {}", state);
             try {
                 processor.service(mail);
 
@@ -95,6 +125,7 @@ public abstract class AbstractStateCompositeProcessor implements MailProcessor,
                 ex = e;
                 throw e;
             } finally {
+                bulkheads.leave(state);
                 long end = System.currentTimeMillis() - start;
                 for (CompositeProcessorListener listener : listeners) {
                     listener.afterProcessor(processor, mail.getName(), end, ex);
@@ -158,6 +189,14 @@ public abstract class AbstractStateCompositeProcessor implements MailProcessor,
                 processorConf.addProperty("[@enableJmx]", enableJmx);
             }
             processors.put(processorName, createMailProcessor(processorName, processorConf));
+
+            int maxConcurrency = processorConf.getInt("[@maxConcurrency]", 0);
+            if (maxConcurrency < 0) {
+                throw new ConfigurationException("'maxConcurrency' of processor " + processorName + " needs to be positive");
+            }
+            if (maxConcurrency > 0) {
+                bulkheads.bound(processorName, maxConcurrency);
+            }
         }
 
         if (enableJmx) {
@@ -0,0 +1,85 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailetcontainer.lib;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+
+/**
+ * Bounds the number of threads concurrently servicing mails in each bounded processor.
+ *
+ * Permits are keyed by processor and reentrant: a processor keeps its permit while a mail it hands over is serviced
+ * by a nested processor, and a thread coming back to a processor it is already within, for instance through a cyclic
+ * route, does not take another permit.
+ *
+ * Permits are never waited for, so that a saturated processor does not block the spooler threads needed by the other
+ * processors: callers failing to enter a processor defer the mail, see {@link ProcessorSaturatedException}.
+ */
+class ProcessorBulkheads {
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+    private final ThreadLocal<Multiset<String>> enteredProcessors = ThreadLocal.withInitial(HashMultiset::create);
+
+    void bound(String processorName, int maxConcurrency) {
+        Preconditions.checkArgument(maxConcurrency > 0, "'maxConcurrency' needs to be strictly positive");
+
+        permits.put(processorName, new Semaphore(maxConcurrency));
+    }
+
+    /**
+     * @return false when the processor is saturated. Otherwise the processor is entered, and needs to be left.
+     */
+    boolean tryEnter(String processorName) {
+        Semaphore semaphore = permits.get(processorName);
+        if (semaphore == null) {
+            return true;
+        }
+        Multiset<String> entered = enteredProcessors.get();
+        if (entered.contains(processorName) || semaphore.tryAcquire()) {
+            entered.add(processorName);
+            return true;
+        }
+        return false;
+    }
+
+    void leave(String processorName) {
+        Semaphore semaphore = permits.get(processorName);
+        if (semaphore == null) {
+            return;
+        }
+        Multiset<String> entered = enteredProcessors.get();
+        entered.remove(processorName);
+        if (!entered.contains(processorName)) {
+            semaphore.release();
+        }
+    }
+
+    @VisibleForTesting
+    int availablePermits(String processorName) {
+        Preconditions.checkArgument(permits.containsKey(processorName), "Processor " + processorName + " is not bounded");
+
+        return permits.get(processorName).availablePermits();
+    }
+}
@@ -0,0 +1,45 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailetcontainer.lib;
+
+import java.util.List;
+
+import javax.mail.MessagingException;
+
+import org.apache.mailet.Mail;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Thrown by {@link AbstractStateCompositeProcessor#service(Mail)} when mails could not enter their saturated
+ * processor. These mails are left in their current state, and need to be serviced again later.
+ */
+public class ProcessorSaturatedException extends MessagingException {
+    private final ImmutableList<Mail> deferredMails;
+
+    public ProcessorSaturatedException(List<Mail> deferredMails) {
+        super(deferredMails.size() + " mail(s) deferred by saturated processors");
+        this.deferredMails = ImmutableList.copyOf(deferredMails);
+    }
+
+    public List<Mail> getDeferredMails() {
+        return deferredMails;
+    }
+}
@@ -0,0 +1,163 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.mailetcontainer.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+import reactor.core.Disposable;
+
+public class AimdConcurrencyLimiterTest {
+    private static final Duration THRESHOLD = Duration.ofSeconds(1);
+    private static final Duration FAST = Duration.ofMillis(10);
+    private static final Duration SLOW = Duration.ofSeconds(2);
+
+    @Test
+    public void constructorShouldThrowWhenInitialIsOutOfBounds() {
+        assertThatThrownBy(() -> new AimdConcurrencyLimiter(2, 1, 4, THRESHOLD, 0.9))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void constructorShouldThrowWhenBackoffRatioIsGreaterThanOne() {
+        assertThatThrownBy(() -> new AimdConcurrencyLimiter(1, 1, 4, THRESHOLD, 1.5))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void acquireShouldGrantPermitsUpToTheLimit() {
+        AimdConcurrencyLimiter testee = new AimdConcurrencyLimiter(1, 2, 4, THRESHOLD, 0.5);
+
+        testee.acquire().block();
+        testee.acquire().block();
+        testee.acquire().subscribe();
+
+        assertThat(testee.inFlight()).isEqualTo(2);
+        assertThat(testee.waitingCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void releaseShouldGrantPermitToWaitingSubscriber() {
+        AimdConcurrencyLimiter testee = AimdConcurrencyLimiter.fixed(1);
+        testee.acquire().block();
+        testee.acquire().subscribe();
+
+        testee.release(FAST);
+
+        assertThat(testee.inFlight()).isEqualTo(1);
+        assertThat(testee.waitingCount()).isZero();
+    }
+
+    @Test
+    public void slowReleaseShouldDecreaseTheLimit() {
+        AimdConcurrencyLimiter testee = new AimdConcurrencyLimiter(1, 4, 4, THRESHOLD, 0.5);
+        testee.acquire().block();
+
+        testee.release(SLOW);
+
+        assertThat(testee.currentLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void slowReleaseShouldNotDecreaseTheLimitBelowMinimum() {
+        AimdConcurrencyLimiter testee = new AimdConcurrencyLimiter(3, 4, 4, THRESHOLD, 0.5);
+        testee.acquire().block();
+
+        testee.release(SLOW);
+
+        assertThat(testee.currentLimit()).isEqualTo(3);
+    }
+
+    @Test
+    public void fastReleaseShouldIncreaseTheLimitWhenSaturated() {
+        AimdConcurrencyLimiter testee = new AimdConcurrencyLimiter(1, 1, 4, THRESHOLD, 0.5);
+        testee.acquire().block();
+        testee.acquire().subscribe();
+        testee.acquire().subscribe();
+
+        testee.release(FAST);
+
+        assertThat(testee.currentLimit()).isEqualTo(2);
+        assertThat(testee.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    public void fastReleaseShouldNotIncreaseTheLimitWhenNotSaturated() {
+        AimdConcurrencyLimiter testee = new AimdConcurrencyLimiter(1, 2, 4, THRESHOLD, 0.5);
+        testee.acquire().block();
+
+        testee.release(FAST);
+
+        assertThat(testee.currentLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void fastReleaseShouldNotIncreaseTheLimitAboveMaximum() {
+        AimdConcurrencyLimiter testee = new AimdConcurrencyLimiter(1, 2, 2, THRESHOLD, 0.5);
+        testee.acquire().block();
+        testee.acquire().block();
+        testee.acquire().subscribe();
+
+        testee.release(FAST);
+
+        assertThat(testee.currentLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void releaseWithoutSampleShouldNotIncreaseTheLimitWhenSaturated() {
+        AimdConcurrencyLimiter testee = new AimdConcurrencyLimiter(1, 1, 4, THRESHOLD, 0.5);
+        testee.acquire().block();
+        testee.acquire().subscribe();
+        testee.acquire().subscribe();
+
+        testee.releaseWithoutSample();
+
+        assertThat(testee.currentLimit()).isEqualTo(1);
+        assertThat(testee.inFlight()).isEqualTo(1);
+        assertThat(testee.waitingCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void fixedLimiterShouldNotAdapt() {
+        AimdConcurrencyLimiter testee = AimdConcurrencyLimiter.fixed(2);
+        testee.acquire().block();
+        testee.acquire().block();
+        testee.acquire().subscribe();
+
+        testee.release(SLOW);
+        testee.release(FAST);
+
+        assertThat(testee.currentLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void cancellingShouldRemoveTheWaitingSubscriber() {
+        AimdConcurrencyLimiter testee = AimdConcurrencyLimiter.fixed(1);
+        testee.acquire().block();
+        Disposable waiting = testee.acquire().subscribe();
+
+        waiting.dispose();
+
+        assertThat(testee.waitingCount()).isZero();
+    }
+}
@@ -0,0 +1,300 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailetcontainer.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import javax.mail.MessagingException;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.james.mailetcontainer.api.MailProcessor;
+import org.apache.james.mailetcontainer.lib.ProcessorSaturatedException;
+import org.apache.james.metrics.api.Gauge;
+import org.apache.james.metrics.api.GaugeRegistry;
+import org.apache.james.metrics.api.NoopMetricFactory;
+import org.apache.james.queue.api.MailQueue;
+import org.apache.james.queue.api.MailQueueFactory;
+import org.apache.james.server.core.MailImpl;
+import org.apache.mailet.Mail;
+import org.awaitility.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.steveash.guavate.Guavate;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
+
+import reactor.core.publisher.Flux;
+
+public class JamesMailSpoolerTest {
+    private static final int MAIL_COUNT = 20;
+
+    private static class FakeMailQueueItem implements MailQueue.MailQueueItem {
+        private final Mail mail;
+        private volatile Boolean success;
+
+        private FakeMailQueueItem(Mail mail) {
+            this.mail = mail;
+        }
+
+        @Override
+        public Mail getMail() {
+            return mail;
+        }
+
+        @Override
+        public void done(boolean success) {
+            this.success = success;
+        }
+
+        boolean isDone() {
+            return success != null;
+        }
+    }
+
+    private static class RecordingGaugeRegistry implements GaugeRegistry {
+        private final Map<String, Gauge<?>> gauges = new ConcurrentHashMap<>();
+
+        @Override
+        public <T> GaugeRegistry register(String name, Gauge<T> gauge) {
+            gauges.put(name, gauge);
+            return this;
+        }
+
+        Object value(String name) {
+            return gauges.get(name).get();
+        }
+    }
+
+    /**
+     * Records the highest count of mails being processed at the same time.
+     */
+    private static class ConcurrencyRecordingProcessor implements MailProcessor {
+        private final long processingMillis;
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+        private final AtomicInteger maxInFlight = new AtomicInteger(0);
+
+        private ConcurrencyRecordingProcessor(long processingMillis) {
+            this.processingMillis = processingMillis;
+        }
+
+        @Override
+        public void service(Mail mail) throws MessagingException {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(processingMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MessagingException("Interrupted", e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Defers each mail the first time it is serviced, as a saturated processor would.
+     */
+    private static class DeferringOnceProcessor implements MailProcessor {
+        private final Multiset<String> servicedMails = ConcurrentHashMultiset.create();
+
+        @Override
+        public void service(Mail mail) throws MessagingException {
+            servicedMails.add(mail.getName());
+            if (servicedMails.count(mail.getName()) == 1) {
+                throw new ProcessorSaturatedException(ImmutableList.of(mail));
+            }
+        }
+    }
+
+    private RecordingGaugeRegistry gaugeRegistry;
+    private JamesMailSpooler testee;
+
+    @Before
+    public void setUp() {
+        gaugeRegistry = new RecordingGaugeRegistry();
+        testee = new JamesMailSpooler(new NoopMetricFactory(), gaugeRegistry);
+    }
+
+    @After
+    public void tearDown() {
+        testee.dispose();
+    }
+
+    @Test
+    public void spoolerShouldProcessMailsConcurrentlyUpToThreads() throws Exception {
+        ConcurrencyRecordingProcessor processor = new ConcurrencyRecordingProcessor(100);
+        HierarchicalConfiguration configuration = new HierarchicalConfiguration();
+        configuration.addProperty("threads", 4);
+
+        List<FakeMailQueueItem> items = spool(configuration, processor, MAIL_COUNT);
+
+        awaitProcessing(items);
+        assertThat(processor.maxInFlight.get()).isBetween(2, 4);
+        assertThat(gaugeRegistry.value(JamesMailSpooler.SPOOL_CONCURRENCY_LIMIT)).isEqualTo(4);
+    }
+
+    @Test
+    public void spoolerShouldAcknowledgeProcessedMails() throws Exception {
+        HierarchicalConfiguration configuration = new HierarchicalConfiguration();
+        configuration.addProperty("threads", 4);
+
+        List<FakeMailQueueItem> items = spool(configuration, mail -> { }, MAIL_COUNT);
+
+        awaitProcessing(items);
+        assertThat(items).allMatch(item -> item.success);
+    }
+
+    @Test
+    public void spoolerShouldNotAcknowledgeFailedMails() throws Exception {
+        HierarchicalConfiguration configuration = new HierarchicalConfiguration();
+        configuration.addProperty("threads", 4);
+
+        List<FakeMailQueueItem> items = spool(configuration, mail -> {
+            throw new MessagingException("mock exception");
+        }, MAIL_COUNT);
+
+        awaitProcessing(items);
+        assertThat(items).noneMatch(item -> item.success);
+    }
+
+    @Test
+    public void spoolerShouldNotExceedTheAdaptiveLimit() throws Exception {
+        ConcurrencyRecordingProcessor processor = new ConcurrencyRecordingProcessor(50);
+        HierarchicalConfiguration configuration = new HierarchicalConfiguration();
+        configuration.addProperty("threads", 8);
+        configuration.addProperty("adaptiveConcurrency.minimum", 2);
+        configuration.addProperty("adaptiveConcurrency.latencyThreshold", "1ms");
+
+        List<FakeMailQueueItem> items = spool(configuration, processor, MAIL_COUNT);
+
+        awaitProcessing(items);
+        assertThat(processor.maxInFlight.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void spoolerShouldBackOffWhenProcessingIsSlowerThanTheLatencyThreshold() throws Exception {
+        HierarchicalConfiguration configuration = new HierarchicalConfiguration();
+        configuration.addProperty("threads", 8);
+        configuration.addProperty("adaptiveConcurrency.minimum", 1);
+        configuration.addProperty("adaptiveConcurrency.initial", 8);
+        configuration.addProperty("adaptiveConcurrency.latencyThreshold", "1ms");
+        configuration.addProperty("adaptiveConcurrency.backoffRatio", 0.5);
+
+        List<FakeMailQueueItem> items = spool(configuration, new ConcurrencyRecordingProcessor(20), MAIL_COUNT);
+
+        awaitProcessing(items);
+        await().atMost(Duration.TEN_SECONDS)
+            .until(() -> gaugeRegistry.value(JamesMailSpooler.SPOOL_IN_FLIGHT).equals(0));
+        assertThat(gaugeRegistry.value(JamesMailSpooler.SPOOL_CONCURRENCY_LIMIT)).isEqualTo(1);
+    }
+
+    @Test
+    public void spoolerShouldGrowTheLimitWhenMailsAreWaitingAndProcessingIsFast() throws Exception {
+        HierarchicalConfiguration configuration = new HierarchicalConfiguration();
+        configuration.addProperty("threads", 8);
+        configuration.addProperty("adaptiveConcurrency.minimum", 1);
+        configuration.addProperty("adaptiveConcurrency.latencyThreshold", "10s");
+
+        List<FakeMailQueueItem> items = spool(configuration, new ConcurrencyRecordingProcessor(5), 100);
+
+        awaitProcessing(items);
+        assertThat((Integer) gaugeRegistry.value(JamesMailSpooler.SPOOL_CONCURRENCY_LIMIT)).isGreaterThan(1);
+    }
+
+    @Test
+    public void spoolerShouldServiceDeferredMailsAgainAndThenAcknowledgeThem() throws Exception {
+        DeferringOnceProcessor processor = new DeferringOnceProcessor();
+        HierarchicalConfiguration configuration = new HierarchicalConfiguration();
+        configuration.addProperty("threads", 4);
+        configuration.addProperty("deferralDelay", "10ms");
+
+        List<FakeMailQueueItem> items = spool(configuration, processor, MAIL_COUNT);
+
+        awaitProcessing(items);
+        assertThat(items).allMatch(item -> item.success);
+        assertThat(processor.servicedMails.entrySet()).allMatch(entry -> entry.getCount() == 2);
+    }
+
+    @Test
+    public void spoolerShouldNotAcknowledgeMailsWhileTheyAreDeferred() throws Exception {
+        DeferringOnceProcessor processor = new DeferringOnceProcessor();
+        HierarchicalConfiguration configuration = new HierarchicalConfiguration();
+        configuration.addProperty("threads", 4);
+        configuration.addProperty("deferralDelay", "1h");
+
+        List<FakeMailQueueItem> items = spool(configuration, processor, 4);
+
+        await().atMost(Duration.TEN_SECONDS)
+            .until(() -> processor.servicedMails.size() == 4
+                && gaugeRegistry.value(JamesMailSpooler.SPOOL_IN_FLIGHT).equals(0));
+        assertThat(items).noneMatch(FakeMailQueueItem::isDone);
+    }
+
+    @Test
+    public void deferralsShouldNotGrowTheLimit() throws Exception {
+        DeferringOnceProcessor processor = new DeferringOnceProcessor();
+        HierarchicalConfiguration configuration = new HierarchicalConfiguration();
+        configuration.addProperty("threads", 8);
+        configuration.addProperty("deferralDelay", "1h");
+        configuration.addProperty("adaptiveConcurrency.minimum", 1);
+        configuration.addProperty("adaptiveConcurrency.latencyThreshold", "10s");
+
+        spool(configuration, processor, 8);
+
+        await().atMost(Duration.TEN_SECONDS)
+            .until(() -> processor.servicedMails.size() == 8);
+        assertThat(gaugeRegistry.value(JamesMailSpooler.SPOOL_CONCURRENCY_LIMIT)).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FakeMailQueueItem> spool(HierarchicalConfiguration configuration, MailProcessor processor, int mailCount) throws Exception {
+        List<FakeMailQueueItem> items = IntStream.range(0, mailCount)
+            .mapToObj(i -> new FakeMailQueueItem(MailImpl.builder().name("mail" + i).build()))
+            .collect(Guavate.toImmutableList());
+        MailQueue queue = mock(MailQueue.class);
+        when(queue.deQueue()).thenReturn(Flux.<MailQueue.MailQueueItem>fromIterable(items));
+        MailQueueFactory<MailQueue> queueFactory = mock(MailQueueFactory.class);
+        when(queueFactory.createQueue(MailQueueFactory.SPOOL)).thenReturn(queue);
+
+        testee.setMailQueueFactory(queueFactory);
+        testee.setMailProcessor(processor);
+        testee.configure(configuration);
+        testee.init();
+        testee.run();
+        return items;
+    }
+
+    private void awaitProcessing(List<FakeMailQueueItem> items) {
+        await().atMost(Duration.TEN_SECONDS)
+            .until(() -> items.stream().allMatch(FakeMailQueueItem::isDone));
+    }
+}
@@ -19,11 +19,19 @@
 package org.apache.james.mailetcontainer.lib;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Fail.fail;
 
 import java.io.ByteArrayInputStream;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.mail.MessagingException;
 
@@ -38,6 +46,9 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import com.github.fge.lambdas.Throwing;
+import com.google.common.collect.ImmutableMap;
+
 public abstract class AbstractStateCompositeProcessorTest {
 
     @Rule
@@ -134,6 +145,236 @@ public abstract class AbstractStateCompositeProcessorTest {
     }
     }
 
+    @Test
+    public void serviceShouldDeferMailsWhenProcessorIsSaturated() throws Exception {
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingProcessor processor = new RecordingProcessor(ImmutableMap.of(
+            "slow", mail -> {
+                processing.countDown();
+                release.await();
+                mail.setState(Mail.GHOST);
+            }));
+        processor.configure(createConfig("<processor state=\"slow\" maxConcurrency=\"1\"/>"));
+        processor.init();
+
+        try {
+            CompletableFuture<Void> first = CompletableFuture.runAsync(Throwing.runnable(() ->
+                processor.service(MailImpl.builder().name("mail1").state("slow").build())).sneakyThrow());
+            processing.await(10, TimeUnit.SECONDS);
+
+            Mail mail2 = MailImpl.builder().name("mail2").state("slow").build();
+            assertThatThrownBy(() -> processor.service(mail2))
+                .isInstanceOfSatisfying(ProcessorSaturatedException.class, e -> assertThat(e.getDeferredMails()).containsExactly(mail2));
+            release.countDown();
+            first.get(10, TimeUnit.SECONDS);
+
+            assertThat(mail2.getState()).isEqualTo("slow");
+            assertThat(processor.servicedMails).containsExactly("mail1:slow");
+        } finally {
+            release.countDown();
+            processor.dispose();
+        }
+    }
+
+    @Test
+    public void serviceShouldAcceptMailsAgainOnceProcessorIsNotSaturated() throws Exception {
+        RecordingProcessor processor = new RecordingProcessor(ImmutableMap.of(
+            "slow", mail -> mail.setState(Mail.GHOST)));
+        processor.configure(createConfig("<processor state=\"slow\" maxConcurrency=\"1\"/>"));
+        processor.init();
+
+        try {
+            processor.service(MailImpl.builder().name("mail1").state("slow").build());
+            processor.service(MailImpl.builder().name("mail2").state("slow").build());
+
+            assertThat(processor.servicedMails).containsExactly("mail1:slow", "mail2:slow");
+        } finally {
+            processor.dispose();
+        }
+    }
+
+    @Test
+    public void serviceShouldReleasePermitWhenProcessorFails() throws Exception {
+        RecordingProcessor processor = new RecordingProcessor(ImmutableMap.of(
+            "slow", mail -> {
+                throw new MessagingException("mock exception");
+            }));
+        processor.configure(createConfig("<processor state=\"slow\" maxConcurrency=\"1\"/>"));
+        processor.init();
+
+        try {
+            assertThatThrownBy(() -> processor.service(MailImpl.builder().name("mail1").state("slow").build()))
+                .isInstanceOf(MessagingException.class);
+            assertThatThrownBy(() -> processor.service(MailImpl.builder().name("mail2").state("slow").build()))
+                .isInstanceOf(MessagingException.class)
+                .isNotInstanceOf(ProcessorSaturatedException.class);
+        } finally {
+            processor.dispose();
+        }
+    }
+
+    @Test
+    public void serviceShouldBeReentrantWhenAMailComesBackToItsProcessor() throws Exception {
+        AtomicBoolean visited = new AtomicBoolean(false);
+        RecordingProcessor processor = new RecordingProcessor();
+        processor.register("slow", mail -> {
+            if (visited.getAndSet(true)) {
+                mail.setState(Mail.GHOST);
+                return;
+            }
+            mail.setState("other");
+            processor.service(mail);
+        });
+        processor.register("other", mail -> {
+            mail.setState("slow");
+            processor.service(mail);
+        });
+        processor.configure(createConfig("<processor state=\"slow\" maxConcurrency=\"1\"/><processor state=\"other\"/>"));
+        processor.init();
+
+        try {
+            processor.service(MailImpl.builder().name("mail1").state("slow").build());
+
+            assertThat(processor.servicedMails).containsExactly("mail1:slow", "mail1:other", "mail1:slow");
+        } finally {
+            processor.dispose();
+        }
+    }
+
+    @Test
+    public void serviceShouldKeepThePermitOfAnOuterProcessorWhileANestedOneServicesTheMail() throws Exception {
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingProcessor processor = new RecordingProcessor();
+        processor.register("outer", mail -> {
+            mail.setState("inner");
+            processor.service(mail);
+        });
+        processor.register("inner", mail -> {
+            processing.countDown();
+            release.await();
+            mail.setState(Mail.GHOST);
+        });
+        processor.configure(createConfig("<processor state=\"outer\" maxConcurrency=\"1\"/><processor state=\"inner\"/>"));
+        processor.init();
+
+        try {
+            CompletableFuture<Void> first = CompletableFuture.runAsync(Throwing.runnable(() ->
+                processor.service(MailImpl.builder().name("mail1").state("outer").build())).sneakyThrow());
+            processing.await(10, TimeUnit.SECONDS);
+
+            assertThatThrownBy(() -> processor.service(MailImpl.builder().name("mail2").state("outer").build()))
+                .isInstanceOf(ProcessorSaturatedException.class);
+            release.countDown();
+            first.get(10, TimeUnit.SECONDS);
+
+            assertThat(processor.servicedMails).containsExactly("mail1:outer", "mail1:inner");
+        } finally {
+            release.countDown();
+            processor.dispose();
+        }
+    }
+
+    @Test
+    public void serviceShouldDeferMailsHandedOverToASaturatedProcessorInTheirNewState() throws Exception {
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean nestedCallReturned = new AtomicBoolean(false);
+        RecordingProcessor processor = new RecordingProcessor();
+        processor.register("outer", mail -> {
+            mail.setState("inner");
+            processor.service(mail);
+            nestedCallReturned.set(true);
+        });
+        processor.register("inner", mail -> {
+            processing.countDown();
+            release.await();
+            mail.setState(Mail.GHOST);
+        });
+        processor.configure(createConfig("<processor state=\"outer\"/><processor state=\"inner\" maxConcurrency=\"1\"/>"));
+        processor.init();
+
+        try {
+            CompletableFuture<Void> first = CompletableFuture.runAsync(Throwing.runnable(() ->
+                processor.service(MailImpl.builder().name("mail1").state("inner").build())).sneakyThrow());
+            processing.await(10, TimeUnit.SECONDS);
+
+            Mail mail2 = MailImpl.builder().name("mail2").state("outer").build();
+            assertThatThrownBy(() -> processor.service(mail2))
+                .isInstanceOfSatisfying(ProcessorSaturatedException.class, e -> assertThat(e.getDeferredMails()).containsExactly(mail2));
+            release.countDown();
+            first.get(10, TimeUnit.SECONDS);
+
+            assertThat(mail2.getState()).isEqualTo("inner");
+            assertThat(nestedCallReturned).isTrue();
+        } finally {
+            release.countDown();
+            processor.dispose();
+        }
+    }
+
+    @Test
+    public void initShouldThrowWhenNegativeMaxConcurrency() throws Exception {
+        RecordingProcessor processor = new RecordingProcessor();
+        processor.configure(createConfig("<processor state=\"slow\" maxConcurrency=\"-1\"/>"));
+
+        assertThatThrownBy(processor::init)
+            .isInstanceOf(ConfigurationException.class);
+    }
+
+    @FunctionalInterface
+    private interface MailHandler {
+        void handle(Mail mail) throws Exception;
+    }
+
+    /**
+     * Services mails with the registered handlers, and records the serviced mails.
+     * A root and an error processor are always configured.
+     */
+    private static class RecordingProcessor extends AbstractStateCompositeProcessor {
+        private final Map<String, MailHandler> handlers = new ConcurrentHashMap<>();
+        private final List<String> servicedMails = new CopyOnWriteArrayList<>();
+
+        RecordingProcessor() {
+        }
+
+        RecordingProcessor(Map<String, MailHandler> handlers) {
+            this.handlers.putAll(handlers);
+        }
+
+        void register(String state, MailHandler handler) {
+            handlers.put(state, handler);
+        }
+
+        @Override
+        protected MailProcessor createMailProcessor(String state, HierarchicalConfiguration config) {
+            return mail -> {
+                servicedMails.add(mail.getName() + ":" + state);
+                try {
+                    handlers.getOrDefault(state, ghost -> ghost.setState(Mail.GHOST)).handle(mail);
+                } catch (MessagingException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new MessagingException("Error while servicing " + mail.getName(), e);
+                }
+            };
+        }
+    }
+
+    private HierarchicalConfiguration createConfig(String processors) throws ConfigurationException {
+        String configuration = "<?xml version=\"1.0\"?>" +
+            "<processors>" +
+            "<processor state=\"root\"/>" +
+            "<processor state=\"error\"/>" +
+            processors +
+            "</processors>";
+
+        DefaultConfigurationBuilder builder = new DefaultConfigurationBuilder();
+        builder.load(new ByteArrayInputStream(configuration.getBytes()));
+        return builder;
+    }
+
     private HierarchicalConfiguration createConfig(List<String> states) throws ConfigurationException {
 
     StringBuilder sb = new StringBuilder();
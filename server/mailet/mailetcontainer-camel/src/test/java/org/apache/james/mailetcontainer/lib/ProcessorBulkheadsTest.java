@@ -0,0 +1,104 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.mailetcontainer.lib;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProcessorBulkheadsTest {
+    private static final String BOUNDED = "bounded";
+    private static final String UNBOUNDED = "unbounded";
+
+    private ProcessorBulkheads testee;
+
+    @Before
+    public void setUp() {
+        testee = new ProcessorBulkheads();
+        testee.bound(BOUNDED, 1);
+    }
+
+    @Test
+    public void boundShouldThrowWhenNonPositiveMaxConcurrency() {
+        assertThatThrownBy(() -> testee.bound(BOUNDED, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void tryEnterShouldAlwaysSucceedForUnboundedProcessors() {
+        assertThat(testee.tryEnter(UNBOUNDED)).isTrue();
+        assertThat(testee.tryEnter(UNBOUNDED)).isTrue();
+    }
+
+    @Test
+    public void tryEnterShouldTakeAPermit() {
+        assertThat(testee.tryEnter(BOUNDED)).isTrue();
+
+        assertThat(testee.availablePermits(BOUNDED)).isEqualTo(0);
+    }
+
+    @Test
+    public void tryEnterShouldFailWhenAnotherThreadHoldsTheLastPermit() throws Exception {
+        CompletableFuture.runAsync(() -> testee.tryEnter(BOUNDED)).get();
+
+        assertThat(testee.tryEnter(BOUNDED)).isFalse();
+    }
+
+    @Test
+    public void tryEnterShouldBeReentrant() {
+        testee.tryEnter(BOUNDED);
+
+        assertThat(testee.tryEnter(BOUNDED)).isTrue();
+        assertThat(testee.availablePermits(BOUNDED)).isEqualTo(0);
+    }
+
+    @Test
+    public void leaveShouldKeepThePermitWhileTheProcessorIsStillEntered() {
+        testee.tryEnter(BOUNDED);
+        testee.tryEnter(BOUNDED);
+
+        testee.leave(BOUNDED);
+
+        assertThat(testee.availablePermits(BOUNDED)).isEqualTo(0);
+    }
+
+    @Test
+    public void leaveShouldReleaseThePermitWhenLeavingTheOutermostEntry() {
+        testee.tryEnter(BOUNDED);
+        testee.tryEnter(BOUNDED);
+
+        testee.leave(BOUNDED);
+        testee.leave(BOUNDED);
+
+        assertThat(testee.availablePermits(BOUNDED)).isEqualTo(1);
+    }
+
+    @Test
+    public void leaveShouldAllowAnotherThreadToEnter() throws Exception {
+        testee.tryEnter(BOUNDED);
+        testee.leave(BOUNDED);
+
+        assertThat(CompletableFuture.supplyAsync(() -> testee.tryEnter(BOUNDED)).get()).isTrue();
+    }
+}
@@ -32,6 +32,7 @@ import org.apache.james.transport.mailets.delivery.SimpleMailStore;
 import org.apache.james.user.api.UsersRepository;
 import org.apache.mailet.Mail;
 import org.apache.mailet.base.GenericMailet;
+import org.apache.mailet.base.MailetUtil;
 
 /**
  * Receives a Mail from the Queue and takes care of delivery of the
@@ -40,10 +41,25 @@ import org.apache.mailet.base.GenericMailet;
  * This mailet is a composition of RecipientRewriteTable, SieveMailet 
  * and MailboxManager configured to mimic the old "LocalDelivery"
  * James 2.3 behavior.
+ *
+ * When 'singleInstanceStorage' is true, mails sent to several local recipients are parsed and
+ * stored once, then shared with the mailboxes of the other recipients. Defaults to false.
+ *
+ * 'concurrency' sets the maximum count of recipients a mail is concurrently delivered to. Defaults to 1,
+ * delivering recipients sequentially.
+ *
+ * <pre>
+ * &lt;mailet match="RecipientIsLocal" class="LocalDelivery"&gt;
+ *    &lt;singleInstanceStorage&gt; <i>true</i> &lt;/singleInstanceStorage&gt;
+ *    &lt;concurrency&gt; <i>8</i> &lt;/concurrency&gt;
+ * &lt;/mailet&gt;
+ * </pre>
  */
 public class LocalDelivery extends GenericMailet {
 
     public static final String LOCAL_DELIVERED_MAILS_METRIC_NAME = "localDeliveredMails";
+    public static final String SINGLE_INSTANCE_STORAGE_PARAMETER = "singleInstanceStorage";
+    public static final String CONCURRENCY_PARAMETER = "concurrency";
     private final UsersRepository usersRepository;
     private final MailboxManager mailboxManager;
     private final MetricFactory metricFactory;
@@ -77,6 +93,9 @@ public class LocalDelivery extends GenericMailet {
                 .metric(metricFactory.generate(LOCAL_DELIVERED_MAILS_METRIC_NAME))
                 .build())
             .consume(getInitParameter("consume", true))
+            .singleInstanceStorage(getInitParameter(SINGLE_INSTANCE_STORAGE_PARAMETER, false))
+            .concurrency(MailetUtil.getInitParameterAsStrictlyPositiveInteger(getInitParameter(CONCURRENCY_PARAMETER), MailDispatcher.Builder.SEQUENTIAL))
+            .metricFactory(metricFactory)
             .mailetContext(getMailetContext())
             .build();
     }
@@ -26,6 +26,8 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.james.core.MailAddress;
 import org.apache.james.mailbox.model.MailboxConstants;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.NoopMetricFactory;
 import org.apache.james.sieverepository.api.SieveRepository;
 import org.apache.james.transport.mailets.jsieve.ResourceLocator;
 import org.apache.james.transport.mailets.jsieve.delivery.SieveExecutor;
@@ -33,24 +35,35 @@ import org.apache.james.transport.mailets.jsieve.delivery.SievePoster;
 import org.apache.james.user.api.UsersRepository;
 import org.apache.mailet.Mail;
 import org.apache.mailet.base.GenericMailet;
+import org.apache.mailet.base.MailetUtil;
 
 /**
  * Execute Sieve scripts for incoming emails, and set the result of the execution as attributes of the mail
+ *
+ * <p>Parsed scripts are kept in memory until the active script of the user changes. The optional
+ * <b>scriptCacheSize</b> parameter bounds the count of parsed scripts kept (default 10000).</p>
  */
 public class Sieve extends GenericMailet {
+    public static final String SCRIPT_CACHE_SIZE_PARAMETER = "scriptCacheSize";
 
     private final UsersRepository usersRepository;
     private final ResourceLocator resourceLocator;
+    private final MetricFactory metricFactory;
     private SieveExecutor sieveExecutor;
 
     @Inject
-    public Sieve(UsersRepository usersRepository, SieveRepository sieveRepository) throws MessagingException {
-        this(usersRepository, new ResourceLocator(sieveRepository, usersRepository));
+    public Sieve(UsersRepository usersRepository, SieveRepository sieveRepository, MetricFactory metricFactory) throws MessagingException {
+        this(usersRepository, new ResourceLocator(sieveRepository, usersRepository), metricFactory);
     }
 
     public Sieve(UsersRepository usersRepository, ResourceLocator resourceLocator) throws MessagingException {
+        this(usersRepository, resourceLocator, new NoopMetricFactory());
+    }
+
+    public Sieve(UsersRepository usersRepository, ResourceLocator resourceLocator, MetricFactory metricFactory) throws MessagingException {
         this.usersRepository = usersRepository;
         this.resourceLocator = resourceLocator;
+        this.metricFactory = metricFactory;
     }
 
     @Override
@@ -66,6 +79,8 @@ public class Sieve extends GenericMailet {
             .mailetContext(getMailetContext())
             .log(log)
             .sievePoster(new SievePoster(usersRepository, MailboxConstants.INBOX))
+            .metricFactory(metricFactory)
+            .scriptCacheSize(MailetUtil.getInitParameterAsStrictlyPositiveInteger(getInitParameter(SCRIPT_CACHE_SIZE_PARAMETER), SieveExecutor.DEFAULT_SCRIPT_CACHE_SIZE))
             .build();
     }
 
@@ -28,7 +28,12 @@ import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 
 import org.apache.james.core.MailAddress;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.NoopMetricFactory;
+import org.apache.james.metrics.api.TimeMetric;
 import org.apache.james.server.core.MailImpl;
+import org.apache.james.server.core.MimeMessageCopyOnWriteProxy;
 import org.apache.mailet.Mail;
 import org.apache.mailet.MailetContext;
 import org.apache.mailet.PerRecipientHeaders.Header;
@@ -36,13 +41,22 @@ import org.apache.mailet.base.RFC2822Headers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.fge.lambdas.Throwing;
+import com.github.steveash.guavate.Guavate;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 public class MailDispatcher {
     private static final Logger LOGGER = LoggerFactory.getLogger(MailDispatcher.class);
     public static final String[] NO_HEADERS = {};
+    public static final String FAN_OUT_METRIC_NAME = "localDeliveryFanOut";
+    public static final String DISPATCH_TIME_METRIC_NAME = "localDeliveryDispatchTime";
+    public static final String RECIPIENT_DELIVERY_TIME_METRIC_NAME = "localDeliveryRecipientTime";
 
     public static Builder builder() {
         return new Builder();
@@ -50,8 +64,13 @@ public class MailDispatcher {
 
     public static class Builder {
         public static final boolean CONSUME = true;
+        public static final boolean SINGLE_INSTANCE_STORAGE = false;
+        public static final int SEQUENTIAL = 1;
         private MailStore mailStore;
         private Optional<Boolean> consume = Optional.empty();
+        private Optional<Boolean> singleInstanceStorage = Optional.empty();
+        private Optional<Integer> concurrency = Optional.empty();
+        private Optional<MetricFactory> metricFactory = Optional.empty();
         private MailetContext mailetContext;
 
         public Builder consume(boolean consume) {
@@ -59,6 +78,30 @@ public class MailDispatcher {
             return this;
         }
 
+        /**
+         * When enabled, the content of a mail is stored once and shared between the recipients
+         * without specific headers.
+         */
+        public Builder singleInstanceStorage(boolean singleInstanceStorage) {
+            this.singleInstanceStorage = Optional.of(singleInstanceStorage);
+            return this;
+        }
+
+        /**
+         * Maximum count of recipients a mail is concurrently stored for. Recipients are
+         * handled sequentially by default.
+         */
+        public Builder concurrency(int concurrency) {
+            Preconditions.checkArgument(concurrency > 0, "'concurrency' needs to be strictly positive");
+            this.concurrency = Optional.of(concurrency);
+            return this;
+        }
+
+        public Builder metricFactory(MetricFactory metricFactory) {
+            this.metricFactory = Optional.of(metricFactory);
+            return this;
+        }
+
         public Builder mailStore(MailStore mailStore) {
             this.mailStore = mailStore;
             return this;
@@ -72,18 +115,28 @@ public class MailDispatcher {
         public MailDispatcher build() {
             Preconditions.checkNotNull(mailStore);
             Preconditions.checkNotNull(mailetContext);
-            return new MailDispatcher(mailStore, consume.orElse(CONSUME), mailetContext);
+            return new MailDispatcher(mailStore, consume.orElse(CONSUME), singleInstanceStorage.orElse(SINGLE_INSTANCE_STORAGE),
+                concurrency.orElse(SEQUENTIAL), metricFactory.orElseGet(NoopMetricFactory::new), mailetContext);
         }
 
     }
 
     private final MailStore mailStore;
     private final boolean consume;
+    private final boolean singleInstanceStorage;
+    private final int concurrency;
+    private final MetricFactory metricFactory;
+    private final Metric fanOutMetric;
     private final MailetContext mailetContext;
 
-    private MailDispatcher(MailStore mailStore, boolean consume, MailetContext mailetContext) {
+    private MailDispatcher(MailStore mailStore, boolean consume, boolean singleInstanceStorage, int concurrency,
+                           MetricFactory metricFactory, MailetContext mailetContext) {
         this.mailStore = mailStore;
         this.consume = consume;
+        this.singleInstanceStorage = singleInstanceStorage;
+        this.concurrency = concurrency;
+        this.metricFactory = metricFactory;
+        this.fanOutMetric = metricFactory.generate(FAN_OUT_METRIC_NAME);
         this.mailetContext = mailetContext;
     }
 
@@ -118,19 +171,27 @@ public class MailDispatcher {
         // This only works because there is a placeholder inserted by MimeMessageWrapper
         message.setHeader(RFC2822Headers.RETURN_PATH, mail.getMaybeSender().asPrettyString());
 
-        List<MailAddress> errors = deliver(mail, message);
-
-        return errors;
+        fanOutMetric.add(mail.getRecipients().size());
+        TimeMetric timeMetric = metricFactory.timer(DISPATCH_TIME_METRIC_NAME);
+        try {
+            if (concurrency == Builder.SEQUENTIAL) {
+                return deliver(mail, message);
+            }
+            return deliverConcurrently(mail);
+        } finally {
+            timeMetric.stopAndPublish();
+        }
     }
 
     private List<MailAddress> deliver(Mail mail, MimeMessage message) {
         List<MailAddress> errors = new ArrayList<>();
+        MailStore sharedContentMailStore = sharedContentMailStore();
         for (MailAddress recipient : mail.getRecipients()) {
             try {
                 Map<String, List<String>> savedHeaders = saveHeaders(mail, recipient);
 
                 addSpecificHeadersForRecipient(mail, message, recipient);
-                mailStore.storeMail(recipient, mail);
+                storeMail(selectMailStore(mail, recipient, sharedContentMailStore), recipient, mail);
                 
                 restoreHeaders(mail.getMessage(), savedHeaders);
             } catch (Exception ex) {
@@ -141,6 +202,97 @@ public class MailDispatcher {
         return errors;
     }
 
+    /**
+     * Recipients with specific headers are stored from their own copy of the message, so that
+     * the headers of the shared message are never modified while being read by other deliveries.
+     *
+     * When content is shared, the first recipient sharing it is stored before the others so that
+     * they can reference its stored content.
+     */
+    private List<MailAddress> deliverConcurrently(Mail mail) {
+        MailStore sharedContentMailStore = sharedContentMailStore();
+        ImmutableList<MailAddress> recipients = ImmutableList.copyOf(mail.getRecipients());
+        Optional<MailAddress> firstSharingRecipient = firstSharingRecipient(mail, recipients);
+
+        return Flux.fromIterable(firstSharingRecipient.map(ImmutableList::of).orElse(ImmutableList.of()))
+            .concatMap(recipient -> storeMailReactive(sharedContentMailStore, recipient, mail))
+            .concatWith(Flux.fromIterable(recipients)
+                .filter(recipient -> !firstSharingRecipient.filter(recipient::equals).isPresent())
+                .flatMap(recipient -> storeMailReactive(sharedContentMailStore, recipient, mail), concurrency))
+            .collect(Guavate.toImmutableList())
+            .block();
+    }
+
+    private Optional<MailAddress> firstSharingRecipient(Mail mail, List<MailAddress> recipients) {
+        if (!singleInstanceStorage) {
+            return Optional.empty();
+        }
+        return recipients.stream()
+            .filter(recipient -> !hasSpecificHeaders(mail, recipient))
+            .findFirst();
+    }
+
+    /**
+     * Emits the recipient only when storing the mail for it failed.
+     */
+    private Mono<MailAddress> storeMailReactive(MailStore sharedContentMailStore, MailAddress recipient, Mail mail) {
+        MailStore targetMailStore = selectMailStore(mail, recipient, sharedContentMailStore);
+        return Mono.fromRunnable(Throwing.runnable(() -> storeMailWithSpecificHeaders(targetMailStore, recipient, mail)).sneakyThrow())
+            .subscribeOn(Schedulers.elastic())
+            .then(Mono.<MailAddress>empty())
+            .onErrorResume(e -> {
+                LOGGER.error("Error while storing mail.", e);
+                return Mono.just(recipient);
+            });
+    }
+
+    private void storeMail(MailStore targetMailStore, MailAddress recipient, Mail mail) throws MessagingException {
+        TimeMetric timeMetric = metricFactory.timer(RECIPIENT_DELIVERY_TIME_METRIC_NAME);
+        try {
+            targetMailStore.storeMail(recipient, mail);
+        } finally {
+            timeMetric.stopAndPublish();
+        }
+    }
+
+    private void storeMailWithSpecificHeaders(MailStore targetMailStore, MailAddress recipient, Mail mail) throws MessagingException {
+        if (!hasSpecificHeaders(mail, recipient)) {
+            storeMail(targetMailStore, recipient, mail);
+            return;
+        }
+        MailImpl recipientMail = MailImpl.builder()
+            .name(mail.getName())
+            .sender(mail.getMaybeSender())
+            .addRecipient(recipient)
+            .mimeMessage(new MimeMessageCopyOnWriteProxy(mail.getMessage()))
+            .addAttributes(mail.attributes().collect(Guavate.toImmutableList()))
+            .build();
+        try {
+            addSpecificHeadersForRecipient(mail, recipientMail.getMessage(), recipient);
+            storeMail(targetMailStore, recipient, recipientMail);
+        } finally {
+            recipientMail.dispose();
+        }
+    }
+
+    private boolean hasSpecificHeaders(Mail mail, MailAddress recipient) {
+        return !mail.getPerRecipientSpecificHeaders().getHeadersForRecipient(recipient).isEmpty();
+    }
+
+    private MailStore sharedContentMailStore() {
+        if (singleInstanceStorage) {
+            return mailStore.sharingContent();
+        }
+        return mailStore;
+    }
+
+    private MailStore selectMailStore(Mail mail, MailAddress recipient, MailStore sharedContentMailStore) {
+        if (hasSpecificHeaders(mail, recipient)) {
+            return mailStore;
+        }
+        return sharedContentMailStore;
+    }
+
     private Map<String, List<String>> saveHeaders(Mail mail, MailAddress recipient) throws MessagingException {
         ImmutableMap.Builder<String, List<String>> backup = ImmutableMap.builder();
         Collection<String> headersToSave = mail.getPerRecipientSpecificHeaders().getHeaderNamesForRecipient(recipient);
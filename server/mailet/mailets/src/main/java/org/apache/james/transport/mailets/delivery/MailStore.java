@@ -28,4 +28,15 @@ public interface MailStore {
     String DELIVERY_PATH_PREFIX = "DeliveryPath_";
 
     void storeMail(MailAddress recipient, Mail mail) throws MessagingException;
+
+    /**
+     * Returns a {@link MailStore} dedicated to the delivery of a single mail whose content is the same for
+     * several recipients. Implementations can store that content once and reference it for the following
+     * recipients.
+     *
+     * The default implementation stores the content for each recipient.
+     */
+    default MailStore sharingContent() {
+        return this;
+    }
 }
@@ -19,17 +19,21 @@
 
 package org.apache.james.transport.mailets.delivery;
 
+import java.util.List;
+
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 
 import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.exception.BadCredentialsException;
 import org.apache.james.mailbox.exception.MailboxException;
 import org.apache.james.mailbox.exception.MailboxExistsException;
 import org.apache.james.mailbox.model.ComposedMessageId;
 import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.server.core.MimeMessageInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,6 +54,16 @@ public class MailboxAppender {
         return append(mail, user, useSlashAsSeparator(folder, session), session);
     }
 
+    /**
+     * Copies a message previously appended for another user, referencing its stored content
+     * instead of parsing and storing it again.
+     */
+    public ComposedMessageId copy(ComposedMessageId source, String sourceUser, String user, String folder) throws MessagingException {
+        MailboxSession sourceSession = createMailboxSession(sourceUser);
+        MailboxSession session = createMailboxSession(user);
+        return copy(source, sourceSession, user, useSlashAsSeparator(folder, session), session);
+    }
+
     private String useSlashAsSeparator(String urlPath, MailboxSession session) throws MessagingException {
         String destination = urlPath.replace('/', session.getPathDelimiter());
         if (Strings.isNullOrEmpty(destination)) {
@@ -73,6 +87,39 @@ public class MailboxAppender {
         }
     }
 
+    private ComposedMessageId copy(ComposedMessageId source, MailboxSession sourceSession, String user, String folder, MailboxSession session) throws MessagingException {
+        mailboxManager.startProcessingRequest(sourceSession);
+        mailboxManager.startProcessingRequest(session);
+        try {
+            MailboxPath mailboxPath = MailboxPath.forUser(user, folder);
+            return copyMessageToMailbox(source, sourceSession, session, mailboxPath);
+        } catch (MailboxException e) {
+            throw new MessagingException("Unable to access mailbox.", e);
+        } finally {
+            try {
+                closeProcessing(session);
+            } finally {
+                closeProcessing(sourceSession);
+            }
+        }
+    }
+
+    private ComposedMessageId copyMessageToMailbox(ComposedMessageId source, MailboxSession sourceSession, MailboxSession session, MailboxPath path) throws MailboxException, MessagingException {
+        createMailboxIfNotExist(session, path);
+        final MessageManager mailbox = mailboxManager.getMailbox(path, session);
+        if (mailbox == null) {
+            throw new MessagingException("Mailbox " + path + " for user " + session.getUser().asString() + " was not found on this server.");
+        }
+        List<MessageRange> copiedRanges = mailboxManager.copyMessages(MessageRange.one(source.getUid()),
+            source.getMailboxId(), sourceSession,
+            mailbox.getId(), session);
+        MessageUid uid = copiedRanges.stream()
+            .findFirst()
+            .map(MessageRange::getUidFrom)
+            .orElseThrow(() -> new MessagingException("Message " + source.getMessageId().serialize() + " could not be copied to " + path));
+        return new ComposedMessageId(mailbox.getId(), source.getMessageId(), uid);
+    }
+
     private ComposedMessageId appendMessageToMailbox(MimeMessage mail, MailboxSession session, MailboxPath path) throws MailboxException, MessagingException {
         createMailboxIfNotExist(session, path);
         final MessageManager mailbox = mailboxManager.getMailbox(path, session);
@@ -19,6 +19,8 @@
 
 package org.apache.james.transport.mailets.delivery;
 
+import java.util.Optional;
+
 import javax.mail.MessagingException;
 
 import org.apache.james.core.MailAddress;
@@ -89,6 +91,36 @@ public class SimpleMailStore implements MailStore {
         this.folder = folder;
     }
 
+    private class SharedContentMailStore implements MailStore {
+        private volatile Optional<StoredMessage> storedMessage = Optional.empty();
+
+        @Override
+        public void storeMail(MailAddress recipient, Mail mail) throws MessagingException {
+            String username = computeUsername(recipient);
+
+            String locatedFolder = locateFolder(username, mail);
+            ComposedMessageId composedMessageId;
+            if (storedMessage.isPresent()) {
+                composedMessageId = mailboxAppender.copy(storedMessage.get().composedMessageId, storedMessage.get().username, username, locatedFolder);
+            } else {
+                composedMessageId = mailboxAppender.append(mail.getMessage(), username, locatedFolder);
+                storedMessage = Optional.of(new StoredMessage(username, composedMessageId));
+            }
+
+            delivered(recipient, mail, locatedFolder, composedMessageId);
+        }
+    }
+
+    private static class StoredMessage {
+        private final String username;
+        private final ComposedMessageId composedMessageId;
+
+        private StoredMessage(String username, ComposedMessageId composedMessageId) {
+            this.username = username;
+            this.composedMessageId = composedMessageId;
+        }
+    }
+
     @Override
     public void storeMail(MailAddress recipient, Mail mail) throws MessagingException {
         String username = computeUsername(recipient);
@@ -96,6 +128,15 @@ public class SimpleMailStore implements MailStore {
         String locatedFolder = locateFolder(username, mail);
         ComposedMessageId composedMessageId = mailboxAppender.append(mail.getMessage(), username, locatedFolder);
 
+        delivered(recipient, mail, locatedFolder, composedMessageId);
+    }
+
+    @Override
+    public MailStore sharingContent() {
+        return new SharedContentMailStore();
+    }
+
+    private void delivered(MailAddress recipient, Mail mail, String locatedFolder, ComposedMessageId composedMessageId) {
         metric.increment();
         LOGGER.info("Local delivered mail {} successfully from {} to {} in folder {} with composedMessageId {}", mail.getName(),
             mail.getMaybeSender().asString(), recipient.asPrettyString(), locatedFolder, composedMessageId);
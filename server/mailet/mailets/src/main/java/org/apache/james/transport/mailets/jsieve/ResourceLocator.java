@@ -24,17 +24,32 @@ import java.time.ZonedDateTime;
 import org.apache.james.core.MailAddress;
 import org.apache.james.core.User;
 import org.apache.james.sieverepository.api.SieveRepository;
+import org.apache.james.sieverepository.api.exception.ScriptNotFoundException;
+import org.apache.james.sieverepository.api.exception.StorageException;
 import org.apache.james.user.api.UsersRepository;
 import org.apache.james.user.api.UsersRepositoryException;
 
 public class ResourceLocator {
 
+    @FunctionalInterface
+    public interface ScriptContentSupplier {
+        InputStream get() throws ScriptNotFoundException, StorageException;
+    }
+
+    /**
+     * The script content is only read when requested, allowing callers holding an already parsed version
+     * of the script activated at {@link #getScriptActivationDate()} to skip reading it.
+     */
     public static class UserSieveInformation {
-        private ZonedDateTime scriptActivationDate;
-        private ZonedDateTime scriptInterpretationDate;
-        private InputStream scriptContent;
+        private final ZonedDateTime scriptActivationDate;
+        private final ZonedDateTime scriptInterpretationDate;
+        private final ScriptContentSupplier scriptContent;
 
         public UserSieveInformation(ZonedDateTime scriptActivationDate, ZonedDateTime scriptInterpretationDate, InputStream scriptContent) {
+            this(scriptActivationDate, scriptInterpretationDate, () -> scriptContent);
+        }
+
+        public UserSieveInformation(ZonedDateTime scriptActivationDate, ZonedDateTime scriptInterpretationDate, ScriptContentSupplier scriptContent) {
             this.scriptActivationDate = scriptActivationDate;
             this.scriptInterpretationDate = scriptInterpretationDate;
             this.scriptContent = scriptContent;
@@ -48,8 +63,8 @@ public class ResourceLocator {
             return scriptInterpretationDate;
         }
 
-        public InputStream getScriptContent() {
-            return scriptContent;
+        public InputStream getScriptContent() throws ScriptNotFoundException, StorageException {
+            return scriptContent.get();
         }
     }
 
@@ -63,7 +78,7 @@ public class ResourceLocator {
 
     public UserSieveInformation get(MailAddress mailAddress) throws Exception {
         User username = retrieveUsername(mailAddress);
-        return new UserSieveInformation(sieveRepository.getActivationDateForActiveScript(username), ZonedDateTime.now(), sieveRepository.getActive(username));
+        return new UserSieveInformation(sieveRepository.getActivationDateForActiveScript(username), ZonedDateTime.now(), () -> sieveRepository.getActive(username));
     }
 
     private User retrieveUsername(MailAddress mailAddress) {
@@ -21,12 +21,18 @@
 package org.apache.james.transport.mailets.jsieve.delivery;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Objects;
 
 import javax.mail.MessagingException;
 
 import org.apache.commons.logging.Log;
 import org.apache.james.core.MailAddress;
+import org.apache.james.metrics.api.Metric;
+import org.apache.james.metrics.api.MetricFactory;
+import org.apache.james.metrics.api.NoopMetricFactory;
 import org.apache.james.sieverepository.api.exception.ScriptNotFoundException;
+import org.apache.james.sieverepository.api.exception.StorageException;
 import org.apache.james.transport.mailets.jsieve.ActionDispatcher;
 import org.apache.james.transport.mailets.jsieve.ResourceLocator;
 import org.apache.james.transport.mailets.jsieve.SieveMailAdapter;
@@ -34,6 +40,7 @@ import org.apache.jsieve.ConfigurationManager;
 import org.apache.jsieve.SieveConfigurationException;
 import org.apache.jsieve.SieveFactory;
 import org.apache.jsieve.exception.SieveException;
+import org.apache.jsieve.parser.generated.Node;
 import org.apache.jsieve.parser.generated.ParseException;
 import org.apache.jsieve.parser.generated.TokenMgrError;
 import org.apache.mailet.Mail;
@@ -41,11 +48,17 @@ import org.apache.mailet.MailetContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 
 public class SieveExecutor {
     private static final Logger LOGGER = LoggerFactory.getLogger(SieveExecutor.class);
+    public static final int DEFAULT_SCRIPT_CACHE_SIZE = 10000;
+    public static final String SCRIPT_CACHE_HIT_METRIC_NAME = "sieveScriptCacheHit";
+    public static final String SCRIPT_CACHE_MISS_METRIC_NAME = "sieveScriptCacheMiss";
 
     public static Builder builder() {
         return new Builder();
@@ -56,6 +69,8 @@ public class SieveExecutor {
         private SievePoster sievePoster;
         private ResourceLocator resourceLocator;
         private Log log;
+        private MetricFactory metricFactory = new NoopMetricFactory();
+        private int scriptCacheSize = DEFAULT_SCRIPT_CACHE_SIZE;
 
         public Builder sievePoster(SievePoster sievePoster) {
             this.sievePoster = sievePoster;
@@ -77,12 +92,57 @@ public class SieveExecutor {
             return this;
         }
 
+        public Builder metricFactory(MetricFactory metricFactory) {
+            this.metricFactory = metricFactory;
+            return this;
+        }
+
+        /**
+         * Maximum count of parsed scripts kept in memory. 0 disables caching.
+         */
+        public Builder scriptCacheSize(int scriptCacheSize) {
+            Preconditions.checkArgument(scriptCacheSize >= 0, "'scriptCacheSize' can not be negative");
+            this.scriptCacheSize = scriptCacheSize;
+            return this;
+        }
+
         public SieveExecutor build() throws MessagingException {
             Preconditions.checkNotNull(mailetContext);
             Preconditions.checkNotNull(resourceLocator);
             Preconditions.checkNotNull(log);
             Preconditions.checkNotNull(sievePoster);
-            return new SieveExecutor(mailetContext, sievePoster, resourceLocator, log);
+            Preconditions.checkNotNull(metricFactory);
+            return new SieveExecutor(mailetContext, sievePoster, resourceLocator, log, metricFactory, scriptCacheSize);
+        }
+    }
+
+    /**
+     * A parsed script is identified by its owner and its activation date: activating or overriding the active
+     * script changes the activation date, thus older parsed versions are never served again.
+     */
+    private static class ScriptKey {
+        private final MailAddress recipient;
+        private final Instant activationDate;
+
+        private ScriptKey(MailAddress recipient, Instant activationDate) {
+            this.recipient = recipient;
+            this.activationDate = activationDate;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof ScriptKey) {
+                ScriptKey that = (ScriptKey) o;
+
+                return Objects.equals(this.recipient, that.recipient)
+                    && Objects.equals(this.activationDate, that.activationDate);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(recipient, activationDate);
         }
     }
 
@@ -91,14 +151,27 @@ public class SieveExecutor {
     private final ResourceLocator resourceLocator;
     private final SieveFactory factory;
     private final ActionDispatcher actionDispatcher;
+    private final Cache<ScriptKey, Node> parsedScripts;
+    private final Metric scriptCacheHit;
+    private final Metric scriptCacheMiss;
 
     public SieveExecutor(MailetContext mailetContext, SievePoster sievePoster,
                          ResourceLocator resourceLocator, Log log) throws MessagingException {
+        this(mailetContext, sievePoster, resourceLocator, log, new NoopMetricFactory(), DEFAULT_SCRIPT_CACHE_SIZE);
+    }
+
+    public SieveExecutor(MailetContext mailetContext, SievePoster sievePoster,
+                         ResourceLocator resourceLocator, Log log, MetricFactory metricFactory, int scriptCacheSize) throws MessagingException {
         this.mailetContext = mailetContext;
         this.sievePoster = sievePoster;
         this.resourceLocator = resourceLocator;
         factory = createFactory(log);
         this.actionDispatcher = new ActionDispatcher();
+        this.parsedScripts = CacheBuilder.newBuilder()
+            .maximumSize(scriptCacheSize)
+            .build();
+        this.scriptCacheHit = metricFactory.generate(SCRIPT_CACHE_HIT_METRIC_NAME);
+        this.scriptCacheMiss = metricFactory.generate(SCRIPT_CACHE_MISS_METRIC_NAME);
     }
 
     private SieveFactory createFactory(Log log) throws MessagingException {
@@ -132,7 +205,7 @@ public class SieveExecutor {
         }
     }
 
-    private void sieveMessageEvaluate(MailAddress recipient, Mail aMail, ResourceLocator.UserSieveInformation userSieveInformation) throws MessagingException, IOException {
+    private void sieveMessageEvaluate(MailAddress recipient, Mail aMail, ResourceLocator.UserSieveInformation userSieveInformation) throws MessagingException, IOException, ScriptNotFoundException, StorageException {
         try {
             SieveMailAdapter aMailAdapter = new SieveMailAdapter(aMail,
                 mailetContext, actionDispatcher, sievePoster, userSieveInformation.getScriptActivationDate(),
@@ -141,7 +214,7 @@ public class SieveExecutor {
                 // This logging operation is potentially costly
                 LOGGER.debug("Evaluating " + aMailAdapter.toString() + " against \"" + recipient.asPrettyString() + "\"");
             }
-            factory.evaluate(aMailAdapter, factory.parse(userSieveInformation.getScriptContent()));
+            factory.evaluate(aMailAdapter, parsedScript(recipient, userSieveInformation));
         } catch (SieveException | ParseException ex) {
             handleFailure(recipient, aMail, ex);
         } catch (TokenMgrError ex) {
@@ -149,6 +222,25 @@ public class SieveExecutor {
         }
     }
 
+    private Node parsedScript(MailAddress recipient, ResourceLocator.UserSieveInformation userSieveInformation) throws ScriptNotFoundException, StorageException, ParseException {
+        ScriptKey key = new ScriptKey(recipient, userSieveInformation.getScriptActivationDate().toInstant());
+        Node cachedScript = parsedScripts.getIfPresent(key);
+        if (cachedScript != null) {
+            scriptCacheHit.increment();
+            return cachedScript;
+        }
+        scriptCacheMiss.increment();
+        Node parsedScript = factory.parse(userSieveInformation.getScriptContent());
+        parsedScripts.put(key, parsedScript);
+        return parsedScript;
+    }
+
+    @VisibleForTesting
+    long cachedScriptCount() {
+        parsedScripts.cleanUp();
+        return parsedScripts.size();
+    }
+
     protected void handleFailure(MailAddress recipient, Mail aMail, Exception ex) throws MessagingException, IOException {
         mailetContext.sendMail(recipient, ImmutableList.of(recipient), SieveFailureMessageComposer.composeMessage(aMail, ex, recipient.toString()));
     }
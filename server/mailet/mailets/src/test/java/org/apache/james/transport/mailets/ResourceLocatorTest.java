@@ -20,7 +20,10 @@
 package org.apache.james.transport.mailets;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
@@ -54,10 +57,27 @@ public class ResourceLocatorTest {
 
     @Test(expected = ScriptNotFoundException.class)
     public void resourceLocatorImplShouldPropagateScriptNotFound() throws Exception {
+        when(sieveRepository.getActivationDateForActiveScript(USER)).thenThrow(new ScriptNotFoundException());
+        when(usersRepository.getUser(mailAddress)).thenReturn(RECEIVER_LOCALHOST);
+
+        resourceLocator.get(mailAddress);
+    }
+
+    @Test(expected = ScriptNotFoundException.class)
+    public void getScriptContentShouldPropagateScriptNotFound() throws Exception {
         when(sieveRepository.getActive(USER)).thenThrow(new ScriptNotFoundException());
         when(usersRepository.getUser(mailAddress)).thenReturn(RECEIVER_LOCALHOST);
 
+        resourceLocator.get(mailAddress).getScriptContent();
+    }
+
+    @Test
+    public void getShouldNotReadScriptContent() throws Exception {
+        when(usersRepository.getUser(mailAddress)).thenReturn(RECEIVER_LOCALHOST);
+
         resourceLocator.get(mailAddress);
+
+        verify(sieveRepository, never()).getActive(any());
     }
 
     @Test
@@ -20,11 +20,16 @@
 package org.apache.james.transport.mailets.delivery;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
@@ -45,8 +50,11 @@ import org.apache.mailet.base.test.FakeMailContext;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimaps;
 
 public class MailDispatcherTest {
     private static final String TEST_HEADER_NAME = "X-HEADER";
@@ -86,6 +94,57 @@ public class MailDispatcherTest {
         verifyNoMoreInteractions(mailStore);
     }
 
+    @Test
+    public void dispatchShouldStoreSharedContentWhenSingleInstanceStorage() throws Exception {
+        MailStore sharedContentMailStore = mock(MailStore.class);
+        when(mailStore.sharingContent()).thenReturn(sharedContentMailStore);
+        MailDispatcher testee = MailDispatcher.builder()
+            .mailetContext(fakeMailContext)
+            .mailStore(mailStore)
+            .consume(true)
+            .singleInstanceStorage(true)
+            .build();
+
+        FakeMail mail = FakeMail.builder()
+            .name("name")
+            .sender(MailAddressFixture.OTHER_AT_JAMES)
+            .recipients(MailAddressFixture.ANY_AT_JAMES, MailAddressFixture.ANY_AT_JAMES2)
+            .state("state")
+            .mimeMessage(MimeMessageUtil.defaultMimeMessage())
+            .build();
+        testee.dispatch(mail);
+
+        verify(sharedContentMailStore).storeMail(MailAddressFixture.ANY_AT_JAMES, mail);
+        verify(sharedContentMailStore).storeMail(MailAddressFixture.ANY_AT_JAMES2, mail);
+        verifyNoMoreInteractions(sharedContentMailStore);
+    }
+
+    @Test
+    public void dispatchShouldNotShareContentOfRecipientsWithSpecificHeaders() throws Exception {
+        MailStore sharedContentMailStore = mock(MailStore.class);
+        when(mailStore.sharingContent()).thenReturn(sharedContentMailStore);
+        MailDispatcher testee = MailDispatcher.builder()
+            .mailetContext(fakeMailContext)
+            .mailStore(mailStore)
+            .consume(true)
+            .singleInstanceStorage(true)
+            .build();
+
+        FakeMail mail = FakeMail.builder()
+            .name("name")
+            .sender(MailAddressFixture.OTHER_AT_JAMES)
+            .recipients(MailAddressFixture.ANY_AT_JAMES, MailAddressFixture.ANY_AT_JAMES2)
+            .state("state")
+            .mimeMessage(MimeMessageUtil.defaultMimeMessage())
+            .build();
+        mail.addSpecificHeaderForRecipient(TEST_HEADER_USER1, MailAddressFixture.ANY_AT_JAMES);
+        testee.dispatch(mail);
+
+        verify(mailStore).storeMail(MailAddressFixture.ANY_AT_JAMES, mail);
+        verify(sharedContentMailStore).storeMail(MailAddressFixture.ANY_AT_JAMES2, mail);
+        verifyNoMoreInteractions(sharedContentMailStore);
+    }
+
     @Test
     public void dispatchShouldConsumeMailIfSpecified() throws Exception {
         MailDispatcher testee = MailDispatcher.builder()
@@ -161,6 +220,120 @@ public class MailDispatcherTest {
             .contains("toto");
     }
 
+    @Test
+    public void concurrentDispatchShouldStoreMailForAllRecipients() throws Exception {
+        MailDispatcher testee = MailDispatcher.builder()
+            .mailetContext(fakeMailContext)
+            .mailStore(mailStore)
+            .consume(true)
+            .concurrency(4)
+            .build();
+
+        FakeMail mail = FakeMail.builder()
+            .name("name")
+            .sender(MailAddressFixture.OTHER_AT_JAMES)
+            .recipients(MailAddressFixture.ANY_AT_JAMES, MailAddressFixture.ANY_AT_JAMES2, MailAddressFixture.OTHER_AT_JAMES)
+            .state("state")
+            .mimeMessage(MimeMessageUtil.defaultMimeMessage())
+            .build();
+        testee.dispatch(mail);
+
+        verify(mailStore).storeMail(MailAddressFixture.ANY_AT_JAMES, mail);
+        verify(mailStore).storeMail(MailAddressFixture.ANY_AT_JAMES2, mail);
+        verify(mailStore).storeMail(MailAddressFixture.OTHER_AT_JAMES, mail);
+        verifyNoMoreInteractions(mailStore);
+    }
+
+    @Test
+    public void concurrentDispatchShouldSendFailedRecipientsToErrorProcessor() throws Exception {
+        MailDispatcher testee = MailDispatcher.builder()
+            .mailetContext(fakeMailContext)
+            .mailStore(mailStore)
+            .consume(true)
+            .concurrency(4)
+            .build();
+        doThrow(new MessagingException())
+            .when(mailStore)
+            .storeMail(eq(MailAddressFixture.ANY_AT_JAMES2), any(Mail.class));
+
+        FakeMail mail = FakeMail.builder()
+            .name("name")
+            .sender(MailAddressFixture.OTHER_AT_JAMES)
+            .mimeMessage(MimeMessageUtil.defaultMimeMessage())
+            .recipients(MailAddressFixture.ANY_AT_JAMES, MailAddressFixture.ANY_AT_JAMES2)
+            .state("state")
+            .build();
+        testee.dispatch(mail);
+
+        FakeMailContext.SentMail expected = FakeMailContext.sentMailBuilder()
+            .sender(MailAddressFixture.OTHER_AT_JAMES)
+            .recipient(MailAddressFixture.ANY_AT_JAMES2)
+            .fromMailet()
+            .state(Mail.ERROR).build();
+        assertThat(fakeMailContext.getSentMails()).containsOnly(expected);
+    }
+
+    @Test
+    public void concurrentDispatchShouldAddSpecificHeadersOnlyToTheirRecipient() throws Exception {
+        AccumulatorHeaderMailStore accumulatorTestHeaderMailStore = new AccumulatorHeaderMailStore(TEST_HEADER_NAME);
+        MailDispatcher testee = MailDispatcher.builder()
+            .mailetContext(fakeMailContext)
+            .mailStore(accumulatorTestHeaderMailStore)
+            .consume(false)
+            .concurrency(4)
+            .build();
+
+        FakeMail mail = FakeMail.builder()
+            .name("name")
+            .sender(MailAddressFixture.OTHER_AT_JAMES)
+            .recipients(MailAddressFixture.ANY_AT_JAMES, MailAddressFixture.ANY_AT_JAMES2)
+            .mimeMessage(MimeMessageUtil.defaultMimeMessage())
+            .state("state")
+            .build();
+        mail.addSpecificHeaderForRecipient(TEST_HEADER_USER1, MailAddressFixture.ANY_AT_JAMES);
+        testee.dispatch(mail);
+
+        assertThat(accumulatorTestHeaderMailStore.getHeaderValues(MailAddressFixture.ANY_AT_JAMES))
+            .containsOnly(new String[]{VALUE_FOR_USER_1});
+        assertThat(accumulatorTestHeaderMailStore.getHeaderValues(MailAddressFixture.ANY_AT_JAMES2))
+            .isEmpty();
+        assertThat(mail.getMessage().getHeader(TEST_HEADER_NAME))
+            .isNull();
+    }
+
+    @Test
+    public void concurrentDispatchShouldStoreFirstSharedRecipientBeforeOthers() throws Exception {
+        MailStore sharedContentMailStore = mock(MailStore.class);
+        when(mailStore.sharingContent()).thenReturn(sharedContentMailStore);
+        MailDispatcher testee = MailDispatcher.builder()
+            .mailetContext(fakeMailContext)
+            .mailStore(mailStore)
+            .consume(true)
+            .singleInstanceStorage(true)
+            .concurrency(4)
+            .build();
+
+        FakeMail mail = FakeMail.builder()
+            .name("name")
+            .sender(MailAddressFixture.OTHER_AT_JAMES)
+            .recipients(MailAddressFixture.ANY_AT_JAMES, MailAddressFixture.ANY_AT_JAMES2, MailAddressFixture.OTHER_AT_JAMES)
+            .state("state")
+            .mimeMessage(MimeMessageUtil.defaultMimeMessage())
+            .build();
+        testee.dispatch(mail);
+
+        InOrder inOrder = inOrder(sharedContentMailStore);
+        inOrder.verify(sharedContentMailStore).storeMail(MailAddressFixture.ANY_AT_JAMES, mail);
+        inOrder.verify(sharedContentMailStore, times(2)).storeMail(any(MailAddress.class), eq(mail));
+        verifyNoMoreInteractions(sharedContentMailStore);
+    }
+
+    @Test
+    public void concurrencyShouldBeStrictlyPositive() {
+        assertThatThrownBy(() -> MailDispatcher.builder().concurrency(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     public void dispatchShouldUpdateReturnPath() throws Exception {
         MailDispatcher testee = MailDispatcher.builder()
@@ -331,12 +504,12 @@ public class MailDispatcherTest {
     }
 
     public static class AccumulatorHeaderMailStore implements MailStore {
-        private final ArrayListMultimap<MailAddress, String[]> headerValues;
+        private final ListMultimap<MailAddress, String[]> headerValues;
         private final String headerName;
 
         public AccumulatorHeaderMailStore(String headerName) {
             this.headerName = headerName;
-            this.headerValues = ArrayListMultimap.create();
+            this.headerValues = Multimaps.synchronizedListMultimap(ArrayListMultimap.create());
         }
 
         @Override
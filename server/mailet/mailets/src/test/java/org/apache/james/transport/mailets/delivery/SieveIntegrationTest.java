@@ -25,6 +25,7 @@ import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeBodyPart;
@@ -938,6 +939,45 @@ public class SieveIntegrationTest {
         assertThat(fakeMailContext.getSentMails()).containsExactly(expectedSentMail);
     }
 
+    @Test
+    public void serviceShouldNotReadScriptAgainWhenActivationDateIsUnchanged() throws Exception {
+        AtomicInteger readCount = prepareCountingScript("org/apache/james/transport/mailets/delivery/keep.script", DATE_DEFAULT);
+
+        testee.service(createMail());
+        FakeMail mail = createMail();
+        testee.service(mail);
+
+        assertThat(readCount.get()).isEqualTo(1);
+        assertThat(mail.getAttribute(ATTRIBUTE_NAME)).contains(ATTRIBUTE_INBOX);
+    }
+
+    @Test
+    public void serviceShouldApplyNewScriptWhenActivationDateChanges() throws Exception {
+        AtomicInteger firstReadCount = prepareCountingScript("org/apache/james/transport/mailets/delivery/keep.script", DATE_DEFAULT);
+        testee.service(createMail());
+
+        AtomicInteger secondReadCount = prepareCountingScript("org/apache/james/transport/mailets/delivery/fileinto.script", DATE_NEW);
+        FakeMail mail = createMail();
+        testee.service(mail);
+
+        assertThat(firstReadCount.get()).isEqualTo(1);
+        assertThat(secondReadCount.get()).isEqualTo(1);
+        assertThat(mail.getAttribute(ATTRIBUTE_NAME)).contains(ATTRIBUTE_INBOX_ANY);
+    }
+
+    private AtomicInteger prepareCountingScript(String script, ZonedDateTime activationDate) throws Exception {
+        AtomicInteger readCount = new AtomicInteger();
+        when(usersRepository.supportVirtualHosting()).thenReturn(false);
+        when(usersRepository.getUser(new MailAddress(LOCAL_PART + "@domain.com"))).thenReturn(LOCAL_PART);
+        when(resourceLocator.get(new MailAddress(RECEIVER_DOMAIN_COM))).thenAnswer(invocation -> new ResourceLocator.UserSieveInformation(activationDate,
+            DATE_DEFAULT,
+            () -> {
+                readCount.incrementAndGet();
+                return ClassLoader.getSystemResourceAsStream(script);
+            }));
+        return readCount;
+    }
+
     private void prepareTestUsingScript(final String script) throws Exception {
         prepareTestUsingScriptAndDates(script, DATE_DEFAULT, DATE_DEFAULT);
     }
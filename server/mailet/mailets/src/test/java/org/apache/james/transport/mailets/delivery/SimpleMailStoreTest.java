@@ -22,6 +22,7 @@ package org.apache.james.transport.mailets.delivery;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,6 +30,10 @@ import javax.mail.internet.MimeMessage;
 
 import org.apache.james.core.MailAddress;
 import org.apache.james.core.builder.MimeMessageBuilder;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.inmemory.InMemoryId;
+import org.apache.james.mailbox.inmemory.InMemoryMessageId;
+import org.apache.james.mailbox.model.ComposedMessageId;
 import org.apache.james.metrics.api.Metric;
 import org.apache.james.user.api.UsersRepository;
 import org.apache.james.user.api.UsersRepositoryException;
@@ -101,4 +106,39 @@ public class SimpleMailStoreTest {
 
         verify(mailboxAppender).append(any(MimeMessage.class), eq(recipient.toString()), eq(FOLDER));
     }
+
+    @Test
+    public void sharingContentShouldAppendForFirstRecipient() throws Exception {
+        MailAddress recipient = MailAddressFixture.OTHER_AT_JAMES;
+        when(usersRepository.getUser(recipient)).thenReturn(recipient.asString());
+        FakeMail mail = FakeMail.builder()
+            .name("name")
+            .mimeMessage(mimeMessage)
+            .build();
+        testee.sharingContent().storeMail(recipient, mail);
+
+        verify(mailboxAppender).append(any(MimeMessage.class), eq(recipient.asString()), eq(FOLDER));
+        verify(mailboxAppender, never()).copy(any(), any(), any(), any());
+    }
+
+    @Test
+    public void sharingContentShouldCopyFirstStoredMessageForFollowingRecipients() throws Exception {
+        MailAddress recipient1 = MailAddressFixture.ANY_AT_JAMES;
+        MailAddress recipient2 = MailAddressFixture.OTHER_AT_JAMES;
+        when(usersRepository.getUser(recipient1)).thenReturn(recipient1.asString());
+        when(usersRepository.getUser(recipient2)).thenReturn(recipient2.asString());
+        ComposedMessageId composedMessageId = new ComposedMessageId(InMemoryId.of(1), InMemoryMessageId.of(2), MessageUid.of(3));
+        when(mailboxAppender.append(any(MimeMessage.class), eq(recipient1.asString()), eq(FOLDER))).thenReturn(composedMessageId);
+        FakeMail mail = FakeMail.builder()
+            .name("name")
+            .mimeMessage(mimeMessage)
+            .build();
+
+        MailStore sharedContentMailStore = testee.sharingContent();
+        sharedContentMailStore.storeMail(recipient1, mail);
+        sharedContentMailStore.storeMail(recipient2, mail);
+
+        verify(mailboxAppender).copy(composedMessageId, recipient1.asString(), recipient2.asString(), FOLDER);
+        verify(mailboxAppender, never()).append(any(MimeMessage.class), eq(recipient2.asString()), any());
+    }
 }
@@ -20,6 +20,7 @@
 package org.apache.james.vault;
 
 import java.io.InputStream;
+import java.time.ZonedDateTime;
 
 import javax.inject.Inject;
 import javax.mail.MessagingException;
@@ -33,11 +34,13 @@ import org.apache.james.mailrepository.api.MailRepositoryUrl;
 import org.apache.james.server.core.MimeMessageInputStream;
 import org.apache.james.util.streams.Iterators;
 import org.apache.james.vault.search.Query;
+import org.apache.mailet.Mail;
 import org.reactivestreams.Publisher;
 
 import com.github.fge.lambdas.Throwing;
 import com.google.common.base.Preconditions;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -124,6 +127,39 @@ public class MailRepositoryDeletedMessageVault implements DeletedMessageVault {
         }
     }
 
+    @Override
+    public Publisher<Void> deleteExpiredMessages(ZonedDateTime beginningOfRetentionPeriod) {
+        Preconditions.checkNotNull(beginningOfRetentionPeriod);
+
+        String userRepositoriesPrefix = configuration.urlPrefix.asString() + "/";
+
+        return Flux.fromStream(mailRepositoryStore.getUrls())
+            .filter(url -> url.asString().startsWith(userRepositoriesPrefix))
+            .publishOn(Schedulers.elastic())
+            .map(Throwing.function(mailRepositoryStore::select))
+            .concatMap(mailRepository -> deleteExpiredMessages(mailRepository, beginningOfRetentionPeriod))
+            .then();
+    }
+
+    private Flux<Void> deleteExpiredMessages(MailRepository mailRepository, ZonedDateTime beginningOfRetentionPeriod) {
+        try {
+            return Iterators.toFlux(mailRepository.list())
+                .map(Throwing.function(mailRepository::retrieve))
+                .filter(mail -> isExpired(mail, beginningOfRetentionPeriod))
+                .map(Mail::getName)
+                .map(MailKey::new)
+                .concatMap(mailKey -> Mono.fromRunnable(Throwing.runnable(() -> mailRepository.remove(mailKey))));
+        } catch (MessagingException e) {
+            return Flux.error(e);
+        }
+    }
+
+    private boolean isExpired(Mail mail, ZonedDateTime beginningOfRetentionPeriod) {
+        return mailConverter.fromMail(mail)
+            .getDeletionDate()
+            .isBefore(beginningOfRetentionPeriod);
+    }
+
     private MailRepository repositoryForUser(User user) {
         MailRepositoryUrl mailRepositoryUrl = configuration.urlPrefix.subUrl(user.asString());
 
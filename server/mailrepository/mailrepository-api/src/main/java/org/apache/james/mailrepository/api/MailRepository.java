@@ -20,7 +20,14 @@
 package org.apache.james.mailrepository.api;
 
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import javax.mail.MessagingException;
 
@@ -54,6 +61,28 @@ public interface MailRepository {
      */
     Iterator<MailKey> list() throws MessagingException;
 
+    /**
+     * List a page of keys, ordered by their string value.
+     *
+     * The last key of a page is the cursor to supply for getting the next page. As keys are compared by value, the
+     * cursor stays valid even when the mail it designates has been removed in the meantime.
+     *
+     * The default implementation reads all the keys. Implementations able to list keys in order should override it.
+     *
+     * @param after
+     *            when present, only the keys strictly greater than this one are returned
+     * @param limit
+     *            maximum count of keys returned
+     * @return the ordered keys of that page
+     */
+    default List<MailKey> list(Optional<MailKey> after, int limit) throws MessagingException {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(list(), Spliterator.ORDERED), false)
+            .filter(key -> after.map(cursor -> key.asString().compareTo(cursor.asString()) > 0).orElse(true))
+            .sorted(Comparator.comparing(MailKey::asString))
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
     /**
      * Retrieves a message given a key. At the moment, keys can be obtained from
      * list() in superinterface Store.Repository
@@ -26,6 +26,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.IntStream;
@@ -62,6 +63,7 @@ public interface MailRepositoryContract {
     Attribute TEST_ATTRIBUTE = Attribute.convertToAttribute("testAttribute", "testValue");
     MailKey MAIL_1 = new MailKey("mail1");
     MailKey MAIL_2 = new MailKey("mail2");
+    MailKey MAIL_3 = new MailKey("mail3");
     MailKey UNKNOWN_KEY = new MailKey("random");
 
     default MailImpl createMail(MailKey key) throws MessagingException {
@@ -270,6 +272,64 @@ public interface MailRepositoryContract {
         assertThat(testee.list()).isEmpty();
     }
 
+    @Test
+    default void listPageShouldReturnEmptyWhenNoMail() throws Exception {
+        MailRepository testee = retrieveRepository();
+
+        assertThat(testee.list(Optional.empty(), 10)).isEmpty();
+    }
+
+    @Test
+    default void listPageShouldReturnKeysOrderedByValue() throws Exception {
+        MailRepository testee = retrieveRepository();
+        testee.store(createMail(MAIL_2));
+        testee.store(createMail(MAIL_3));
+        testee.store(createMail(MAIL_1));
+
+        assertThat(testee.list(Optional.empty(), 10)).containsExactly(MAIL_1, MAIL_2, MAIL_3);
+    }
+
+    @Test
+    default void listPageShouldApplyLimit() throws Exception {
+        MailRepository testee = retrieveRepository();
+        testee.store(createMail(MAIL_1));
+        testee.store(createMail(MAIL_2));
+        testee.store(createMail(MAIL_3));
+
+        assertThat(testee.list(Optional.empty(), 2)).containsExactly(MAIL_1, MAIL_2);
+    }
+
+    @Test
+    default void listPageShouldReturnKeysAfterCursor() throws Exception {
+        MailRepository testee = retrieveRepository();
+        testee.store(createMail(MAIL_1));
+        testee.store(createMail(MAIL_2));
+        testee.store(createMail(MAIL_3));
+
+        assertThat(testee.list(Optional.of(MAIL_1), 10)).containsExactly(MAIL_2, MAIL_3);
+    }
+
+    @Test
+    default void listPageShouldAcceptRemovedCursor() throws Exception {
+        MailRepository testee = retrieveRepository();
+        testee.store(createMail(MAIL_1));
+        testee.store(createMail(MAIL_2));
+        testee.store(createMail(MAIL_3));
+
+        testee.remove(MAIL_2);
+
+        assertThat(testee.list(Optional.of(MAIL_2), 10)).containsExactly(MAIL_3);
+    }
+
+    @Test
+    default void listPageShouldReturnEmptyAfterLastKey() throws Exception {
+        MailRepository testee = retrieveRepository();
+        testee.store(createMail(MAIL_1));
+        testee.store(createMail(MAIL_2));
+
+        assertThat(testee.list(Optional.of(MAIL_2), 10)).isEmpty();
+    }
+
     @Test
     default void retrievingUnknownMailShouldReturnNull() throws Exception {
         MailRepository testee = retrieveRepository();
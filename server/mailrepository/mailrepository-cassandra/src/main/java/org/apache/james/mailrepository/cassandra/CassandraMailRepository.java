@@ -21,6 +21,8 @@ package org.apache.james.mailrepository.cassandra;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
 
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
@@ -81,6 +83,13 @@ public class CassandraMailRepository implements MailRepository {
             .iterator();
     }
 
+    @Override
+    public List<MailKey> list(Optional<MailKey> after, int limit) {
+        return keysDAO.list(url, after, limit)
+            .collectList()
+            .block();
+    }
+
     @Override
     public Mail retrieve(MailKey key) {
         return mailDAO.read(url, key)
@@ -22,12 +22,15 @@ package org.apache.james.mailrepository.cassandra;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.delete;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.gt;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
 import static org.apache.james.mailrepository.cassandra.MailRepositoryTable.KEYS_TABLE_NAME;
 import static org.apache.james.mailrepository.cassandra.MailRepositoryTable.MAIL_KEY;
 import static org.apache.james.mailrepository.cassandra.MailRepositoryTable.REPOSITORY_NAME;
 
+import java.util.Optional;
+
 import javax.inject.Inject;
 
 import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
@@ -35,18 +38,22 @@ import org.apache.james.backends.cassandra.utils.CassandraUtils;
 import org.apache.james.mailrepository.api.MailKey;
 import org.apache.james.mailrepository.api.MailRepositoryUrl;
 
+import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Session;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class CassandraMailRepositoryKeysDAO {
+    private static final String LIMIT = "limit";
 
     private final CassandraAsyncExecutor executor;
     private final CassandraUtils cassandraUtils;
     private final PreparedStatement insertKey;
     private final PreparedStatement deleteKey;
     private final PreparedStatement listKeys;
+    private final PreparedStatement listFirstKeys;
+    private final PreparedStatement listKeysAfter;
 
     @Inject
     public CassandraMailRepositoryKeysDAO(Session session, CassandraUtils cassandraUtils) {
@@ -56,6 +63,23 @@ public class CassandraMailRepositoryKeysDAO {
         this.insertKey = prepareInsert(session);
         this.deleteKey = prepareDelete(session);
         this.listKeys = prepareList(session);
+        this.listFirstKeys = prepareListFirst(session);
+        this.listKeysAfter = prepareListAfter(session);
+    }
+
+    private PreparedStatement prepareListFirst(Session session) {
+        return session.prepare(select(MAIL_KEY)
+            .from(KEYS_TABLE_NAME)
+            .where(eq(REPOSITORY_NAME, bindMarker(REPOSITORY_NAME)))
+            .limit(bindMarker(LIMIT)));
+    }
+
+    private PreparedStatement prepareListAfter(Session session) {
+        return session.prepare(select(MAIL_KEY)
+            .from(KEYS_TABLE_NAME)
+            .where(eq(REPOSITORY_NAME, bindMarker(REPOSITORY_NAME)))
+            .and(gt(MAIL_KEY, bindMarker(MAIL_KEY)))
+            .limit(bindMarker(LIMIT)));
     }
 
     private PreparedStatement prepareList(Session session) {
@@ -92,6 +116,19 @@ public class CassandraMailRepositoryKeysDAO {
             .map(row -> new MailKey(row.getString(MAIL_KEY)));
     }
 
+    public Flux<MailKey> list(MailRepositoryUrl url, Optional<MailKey> after, int limit) {
+        BoundStatement statement = after
+            .map(key -> listKeysAfter.bind()
+                .setString(MAIL_KEY, key.asString()))
+            .orElseGet(listFirstKeys::bind)
+            .setString(REPOSITORY_NAME, url.asString())
+            .setInt(LIMIT, limit);
+
+        return executor.execute(statement)
+            .flatMapMany(cassandraUtils::convertToFlux)
+            .map(row -> new MailKey(row.getString(MAIL_KEY)));
+    }
+
     public Mono<Boolean> remove(MailRepositoryUrl url, MailKey key) {
         return executor.executeReturnApplied(deleteKey.bind()
             .setString(REPOSITORY_NAME, url.asString())
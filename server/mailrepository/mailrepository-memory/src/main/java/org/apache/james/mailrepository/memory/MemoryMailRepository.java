@@ -20,8 +20,13 @@
 package org.apache.james.mailrepository.memory;
 
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
 
 import org.apache.james.mailrepository.api.MailKey;
 import org.apache.james.mailrepository.api.MailRepository;
@@ -29,10 +34,10 @@ import org.apache.mailet.Mail;
 
 public class MemoryMailRepository implements MailRepository {
 
-    private final ConcurrentHashMap<MailKey, Mail> mails;
+    private final ConcurrentSkipListMap<MailKey, Mail> mails;
 
     public MemoryMailRepository() {
-        mails = new ConcurrentHashMap<>();
+        mails = new ConcurrentSkipListMap<>(Comparator.comparing(MailKey::asString));
     }
 
     @Override
@@ -47,6 +52,18 @@ public class MemoryMailRepository implements MailRepository {
         return mails.keySet().iterator();
     }
 
+    @Override
+    public List<MailKey> list(Optional<MailKey> after, int limit) {
+        ConcurrentNavigableMap<MailKey, Mail> page = after
+            .map(key -> mails.tailMap(key, false))
+            .orElse(mails);
+
+        return page.keySet()
+            .stream()
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
     @Override
     public Mail retrieve(MailKey key) {
         return mails.get(key);
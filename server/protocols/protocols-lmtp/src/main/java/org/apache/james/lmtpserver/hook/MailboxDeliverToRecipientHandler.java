@@ -32,8 +32,11 @@ import org.apache.james.mailbox.MailboxManager;
 import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageManager;
 import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.ComposedMessageId;
 import org.apache.james.mailbox.model.MailboxId;
 import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.protocols.api.ProtocolSession.State;
 import org.apache.james.protocols.lmtp.hook.DeliverToRecipientHook;
 import org.apache.james.protocols.smtp.MailEnvelope;
 import org.apache.james.protocols.smtp.SMTPRetCode;
@@ -49,13 +52,29 @@ import org.slf4j.LoggerFactory;
 /**
  * {@link DeliverToRecipientHook} which deliver the message directly to the recipients mailbox.
  * 
+ * When <code>singleInstanceStorage</code> is configured to true, the message is parsed and stored for the first
+ * recipient, and then copied to the mailboxes of the following recipients of the same transaction.
  *
  */
 public class MailboxDeliverToRecipientHandler implements DeliverToRecipientHook {
     private static final Logger LOGGER = LoggerFactory.getLogger(MailboxDeliverToRecipientHandler.class);
+    private static final String STORED_MESSAGE = "MailboxDeliverToRecipientHandler.STORED_MESSAGE";
+
+    private static class StoredMessage {
+        private final MailEnvelope envelope;
+        private final String username;
+        private final ComposedMessageId composedMessageId;
+
+        private StoredMessage(MailEnvelope envelope, String username, ComposedMessageId composedMessageId) {
+            this.envelope = envelope;
+            this.username = username;
+            this.composedMessageId = composedMessageId;
+        }
+    }
   
     private UsersRepository users;
     private MailboxManager mailboxManager;
+    private boolean singleInstanceStorage;
 
     @Inject
     public final void setUsersRepository(UsersRepository users) {
@@ -82,11 +101,17 @@ public class MailboxDeliverToRecipientHandler implements DeliverToRecipientHook
                 Optional<MailboxId> mailboxId = mailboxManager.createMailbox(inbox, mailboxSession);
                 LOGGER.info("Provisioning INBOX. {} created.", mailboxId);
             }
-            mailboxManager.getMailbox(MailboxPath.inbox(mailboxSession), mailboxSession)
-                .appendMessage(MessageManager.AppendCommand.builder()
-                    .recent()
-                    .build(envelope.getMessageInputStream()),
+            MessageManager mailbox = mailboxManager.getMailbox(MailboxPath.inbox(mailboxSession), mailboxSession);
+            Optional<StoredMessage> storedMessage = retrieveStoredMessage(session, envelope);
+            if (storedMessage.isPresent()) {
+                copy(storedMessage.get(), mailbox, mailboxSession);
+            } else {
+                ComposedMessageId composedMessageId = mailbox.appendMessage(MessageManager.AppendCommand.builder()
+                        .recent()
+                        .build(envelope.getMessageInputStream()),
                     mailboxSession);
+                rememberStoredMessage(session, new StoredMessage(envelope, username, composedMessageId));
+            }
             mailboxManager.endProcessingRequest(mailboxSession);
             return HookResult.builder()
                 .hookReturnCode(HookReturnCode.ok())
@@ -102,9 +127,35 @@ public class MailboxDeliverToRecipientHandler implements DeliverToRecipientHook
         }
     }
 
+    private Optional<StoredMessage> retrieveStoredMessage(SMTPSession session, MailEnvelope envelope) {
+        if (!singleInstanceStorage) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable((StoredMessage) session.getAttachment(STORED_MESSAGE, State.Transaction))
+            .filter(storedMessage -> storedMessage.envelope == envelope);
+    }
+
+    private void rememberStoredMessage(SMTPSession session, StoredMessage storedMessage) {
+        if (singleInstanceStorage) {
+            session.setAttachment(STORED_MESSAGE, storedMessage, State.Transaction);
+        }
+    }
+
+    private void copy(StoredMessage storedMessage, MessageManager mailbox, MailboxSession mailboxSession) throws MailboxException {
+        MailboxSession sourceSession = mailboxManager.createSystemSession(storedMessage.username);
+        mailboxManager.startProcessingRequest(sourceSession);
+        try {
+            mailboxManager.copyMessages(MessageRange.one(storedMessage.composedMessageId.getUid()),
+                storedMessage.composedMessageId.getMailboxId(), sourceSession,
+                mailbox.getId(), mailboxSession);
+        } finally {
+            mailboxManager.endProcessingRequest(sourceSession);
+        }
+    }
+
     @Override
     public void init(Configuration config) throws ConfigurationException {
-
+        singleInstanceStorage = config.getBoolean("singleInstanceStorage", false);
     }
 
     @Override
@@ -0,0 +1,162 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.lmtpserver.hook;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.io.IOUtils;
+import org.apache.james.core.MailAddress;
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.inmemory.manager.InMemoryIntegrationResources;
+import org.apache.james.mailbox.model.FetchGroupImpl;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.MessageResult;
+import org.apache.james.protocols.smtp.MailEnvelope;
+import org.apache.james.protocols.smtp.MailEnvelopeImpl;
+import org.apache.james.protocols.smtp.SMTPSession;
+import org.apache.james.protocols.smtp.hook.HookResult;
+import org.apache.james.protocols.smtp.hook.HookReturnCode;
+import org.apache.james.protocols.smtp.utils.BaseFakeSMTPSession;
+import org.apache.james.user.api.UsersRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MailboxDeliverToRecipientHandlerTest {
+    private static final String BOB = "bob";
+    private static final String ALICE = "alice";
+    private static final String CONTENT = "Subject: test\r\n\r\nBody\r\n";
+    private static final String OTHER_CONTENT = "Subject: other\r\n\r\nOther body\r\n";
+
+    private static class TransactionSMTPSession extends BaseFakeSMTPSession {
+        private final Map<String, Object> transactionState = new HashMap<>();
+
+        @Override
+        public Object setAttachment(String key, Object value, State state) {
+            return transactionState.put(key, value);
+        }
+
+        @Override
+        public Object getAttachment(String key, State state) {
+            return transactionState.get(key);
+        }
+    }
+
+    private MailboxManager mailboxManager;
+    private MailboxDeliverToRecipientHandler testee;
+    private MailAddress bobAddress;
+    private MailAddress aliceAddress;
+    private SMTPSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mailboxManager = InMemoryIntegrationResources.defaultResources().getMailboxManager();
+        bobAddress = new MailAddress(BOB + "@domain.tld");
+        aliceAddress = new MailAddress(ALICE + "@domain.tld");
+
+        UsersRepository usersRepository = mock(UsersRepository.class);
+        when(usersRepository.getUser(bobAddress)).thenReturn(BOB);
+        when(usersRepository.getUser(aliceAddress)).thenReturn(ALICE);
+
+        testee = new MailboxDeliverToRecipientHandler();
+        testee.setUsersRepository(usersRepository);
+        testee.setMailboxManager(mailboxManager);
+        session = new TransactionSMTPSession();
+    }
+
+    @Test
+    void deliverShouldStoreTheMessageInTheInboxOfTheRecipient() throws Exception {
+        testee.init(new BaseConfiguration());
+
+        HookResult result = testee.deliver(session, bobAddress, envelope(CONTENT));
+
+        assertThat(result.getResult()).isEqualTo(HookReturnCode.ok());
+        assertThat(contentOf(inboxMessage(BOB))).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void deliverShouldStoreTheMessageForEachRecipientByDefault() throws Exception {
+        testee.init(new BaseConfiguration());
+        MailEnvelope envelope = envelope(CONTENT);
+
+        testee.deliver(session, bobAddress, envelope);
+        testee.deliver(session, aliceAddress, envelope);
+
+        assertThat(inboxMessage(ALICE).getMessageId()).isNotEqualTo(inboxMessage(BOB).getMessageId());
+    }
+
+    @Test
+    void deliverShouldCopyTheStoredMessageToTheFollowingRecipientsWhenSingleInstanceStorage() throws Exception {
+        testee.init(singleInstanceStorageConfiguration());
+        MailEnvelope envelope = envelope(CONTENT);
+
+        testee.deliver(session, bobAddress, envelope);
+        HookResult result = testee.deliver(session, aliceAddress, envelope);
+
+        MessageResult aliceMessage = inboxMessage(ALICE);
+        assertThat(result.getResult()).isEqualTo(HookReturnCode.ok());
+        assertThat(aliceMessage.getMessageId()).isEqualTo(inboxMessage(BOB).getMessageId());
+        assertThat(contentOf(aliceMessage)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void deliverShouldStoreTheMessageOfANewEnvelopeWhenSingleInstanceStorage() throws Exception {
+        testee.init(singleInstanceStorageConfiguration());
+
+        testee.deliver(session, bobAddress, envelope(CONTENT));
+        testee.deliver(session, aliceAddress, envelope(OTHER_CONTENT));
+
+        MessageResult aliceMessage = inboxMessage(ALICE);
+        assertThat(aliceMessage.getMessageId()).isNotEqualTo(inboxMessage(BOB).getMessageId());
+        assertThat(contentOf(aliceMessage)).isEqualTo(OTHER_CONTENT);
+    }
+
+    private BaseConfiguration singleInstanceStorageConfiguration() {
+        BaseConfiguration configuration = new BaseConfiguration();
+        configuration.addProperty("singleInstanceStorage", true);
+        return configuration;
+    }
+
+    private MailEnvelope envelope(String content) throws IOException {
+        MailEnvelopeImpl envelope = new MailEnvelopeImpl();
+        envelope.getMessageOutputStream().write(content.getBytes(StandardCharsets.UTF_8));
+        return envelope;
+    }
+
+    private MessageResult inboxMessage(String username) throws Exception {
+        MailboxSession mailboxSession = mailboxManager.createSystemSession(username);
+        return mailboxManager.getMailbox(MailboxPath.inbox(mailboxSession), mailboxSession)
+            .getMessages(MessageRange.all(), FetchGroupImpl.FULL_CONTENT, mailboxSession)
+            .next();
+    }
+
+    private String contentOf(MessageResult message) throws Exception {
+        return IOUtils.toString(message.getFullContent().getInputStream(), StandardCharsets.UTF_8);
+    }
+}
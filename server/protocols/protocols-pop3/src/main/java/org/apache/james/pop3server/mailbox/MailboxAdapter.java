@@ -20,7 +20,6 @@ package org.apache.james.pop3server.mailbox;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -33,14 +32,12 @@ import org.apache.james.mailbox.MailboxSession;
 import org.apache.james.mailbox.MessageManager;
 import org.apache.james.mailbox.MessageUid;
 import org.apache.james.mailbox.exception.MailboxException;
-import org.apache.james.mailbox.model.MessageRange;
 import org.apache.james.mailbox.model.MessageResult;
 import org.apache.james.mailbox.model.MessageResult.FetchGroup;
 import org.apache.james.protocols.pop3.mailbox.Mailbox;
 import org.apache.james.protocols.pop3.mailbox.MessageMetaData;
 
 import com.github.steveash.guavate.Guavate;
-import com.google.common.collect.ImmutableList;
 
 public class MailboxAdapter implements Mailbox {
 
@@ -77,7 +74,7 @@ public class MailboxAdapter implements Mailbox {
         }
     };
 
-    private static final FetchGroup METADATA_GROUP = new POP3FetchGroup() {
+    static final FetchGroup METADATA_GROUP = new POP3FetchGroup() {
 
         @Override
         public int content() {
@@ -89,11 +86,17 @@ public class MailboxAdapter implements Mailbox {
     private final MailboxSession session;
 
     private final MailboxManager mailboxManager;
+    private final MaildropSnapshots snapshots;
 
     public MailboxAdapter(MailboxManager mailboxManager, MessageManager manager, MailboxSession session) {
+        this(mailboxManager, manager, session, new MaildropSnapshots());
+    }
+
+    public MailboxAdapter(MailboxManager mailboxManager, MessageManager manager, MailboxSession session, MaildropSnapshots snapshots) {
         this.manager = manager;
         this.session = session;
         this.mailboxManager = mailboxManager;
+        this.snapshots = snapshots;
     }
 
     @Override
@@ -152,14 +155,7 @@ public class MailboxAdapter implements Mailbox {
     public List<MessageMetaData> getMessages() throws IOException {
         try {
             mailboxManager.startProcessingRequest(session);
-            Iterator<MessageResult> results = manager.getMessages(MessageRange.all(), METADATA_GROUP, session);
-            List<MessageMetaData> mList = new ArrayList<>();
-            while (results.hasNext()) {
-                MessageResult result = results.next();
-                MessageMetaData metaData = new MessageMetaData(String.valueOf(result.getUid().asLong()), result.getSize());
-                mList.add(metaData);
-            }
-            return ImmutableList.copyOf(mList);
+            return snapshots.getMessages(manager, session);
         } catch (MailboxException e) {
             throw new IOException("Unable to retrieve messages", e);
         } finally {
@@ -176,7 +172,9 @@ public class MailboxAdapter implements Mailbox {
         try {
             mailboxManager.startProcessingRequest(session);
             manager.delete(uidList, session);
+            snapshots.remove(manager.getId(), uidList);
         } catch (MailboxException e) {
+            snapshots.invalidate(manager.getId());
             String serializedUids = uidList
                 .stream()
                 .map(uid -> uid.toString())
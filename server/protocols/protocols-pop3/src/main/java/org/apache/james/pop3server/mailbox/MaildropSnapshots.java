@@ -0,0 +1,148 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.pop3server.mailbox;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.exception.MailboxException;
+import org.apache.james.mailbox.model.MailboxId;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.model.MessageResult;
+import org.apache.james.protocols.pop3.mailbox.MessageMetaData;
+
+import com.github.steveash.guavate.Guavate;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Keeps the last known maildrop listing (UID and size of each message) of the mailboxes accessed over POP3.
+ *
+ * A snapshot is validated against the mailbox metadata before being served: when the UIDVALIDITY did not change,
+ * only the messages appended since the snapshot was taken are listed. The snapshot is rebuilt from a full listing
+ * as soon as the resulting message count does not match the one of the mailbox, which happens when messages were
+ * expunged by another session.
+ */
+public class MaildropSnapshots {
+
+    public static final long DEFAULT_MAXIMUM_MESSAGE_COUNT = 500_000;
+
+    static class Snapshot {
+        private final long uidValidity;
+        private final MessageUid uidNext;
+        private final ImmutableList<MessageMetaData> messages;
+
+        Snapshot(long uidValidity, MessageUid uidNext, ImmutableList<MessageMetaData> messages) {
+            this.uidValidity = uidValidity;
+            this.uidNext = uidNext;
+            this.messages = messages;
+        }
+
+        Snapshot withAppended(List<MessageMetaData> appended, MessageUid uidNext) {
+            return new Snapshot(uidValidity, uidNext, ImmutableList.<MessageMetaData>builder()
+                .addAll(messages)
+                .addAll(appended)
+                .build());
+        }
+
+        Snapshot withRemoved(Set<String> removedUids) {
+            return new Snapshot(uidValidity, uidNext, messages.stream()
+                .filter(message -> !removedUids.contains(message.getUid()))
+                .collect(Guavate.toImmutableList()));
+        }
+    }
+
+    private final Cache<MailboxId, Snapshot> snapshots;
+
+    public MaildropSnapshots() {
+        this(DEFAULT_MAXIMUM_MESSAGE_COUNT);
+    }
+
+    public MaildropSnapshots(long maximumMessageCount) {
+        Preconditions.checkArgument(maximumMessageCount >= 0, "'maximumMessageCount' can not be negative");
+        this.snapshots = CacheBuilder.newBuilder()
+            .maximumWeight(maximumMessageCount)
+            .weigher((MailboxId mailboxId, Snapshot snapshot) -> snapshot.messages.size())
+            .build();
+    }
+
+    public List<MessageMetaData> getMessages(MessageManager manager, MailboxSession session) throws MailboxException {
+        MessageManager.MetaData metaData = manager.getMetaData(false, session, MessageManager.MetaData.FetchGroup.NO_UNSEEN);
+        Snapshot previous = snapshots.getIfPresent(manager.getId());
+        Snapshot current = refresh(previous, metaData, manager, session);
+        snapshots.put(manager.getId(), current);
+        return current.messages;
+    }
+
+    public void remove(MailboxId mailboxId, Collection<MessageUid> uids) {
+        Snapshot previous = snapshots.getIfPresent(mailboxId);
+        if (previous != null) {
+            ImmutableSet<String> removedUids = uids.stream()
+                .map(uid -> String.valueOf(uid.asLong()))
+                .collect(Guavate.toImmutableSet());
+            snapshots.put(mailboxId, previous.withRemoved(removedUids));
+        }
+    }
+
+    public void invalidate(MailboxId mailboxId) {
+        snapshots.invalidate(mailboxId);
+    }
+
+    @VisibleForTesting
+    long snapshotCount() {
+        return snapshots.size();
+    }
+
+    private Snapshot refresh(Snapshot previous, MessageManager.MetaData metaData, MessageManager manager, MailboxSession session) throws MailboxException {
+        if (previous == null || previous.uidValidity != metaData.getUidValidity()) {
+            return fullListing(metaData, manager, session);
+        }
+        if (previous.uidNext.equals(metaData.getUidNext()) && previous.messages.size() == metaData.getMessageCount()) {
+            return previous;
+        }
+        List<MessageMetaData> appended = list(MessageRange.from(previous.uidNext), manager, session);
+        if (previous.messages.size() + appended.size() != metaData.getMessageCount()) {
+            return fullListing(metaData, manager, session);
+        }
+        return previous.withAppended(appended, metaData.getUidNext());
+    }
+
+    private Snapshot fullListing(MessageManager.MetaData metaData, MessageManager manager, MailboxSession session) throws MailboxException {
+        return new Snapshot(metaData.getUidValidity(), metaData.getUidNext(), list(MessageRange.all(), manager, session));
+    }
+
+    private ImmutableList<MessageMetaData> list(MessageRange range, MessageManager manager, MailboxSession session) throws MailboxException {
+        Iterator<MessageResult> results = manager.getMessages(range, MailboxAdapter.METADATA_GROUP, session);
+        ImmutableList.Builder<MessageMetaData> messages = ImmutableList.builder();
+        while (results.hasNext()) {
+            MessageResult result = results.next();
+            messages.add(new MessageMetaData(String.valueOf(result.getUid().asLong()), result.getSize()));
+        }
+        return messages.build();
+    }
+}
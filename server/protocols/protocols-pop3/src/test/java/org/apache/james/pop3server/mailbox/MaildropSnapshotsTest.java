@@ -0,0 +1,137 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+package org.apache.james.pop3server.mailbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.james.mailbox.MailboxManager;
+import org.apache.james.mailbox.MailboxSession;
+import org.apache.james.mailbox.MessageManager;
+import org.apache.james.mailbox.MessageUid;
+import org.apache.james.mailbox.inmemory.manager.InMemoryIntegrationResources;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.protocols.pop3.mailbox.MessageMetaData;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class MaildropSnapshotsTest {
+    private static final String USER = "user@domain.tld";
+    private static final byte[] MESSAGE = "Subject: test\r\n\r\nbody\r\n".getBytes(StandardCharsets.UTF_8);
+
+    private MaildropSnapshots testee;
+    private MailboxSession session;
+    private MessageManager inbox;
+
+    @Before
+    public void setUp() throws Exception {
+        MailboxManager mailboxManager = InMemoryIntegrationResources.defaultResources().getMailboxManager();
+        session = mailboxManager.createSystemSession(USER);
+        MailboxPath path = MailboxPath.inbox(session);
+        mailboxManager.createMailbox(path, session);
+        inbox = mailboxManager.getMailbox(path, session);
+        testee = new MaildropSnapshots();
+    }
+
+    @Test
+    public void getMessagesShouldListAllMessages() throws Exception {
+        MessageUid uid1 = append();
+        MessageUid uid2 = append();
+
+        assertThat(testee.getMessages(inbox, session))
+            .extracting(MessageMetaData::getUid)
+            .containsExactly(String.valueOf(uid1.asLong()), String.valueOf(uid2.asLong()));
+    }
+
+    @Test
+    public void getMessagesShouldReportMessageSizes() throws Exception {
+        append();
+
+        assertThat(testee.getMessages(inbox, session))
+            .extracting(MessageMetaData::getSize)
+            .containsExactly((long) MESSAGE.length);
+    }
+
+    @Test
+    public void getMessagesShouldIncludeMessagesAppendedAfterTheSnapshot() throws Exception {
+        MessageUid uid1 = append();
+        testee.getMessages(inbox, session);
+
+        MessageUid uid2 = append();
+
+        assertThat(testee.getMessages(inbox, session))
+            .extracting(MessageMetaData::getUid)
+            .containsExactly(String.valueOf(uid1.asLong()), String.valueOf(uid2.asLong()));
+    }
+
+    @Test
+    public void getMessagesShouldNotIncludeMessagesExpungedByAnotherSession() throws Exception {
+        MessageUid uid1 = append();
+        MessageUid uid2 = append();
+        testee.getMessages(inbox, session);
+
+        inbox.delete(ImmutableList.of(uid1), session);
+        MessageUid uid3 = append();
+
+        assertThat(testee.getMessages(inbox, session))
+            .extracting(MessageMetaData::getUid)
+            .containsExactly(String.valueOf(uid2.asLong()), String.valueOf(uid3.asLong()));
+    }
+
+    @Test
+    public void removeShouldUpdateTheSnapshot() throws Exception {
+        MessageUid uid1 = append();
+        MessageUid uid2 = append();
+        testee.getMessages(inbox, session);
+
+        inbox.delete(ImmutableList.of(uid1), session);
+        testee.remove(inbox.getId(), ImmutableList.of(uid1));
+
+        assertThat(testee.getMessages(inbox, session))
+            .extracting(MessageMetaData::getUid)
+            .containsExactly(String.valueOf(uid2.asLong()));
+    }
+
+    @Test
+    public void getMessagesShouldKeepOneSnapshotPerMailbox() throws Exception {
+        append();
+
+        testee.getMessages(inbox, session);
+        testee.getMessages(inbox, session);
+
+        assertThat(testee.snapshotCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidateShouldDropTheSnapshot() throws Exception {
+        append();
+        testee.getMessages(inbox, session);
+
+        testee.invalidate(inbox.getId());
+
+        assertThat(testee.snapshotCount()).isEqualTo(0);
+    }
+
+    private MessageUid append() throws Exception {
+        return inbox.appendMessage(MessageManager.AppendCommand.builder().build(MESSAGE), session).getUid();
+    }
+}
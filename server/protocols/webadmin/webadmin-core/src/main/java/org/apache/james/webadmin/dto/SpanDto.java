@@ -0,0 +1,61 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.webadmin.dto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.james.metrics.api.tracing.SampledSpan;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.github.steveash.guavate.Guavate;
+
+@JsonPropertyOrder({"name", "offsetInMs", "durationInMs", "spans"})
+public class SpanDto {
+
+    private final SampledSpan span;
+
+    public SpanDto(SampledSpan span) {
+        this.span = span;
+    }
+
+    public String getName() {
+        return span.getName();
+    }
+
+    public long getOffsetInMs() {
+        return span.getOffset().toMillis();
+    }
+
+    /**
+     * Empty for spans that were still running when their trace ended.
+     */
+    public Optional<Long> getDurationInMs() {
+        return span.getDuration().map(Duration::toMillis);
+    }
+
+    public List<SpanDto> getSpans() {
+        return span.getChildren()
+            .stream()
+            .map(SpanDto::new)
+            .collect(Guavate.toImmutableList());
+    }
+}
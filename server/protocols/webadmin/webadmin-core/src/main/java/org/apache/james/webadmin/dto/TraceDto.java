@@ -0,0 +1,65 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.webadmin.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.apache.james.metrics.api.tracing.Trace;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.github.steveash.guavate.Guavate;
+
+@JsonPropertyOrder({"traceId", "name", "startDate", "durationInMs", "spanCount", "spans"})
+public class TraceDto {
+
+    private final Trace trace;
+
+    public TraceDto(Trace trace) {
+        this.trace = trace;
+    }
+
+    public String getTraceId() {
+        return trace.getTraceId();
+    }
+
+    public String getName() {
+        return trace.getName();
+    }
+
+    public Instant getStartDate() {
+        return trace.getStartDate();
+    }
+
+    public long getDurationInMs() {
+        return trace.getDuration().toMillis();
+    }
+
+    public int getSpanCount() {
+        return trace.getSpanCount();
+    }
+
+    public List<SpanDto> getSpans() {
+        return trace.getRoot().getChildren()
+            .stream()
+            .map(SpanDto::new)
+            .collect(Guavate.toImmutableList());
+    }
+}
@@ -0,0 +1,72 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.webadmin.routes;
+
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import org.apache.james.metrics.api.MetricsExporter;
+import org.apache.james.webadmin.Routes;
+import org.eclipse.jetty.http.HttpStatus;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import spark.Request;
+import spark.Response;
+import spark.Service;
+
+@Api(tags = "Metrics")
+@Path(MetricsRoutes.METRICS)
+@Produces(MetricsExporter.TEXT_FORMAT_CONTENT_TYPE)
+public class MetricsRoutes implements Routes {
+
+    public static final String METRICS = "/metrics";
+
+    private final MetricsExporter metricsExporter;
+
+    @Inject
+    public MetricsRoutes(MetricsExporter metricsExporter) {
+        this.metricsExporter = metricsExporter;
+    }
+
+    @Override
+    public String getBasePath() {
+        return METRICS;
+    }
+
+    @Override
+    public void define(Service service) {
+        service.get(METRICS, this::scrapeMetrics);
+    }
+
+    @GET
+    @ApiOperation(value = "Expose all metrics using the Prometheus text format")
+    @ApiResponses(value = {
+        @ApiResponse(code = HttpStatus.OK_200, message = "OK")
+    })
+    public Object scrapeMetrics(Request request, Response response) {
+        response.type(MetricsExporter.TEXT_FORMAT_CONTENT_TYPE);
+        return metricsExporter.exportAsText();
+    }
+}
@@ -0,0 +1,97 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.webadmin.routes;
+
+import javax.inject.Inject;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import org.apache.james.metrics.api.tracing.Tracer;
+import org.apache.james.webadmin.Constants;
+import org.apache.james.webadmin.Routes;
+import org.apache.james.webadmin.dto.TraceDto;
+import org.apache.james.webadmin.utils.JsonTransformer;
+import org.eclipse.jetty.http.HttpStatus;
+
+import com.github.steveash.guavate.Guavate;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import spark.Request;
+import spark.Response;
+import spark.Service;
+
+@Api(tags = "Tracing")
+@Path(TracingRoutes.BASE_PATH)
+@Produces("application/json")
+public class TracingRoutes implements Routes {
+
+    public static final String BASE_PATH = "/tracing";
+    public static final String SLOW_TRACES = BASE_PATH + "/slowTraces";
+
+    private final Tracer tracer;
+    private final JsonTransformer jsonTransformer;
+
+    @Inject
+    public TracingRoutes(Tracer tracer, JsonTransformer jsonTransformer) {
+        this.tracer = tracer;
+        this.jsonTransformer = jsonTransformer;
+    }
+
+    @Override
+    public String getBasePath() {
+        return BASE_PATH;
+    }
+
+    @Override
+    public void define(Service service) {
+        service.get(SLOW_TRACES, this::listSlowTraces, jsonTransformer);
+        service.delete(SLOW_TRACES, this::clearSlowTraces);
+    }
+
+    @GET
+    @Path("/slowTraces")
+    @ApiOperation(value = "List the recently sampled traces that exceeded the slow trace threshold, newest first")
+    @ApiResponses(value = {
+        @ApiResponse(code = HttpStatus.OK_200, message = "OK", response = TraceDto.class, responseContainer = "List")
+    })
+    public Object listSlowTraces(Request request, Response response) {
+        return tracer.getSlowTraces()
+            .stream()
+            .map(TraceDto::new)
+            .collect(Guavate.toImmutableList());
+    }
+
+    @DELETE
+    @Path("/slowTraces")
+    @ApiOperation(value = "Clear the recorded slow traces")
+    @ApiResponses(value = {
+        @ApiResponse(code = HttpStatus.NO_CONTENT_204, message = "OK")
+    })
+    public Object clearSlowTraces(Request request, Response response) {
+        tracer.clearSlowTraces();
+        response.status(HttpStatus.NO_CONTENT_204);
+        return Constants.EMPTY_BODY;
+    }
+}
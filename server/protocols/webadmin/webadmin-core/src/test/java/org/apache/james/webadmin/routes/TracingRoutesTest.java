@@ -0,0 +1,115 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.webadmin.routes;
+
+import static io.restassured.RestAssured.when;
+import static org.apache.james.webadmin.WebAdminServer.NO_CONFIGURATION;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Duration;
+
+import org.apache.james.metrics.api.tracing.Span;
+import org.apache.james.metrics.api.tracing.TraceContext;
+import org.apache.james.metrics.api.tracing.Tracer;
+import org.apache.james.metrics.api.tracing.TracingConfiguration;
+import org.apache.james.metrics.logger.DefaultMetricFactory;
+import org.apache.james.webadmin.WebAdminServer;
+import org.apache.james.webadmin.WebAdminUtils;
+import org.apache.james.webadmin.utils.JsonTransformer;
+import org.eclipse.jetty.http.HttpStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.restassured.RestAssured;
+
+public class TracingRoutesTest {
+
+    private WebAdminServer webAdminServer;
+    private Tracer tracer;
+
+    @Before
+    public void setUp() throws Exception {
+        tracer = new Tracer(TracingConfiguration.builder()
+            .enabled(true)
+            .samplingRatio(1)
+            .slowTraceThreshold(Duration.ZERO)
+            .build());
+        webAdminServer = WebAdminUtils.createWebAdminServer(
+            new DefaultMetricFactory(),
+            new TracingRoutes(tracer, new JsonTransformer()));
+
+        webAdminServer.configure(NO_CONFIGURATION);
+        webAdminServer.await();
+
+        RestAssured.requestSpecification = WebAdminUtils.buildRequestSpecification(webAdminServer)
+            .setBasePath(TracingRoutes.SLOW_TRACES)
+            .build();
+    }
+
+    @After
+    public void tearDown() {
+        webAdminServer.destroy();
+    }
+
+    @Test
+    public void getShouldReturnEmptyWhenNoTraces() {
+        when()
+            .get()
+        .then()
+            .statusCode(HttpStatus.OK_200)
+            .body(".", hasSize(0));
+    }
+
+    @Test
+    public void getShouldReturnSlowTracesWithTheirNestedSpans() {
+        try (Span root = tracer.startSpan("IMAP-FETCH")) {
+            try (Span mapper = TraceContext.childSpan("messageMapper:findInMailbox")) {
+                TraceContext.childSpan("cassandra:retrieveMessageIds").close();
+            }
+        }
+
+        when()
+            .get()
+        .then()
+            .statusCode(HttpStatus.OK_200)
+            .body(".", hasSize(1))
+            .body("[0].name", is("IMAP-FETCH"))
+            .body("[0].spanCount", is(3))
+            .body("[0].spans[0].name", is("messageMapper:findInMailbox"))
+            .body("[0].spans[0].spans[0].name", is("cassandra:retrieveMessageIds"));
+    }
+
+    @Test
+    public void deleteShouldClearSlowTraces() {
+        tracer.startSpan("IMAP-FETCH").close();
+
+        when()
+            .delete()
+        .then()
+            .statusCode(HttpStatus.NO_CONTENT_204);
+
+        when()
+            .get()
+        .then()
+            .body(".", hasSize(0));
+    }
+}
@@ -0,0 +1,144 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.webadmin.routes;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.RestAssured.when;
+import static io.restassured.RestAssured.with;
+import static org.apache.james.webadmin.WebAdminServer.NO_CONFIGURATION;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Optional;
+
+import javax.mail.Flags;
+import javax.mail.util.SharedByteArrayInputStream;
+
+import org.apache.james.backends.jpa.JpaTestCluster;
+import org.apache.james.blob.api.HashBlobId;
+import org.apache.james.blob.memory.MemoryBlobStore;
+import org.apache.james.mailbox.jpa.JPAMailboxFixture;
+import org.apache.james.mailbox.jpa.mail.JPAMapperProvider;
+import org.apache.james.mailbox.jpa.mail.model.openjpa.JPABlobContentStore;
+import org.apache.james.mailbox.jpa.mail.model.openjpa.JPAMailboxMessage;
+import org.apache.james.mailbox.jpa.mail.task.JPAMessageContentMigrationTask;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.model.MessageRange;
+import org.apache.james.mailbox.store.mail.MessageMapper;
+import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailbox;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailboxMessage;
+import org.apache.james.metrics.logger.DefaultMetricFactory;
+import org.apache.james.task.MemoryTaskManager;
+import org.apache.james.webadmin.WebAdminServer;
+import org.apache.james.webadmin.WebAdminUtils;
+import org.apache.james.webadmin.utils.JsonTransformer;
+import org.eclipse.jetty.http.HttpStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.restassured.RestAssured;
+
+public class JPAMessageContentMigrationRoutesTest {
+    private static final JpaTestCluster JPA_TEST_CLUSTER = JpaTestCluster.create(JPAMailboxFixture.MAILBOX_PERSISTANCE_CLASSES);
+    private static final String CONTENT = "Subject: test\r\n\r\nBody\r\n";
+    private static final int BODY_START = 17;
+    private static final int UID_VALIDITY = 42;
+
+    private WebAdminServer webAdminServer;
+    private MemoryTaskManager taskManager;
+    private JPAMapperProvider mapperProvider;
+    private SimpleMailbox mailbox;
+
+    @Before
+    public void setUp() throws Exception {
+        HashBlobId.Factory blobIdFactory = new HashBlobId.Factory();
+        JPABlobContentStore blobContentStore = new JPABlobContentStore(new MemoryBlobStore(blobIdFactory), blobIdFactory);
+        mapperProvider = new JPAMapperProvider(JPA_TEST_CLUSTER, Optional.of(blobContentStore));
+
+        mailbox = new SimpleMailbox(MailboxPath.forUser("benwa", "INBOX"), UID_VALIDITY);
+        mailbox.setMailboxId(mapperProvider.generateId());
+        mapperProvider.createMailboxMapper().save(mailbox);
+
+        taskManager = new MemoryTaskManager();
+        JsonTransformer jsonTransformer = new JsonTransformer();
+        webAdminServer = WebAdminUtils.createWebAdminServer(
+            new DefaultMetricFactory(),
+            new JPAMessageContentMigrationRoutes(JPA_TEST_CLUSTER.getEntityManagerFactory(), blobContentStore, taskManager, jsonTransformer),
+            new TasksRoutes(taskManager, jsonTransformer));
+        webAdminServer.configure(NO_CONFIGURATION);
+        webAdminServer.await();
+
+        RestAssured.requestSpecification = WebAdminUtils.buildRequestSpecification(webAdminServer)
+            .setBasePath(JPAMessageContentMigrationRoutes.BASE)
+            .build();
+    }
+
+    @After
+    public void tearDown() {
+        webAdminServer.destroy();
+        taskManager.stop();
+        JPA_TEST_CLUSTER.clear(JPAMailboxFixture.MAILBOX_TABLE_NAMES);
+    }
+
+    @Test
+    public void postShouldCreateANewTask() {
+        when()
+            .post()
+        .then()
+            .statusCode(HttpStatus.CREATED_201)
+            .header("Location", is(notNullValue()))
+            .body("taskId", is(notNullValue()));
+    }
+
+    @Test
+    public void createdTaskShouldMoveMessageContentToTheBlobStore() throws Exception {
+        new JPAMapperProvider(JPA_TEST_CLUSTER).createMessageMapper().add(mailbox, createMessage());
+
+        String taskId = with()
+            .post()
+            .jsonPath()
+            .get("taskId");
+
+        given()
+            .basePath(TasksRoutes.BASE)
+        .when()
+            .get(taskId + "/await")
+        .then()
+            .body("status", is("completed"))
+            .body("type", is(JPAMessageContentMigrationTask.JPA_MESSAGE_CONTENT_MIGRATION))
+            .body("additionalInformation.migratedMessageCount", is(1))
+            .body("additionalInformation.failedMessageCount", is(0));
+
+        JPAMailboxMessage message = (JPAMailboxMessage) mapperProvider.createMessageMapper()
+            .findInMailbox(mailbox, MessageRange.all(), MessageMapper.FetchType.Full, 1)
+            .next();
+        assertThat(message.isContentInBlobStore()).isTrue();
+    }
+
+    private SimpleMailboxMessage createMessage() {
+        return new SimpleMailboxMessage(mapperProvider.generateMessageId(), new Date(), CONTENT.length(), BODY_START,
+            new SharedByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)), new Flags(), new PropertyBuilder(), mailbox.getMailboxId());
+    }
+}
@@ -0,0 +1,140 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.webadmin.routes;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.RestAssured.when;
+import static io.restassured.RestAssured.with;
+import static org.apache.james.webadmin.WebAdminServer.NO_CONFIGURATION;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import javax.mail.Flags;
+import javax.mail.util.SharedByteArrayInputStream;
+
+import org.apache.james.backends.jpa.JpaTestCluster;
+import org.apache.james.backends.jpa.TransactionRunner;
+import org.apache.james.mailbox.jpa.JPAId;
+import org.apache.james.mailbox.jpa.JPAMailboxFixture;
+import org.apache.james.mailbox.jpa.mail.JPAMapperProvider;
+import org.apache.james.mailbox.jpa.mail.model.JPAMailboxCounter;
+import org.apache.james.mailbox.jpa.mail.task.RecomputeMailboxCountersTask;
+import org.apache.james.mailbox.model.MailboxPath;
+import org.apache.james.mailbox.store.mail.model.impl.PropertyBuilder;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailbox;
+import org.apache.james.mailbox.store.mail.model.impl.SimpleMailboxMessage;
+import org.apache.james.metrics.logger.DefaultMetricFactory;
+import org.apache.james.task.MemoryTaskManager;
+import org.apache.james.webadmin.WebAdminServer;
+import org.apache.james.webadmin.WebAdminUtils;
+import org.apache.james.webadmin.utils.JsonTransformer;
+import org.eclipse.jetty.http.HttpStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.restassured.RestAssured;
+
+public class RecomputeMailboxCountersRoutesTest {
+    private static final JpaTestCluster JPA_TEST_CLUSTER = JpaTestCluster.create(JPAMailboxFixture.MAILBOX_PERSISTANCE_CLASSES);
+    private static final String CONTENT = "Subject: test\r\n\r\nBody\r\n";
+    private static final int BODY_START = 17;
+    private static final int UID_VALIDITY = 42;
+
+    private WebAdminServer webAdminServer;
+    private MemoryTaskManager taskManager;
+    private TransactionRunner transactionRunner;
+    private SimpleMailbox mailbox;
+
+    @Before
+    public void setUp() throws Exception {
+        JPAMapperProvider mapperProvider = new JPAMapperProvider(JPA_TEST_CLUSTER);
+        transactionRunner = new TransactionRunner(JPA_TEST_CLUSTER.getEntityManagerFactory());
+
+        mailbox = new SimpleMailbox(MailboxPath.forUser("benwa", "INBOX"), UID_VALIDITY);
+        mailbox.setMailboxId(mapperProvider.generateId());
+        mapperProvider.createMailboxMapper().save(mailbox);
+        mapperProvider.createMessageMapper().add(mailbox, new SimpleMailboxMessage(mapperProvider.generateMessageId(), new Date(),
+            CONTENT.length(), BODY_START, new SharedByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)), new Flags(),
+            new PropertyBuilder(), mailbox.getMailboxId()));
+
+        taskManager = new MemoryTaskManager();
+        JsonTransformer jsonTransformer = new JsonTransformer();
+        webAdminServer = WebAdminUtils.createWebAdminServer(
+            new DefaultMetricFactory(),
+            new RecomputeMailboxCountersRoutes(JPA_TEST_CLUSTER.getEntityManagerFactory(), taskManager, jsonTransformer),
+            new TasksRoutes(taskManager, jsonTransformer));
+        webAdminServer.configure(NO_CONFIGURATION);
+        webAdminServer.await();
+
+        RestAssured.requestSpecification = WebAdminUtils.buildRequestSpecification(webAdminServer)
+            .setBasePath(RecomputeMailboxCountersRoutes.BASE)
+            .build();
+    }
+
+    @After
+    public void tearDown() {
+        webAdminServer.destroy();
+        taskManager.stop();
+        JPA_TEST_CLUSTER.clear(JPAMailboxFixture.MAILBOX_TABLE_NAMES);
+    }
+
+    @Test
+    public void postShouldCreateANewTask() {
+        when()
+            .post()
+        .then()
+            .statusCode(HttpStatus.CREATED_201)
+            .header("Location", is(notNullValue()))
+            .body("taskId", is(notNullValue()));
+    }
+
+    @Test
+    public void createdTaskShouldRepairTheCounters() {
+        transactionRunner.run(entityManager -> entityManager.find(JPAMailboxCounter.class, rawMailboxId()).setCounts(36, 12));
+
+        String taskId = with()
+            .post()
+            .jsonPath()
+            .get("taskId");
+
+        given()
+            .basePath(TasksRoutes.BASE)
+        .when()
+            .get(taskId + "/await")
+        .then()
+            .body("status", is("completed"))
+            .body("type", is(RecomputeMailboxCountersTask.RECOMPUTE_MAILBOX_COUNTERS))
+            .body("additionalInformation.processedMailboxCount", is(1))
+            .body("additionalInformation.failedMailboxCount", is(0));
+
+        JPAMailboxCounter counter = transactionRunner.runAndRetrieveResult(entityManager -> entityManager.find(JPAMailboxCounter.class, rawMailboxId()));
+        assertThat(counter.getMessageCount()).isEqualTo(1);
+        assertThat(counter.getUnseenCount()).isEqualTo(1);
+    }
+
+    private long rawMailboxId() {
+        return ((JPAId) mailbox.getMailboxId()).getRawId();
+    }
+}
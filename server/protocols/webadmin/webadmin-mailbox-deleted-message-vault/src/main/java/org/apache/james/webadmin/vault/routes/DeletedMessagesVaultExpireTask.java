@@ -0,0 +1,81 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.webadmin.vault.routes;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+import org.apache.james.task.Task;
+import org.apache.james.task.TaskExecutionDetails;
+import org.apache.james.vault.DeletedMessageVault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.Mono;
+
+class DeletedMessagesVaultExpireTask implements Task {
+
+    public static class AdditionalInformation implements TaskExecutionDetails.AdditionalInformation {
+        private final ZonedDateTime beginningOfRetentionPeriod;
+
+        AdditionalInformation(ZonedDateTime beginningOfRetentionPeriod) {
+            this.beginningOfRetentionPeriod = beginningOfRetentionPeriod;
+        }
+
+        public String getBeginningOfRetentionPeriod() {
+            return beginningOfRetentionPeriod.toString();
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeletedMessagesVaultExpireTask.class);
+
+    static final String TYPE = "deletedMessages/expire";
+
+    private final DeletedMessageVault vault;
+    private final ZonedDateTime beginningOfRetentionPeriod;
+    private final AdditionalInformation additionalInformation;
+
+    DeletedMessagesVaultExpireTask(DeletedMessageVault vault, ZonedDateTime beginningOfRetentionPeriod) {
+        this.vault = vault;
+        this.beginningOfRetentionPeriod = beginningOfRetentionPeriod;
+        this.additionalInformation = new AdditionalInformation(beginningOfRetentionPeriod);
+    }
+
+    @Override
+    public Result run() {
+        try {
+            Mono.from(vault.deleteExpiredMessages(beginningOfRetentionPeriod)).block();
+            return Result.COMPLETED;
+        } catch (Exception e) {
+            LOGGER.error("Error happens while deleting messages deleted before {}", beginningOfRetentionPeriod, e);
+            return Result.PARTIAL;
+        }
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public Optional<TaskExecutionDetails.AdditionalInformation> details() {
+        return Optional.of(additionalInformation);
+    }
+}
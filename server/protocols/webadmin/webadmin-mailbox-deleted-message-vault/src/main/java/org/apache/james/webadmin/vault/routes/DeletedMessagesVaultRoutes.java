@@ -21,11 +21,15 @@ package org.apache.james.webadmin.vault.routes;
 
 import static org.apache.james.webadmin.Constants.SEPARATOR;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 import javax.inject.Inject;
+import javax.ws.rs.DELETE;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
@@ -36,6 +40,8 @@ import org.apache.james.core.User;
 import org.apache.james.task.Task;
 import org.apache.james.task.TaskId;
 import org.apache.james.task.TaskManager;
+import org.apache.james.util.TimeConverter;
+import org.apache.james.vault.DeletedMessageVault;
 import org.apache.james.vault.search.Query;
 import org.apache.james.webadmin.Constants;
 import org.apache.james.webadmin.Routes;
@@ -99,11 +105,15 @@ public class DeletedMessagesVaultRoutes implements Routes {
     }
 
     public static final String ROOT_PATH = "deletedMessages/user";
+    public static final String EXPIRED_PATH = "deletedMessages/expired";
     private static final String USER_PATH_PARAM = "user";
     private static final String RESTORE_PATH = ROOT_PATH + SEPARATOR + ":" + USER_PATH_PARAM;
     private static final String ACTION_QUERY_PARAM = "action";
+    private static final String OLDER_THAN_QUERY_PARAM = "olderThan";
 
     private final RestoreService vaultRestore;
+    private final DeletedMessageVault vault;
+    private final Clock clock;
     private final JsonTransformer jsonTransformer;
     private final TaskManager taskManager;
     private final JsonExtractor<QueryElement> jsonExtractor;
@@ -111,9 +121,11 @@ public class DeletedMessagesVaultRoutes implements Routes {
 
     @Inject
     @VisibleForTesting
-    DeletedMessagesVaultRoutes(RestoreService vaultRestore, JsonTransformer jsonTransformer,
+    DeletedMessagesVaultRoutes(RestoreService vaultRestore, DeletedMessageVault vault, Clock clock, JsonTransformer jsonTransformer,
                                TaskManager taskManager, QueryTranslator queryTranslator) {
         this.vaultRestore = vaultRestore;
+        this.vault = vault;
+        this.clock = clock;
         this.jsonTransformer = jsonTransformer;
         this.taskManager = taskManager;
         this.queryTranslator = queryTranslator;
@@ -128,6 +140,7 @@ public class DeletedMessagesVaultRoutes implements Routes {
     @Override
     public void define(Service service) {
         service.post(RESTORE_PATH, this::userActions, jsonTransformer);
+        service.delete(EXPIRED_PATH, this::deleteExpiredMessages, jsonTransformer);
     }
 
     @POST
@@ -164,6 +177,44 @@ public class DeletedMessagesVaultRoutes implements Routes {
         return TaskIdDto.respond(response, taskId);
     }
 
+    @DELETE
+    @Path(EXPIRED_PATH)
+    @ApiOperation(value = "Delete messages deleted before the beginning of the retention period")
+    @ApiImplicitParams({
+        @ApiImplicitParam(
+            required = true,
+            dataType = "String",
+            name = "olderThan",
+            paramType = "query",
+            example = "?olderThan=365d",
+            value = "Compulsory. The retention period: messages deleted for longer than it are removed from the vault. " +
+                "Days are used when no unit is given.")
+    })
+    @ApiResponses(value = {
+        @ApiResponse(code = HttpStatus.CREATED_201, message = "Task is created", response = TaskIdDto.class),
+        @ApiResponse(code = HttpStatus.BAD_REQUEST_400, message = "Bad request - olderThan param is missing or invalid"),
+        @ApiResponse(code = HttpStatus.INTERNAL_SERVER_ERROR_500, message = "Internal server error - Something went bad on the server side.")
+    })
+    private TaskIdDto deleteExpiredMessages(Request request, Response response) {
+        Duration retentionPeriod = extractRetentionPeriod(request);
+        ZonedDateTime beginningOfRetentionPeriod = ZonedDateTime.now(clock).minus(retentionPeriod);
+
+        TaskId taskId = taskManager.submit(new DeletedMessagesVaultExpireTask(vault, beginningOfRetentionPeriod));
+        return TaskIdDto.respond(response, taskId);
+    }
+
+    private Duration extractRetentionPeriod(Request request) {
+        String olderThan = request.queryParams(OLDER_THAN_QUERY_PARAM);
+        if (olderThan == null) {
+            throw badRequest("'olderThan' parameter is missing");
+        }
+        try {
+            return Duration.ofMillis(TimeConverter.getMilliSeconds(olderThan, TimeConverter.Unit.DAYS));
+        } catch (NumberFormatException e) {
+            throw badRequest("Invalid 'olderThan' parameter", e);
+        }
+    }
+
     private Task generateTask(UserVaultAction requestedAction, Request request) throws JsonExtractException {
         User userToRestore = extractUser(request);
         Query query = translate(jsonExtractor.parse(request.body()));
@@ -201,6 +252,14 @@ public class DeletedMessagesVaultRoutes implements Routes {
             .haltError();
     }
 
+    private HaltException badRequest(String message) {
+        return ErrorResponder.builder()
+            .statusCode(HttpStatus.BAD_REQUEST_400)
+            .type(ErrorResponder.ErrorType.INVALID_ARGUMENT)
+            .message(message)
+            .haltError();
+    }
+
     private UserVaultAction extractUserVaultAction(Request request) {
         String actionParam = request.queryParams(ACTION_QUERY_PARAM);
         return Optional.ofNullable(actionParam)
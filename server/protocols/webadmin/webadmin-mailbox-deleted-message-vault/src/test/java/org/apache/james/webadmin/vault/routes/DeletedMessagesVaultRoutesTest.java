@@ -50,6 +50,9 @@ import static org.mockito.Mockito.spy;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -96,6 +99,7 @@ import reactor.core.publisher.Mono;
 
 class DeletedMessagesVaultRoutesTest {
 
+    private static final ZonedDateTime NOW = ZonedDateTime.parse("2016-10-30T14:12:00Z");
     private static final String MATCH_ALL_QUERY = "{" +
         "\"combinator\": \"and\"," +
         "\"criteria\": []" +
@@ -120,7 +124,7 @@ class DeletedMessagesVaultRoutesTest {
         webAdminServer = WebAdminUtils.createWebAdminServer(
             new DefaultMetricFactory(),
             new TasksRoutes(taskManager, jsonTransformer),
-            new DeletedMessagesVaultRoutes(vaultRestore, jsonTransformer, taskManager, queryTranslator));
+            new DeletedMessagesVaultRoutes(vaultRestore, vault, Clock.fixed(NOW.toInstant(), ZoneOffset.UTC), jsonTransformer, taskManager, queryTranslator));
 
         webAdminServer.configure(NO_CONFIGURATION);
         webAdminServer.await();
@@ -1632,4 +1636,147 @@ class DeletedMessagesVaultRoutesTest {
             .block();
         return deletedMessage;
     }
-}
\ No newline at end of file
+
+    @Nested
+    class ExpireTest {
+        private final DeletedMessage deletedElevenMonthsAgo = DeletedMessage.builder()
+            .messageId(InMemoryMessageId.of(48))
+            .originMailboxes(MAILBOX_ID_1)
+            .user(USER)
+            .deliveryDate(DELIVERY_DATE)
+            .deletionDate(NOW.minusMonths(11))
+            .sender(MaybeSender.of(SENDER))
+            .recipients(RECIPIENT1)
+            .hasNoAttachments()
+            .build();
+
+        @Test
+        void expireShouldReturnATaskCreated() {
+            given()
+                .basePath(DeletedMessagesVaultRoutes.EXPIRED_PATH)
+                .queryParam("olderThan", "365d")
+            .when()
+                .delete()
+            .then()
+                .statusCode(HttpStatus.CREATED_201)
+                .body("taskId", notNullValue());
+        }
+
+        @Test
+        void expireShouldReturnBadRequestWhenOlderThanIsMissing() {
+            given()
+                .basePath(DeletedMessagesVaultRoutes.EXPIRED_PATH)
+            .when()
+                .delete()
+            .then()
+                .statusCode(HttpStatus.BAD_REQUEST_400)
+                .body("statusCode", is(400))
+                .body("type", is(ErrorResponder.ErrorType.INVALID_ARGUMENT.getType()))
+                .body("message", is("'olderThan' parameter is missing"));
+        }
+
+        @Test
+        void expireShouldReturnBadRequestWhenOlderThanIsInvalid() {
+            given()
+                .basePath(DeletedMessagesVaultRoutes.EXPIRED_PATH)
+                .queryParam("olderThan", "one year")
+            .when()
+                .delete()
+            .then()
+                .statusCode(HttpStatus.BAD_REQUEST_400)
+                .body("statusCode", is(400))
+                .body("type", is(ErrorResponder.ErrorType.INVALID_ARGUMENT.getType()))
+                .body("message", is("Invalid 'olderThan' parameter"));
+        }
+
+        @Test
+        void expireShouldProduceASuccessfulTaskWithAdditionalInformation() {
+            String taskId =
+                given()
+                    .basePath(DeletedMessagesVaultRoutes.EXPIRED_PATH)
+                    .queryParam("olderThan", "365d")
+                .when()
+                    .delete()
+                    .jsonPath()
+                    .get("taskId");
+
+            given()
+                .basePath(TasksRoutes.BASE)
+            .when()
+                .get(taskId + "/await")
+            .then()
+                .body("status", is("completed"))
+                .body("taskId", is(taskId))
+                .body("type", is(DeletedMessagesVaultExpireTask.TYPE))
+                .body("additionalInformation.beginningOfRetentionPeriod", is(NOW.minusDays(365).toString()));
+        }
+
+        @Test
+        void expireShouldDeleteMessagesDeletedBeforeTheRetentionPeriod() {
+            vault.append(USER, DELETED_MESSAGE, new ByteArrayInputStream(CONTENT)).block();
+            vault.append(USER, deletedElevenMonthsAgo, new ByteArrayInputStream(CONTENT)).block();
+
+            String taskId =
+                given()
+                    .basePath(DeletedMessagesVaultRoutes.EXPIRED_PATH)
+                    .queryParam("olderThan", "365d")
+                .when()
+                    .delete()
+                    .jsonPath()
+                    .get("taskId");
+
+            given()
+                .basePath(TasksRoutes.BASE)
+            .when()
+                .get(taskId + "/await");
+
+            assertThat(Flux.from(vault.search(USER, Query.ALL)).toStream())
+                .containsOnly(deletedElevenMonthsAgo);
+        }
+
+        @Test
+        void expireShouldUseDaysWhenNoUnitIsGiven() {
+            vault.append(USER, deletedElevenMonthsAgo, new ByteArrayInputStream(CONTENT)).block();
+
+            String taskId =
+                given()
+                    .basePath(DeletedMessagesVaultRoutes.EXPIRED_PATH)
+                    .queryParam("olderThan", "30")
+                .when()
+                    .delete()
+                    .jsonPath()
+                    .get("taskId");
+
+            given()
+                .basePath(TasksRoutes.BASE)
+            .when()
+                .get(taskId + "/await");
+
+            assertThat(Flux.from(vault.search(USER, Query.ALL)).toStream())
+                .isEmpty();
+        }
+
+        @Test
+        void expireShouldProduceAFailedTaskWhenTheVaultFails() {
+            doThrow(new RuntimeException("mock exception"))
+                .when(vault)
+                .deleteExpiredMessages(any());
+
+            String taskId =
+                given()
+                    .basePath(DeletedMessagesVaultRoutes.EXPIRED_PATH)
+                    .queryParam("olderThan", "365d")
+                .when()
+                    .delete()
+                    .jsonPath()
+                    .get("taskId");
+
+            given()
+                .basePath(TasksRoutes.BASE)
+            .when()
+                .get(taskId + "/await")
+            .then()
+                .body("status", is("failed"));
+        }
+    }
+}
@@ -84,6 +84,8 @@ public class MailQueueRoutes implements Routes {
     
     private static final String DELAYED_QUERY_PARAM = "delayed";
     private static final String LIMIT_QUERY_PARAM = "limit";
+    private static final String CURSOR_QUERY_PARAM = "cursor";
+    @VisibleForTesting static final String NEXT_CURSOR_HEADER = "Next-Cursor";
     @VisibleForTesting static final int DEFAULT_LIMIT_VALUE = 100;
     private static final String SENDER_QUERY_PARAM = "sender";
     private static final String NAME_QUERY_PARAM = "name";
@@ -203,7 +205,15 @@ public class MailQueueRoutes implements Routes {
                 paramType = "query",
                 example = "?limit=100",
                 defaultValue = "100",
-                value = "Limits the maximum number of mails returned by this endpoint")
+                value = "Limits the maximum number of mails returned by this endpoint"),
+        @ApiImplicitParam(
+                required = false,
+                dataType = "string",
+                name = CURSOR_QUERY_PARAM,
+                paramType = "query",
+                example = "?cursor=...",
+                value = "Opaque cursor returned in the " + NEXT_CURSOR_HEADER + " header of the previous page. "
+                    + "The listing resumes right after the last mail of that page.")
     })
     @ApiOperation(
         value = "List the mails of the MailQueue"
@@ -216,14 +226,22 @@ public class MailQueueRoutes implements Routes {
     })
     public void listMails(Service service) {
         service.get(BASE_URL + SEPARATOR + MAIL_QUEUE_NAME + MAILS,
-                (request, response) -> listMails(request),
+                (request, response) -> listMails(request, response),
                 jsonTransformer);
     }
 
-    private List<MailQueueItemDTO> listMails(Request request) {
+    private List<MailQueueItemDTO> listMails(Request request, Response response) {
         String mailQueueName = request.params(MAIL_QUEUE_NAME);
+        Optional<Boolean> isDelayed = isDelayed(request.queryParams(DELAYED_QUERY_PARAM));
+        Limit limit = ParametersExtractor.extractLimit(request);
+        Optional<String> cursor = Optional.ofNullable(request.queryParams(CURSOR_QUERY_PARAM));
         return mailQueueFactory.getQueue(mailQueueName)
-                .map(name -> listMails(name, isDelayed(request.queryParams(DELAYED_QUERY_PARAM)), ParametersExtractor.extractLimit(request)))
+                .map(queue -> {
+                    if (cursor.isPresent() || limit.getLimit().isPresent()) {
+                        return listMailPage(queue, isDelayed, limit, cursor, response);
+                    }
+                    return listMails(queue, isDelayed, limit);
+                })
                 .orElseThrow(
                     () -> ErrorResponder.builder()
                         .message(String.format("%s can not be found", mailQueueName))
@@ -253,6 +271,34 @@ public class MailQueueRoutes implements Routes {
         }
     }
 
+    private List<MailQueueItemDTO> listMailPage(ManageableMailQueue queue, Optional<Boolean> isDelayed, Limit limit,
+                                                Optional<String> cursor, Response response) {
+        try {
+            ManageableMailQueue.BrowsePage page = queue.browse(cursor, limit.getLimit().orElse(Integer.MAX_VALUE));
+            page.getNextCursor()
+                .ifPresent(nextCursor -> response.header(NEXT_CURSOR_HEADER, nextCursor));
+            return page.getItems()
+                    .stream()
+                    .map(Throwing.function(MailQueueItemDTO::from).sneakyThrow())
+                    .filter(item -> filter(item, isDelayed))
+                    .collect(Guavate.toImmutableList());
+        } catch (IllegalArgumentException e) {
+            throw ErrorResponder.builder()
+                .statusCode(HttpStatus.BAD_REQUEST_400)
+                .type(ErrorType.INVALID_ARGUMENT)
+                .message("Invalid cursor for listing the mails from the mail queue " + queue)
+                .cause(e)
+                .haltError();
+        } catch (MailQueueException e) {
+            throw ErrorResponder.builder()
+                .statusCode(HttpStatus.BAD_REQUEST_400)
+                .type(ErrorType.INVALID_ARGUMENT)
+                .message("Invalid request for listing the mails from the mail queue " + queue)
+                .cause(e)
+                .haltError();
+        }
+    }
+
     private boolean filter(MailQueueItemDTO item, Optional<Boolean> isDelayed) {
         boolean mailIsDelayed = item.getNextDelivery().map(date -> date.isAfter(ZonedDateTime.now())).orElse(false);
         return isDelayed
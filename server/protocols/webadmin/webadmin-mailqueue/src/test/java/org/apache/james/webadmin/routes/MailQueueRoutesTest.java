@@ -27,11 +27,13 @@ import static io.restassured.config.RestAssuredConfig.newConfig;
 import static org.apache.james.webadmin.WebAdminServer.NO_CONFIGURATION;
 import static org.apache.mailet.base.MailAddressFixture.SENDER;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 
 import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
@@ -66,6 +68,7 @@ import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
+import reactor.core.publisher.Flux;
 
 public class MailQueueRoutesTest {
 
@@ -332,6 +335,99 @@ public class MailQueueRoutesTest {
                     .contentType(ContentType.JSON)
                     .body(".", hasSize(1));
             }
+
+            @Test
+            public void listMailsShouldReturnNextCursorWhenPageIsFull() throws Exception {
+                MemoryMailQueue queue = mailQueueFactory.createQueue(FIRST_QUEUE);
+                queue.enQueue(Mails.defaultMail().name("name1").build());
+                queue.enQueue(Mails.defaultMail().name("name2").build());
+
+                given()
+                    .param("limit", "1")
+                .when()
+                    .get(FIRST_QUEUE + "/mails")
+                .then()
+                    .statusCode(HttpStatus.OK_200)
+                    .header(MailQueueRoutes.NEXT_CURSOR_HEADER, notNullValue())
+                    .body("name", contains("name1"));
+            }
+
+            @Test
+            public void listMailsShouldResumeFromCursor() throws Exception {
+                MemoryMailQueue queue = mailQueueFactory.createQueue(FIRST_QUEUE);
+                queue.enQueue(Mails.defaultMail().name("name1").build());
+                queue.enQueue(Mails.defaultMail().name("name2").build());
+                queue.enQueue(Mails.defaultMail().name("name3").build());
+
+                given()
+                    .param("limit", "1")
+                    .param("cursor", firstPageCursor())
+                .when()
+                    .get(FIRST_QUEUE + "/mails")
+                .then()
+                    .statusCode(HttpStatus.OK_200)
+                    .header(MailQueueRoutes.NEXT_CURSOR_HEADER, notNullValue())
+                    .body("name", contains("name2"));
+            }
+
+            @Test
+            public void listMailsShouldNotReturnNextCursorOnLastPage() throws Exception {
+                MemoryMailQueue queue = mailQueueFactory.createQueue(FIRST_QUEUE);
+                queue.enQueue(Mails.defaultMail().name("name1").build());
+                queue.enQueue(Mails.defaultMail().name("name2").build());
+
+                given()
+                    .param("limit", "5")
+                    .param("cursor", firstPageCursor())
+                .when()
+                    .get(FIRST_QUEUE + "/mails")
+                .then()
+                    .statusCode(HttpStatus.OK_200)
+                    .header(MailQueueRoutes.NEXT_CURSOR_HEADER, nullValue())
+                    .body("name", contains("name2"));
+            }
+
+            @Test
+            public void listMailsShouldResumeFromCursorWhenTheCursorMailWasDequeued() throws Exception {
+                MemoryMailQueue queue = mailQueueFactory.createQueue(FIRST_QUEUE);
+                queue.enQueue(Mails.defaultMail().name("name1").build());
+                queue.enQueue(Mails.defaultMail().name("name2").build());
+                String cursor = firstPageCursor();
+                Flux.from(queue.deQueue()).blockFirst().done(true);
+
+                given()
+                    .param("limit", "1")
+                    .param("cursor", cursor)
+                .when()
+                    .get(FIRST_QUEUE + "/mails")
+                .then()
+                    .statusCode(HttpStatus.OK_200)
+                    .body("name", contains("name2"));
+            }
+
+            @Test
+            public void listMailsShouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+                MemoryMailQueue queue = mailQueueFactory.createQueue(FIRST_QUEUE);
+                queue.enQueue(Mails.defaultMail().name("name1").build());
+
+                given()
+                    .param("cursor", "name1")
+                .when()
+                    .get(FIRST_QUEUE + "/mails")
+                .then()
+                    .statusCode(HttpStatus.BAD_REQUEST_400);
+            }
+
+            private String firstPageCursor() {
+                return given()
+                    .param("limit", "1")
+                .when()
+                    .get(FIRST_QUEUE + "/mails")
+                .then()
+                    .statusCode(HttpStatus.OK_200)
+                .extract()
+                    .header(MailQueueRoutes.NEXT_CURSOR_HEADER);
+            }
         }
     }
 
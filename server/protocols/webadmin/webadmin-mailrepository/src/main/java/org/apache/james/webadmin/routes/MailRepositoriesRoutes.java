@@ -180,7 +180,15 @@ public class MailRepositoriesRoutes implements Routes {
             dataType = "Integer",
             defaultValue = "absent",
             example = "?limit=100",
-            value = "If present, fixes the maximal number of key returned in that call. Must be more than zero if specified.")
+            value = "If present, fixes the maximal number of key returned in that call. Must be more than zero if specified."),
+        @ApiImplicitParam(
+            required = false,
+            paramType = "query parameter",
+            name = "after",
+            dataType = "String",
+            defaultValue = "absent",
+            example = "?after=mail-key",
+            value = "If present, only the keys following this one are returned. Keys are then sorted, and the last key of a page is the cursor of the next page. Can not be combined with offset.")
     })
     @ApiResponses(value = {
         @ApiResponse(code = HttpStatus.OK_200, message = "The list of all mails in a repository", response = List.class),
@@ -192,8 +200,20 @@ public class MailRepositoriesRoutes implements Routes {
         service.get(MAIL_REPOSITORIES + "/:encodedPath/mails", (request, response) -> {
             Offset offset = ParametersExtractor.extractOffset(request);
             Limit limit = ParametersExtractor.extractLimit(request);
+            Optional<MailKey> after = Optional.ofNullable(request.queryParams("after")).map(MailKey::new);
             MailRepositoryPath path = decodedRepositoryPath(request);
             try {
+                if (after.isPresent() && offset.getOffset() > 0) {
+                    throw ErrorResponder.builder()
+                        .statusCode(HttpStatus.BAD_REQUEST_400)
+                        .type(ErrorType.INVALID_ARGUMENT)
+                        .message("'after' and 'offset' query parameters can not be combined")
+                        .haltError();
+                }
+                if (after.isPresent() || (offset.getOffset() == 0 && limit.getLimit().isPresent())) {
+                    return repositoryStoreService.listMails(path, after, limit)
+                        .orElseThrow(() -> repositoryNotFound(request.params("encodedPath"), path));
+                }
                 return repositoryStoreService.listMails(path, offset, limit)
                     .orElseThrow(() -> repositoryNotFound(request.params("encodedPath"), path));
 
@@ -426,12 +446,44 @@ public class MailRepositoriesRoutes implements Routes {
             dataType = "String",
             defaultValue = "absent",
             example = "?processor=transport",
-            value = "If present, modifies the state property of the mail to allow their processing by a specific mail container processor.")
+            value = "If present, modifies the state property of the mail to allow their processing by a specific mail container processor."),
+        @ApiImplicitParam(
+            required = false,
+            paramType = "query parameter",
+            name = "batchSize",
+            dataType = "Integer",
+            defaultValue = "100",
+            example = "?batchSize=500",
+            value = "Count of keys requested at once from the repository listing. The enqueued mails of each batch are removed at once."),
+        @ApiImplicitParam(
+            required = false,
+            paramType = "query parameter",
+            name = "concurrency",
+            dataType = "Integer",
+            defaultValue = "4",
+            example = "?concurrency=8",
+            value = "Count of mails being retrieved and enqueued at the same time."),
+        @ApiImplicitParam(
+            required = false,
+            paramType = "query parameter",
+            name = "messagesPerSecond",
+            dataType = "Integer",
+            defaultValue = "absent",
+            example = "?messagesPerSecond=100",
+            value = "If present, caps the count of mails reprocessed per second."),
+        @ApiImplicitParam(
+            required = false,
+            paramType = "query parameter",
+            name = "fromKey",
+            dataType = "String",
+            defaultValue = "absent",
+            example = "?fromKey=mail-key",
+            value = "If present, only the mails whose key is greater than this one are reprocessed. Allows resuming from the cursor of a previous reprocessing task.")
     })
     @ApiResponses(value = {
         @ApiResponse(code = HttpStatus.CREATED_201, message = "Task is created", response = TaskIdDto.class),
         @ApiResponse(code = HttpStatus.INTERNAL_SERVER_ERROR_500, message = "Internal server error - Something went bad on the server side."),
-        @ApiResponse(code = HttpStatus.BAD_REQUEST_400, message = "Bad request - unknown action")
+        @ApiResponse(code = HttpStatus.BAD_REQUEST_400, message = "Bad request - unknown action or invalid reprocessing options")
     })
     public void defineReprocessAll() {
         service.patch(MAIL_REPOSITORIES + "/:encodedPath/mails", (request, response) -> {
@@ -447,8 +499,28 @@ public class MailRepositoriesRoutes implements Routes {
         Optional<String> targetProcessor = Optional.ofNullable(request.queryParams("processor"));
         String targetQueue = Optional.ofNullable(request.queryParams("queue")).orElse(MailQueueFactory.SPOOL);
 
+        ReprocessingService.Options options = extractReprocessingOptions(request);
+
         Long repositorySize = repositoryStoreService.size(path).orElse(0L);
-        return new ReprocessingAllMailsTask(reprocessingService, repositorySize, path, targetQueue, targetProcessor);
+        return new ReprocessingAllMailsTask(reprocessingService, repositorySize, path, targetQueue, targetProcessor, options);
+    }
+
+    private ReprocessingService.Options extractReprocessingOptions(Request request) {
+        try {
+            return ReprocessingService.Options.builder()
+                .batchSize(ParametersExtractor.extractPositiveInteger(request, "batchSize"))
+                .concurrency(ParametersExtractor.extractPositiveInteger(request, "concurrency"))
+                .messagesPerSecond(ParametersExtractor.extractPositiveInteger(request, "messagesPerSecond"))
+                .fromKey(Optional.ofNullable(request.queryParams("fromKey")).map(MailKey::new))
+                .build();
+        } catch (IllegalArgumentException e) {
+            throw ErrorResponder.builder()
+                .statusCode(HttpStatus.BAD_REQUEST_400)
+                .type(ErrorType.INVALID_ARGUMENT)
+                .cause(e)
+                .message(e.getMessage())
+                .haltError();
+        }
     }
 
     @PATCH
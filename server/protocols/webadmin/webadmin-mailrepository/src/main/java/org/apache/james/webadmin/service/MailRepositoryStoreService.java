@@ -19,6 +19,7 @@
 
 package org.apache.james.webadmin.service;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -79,6 +80,22 @@ public class MailRepositoryStoreService {
             .map(stream -> stream.collect(ImmutableList.toImmutableList()));
     }
 
+    /**
+     * Lists the keys strictly greater than the after cursor, in order, relying on the listing pages of the
+     * repositories sharing that path.
+     */
+    public Optional<List<MailKeyDTO>> listMails(MailRepositoryPath path, Optional<MailKey> after, Limit limit) throws MailRepositoryStore.MailRepositoryStoreException, MessagingException {
+        int pageSize = limit.getLimit().orElse(Integer.MAX_VALUE);
+
+        return Optional.of(getRepositories(path)
+            .flatMap(Throwing.function((MailRepository repository) -> repository.list(after, pageSize).stream()).sneakyThrow())
+            .distinct()
+            .sorted(Comparator.comparing(MailKey::asString))
+            .limit(pageSize)
+            .map(MailKeyDTO::new)
+            .collect(ImmutableList.toImmutableList()));
+    }
+
     public Optional<Long> size(MailRepositoryPath path) throws MailRepositoryStore.MailRepositoryStoreException {
         return Optional.of(getRepositories(path)
                 .map(Throwing.function(MailRepository::size).sneakyThrow())
@@ -21,6 +21,7 @@ package org.apache.james.webadmin.service;
 
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.mail.MessagingException;
 
@@ -42,6 +43,7 @@ public class ReprocessingAllMailsTask implements Task {
         private final Optional<String> targetProcessor;
         private final long initialCount;
         private final AtomicLong processedCount;
+        private final AtomicReference<MailKey> lastKey;
 
         public AdditionalInformation(MailRepositoryPath repositoryPath, String targetQueue, Optional<String> targetProcessor, long initialCount) {
             this.repositoryPath = repositoryPath;
@@ -49,6 +51,7 @@ public class ReprocessingAllMailsTask implements Task {
             this.targetProcessor = targetProcessor;
             this.initialCount = initialCount;
             this.processedCount = new AtomicLong(0);
+            this.lastKey = new AtomicReference<>();
         }
 
         public String getTargetQueue() {
@@ -71,9 +74,19 @@ public class ReprocessingAllMailsTask implements Task {
             return initialCount;
         }
 
+        /**
+         * Greatest key up to which all mails were enqueued then removed from the repository. Supplying it as fromKey to
+         * a new reprocessing resumes after it.
+         */
+        public Optional<String> getCursor() {
+            return Optional.ofNullable(lastKey.get())
+                .map(MailKey::asString);
+        }
+
         @JsonIgnore
         public void notifyProgress(MailKey key) {
             processedCount.incrementAndGet();
+            lastKey.set(key);
         }
     }
 
@@ -81,14 +94,22 @@ public class ReprocessingAllMailsTask implements Task {
     private final MailRepositoryPath repositoryPath;
     private final String targetQueue;
     private final Optional<String> targetProcessor;
+    private final ReprocessingService.Options options;
     private final AdditionalInformation additionalInformation;
 
     public ReprocessingAllMailsTask(ReprocessingService reprocessingService, long repositorySize,
                                     MailRepositoryPath repositoryPath, String targetQueue, Optional<String> targetProcessor) {
+        this(reprocessingService, repositorySize, repositoryPath, targetQueue, targetProcessor, ReprocessingService.Options.DEFAULT);
+    }
+
+    public ReprocessingAllMailsTask(ReprocessingService reprocessingService, long repositorySize,
+                                    MailRepositoryPath repositoryPath, String targetQueue, Optional<String> targetProcessor,
+                                    ReprocessingService.Options options) {
         this.reprocessingService = reprocessingService;
         this.repositoryPath = repositoryPath;
         this.targetQueue = targetQueue;
         this.targetProcessor = targetProcessor;
+        this.options = options;
         this.additionalInformation = new AdditionalInformation(
             repositoryPath, targetQueue, targetProcessor, repositorySize);
     }
@@ -96,7 +117,7 @@ public class ReprocessingAllMailsTask implements Task {
     @Override
     public Result run() {
         try {
-            reprocessingService.reprocessAll(repositoryPath, targetProcessor, targetQueue, additionalInformation::notifyProgress);
+            reprocessingService.reprocessAll(repositoryPath, targetProcessor, targetQueue, options, additionalInformation::notifyProgress);
             return Result.COMPLETED;
         } catch (MessagingException | MailRepositoryStore.MailRepositoryStoreException e) {
             LOGGER.error("Encountered error while reprocessing repository", e);
@@ -19,7 +19,10 @@
 
 package org.apache.james.webadmin.service;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 import javax.inject.Inject;
@@ -33,10 +36,17 @@ import org.apache.james.mailrepository.api.MailRepositoryStore;
 import org.apache.james.queue.api.MailQueue;
 import org.apache.james.queue.api.MailQueueFactory;
 import org.apache.james.util.OptionalUtils;
-import org.apache.james.util.streams.Iterators;
 import org.apache.mailet.Mail;
 
 import com.github.fge.lambdas.Throwing;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.RateLimiter;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 public class ReprocessingService {
     public static class MissingKeyException extends RuntimeException {
@@ -55,16 +65,157 @@ public class ReprocessingService {
         }
 
         private void reprocess(MailRepository repository, Mail mail) {
+            enqueue(mail);
+            try {
+                repository.remove(mail);
+            } catch (Exception e) {
+                throw new RuntimeException("Error encountered while reprocessing mail " + mail.getName(), e);
+            }
+        }
+
+        private void enqueue(Mail mail) {
             try {
                 targetProcessor.ifPresent(mail::setState);
                 mailQueue.enQueue(mail);
-                repository.remove(mail);
             } catch (Exception e) {
                 throw new RuntimeException("Error encountered while reprocessing mail " + mail.getName(), e);
             }
         }
     }
 
+    private static class Outcome {
+        private static Outcome enqueued(MailKey key, Mail mail) {
+            return new Outcome(key, Optional.of(mail), false);
+        }
+
+        private static Outcome missing(MailKey key) {
+            return new Outcome(key, Optional.empty(), false);
+        }
+
+        private static Outcome failed(MailKey key) {
+            return new Outcome(key, Optional.empty(), true);
+        }
+
+        private final MailKey key;
+        private final Optional<Mail> mail;
+        private final boolean failed;
+
+        private Outcome(MailKey key, Optional<Mail> mail, boolean failed) {
+            this.key = key;
+            this.mail = mail;
+            this.failed = failed;
+        }
+    }
+
+    /**
+     * Tunes how the mails of a repository are reprocessed.
+     *
+     * Keys are listed by pages of batchSize, in ascending order. Up to concurrency mails of a page are retrieved and
+     * enqueued at the same time, then the enqueued mails of the page are removed from the repository at once. Only
+     * then are their keys reported as processed, in order, up to the first failure. messagesPerSecond caps the overall
+     * throughput. fromKey allows resuming an interrupted reprocessing: only the keys strictly greater than it are
+     * reprocessed, whether or not it is still stored.
+     */
+    public static class Options {
+        public static final int DEFAULT_BATCH_SIZE = 100;
+        public static final int DEFAULT_CONCURRENCY = 4;
+        public static final Options DEFAULT = builder().build();
+
+        public static class Builder {
+            private Optional<Integer> batchSize;
+            private Optional<Integer> concurrency;
+            private Optional<Integer> messagesPerSecond;
+            private Optional<MailKey> fromKey;
+
+            private Builder() {
+                batchSize = Optional.empty();
+                concurrency = Optional.empty();
+                messagesPerSecond = Optional.empty();
+                fromKey = Optional.empty();
+            }
+
+            public Builder batchSize(Optional<Integer> batchSize) {
+                this.batchSize = batchSize;
+                return this;
+            }
+
+            public Builder concurrency(Optional<Integer> concurrency) {
+                this.concurrency = concurrency;
+                return this;
+            }
+
+            public Builder messagesPerSecond(Optional<Integer> messagesPerSecond) {
+                this.messagesPerSecond = messagesPerSecond;
+                return this;
+            }
+
+            public Builder fromKey(Optional<MailKey> fromKey) {
+                this.fromKey = fromKey;
+                return this;
+            }
+
+            public Options build() {
+                int effectiveBatchSize = batchSize.orElse(DEFAULT_BATCH_SIZE);
+                int effectiveConcurrency = concurrency.orElse(DEFAULT_CONCURRENCY);
+                Preconditions.checkArgument(effectiveBatchSize > 0, "'batchSize' needs to be strictly positive");
+                Preconditions.checkArgument(effectiveConcurrency > 0, "'concurrency' needs to be strictly positive");
+                Preconditions.checkArgument(messagesPerSecond.map(value -> value > 0).orElse(true), "'messagesPerSecond' needs to be strictly positive");
+
+                return new Options(effectiveBatchSize, effectiveConcurrency, messagesPerSecond, fromKey);
+            }
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        private final int batchSize;
+        private final int concurrency;
+        private final Optional<Integer> messagesPerSecond;
+        private final Optional<MailKey> fromKey;
+
+        private Options(int batchSize, int concurrency, Optional<Integer> messagesPerSecond, Optional<MailKey> fromKey) {
+            this.batchSize = batchSize;
+            this.concurrency = concurrency;
+            this.messagesPerSecond = messagesPerSecond;
+            this.fromKey = fromKey;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public Optional<Integer> getMessagesPerSecond() {
+            return messagesPerSecond;
+        }
+
+        public Optional<MailKey> getFromKey() {
+            return fromKey;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof Options) {
+                Options that = (Options) o;
+
+                return Objects.equals(this.batchSize, that.batchSize)
+                    && Objects.equals(this.concurrency, that.concurrency)
+                    && Objects.equals(this.messagesPerSecond, that.messagesPerSecond)
+                    && Objects.equals(this.fromKey, that.fromKey);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(batchSize, concurrency, messagesPerSecond, fromKey);
+        }
+    }
+
     private final MailQueueFactory<?> mailQueueFactory;
     private final MailRepositoryStoreService mailRepositoryStoreService;
 
@@ -76,16 +227,69 @@ public class ReprocessingService {
     }
 
     public void reprocessAll(MailRepositoryPath path, Optional<String> targetProcessor, String targetQueue, Consumer<MailKey> keyListener) throws MailRepositoryStore.MailRepositoryStoreException, MessagingException {
+        reprocessAll(path, targetProcessor, targetQueue, Options.DEFAULT, keyListener);
+    }
+
+    public void reprocessAll(MailRepositoryPath path, Optional<String> targetProcessor, String targetQueue, Options options, Consumer<MailKey> keyListener) throws MailRepositoryStore.MailRepositoryStoreException, MessagingException {
         Reprocessor reprocessor = new Reprocessor(getMailQueue(targetQueue), targetProcessor);
+        Optional<RateLimiter> rateLimiter = options.getMessagesPerSecond().map(RateLimiter::create);
 
         mailRepositoryStoreService
             .getRepositories(path)
-            .forEach(Throwing.consumer((MailRepository repository) ->
-                Iterators.toStream(repository.list())
-                    .peek(keyListener)
-                    .map(Throwing.function(key -> Optional.ofNullable(repository.retrieve(key))))
-                    .flatMap(OptionalUtils::toStream)
-                    .forEach(mail -> reprocessor.reprocess(repository, mail))));
+            .forEach(Throwing.consumer((MailRepository repository) -> {
+                List<MailKey> page = repository.list(options.getFromKey(), options.getBatchSize());
+                while (!page.isEmpty()) {
+                    reprocessPage(repository, reprocessor, page, options, rateLimiter, keyListener);
+                    page = repository.list(Optional.of(Iterables.getLast(page)), options.getBatchSize());
+                }
+            }));
+    }
+
+    private void reprocessPage(MailRepository repository, Reprocessor reprocessor, List<MailKey> page, Options options,
+                               Optional<RateLimiter> rateLimiter, Consumer<MailKey> keyListener) throws MessagingException {
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        List<Outcome> outcomes = Flux.fromIterable(page)
+            .doOnNext(key -> rateLimiter.ifPresent(RateLimiter::acquire))
+            .flatMapSequential(key -> enqueue(repository, reprocessor, key, failure), options.getConcurrency())
+            .collectList()
+            .block();
+
+        repository.remove(outcomes.stream()
+            .flatMap(outcome -> OptionalUtils.toStream(outcome.mail))
+            .collect(ImmutableList.toImmutableList()));
+
+        for (Outcome outcome : outcomes) {
+            if (outcome.failed) {
+                throw failure.get();
+            }
+            outcome.mail.ifPresent(any -> keyListener.accept(outcome.key));
+        }
+    }
+
+    private Mono<Outcome> enqueue(MailRepository repository, Reprocessor reprocessor, MailKey key, AtomicReference<RuntimeException> failure) {
+        return Mono.fromCallable(() -> {
+            if (failure.get() != null) {
+                return null;
+            }
+            try {
+                return Optional.ofNullable(repository.retrieve(key))
+                    .map(mail -> {
+                        reprocessor.enqueue(mail);
+                        return Outcome.enqueued(key, mail);
+                    })
+                    .orElse(Outcome.missing(key));
+            } catch (Exception e) {
+                failure.compareAndSet(null, asRuntimeException(key, e));
+                return Outcome.failed(key);
+            }
+        }).subscribeOn(Schedulers.elastic());
+    }
+
+    private RuntimeException asRuntimeException(MailKey key, Exception e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        return new RuntimeException("Error encountered while reprocessing mail " + key.asString(), e);
     }
 
     public void reprocess(MailRepositoryPath path, MailKey key, Optional<String> targetProcessor, String targetQueue) throws MailRepositoryStore.MailRepositoryStoreException, MessagingException {
@@ -427,6 +427,72 @@ public class MailRepositoriesRoutesTest {
             .body("", hasSize(2));
     }
 
+    @Test
+    public void listingKeysShouldReturnKeysAfterCursor() throws Exception {
+        MailRepository mailRepository = mailRepositoryStore.create(URL_MY_REPO);
+        mailRepository.store(FakeMail.builder()
+            .name("name1")
+            .build());
+        mailRepository.store(FakeMail.builder()
+            .name("name2")
+            .build());
+        mailRepository.store(FakeMail.builder()
+            .name("name3")
+            .build());
+
+        given()
+            .param("after", "name1")
+            .param("limit", "1")
+        .when()
+            .get(MY_REPO_MAILS)
+        .then()
+            .statusCode(HttpStatus.OK_200)
+            .body("", contains("name2"));
+    }
+
+    @Test
+    public void listingKeysShouldMergeRepositoriesWhenCursor() throws Exception {
+        MailRepository mailRepository1 = mailRepositoryStore.create(URL_MY_REPO);
+        MailRepository mailRepository2 = mailRepositoryStore.create(URL_MY_REPO_OTHER);
+        mailRepository1.store(FakeMail.builder()
+            .name("name1")
+            .build());
+        mailRepository2.store(FakeMail.builder()
+            .name("name2")
+            .build());
+        mailRepository1.store(FakeMail.builder()
+            .name("name3")
+            .build());
+        mailRepository2.store(FakeMail.builder()
+            .name("name4")
+            .build());
+
+        given()
+            .param("after", "name1")
+            .param("limit", "2")
+        .when()
+            .get(MY_REPO_MAILS)
+        .then()
+            .statusCode(HttpStatus.OK_200)
+            .body("", contains("name2", "name3"));
+    }
+
+    @Test
+    public void listingKeysShouldRejectCursorCombinedWithOffset() throws Exception {
+        mailRepositoryStore.create(URL_MY_REPO);
+
+        given()
+            .param("after", "name1")
+            .param("offset", "1")
+        .when()
+            .get(MY_REPO_MAILS)
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST_400)
+            .body("statusCode", is(400))
+            .body("type", is(ErrorResponder.ErrorType.INVALID_ARGUMENT.getType()))
+            .body("message", is("'after' and 'offset' query parameters can not be combined"));
+    }
+
     @Test
     public void listingKeysShouldReturnErrorOnInvalidLimit() {
         given()
@@ -1077,6 +1143,58 @@ public class MailRepositoriesRoutesTest {
             .body("message", is("action query parameter is mandatory. The only supported value is `reprocess`"));
     }
 
+    @Test
+    public void reprocessingAllTaskShouldRejectZeroBatchSize() {
+        given()
+            .param("action", "reprocess")
+            .param("batchSize", 0)
+        .when()
+            .patch(PATH_ESCAPED_MY_REPO + "/mails")
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST_400)
+            .body("statusCode", is(400))
+            .body("type", is(ErrorResponder.ErrorType.INVALID_ARGUMENT.getType()))
+            .body("message", is("'batchSize' needs to be strictly positive"));
+    }
+
+    @Test
+    public void reprocessingAllTaskShouldRejectNegativeConcurrency() {
+        given()
+            .param("action", "reprocess")
+            .param("concurrency", -1)
+        .when()
+            .patch(PATH_ESCAPED_MY_REPO + "/mails")
+        .then()
+            .statusCode(HttpStatus.BAD_REQUEST_400)
+            .body("statusCode", is(400))
+            .body("type", is(ErrorResponder.ErrorType.INVALID_ARGUMENT.getType()))
+            .body("message", is("concurrency can not be negative"));
+    }
+
+    @Test
+    public void reprocessingAllTaskShouldExposeCursor() throws Exception {
+        MailRepository mailRepository = mailRepositoryStore.create(URL_MY_REPO);
+        mailRepository.store(FakeMail.builder()
+            .name(NAME_1)
+            .build());
+
+        String taskId = with()
+            .param("action", "reprocess")
+            .param("batchSize", 1)
+            .param("concurrency", 1)
+            .patch(PATH_ESCAPED_MY_REPO + "/mails")
+            .jsonPath()
+            .get("taskId");
+
+        given()
+            .basePath(TasksRoutes.BASE)
+        .when()
+            .get(taskId + "/await")
+        .then()
+            .body("status", is("completed"))
+            .body("additionalInformation.cursor", is(NAME_1));
+    }
+
     @Test
     public void reprocessingAllTaskShouldIncludeDetailsWhenDefaultValues() throws Exception {
         MailRepository mailRepository = mailRepositoryStore.create(URL_MY_REPO);
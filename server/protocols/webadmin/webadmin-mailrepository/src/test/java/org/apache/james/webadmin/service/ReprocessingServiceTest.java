@@ -20,10 +20,22 @@
 package org.apache.james.webadmin.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
-
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.apache.commons.configuration.HierarchicalConfiguration;
 import org.apache.james.mailrepository.api.MailKey;
@@ -36,10 +48,12 @@ import org.apache.james.mailrepository.memory.MemoryMailRepository;
 import org.apache.james.mailrepository.memory.MemoryMailRepositoryProvider;
 import org.apache.james.mailrepository.memory.MemoryMailRepositoryStore;
 import org.apache.james.mailrepository.memory.MemoryMailRepositoryUrlStore;
+import org.apache.james.queue.api.MailQueue.MailQueueException;
 import org.apache.james.queue.api.MailQueueFactory;
 import org.apache.james.queue.api.ManageableMailQueue;
 import org.apache.james.queue.api.RawMailQueueItemDecoratorFactory;
 import org.apache.james.queue.memory.MemoryMailQueueFactory;
+import org.apache.mailet.Mail;
 import org.apache.mailet.base.test.FakeMail;
 import org.junit.Before;
 import org.junit.Test;
@@ -170,13 +184,306 @@ public class ReprocessingServiceTest {
             }
         });
 
-        reprocessingService.reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL, concurrentRemoveConsumer);
+        reprocessingService.reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL,
+            ReprocessingService.Options.builder()
+                .batchSize(Optional.of(1))
+                .build(),
+            concurrentRemoveConsumer);
 
         assertThat(queueFactory.getQueue(SPOOL).get()
             .browse())
             .hasSize(2);
     }
 
+    @Test
+    public void reprocessingShouldSkipMailsRemovedOnceListed() throws Exception {
+        MailRepository repository = mock(MailRepository.class);
+        when(repository.list(Optional.empty(), ReprocessingService.Options.DEFAULT_BATCH_SIZE)).thenReturn(ImmutableList.of(KEY_1, KEY_2, KEY_3));
+        when(repository.list(Optional.of(KEY_3), ReprocessingService.Options.DEFAULT_BATCH_SIZE)).thenReturn(ImmutableList.of());
+        when(repository.retrieve(KEY_1)).thenReturn(mail1);
+        when(repository.retrieve(KEY_3)).thenReturn(mail3);
+        MailRepositoryStoreService mailRepositoryStoreService = mock(MailRepositoryStoreService.class);
+        when(mailRepositoryStoreService.getRepositories(PATH)).thenAnswer(invocation -> Stream.of(repository));
+        List<MailKey> notifiedKeys = new CopyOnWriteArrayList<>();
+
+        new ReprocessingService(queueFactory, mailRepositoryStoreService).reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL, notifiedKeys::add);
+
+        assertThat(notifiedKeys).containsExactly(KEY_1, KEY_3);
+        verify(repository).remove(ImmutableList.of(mail1, mail3));
+    }
+
+    @Test
+    public void reprocessingShouldEnqueueAllMailsWhenSeveralBatches() throws Exception {
+        MailRepository repository = mailRepositoryStore.select(MailRepositoryUrl.fromPathAndProtocol(PATH, MEMORY_PROTOCOL));
+        repository.store(mail1);
+        repository.store(mail2);
+        repository.store(mail3);
+
+        reprocessingService.reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL,
+            ReprocessingService.Options.builder()
+                .batchSize(Optional.of(2))
+                .concurrency(Optional.of(2))
+                .build(),
+            NOOP_CONSUMER);
+
+        assertThat(queueFactory.getQueue(SPOOL).get()
+            .browse())
+            .extracting(item -> item.getMail().getName())
+            .containsOnly(NAME_1, NAME_2, NAME_3);
+        assertThat(repository.list()).isEmpty();
+    }
+
+    @Test
+    public void reprocessingShouldNotifyAllKeysWhenSeveralBatches() throws Exception {
+        MailRepository repository = mailRepositoryStore.select(MailRepositoryUrl.fromPathAndProtocol(PATH, MEMORY_PROTOCOL));
+        repository.store(mail1);
+        repository.store(mail2);
+        repository.store(mail3);
+        List<MailKey> notifiedKeys = new CopyOnWriteArrayList<>();
+
+        reprocessingService.reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL,
+            ReprocessingService.Options.builder()
+                .batchSize(Optional.of(2))
+                .build(),
+            notifiedKeys::add);
+
+        assertThat(notifiedKeys).containsOnly(KEY_1, KEY_2, KEY_3);
+    }
+
+    @Test
+    public void reprocessingShouldApplyMessagesPerSecond() throws Exception {
+        MailRepository repository = mailRepositoryStore.select(MailRepositoryUrl.fromPathAndProtocol(PATH, MEMORY_PROTOCOL));
+        repository.store(mail1);
+        repository.store(mail2);
+        repository.store(mail3);
+
+        reprocessingService.reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL,
+            ReprocessingService.Options.builder()
+                .messagesPerSecond(Optional.of(1000))
+                .build(),
+            NOOP_CONSUMER);
+
+        assertThat(queueFactory.getQueue(SPOOL).get()
+            .browse())
+            .hasSize(3);
+    }
+
+    @Test
+    public void reprocessingShouldResumeAfterFromKey() throws Exception {
+        MailRepository repository = mailRepositoryStore.select(MailRepositoryUrl.fromPathAndProtocol(PATH, MEMORY_PROTOCOL));
+        repository.store(mail1);
+        repository.store(mail2);
+        repository.store(mail3);
+
+        reprocessingService.reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL,
+            ReprocessingService.Options.builder()
+                .fromKey(Optional.of(KEY_1))
+                .build(),
+            NOOP_CONSUMER);
+
+        assertThat(repository.list()).containsOnly(KEY_1);
+    }
+
+    @Test
+    public void reprocessingShouldResumeAfterFromKeyWhenItIsNoLongerStored() throws Exception {
+        MailRepository repository = mailRepositoryStore.select(MailRepositoryUrl.fromPathAndProtocol(PATH, MEMORY_PROTOCOL));
+        repository.store(mail1);
+        repository.store(mail3);
+        List<MailKey> notifiedKeys = new CopyOnWriteArrayList<>();
+
+        reprocessingService.reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL,
+            ReprocessingService.Options.builder()
+                .fromKey(Optional.of(KEY_2))
+                .build(),
+            notifiedKeys::add);
+
+        assertThat(notifiedKeys).containsExactly(KEY_3);
+        assertThat(repository.list()).containsOnly(KEY_1);
+    }
+
+    @Test
+    public void reprocessingShouldNotifyKeysInAscendingOrder() throws Exception {
+        MailRepository repository = mailRepositoryStore.select(MailRepositoryUrl.fromPathAndProtocol(PATH, MEMORY_PROTOCOL));
+        repository.store(mail3);
+        repository.store(mail1);
+        repository.store(mail2);
+        List<MailKey> notifiedKeys = new CopyOnWriteArrayList<>();
+
+        reprocessingService.reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL,
+            ReprocessingService.Options.builder()
+                .batchSize(Optional.of(2))
+                .concurrency(Optional.of(2))
+                .build(),
+            notifiedKeys::add);
+
+        assertThat(notifiedKeys).containsExactly(KEY_1, KEY_2, KEY_3);
+    }
+
+    @Test
+    public void reprocessingShouldRemoveMailsByBatches() throws Exception {
+        MailRepository repository = mock(MailRepository.class);
+        when(repository.list(Optional.empty(), 2)).thenReturn(ImmutableList.of(KEY_1, KEY_2));
+        when(repository.list(Optional.of(KEY_2), 2)).thenReturn(ImmutableList.of(KEY_3));
+        when(repository.list(Optional.of(KEY_3), 2)).thenReturn(ImmutableList.of());
+        when(repository.retrieve(KEY_1)).thenReturn(mail1);
+        when(repository.retrieve(KEY_2)).thenReturn(mail2);
+        when(repository.retrieve(KEY_3)).thenReturn(mail3);
+        MailRepositoryStoreService mailRepositoryStoreService = mock(MailRepositoryStoreService.class);
+        when(mailRepositoryStoreService.getRepositories(PATH)).thenAnswer(invocation -> Stream.of(repository));
+
+        new ReprocessingService(queueFactory, mailRepositoryStoreService).reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL,
+            ReprocessingService.Options.builder()
+                .batchSize(Optional.of(2))
+                .build(),
+            NOOP_CONSUMER);
+
+        verify(repository).remove(ImmutableList.of(mail1, mail2));
+        verify(repository).remove(ImmutableList.of(mail3));
+        verify(repository, never()).remove(any(Mail.class));
+    }
+
+    @Test
+    public void reprocessingShouldRemoveMailsEnqueuedAfterAFailureWithoutNotifyingThem() throws Exception {
+        MailRepository repository = mailRepositoryStore.select(MailRepositoryUrl.fromPathAndProtocol(PATH, MEMORY_PROTOCOL));
+        repository.store(mail1);
+        repository.store(mail2);
+        repository.store(mail3);
+        List<MailKey> notifiedKeys = new CopyOnWriteArrayList<>();
+
+        assertThatThrownBy(() -> reprocessingServiceFailingOn(NAME_1).reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL,
+                ReprocessingService.Options.builder()
+                    .concurrency(Optional.of(3))
+                    .build(),
+                notifiedKeys::add))
+            .isInstanceOf(RuntimeException.class);
+
+        List<String> enqueuedNames = ImmutableList.copyOf(queueFactory.getQueue(SPOOL).get().browse())
+            .stream()
+            .map(item -> item.getMail().getName())
+            .collect(ImmutableList.toImmutableList());
+        assertThat(notifiedKeys).isEmpty();
+        assertThat(ImmutableList.copyOf(repository.list()))
+            .extracting(MailKey::asString)
+            .contains(NAME_1)
+            .doesNotContainAnyElementsOf(enqueuedNames)
+            .hasSize(3 - enqueuedNames.size());
+    }
+
+    @Test
+    public void reprocessingShouldRemoveEnqueuedMailsWhenAMailFails() throws Exception {
+        MailRepository repository = mailRepositoryStore.select(MailRepositoryUrl.fromPathAndProtocol(PATH, MEMORY_PROTOCOL));
+        repository.store(mail1);
+        repository.store(mail2);
+        repository.store(mail3);
+
+        assertThatThrownBy(() -> reprocessingServiceFailingOn(NAME_2).reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL,
+                ReprocessingService.Options.builder()
+                    .concurrency(Optional.of(1))
+                    .build(),
+                NOOP_CONSUMER))
+            .isInstanceOf(RuntimeException.class);
+
+        assertThat(queueFactory.getQueue(SPOOL).get()
+            .browse())
+            .extracting(item -> item.getMail().getName())
+            .containsOnly(NAME_1);
+        assertThat(repository.list()).containsOnly(KEY_2, KEY_3);
+    }
+
+    @Test
+    public void reprocessingShouldNotNotifyKeysOfMailsThatFailed() throws Exception {
+        MailRepository repository = mailRepositoryStore.select(MailRepositoryUrl.fromPathAndProtocol(PATH, MEMORY_PROTOCOL));
+        repository.store(mail1);
+        repository.store(mail2);
+        repository.store(mail3);
+        List<MailKey> notifiedKeys = new CopyOnWriteArrayList<>();
+
+        assertThatThrownBy(() -> reprocessingServiceFailingOn(NAME_2).reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL,
+                ReprocessingService.Options.builder()
+                    .concurrency(Optional.of(1))
+                    .build(),
+                notifiedKeys::add))
+            .isInstanceOf(RuntimeException.class);
+
+        assertThat(notifiedKeys).containsExactly(KEY_1);
+    }
+
+    @Test
+    public void reprocessingAgainAfterAFailureShouldEnqueueEachMailOnce() throws Exception {
+        MailRepository repository = mailRepositoryStore.select(MailRepositoryUrl.fromPathAndProtocol(PATH, MEMORY_PROTOCOL));
+        repository.store(mail1);
+        repository.store(mail2);
+        repository.store(mail3);
+        ReprocessingService.Options options = ReprocessingService.Options.builder()
+            .batchSize(Optional.of(2))
+            .concurrency(Optional.of(2))
+            .build();
+
+        assertThatThrownBy(() -> reprocessingServiceFailingOn(NAME_3).reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL, options, NOOP_CONSUMER))
+            .isInstanceOf(RuntimeException.class);
+        reprocessingService.reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL, options, NOOP_CONSUMER);
+
+        assertThat(queueFactory.getQueue(SPOOL).get()
+            .browse())
+            .extracting(item -> item.getMail().getName())
+            .containsExactlyInAnyOrder(NAME_1, NAME_2, NAME_3);
+        assertThat(repository.list()).isEmpty();
+    }
+
+    @Test
+    public void reprocessingShouldSkipTheFromKeyWhenStillListed() throws Exception {
+        MailRepository repository = mailRepositoryStore.select(MailRepositoryUrl.fromPathAndProtocol(PATH, MEMORY_PROTOCOL));
+        repository.store(mail1);
+        repository.store(mail2);
+        repository.store(mail3);
+        List<MailKey> notifiedKeys = new CopyOnWriteArrayList<>();
+
+        reprocessingService.reprocessAll(PATH, NO_TARGET_PROCESSOR, SPOOL,
+            ReprocessingService.Options.builder()
+                .fromKey(Optional.of(KEY_2))
+                .build(),
+            notifiedKeys::add);
+
+        assertThat(notifiedKeys).containsExactly(KEY_3);
+        assertThat(repository.list()).containsOnly(KEY_1, KEY_2);
+    }
+
+    @Test
+    public void optionsShouldThrowWhenZeroBatchSize() {
+        assertThatThrownBy(() -> ReprocessingService.Options.builder()
+                .batchSize(Optional.of(0))
+                .build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void optionsShouldThrowWhenZeroConcurrency() {
+        assertThatThrownBy(() -> ReprocessingService.Options.builder()
+                .concurrency(Optional.of(0))
+                .build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void optionsShouldThrowWhenZeroMessagesPerSecond() {
+        assertThatThrownBy(() -> ReprocessingService.Options.builder()
+                .messagesPerSecond(Optional.of(0))
+                .build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ReprocessingService reprocessingServiceFailingOn(String failingMailName) throws Exception {
+        ManageableMailQueue queue = spy(queueFactory.getQueue(SPOOL).get());
+        doThrow(new MailQueueException("mock exception"))
+            .when(queue)
+            .enQueue(argThat(mail -> mail != null && mail.getName().equals(failingMailName)));
+        MailQueueFactory<ManageableMailQueue> failingQueueFactory = mock(MailQueueFactory.class);
+        when(failingQueueFactory.getQueue(SPOOL)).thenReturn(Optional.of(queue));
+
+        return new ReprocessingService(failingQueueFactory, new MailRepositoryStoreService(mailRepositoryStore));
+    }
+
     private MemoryMailRepositoryStore createMemoryMailRepositoryStore() throws Exception {
         MemoryMailRepositoryUrlStore urlStore = new MemoryMailRepositoryUrlStore();
         MailRepositoryStoreConfiguration configuration = MailRepositoryStoreConfiguration.forItems(
@@ -20,10 +20,14 @@ package org.apache.james.queue.api;
 
 import java.time.ZonedDateTime;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 
 import org.apache.mailet.Mail;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
 /**
  * {@link MailQueue} which is manageable
  */
@@ -75,6 +79,76 @@ public interface ManageableMailQueue extends MailQueue {
      */
     MailQueueIterator browse() throws MailQueueException;
 
+    /**
+     * Browse a page of at most limit items of the queue content.
+     *
+     * The returned page carries the cursor to supply for getting the next page, if any. Cursors are opaque and
+     * only meaningful for the queue that generated them.
+     *
+     * The default implementation browses the queue from its head and uses the name of the last mail of a page as
+     * cursor: the items preceding it are read again for each page. When that mail already left the queue, the items
+     * preceding it most likely did too, and browsing resumes from the head of the queue, which can list again the
+     * items of a previous page. Implementations able to start browsing at a position should override it.
+     *
+     * @param cursor
+     *            when present, the cursor of the previous page
+     * @param limit
+     *            maximum count of items returned
+     */
+    default BrowsePage browse(Optional<String> cursor, int limit) throws MailQueueException {
+        Preconditions.checkArgument(limit > 0, "'limit' needs to be strictly positive");
+
+        MailQueueIterator iterator = browse();
+        try {
+            boolean cursorReached = !cursor.isPresent();
+            ImmutableList.Builder<MailQueueItemView> items = ImmutableList.builder();
+            int count = 0;
+            while (count < limit && iterator.hasNext()) {
+                MailQueueItemView item = iterator.next();
+                if (cursorReached) {
+                    items.add(item);
+                    count++;
+                } else {
+                    cursorReached = item.getMail().getName().equals(cursor.get());
+                }
+            }
+            if (!cursorReached) {
+                return browse(Optional.empty(), limit);
+            }
+            return BrowsePage.ofNames(items.build(), limit);
+        } finally {
+            iterator.close();
+        }
+    }
+
+    /**
+     * A page of the queue content, and the cursor of the next page when this page is full.
+     */
+    class BrowsePage {
+        public static BrowsePage ofNames(List<MailQueueItemView> items, int limit) {
+            if (items.size() < limit) {
+                return new BrowsePage(items, Optional.empty());
+            }
+            return new BrowsePage(items, Optional.of(items.get(items.size() - 1).getMail().getName()));
+        }
+
+        private final List<MailQueueItemView> items;
+        private final Optional<String> nextCursor;
+
+        public BrowsePage(List<MailQueueItemView> items, Optional<String> nextCursor) {
+            this.items = ImmutableList.copyOf(items);
+            this.nextCursor = nextCursor;
+        }
+
+        public List<MailQueueItemView> getItems() {
+            return items;
+        }
+
+        public Optional<String> getNextCursor() {
+            return nextCursor;
+        }
+    }
+
     /**
      * {@link Iterator} subclass which allows to browse the content of a queue.
      * The content is not meant to be modifiable, everything is just READ-ONLY!
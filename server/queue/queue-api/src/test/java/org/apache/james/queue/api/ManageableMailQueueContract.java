@@ -28,9 +28,11 @@ import static org.apache.mailet.base.MailAddressFixture.RECIPIENT3;
 import static org.apache.mailet.base.MailAddressFixture.SENDER;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
 
 import java.time.Duration;
+import java.util.Optional;
 
 import javax.mail.internet.MimeMessage;
 
@@ -147,6 +149,115 @@ public interface ManageableMailQueueContract extends MailQueueContract {
             .containsExactly("name1", "name2", "name3");
     }
 
+    @Test
+    default void browsePageShouldReturnEmptyByDefault() throws Exception {
+        ManageableMailQueue.BrowsePage page = getManageableMailQueue().browse(Optional.empty(), 10);
+
+        assertSoftly(softly -> {
+            softly.assertThat(page.getItems()).isEmpty();
+            softly.assertThat(page.getNextCursor()).isEmpty();
+        });
+    }
+
+    @Test
+    default void browsePageShouldReturnAllElementsWhenLimitNotReached() throws Exception {
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+        enQueue(defaultMail()
+            .name("name2")
+            .build());
+
+        ManageableMailQueue.BrowsePage page = getManageableMailQueue().browse(Optional.empty(), 10);
+
+        assertSoftly(softly -> {
+            softly.assertThat(page.getItems())
+                .extracting(ManageableMailQueue.MailQueueItemView::getMail)
+                .extracting(Mail::getName)
+                .containsExactly("name1", "name2");
+            softly.assertThat(page.getNextCursor()).isEmpty();
+        });
+    }
+
+    @Test
+    default void browsePageShouldApplyLimitAndReturnCursor() throws Exception {
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+        enQueue(defaultMail()
+            .name("name2")
+            .build());
+        enQueue(defaultMail()
+            .name("name3")
+            .build());
+
+        ManageableMailQueue.BrowsePage page = getManageableMailQueue().browse(Optional.empty(), 2);
+
+        assertSoftly(softly -> {
+            softly.assertThat(page.getItems())
+                .extracting(ManageableMailQueue.MailQueueItemView::getMail)
+                .extracting(Mail::getName)
+                .containsExactly("name1", "name2");
+            softly.assertThat(page.getNextCursor()).isPresent();
+        });
+    }
+
+    @Test
+    default void browsePageShouldResumeFromCursor() throws Exception {
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+        enQueue(defaultMail()
+            .name("name2")
+            .build());
+        enQueue(defaultMail()
+            .name("name3")
+            .build());
+
+        ManageableMailQueue.BrowsePage firstPage = getManageableMailQueue().browse(Optional.empty(), 2);
+        ManageableMailQueue.BrowsePage secondPage = getManageableMailQueue().browse(firstPage.getNextCursor(), 2);
+
+        assertSoftly(softly -> {
+            softly.assertThat(secondPage.getItems())
+                .extracting(ManageableMailQueue.MailQueueItemView::getMail)
+                .extracting(Mail::getName)
+                .containsExactly("name3");
+            softly.assertThat(secondPage.getNextCursor()).isEmpty();
+        });
+    }
+
+    @Test
+    default void browsePageShouldResumeWhenTheCursorMailWasDequeued() throws Exception {
+        enQueue(defaultMail()
+            .name("name1")
+            .build());
+        enQueue(defaultMail()
+            .name("name2")
+            .build());
+        enQueue(defaultMail()
+            .name("name3")
+            .build());
+
+        ManageableMailQueue.BrowsePage firstPage = getManageableMailQueue().browse(Optional.empty(), 2);
+        Flux.from(getManageableMailQueue().deQueue()).blockFirst().done(true);
+        Flux.from(getManageableMailQueue().deQueue()).blockFirst().done(true);
+        ManageableMailQueue.BrowsePage secondPage = getManageableMailQueue().browse(firstPage.getNextCursor(), 2);
+
+        assertSoftly(softly -> {
+            softly.assertThat(secondPage.getItems())
+                .extracting(ManageableMailQueue.MailQueueItemView::getMail)
+                .extracting(Mail::getName)
+                .containsExactly("name3");
+            softly.assertThat(secondPage.getNextCursor()).isEmpty();
+        });
+    }
+
+    @Test
+    default void browsePageShouldThrowWhenZeroLimit() {
+        assertThatThrownBy(() -> getManageableMailQueue().browse(Optional.empty(), 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     default void dequeueShouldNotFailWhenBrowsing() throws Exception {
         enQueue(defaultMail()
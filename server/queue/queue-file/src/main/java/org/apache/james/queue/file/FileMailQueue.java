@@ -23,16 +23,17 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -42,6 +43,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import javax.mail.MessagingException;
 import javax.mail.util.SharedFileInputStream;
@@ -51,6 +53,7 @@ import org.apache.james.lifecycle.api.Disposable;
 import org.apache.james.lifecycle.api.LifecycleUtil;
 import org.apache.james.queue.api.MailQueueItemDecoratorFactory;
 import org.apache.james.queue.api.ManageableMailQueue;
+import org.apache.james.server.core.MailImplCodec;
 import org.apache.james.server.core.MimeMessageCopyOnWriteProxy;
 import org.apache.james.server.core.MimeMessageSource;
 import org.apache.james.util.concurrent.NamedThreadFactory;
@@ -79,6 +82,8 @@ public class FileMailQueue implements ManageableMailQueue {
     private final BlockingQueue<String> inmemoryQueue = new LinkedBlockingQueue<>();
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(NamedThreadFactory.withClassName(getClass()));
     private static final AtomicLong COUNTER = new AtomicLong();
+    private static final long NO_SEQUENCE = 0L;
+    private final AtomicLong sequence = new AtomicLong(NO_SEQUENCE);
     private final String queueDirName;
     private final File queueDir;
 
@@ -120,16 +125,13 @@ public class FileMailQueue implements ManageableMailQueue {
 
             for (String name : files) {
 
-                ObjectInputStream oin = null;
-
                 try {
 
                     final String msgFileName = name.substring(0, name.length() - OBJECT_EXTENSION.length()) + MSG_EXTENSION;
 
                     FileItem item = new FileItem(qDir.getAbsolutePath() + File.separator + name, qDir.getAbsolutePath() + File.separator + msgFileName);
 
-                    oin = new ObjectInputStream(new FileInputStream(item.getObjectFile()));
-                    Mail mail = (Mail) oin.readObject();
+                    Mail mail = readMail(item.getObjectFile());
                     Optional<ZonedDateTime> next = getNextDelivery(mail);
 
                     final String key = mail.getName();
@@ -156,22 +158,20 @@ public class FileMailQueue implements ManageableMailQueue {
                             }
                         }, nextDeliveryDelay, TimeUnit.MILLISECONDS);
                     }
-                } catch (ClassNotFoundException | IOException e) {
+                } catch (IOException e) {
                     LOGGER.error("Unable to load Mail", e);
-                } finally {
-                    if (oin != null) {
-                        try {
-                            oin.close();
-                        } catch (Exception e) {
-                            // ignore on close
-                        }
-                    }
                 }
 
             }
         }
     }
 
+    private Mail readMail(String objectFile) throws IOException {
+        try (FileInputStream in = new FileInputStream(objectFile)) {
+            return MailImplCodec.decode(in);
+        }
+    }
+
     private Optional<ZonedDateTime> getNextDelivery(Mail mail) {
         return AttributeUtils
             .getValueAndCastFromMail(mail, NEXT_DELIVERY, Long.class)
@@ -190,10 +190,8 @@ public class FileMailQueue implements ManageableMailQueue {
             if (delay > 0) {
                 mail.setAttribute(new Attribute(NEXT_DELIVERY, AttributeValue.of(System.currentTimeMillis() + unit.toMillis(delay))));
             }
-            try (FileOutputStream foout = new FileOutputStream(item.getObjectFile());
-                ObjectOutputStream oout = new ObjectOutputStream(foout)) {
-                oout.writeObject(mail);
-                oout.flush();
+            try (FileOutputStream foout = new FileOutputStream(item.getObjectFile())) {
+                MailImplCodec.encode(mail, foout);
                 if (sync) {
                     foout.getFD().sync();
                 }
@@ -256,8 +254,8 @@ public class FileMailQueue implements ManageableMailQueue {
             try {
                 final File objectFile = new File(fitem.getObjectFile());
                 final File msgFile = new File(fitem.getMessageFile());
-                try (ObjectInputStream oin = new ObjectInputStream(new FileInputStream(objectFile))) {
-                    final Mail mail = (Mail) oin.readObject();
+                try (FileInputStream in = new FileInputStream(objectFile)) {
+                    final Mail mail = MailImplCodec.decode(in);
                     mail.setMessage(new MimeMessageCopyOnWriteProxy(new FileMimeMessageSource(msgFile)));
                     MailQueueItem fileMailQueueItem = new MailQueueItem() {
 
@@ -286,7 +284,7 @@ public class FileMailQueue implements ManageableMailQueue {
                     return Mono.just(mailQueueItemDecoratorFactory.decorate(fileMailQueueItem));
                 }
                 // TODO: Think about exception handling in detail
-            } catch (IOException | ClassNotFoundException | MessagingException e) {
+            } catch (IOException | MessagingException e) {
                 return Mono.error(new MailQueueException("Unable to dequeue", e));
             }
 
@@ -344,10 +342,12 @@ public class FileMailQueue implements ManageableMailQueue {
     private final class FileItem {
         private final String objectfile;
         private final String messagefile;
+        private final long sequence;
 
         public FileItem(String objectfile, String messagefile) {
             this.objectfile = objectfile;
             this.messagefile = messagefile;
+            this.sequence = FileMailQueue.this.sequence.incrementAndGet();
         }
 
         public String getObjectFile() {
@@ -358,6 +358,10 @@ public class FileMailQueue implements ManageableMailQueue {
             return messagefile;
         }
 
+        public long getSequence() {
+            return sequence;
+        }
+
         public void delete() throws MailQueueException {
             try {
                 FileUtils.forceDelete(new File(getObjectFile()));
@@ -455,11 +459,11 @@ public class FileMailQueue implements ManageableMailQueue {
                 }
 
                 while (items.hasNext()) {
-                    try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(items.next().getObjectFile()))) {
-                        final Mail mail = (Mail) in.readObject();
+                    try {
+                        final Mail mail = readMail(items.next().getObjectFile());
                         item = new MailQueueItemView(mail, getNextDelivery(mail));
                         return true;
-                    } catch (IOException | ClassNotFoundException e) {
+                    } catch (IOException e) {
                         LOGGER.info("Unable to load mail", e);
                     }
                 }
@@ -474,4 +478,50 @@ public class FileMailQueue implements ManageableMailQueue {
         };
     }
 
+    /**
+     * Pages follow the order mails were added to this queue, and the cursor is the sequence of the last item of the
+     * page, so that browsing carries on with the following items even once the cursor mail left the queue.
+     */
+    @Override
+    public BrowsePage browse(Optional<String> cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("'limit' needs to be strictly positive");
+        }
+        long after = cursor.map(Long::parseLong).orElse(NO_SEQUENCE);
+        List<FileItem> fileItems;
+        synchronized (keyMappings) {
+            fileItems = keyMappings.values()
+                .stream()
+                .filter(item -> item.getSequence() > after)
+                .sorted(Comparator.comparingLong(FileItem::getSequence))
+                .collect(Collectors.toList());
+        }
+
+        List<MailQueueItemView> items = new ArrayList<>();
+        long lastSequence = NO_SEQUENCE;
+        for (FileItem fileItem : fileItems) {
+            if (items.size() >= limit) {
+                break;
+            }
+            Optional<MailQueueItemView> item = readItemView(fileItem);
+            if (item.isPresent()) {
+                items.add(item.get());
+                lastSequence = fileItem.getSequence();
+            }
+        }
+        if (items.size() < limit) {
+            return new BrowsePage(items, Optional.empty());
+        }
+        return new BrowsePage(items, Optional.of(String.valueOf(lastSequence)));
+    }
+
+    private Optional<MailQueueItemView> readItemView(FileItem fileItem) {
+        try {
+            Mail mail = readMail(fileItem.getObjectFile());
+            return Optional.of(new MailQueueItemView(mail, getNextDelivery(mail)));
+        } catch (IOException e) {
+            LOGGER.info("Unable to load mail", e);
+            return Optional.empty();
+        }
+    }
 }
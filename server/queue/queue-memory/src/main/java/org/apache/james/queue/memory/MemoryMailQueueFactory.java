@@ -22,7 +22,9 @@ package org.apache.james.queue.memory;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -30,6 +32,7 @@ import java.util.concurrent.DelayQueue;
 import java.util.concurrent.Delayed;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.inject.Inject;
 import javax.mail.MessagingException;
@@ -48,6 +51,7 @@ import org.threeten.extra.Temporals;
 import com.github.fge.lambdas.Throwing;
 import com.github.steveash.guavate.Guavate;
 import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
@@ -83,15 +87,19 @@ public class MemoryMailQueueFactory implements MailQueueFactory<ManageableMailQu
     }
 
     public static class MemoryMailQueue implements ManageableMailQueue {
+        private static final long NO_SEQUENCE = 0L;
+
         private final DelayQueue<MemoryMailQueueItem> mailItems;
         private final LinkedBlockingDeque<MemoryMailQueueItem> inProcessingMailItems;
         private final MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory;
         private final String name;
         private final Flux<MailQueueItem> flux;
+        private final AtomicLong sequence;
 
         public MemoryMailQueue(String name, MailQueueItemDecoratorFactory mailQueueItemDecoratorFactory) {
             this.mailItems = new DelayQueue<>();
             this.inProcessingMailItems = new LinkedBlockingDeque<>();
+            this.sequence = new AtomicLong(NO_SEQUENCE);
             this.name = name;
             this.mailQueueItemDecoratorFactory = mailQueueItemDecoratorFactory;
             this.flux = Mono.fromCallable(mailItems::take)
@@ -109,7 +117,7 @@ public class MemoryMailQueueFactory implements MailQueueFactory<ManageableMailQu
         public void enQueue(Mail mail, long delay, TimeUnit unit) throws MailQueueException {
             ZonedDateTime nextDelivery = calculateNextDelivery(delay, unit);
             try {
-                mailItems.put(new MemoryMailQueueItem(cloneMail(mail), this, nextDelivery));
+                mailItems.put(new MemoryMailQueueItem(cloneMail(mail), this, nextDelivery, sequence.incrementAndGet()));
             } catch (MessagingException e) {
                 throw new MailQueueException("Error while copying mail " + mail.getName(), e);
             }
@@ -232,6 +240,33 @@ public class MemoryMailQueueFactory implements MailQueueFactory<ManageableMailQu
             };
         }
 
+        /**
+         * Pages are ordered by enqueue time and the cursor is the enqueue sequence of the last item of the page, so
+         * that browsing carries on with the following items even once the cursor mail left the queue.
+         */
+        @Override
+        public BrowsePage browse(Optional<String> cursor, int limit) {
+            Preconditions.checkArgument(limit > 0, "'limit' needs to be strictly positive");
+            long after = cursor.map(Long::parseLong).orElse(NO_SEQUENCE);
+
+            List<MemoryMailQueueItem> items = mailItems.stream()
+                .filter(item -> item.sequence > after)
+                .sorted(Comparator.comparingLong(item -> item.sequence))
+                .limit(limit)
+                .collect(Guavate.toImmutableList());
+
+            return new BrowsePage(items.stream()
+                .map(item -> new MailQueueItemView(item.getMail(), item.delivery))
+                .collect(Guavate.toImmutableList()), nextCursor(items, limit));
+        }
+
+        private Optional<String> nextCursor(List<MemoryMailQueueItem> items, int limit) {
+            if (items.size() < limit) {
+                return Optional.empty();
+            }
+            return Optional.of(String.valueOf(Iterables.getLast(items).sequence));
+        }
+
         @Override
         public boolean equals(Object o) {
             if (o == null || getClass() != o.getClass()) {
@@ -253,11 +288,13 @@ public class MemoryMailQueueFactory implements MailQueueFactory<ManageableMailQu
         private final Mail mail;
         private final MemoryMailQueue queue;
         private final ZonedDateTime delivery;
+        private final long sequence;
 
-        public MemoryMailQueueItem(Mail mail, MemoryMailQueue queue, ZonedDateTime delivery) {
+        public MemoryMailQueueItem(Mail mail, MemoryMailQueue queue, ZonedDateTime delivery, long sequence) {
             this.mail = mail;
             this.queue = queue;
             this.delivery = delivery;
+            this.sequence = sequence;
         }
 
         @Override
@@ -19,6 +19,7 @@
 
 package org.apache.james.queue.rabbitmq;
 
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.james.metrics.api.MetricFactory;
@@ -107,6 +108,11 @@ public class RabbitMQMailQueue implements ManageableMailQueue {
         return mailQueueView.browse();
     }
 
+    @Override
+    public BrowsePage browse(Optional<String> cursor, int limit) {
+        return mailQueueView.browse(cursor, limit);
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
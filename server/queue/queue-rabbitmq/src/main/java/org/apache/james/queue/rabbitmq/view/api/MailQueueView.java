@@ -19,6 +19,8 @@
 
 package org.apache.james.queue.rabbitmq.view.api;
 
+import java.util.Optional;
+
 import org.apache.james.queue.api.ManageableMailQueue;
 import org.apache.james.queue.rabbitmq.EnqueuedItem;
 import org.apache.james.queue.rabbitmq.MailQueueName;
@@ -42,5 +44,7 @@ public interface MailQueueView {
 
     ManageableMailQueue.MailQueueIterator browse();
 
+    ManageableMailQueue.BrowsePage browse(Optional<String> cursor, int limit);
+
     long getSize();
 }
@@ -26,6 +26,9 @@ import java.time.Clock;
 import java.time.Instant;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 import javax.inject.Inject;
 import javax.mail.MessagingException;
@@ -44,6 +47,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
@@ -74,6 +78,80 @@ public class CassandraMailQueueBrowser {
         }
     }
 
+    /**
+     * Position of a browsed item: the slice it belongs to, its enqueue time and its key. Browsing after a cursor
+     * starts at its slice, and keeps the items coming after it in browsing order, even when the item it designates
+     * has been deleted in the meantime.
+     */
+    static class BrowseCursor {
+        private static final String SEPARATOR = ":";
+
+        static BrowseCursor of(EnqueuedItemWithSlicingContext item) {
+            return new BrowseCursor(item.getSlicingContext().getTimeRangeStart(),
+                item.getEnqueuedItem().getEnqueuedTime(),
+                item.getEnqueuedItem().getMailKey().getMailKey());
+        }
+
+        static BrowseCursor parse(String value) {
+            List<String> parts = Splitter.on(SEPARATOR).limit(3).splitToList(value);
+            Preconditions.checkArgument(parts.size() == 3, "Invalid cursor " + value);
+            try {
+                return new BrowseCursor(Instant.ofEpochMilli(Long.parseLong(parts.get(0))),
+                    Instant.ofEpochMilli(Long.parseLong(parts.get(1))),
+                    parts.get(2));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor " + value, e);
+            }
+        }
+
+        private final Instant sliceStart;
+        private final Instant enqueuedTime;
+        private final String mailKey;
+
+        private BrowseCursor(Instant sliceStart, Instant enqueuedTime, String mailKey) {
+            this.sliceStart = sliceStart;
+            this.enqueuedTime = enqueuedTime;
+            this.mailKey = mailKey;
+        }
+
+        Instant firstSliceToBrowse(Instant browseStart) {
+            if (sliceStart.isAfter(browseStart)) {
+                return sliceStart;
+            }
+            return browseStart;
+        }
+
+        boolean isBefore(EnqueuedItemWithSlicingContext item) {
+            EnqueuedItem enqueuedItem = item.getEnqueuedItem();
+            int timeComparison = enqueuedTime.compareTo(enqueuedItem.getEnqueuedTime());
+            if (timeComparison != 0) {
+                return timeComparison < 0;
+            }
+            return mailKey.compareTo(enqueuedItem.getMailKey().getMailKey()) < 0;
+        }
+
+        String asString() {
+            return sliceStart.toEpochMilli() + SEPARATOR + enqueuedTime.toEpochMilli() + SEPARATOR + mailKey;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (o instanceof BrowseCursor) {
+                BrowseCursor that = (BrowseCursor) o;
+
+                return Objects.equals(this.sliceStart, that.sliceStart)
+                    && Objects.equals(this.enqueuedTime, that.enqueuedTime)
+                    && Objects.equals(this.mailKey, that.mailKey);
+            }
+            return false;
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(sliceStart, enqueuedTime, mailKey);
+        }
+    }
+
     private static final Logger LOGGER = LoggerFactory.getLogger(CassandraMailQueueBrowser.class);
 
     private final BrowseStartDAO browseStartDao;
@@ -111,6 +189,36 @@ public class CassandraMailQueueBrowser {
             .subscribeOn(Schedulers.parallel());
     }
 
+    /**
+     * Browse a page of the queue. Slices are browsed one after the other, starting at the slice of the cursor, and
+     * only the mails of the returned items are read from the blob store.
+     */
+    Mono<ManageableMailQueue.BrowsePage> browse(MailQueueName queueName, Optional<String> cursor, int limit) {
+        Preconditions.checkArgument(limit > 0, "'limit' needs to be strictly positive");
+        Optional<BrowseCursor> position = cursor.map(BrowseCursor::parse);
+
+        return browseStartDao.findBrowseStart(queueName)
+            .map(browseStart -> position.map(value -> value.firstSliceToBrowse(browseStart)).orElse(browseStart))
+            .flatMapMany(this::allSlicesStartingAt)
+            .concatMap(slice -> browseSlice(queueName, slice))
+            .filter(item -> position.map(value -> value.isBefore(item)).orElse(true))
+            .take(limit)
+            .collectList()
+            .flatMap(references -> Flux.fromIterable(references)
+                .flatMapSequential(this::toMailFuture)
+                .map(ManageableMailQueue.MailQueueItemView::new)
+                .collectList()
+                .map(items -> new ManageableMailQueue.BrowsePage(items, nextCursor(references, limit))))
+            .subscribeOn(Schedulers.parallel());
+    }
+
+    private Optional<String> nextCursor(List<EnqueuedItemWithSlicingContext> references, int limit) {
+        if (references.size() < limit) {
+            return Optional.empty();
+        }
+        return Optional.of(BrowseCursor.of(references.get(references.size() - 1)).asString());
+    }
+
     private Mono<Mail> toMailFuture(EnqueuedItemWithSlicingContext enqueuedItemWithSlicingContext) {
         EnqueuedItem enqueuedItem = enqueuedItemWithSlicingContext.getEnqueuedItem();
         return mimeMessageStore.read(enqueuedItem.getPartsId())
@@ -133,7 +241,8 @@ public class CassandraMailQueueBrowser {
         return
             allBucketIds()
                 .flatMap(bucketId -> browseBucket(queueName, slice, bucketId))
-                .sort(Comparator.comparing(enqueuedMail -> enqueuedMail.getEnqueuedItem().getEnqueuedTime()));
+                .sort(Comparator.comparing((EnqueuedItemWithSlicingContext enqueuedMail) -> enqueuedMail.getEnqueuedItem().getEnqueuedTime())
+                    .thenComparing(enqueuedMail -> enqueuedMail.getEnqueuedItem().getMailKey().getMailKey()));
     }
 
     private Flux<EnqueuedItemWithSlicingContext> browseBucket(MailQueueName queueName, Slice slice, BucketId bucketId) {
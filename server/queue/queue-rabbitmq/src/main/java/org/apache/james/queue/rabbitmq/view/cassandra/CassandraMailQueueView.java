@@ -19,6 +19,8 @@
 
 package org.apache.james.queue.rabbitmq.view.cassandra;
 
+import java.util.Optional;
+
 import javax.inject.Inject;
 
 import org.apache.james.queue.api.ManageableMailQueue;
@@ -94,6 +96,11 @@ public class CassandraMailQueueView implements MailQueueView {
                 .iterator());
     }
 
+    @Override
+    public ManageableMailQueue.BrowsePage browse(Optional<String> cursor, int limit) {
+        return cassandraMailQueueBrowser.browse(mailQueueName, cursor, limit).block();
+    }
+
     @Override
     public long getSize() {
         return cassandraMailQueueBrowser.browseReferences(mailQueueName).count().block();
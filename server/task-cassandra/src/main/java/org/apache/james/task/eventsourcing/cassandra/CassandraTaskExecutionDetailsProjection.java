@@ -0,0 +1,146 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing.cassandra;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
+import static org.apache.james.task.eventsourcing.cassandra.CassandraTaskExecutionDetailsProjectionTable.CANCELED_DATE;
+import static org.apache.james.task.eventsourcing.cassandra.CassandraTaskExecutionDetailsProjectionTable.COMPLETED_DATE;
+import static org.apache.james.task.eventsourcing.cassandra.CassandraTaskExecutionDetailsProjectionTable.FAILED_DATE;
+import static org.apache.james.task.eventsourcing.cassandra.CassandraTaskExecutionDetailsProjectionTable.STARTED_DATE;
+import static org.apache.james.task.eventsourcing.cassandra.CassandraTaskExecutionDetailsProjectionTable.STATUS;
+import static org.apache.james.task.eventsourcing.cassandra.CassandraTaskExecutionDetailsProjectionTable.SUBMITTED_DATE;
+import static org.apache.james.task.eventsourcing.cassandra.CassandraTaskExecutionDetailsProjectionTable.TABLE_NAME;
+import static org.apache.james.task.eventsourcing.cassandra.CassandraTaskExecutionDetailsProjectionTable.TASK_ID;
+import static org.apache.james.task.eventsourcing.cassandra.CassandraTaskExecutionDetailsProjectionTable.TYPE;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import javax.inject.Inject;
+
+import org.apache.james.backends.cassandra.utils.CassandraAsyncExecutor;
+import org.apache.james.task.TaskExecutionDetails;
+import org.apache.james.task.TaskId;
+import org.apache.james.task.TaskManager;
+import org.apache.james.task.eventsourcing.TaskExecutionDetailsProjection;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.github.steveash.guavate.Guavate;
+
+public class CassandraTaskExecutionDetailsProjection implements TaskExecutionDetailsProjection {
+    private final CassandraAsyncExecutor executor;
+    private final PreparedStatement insertStatement;
+    private final PreparedStatement selectStatement;
+    private final PreparedStatement selectAllStatement;
+
+    @Inject
+    public CassandraTaskExecutionDetailsProjection(Session session) {
+        this.executor = new CassandraAsyncExecutor(session);
+        this.insertStatement = prepareInsertStatement(session);
+        this.selectStatement = prepareSelectStatement(session);
+        this.selectAllStatement = prepareSelectAllStatement(session);
+    }
+
+    private PreparedStatement prepareInsertStatement(Session session) {
+        return session.prepare(insertInto(TABLE_NAME)
+            .value(TASK_ID, bindMarker(TASK_ID))
+            .value(TYPE, bindMarker(TYPE))
+            .value(STATUS, bindMarker(STATUS))
+            .value(SUBMITTED_DATE, bindMarker(SUBMITTED_DATE))
+            .value(STARTED_DATE, bindMarker(STARTED_DATE))
+            .value(COMPLETED_DATE, bindMarker(COMPLETED_DATE))
+            .value(CANCELED_DATE, bindMarker(CANCELED_DATE))
+            .value(FAILED_DATE, bindMarker(FAILED_DATE)));
+    }
+
+    private PreparedStatement prepareSelectStatement(Session session) {
+        return session.prepare(select()
+            .from(TABLE_NAME)
+            .where(eq(TASK_ID, bindMarker(TASK_ID))));
+    }
+
+    private PreparedStatement prepareSelectAllStatement(Session session) {
+        return session.prepare(select()
+            .from(TABLE_NAME));
+    }
+
+    @Override
+    public Optional<TaskExecutionDetails> load(TaskId taskId) {
+        return executor.executeSingleRowOptional(selectStatement.bind()
+                .setUUID(TASK_ID, taskId.getValue()))
+            .block()
+            .map(this::readDetails);
+    }
+
+    @Override
+    public List<TaskExecutionDetails> list() {
+        return executor.executeRows(selectAllStatement.bind())
+            .map(this::readDetails)
+            .collect(Guavate.toImmutableList())
+            .block();
+    }
+
+    @Override
+    public void update(TaskExecutionDetails details) {
+        executor.executeVoid(insertStatement.bind()
+                .setUUID(TASK_ID, details.getTaskId().getValue())
+                .setString(TYPE, details.getType())
+                .setString(STATUS, details.getStatus().getValue())
+                .setTimestamp(SUBMITTED_DATE, toDate(details.getSubmitDate()))
+                .setTimestamp(STARTED_DATE, toDate(details.getStartedDate()))
+                .setTimestamp(COMPLETED_DATE, toDate(details.getCompletedDate()))
+                .setTimestamp(CANCELED_DATE, toDate(details.getCanceledDate()))
+                .setTimestamp(FAILED_DATE, toDate(details.getFailedDate())))
+            .block();
+    }
+
+    private TaskExecutionDetails readDetails(Row row) {
+        return new TaskExecutionDetails(
+            new TaskId(row.getUUID(TASK_ID)),
+            row.getString(TYPE),
+            Optional::empty,
+            TaskManager.Status.fromString(row.getString(STATUS)),
+            toZonedDateTime(row.getTimestamp(SUBMITTED_DATE)),
+            toZonedDateTime(row.getTimestamp(STARTED_DATE)),
+            toZonedDateTime(row.getTimestamp(COMPLETED_DATE)),
+            toZonedDateTime(row.getTimestamp(CANCELED_DATE)),
+            toZonedDateTime(row.getTimestamp(FAILED_DATE)));
+    }
+
+    private Date toDate(Optional<ZonedDateTime> date) {
+        return date.map(ZonedDateTime::toInstant)
+            .map(Date::from)
+            .orElse(null);
+    }
+
+    private Optional<ZonedDateTime> toZonedDateTime(Date date) {
+        return Optional.ofNullable(date)
+            .map(Date::toInstant)
+            .map(instant -> ZonedDateTime.ofInstant(instant, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,41 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing.cassandra;
+
+import static com.datastax.driver.core.DataType.text;
+import static com.datastax.driver.core.DataType.timestamp;
+import static com.datastax.driver.core.DataType.uuid;
+
+import org.apache.james.backends.cassandra.components.CassandraModule;
+
+public interface CassandraTaskExecutionDetailsProjectionModule {
+    CassandraModule MODULE = CassandraModule.table(CassandraTaskExecutionDetailsProjectionTable.TABLE_NAME)
+        .comment("Projection of the task events, allowing any James node to retrieve the execution details of a task.")
+        .statement(statement -> statement
+            .addPartitionKey(CassandraTaskExecutionDetailsProjectionTable.TASK_ID, uuid())
+            .addColumn(CassandraTaskExecutionDetailsProjectionTable.TYPE, text())
+            .addColumn(CassandraTaskExecutionDetailsProjectionTable.STATUS, text())
+            .addColumn(CassandraTaskExecutionDetailsProjectionTable.SUBMITTED_DATE, timestamp())
+            .addColumn(CassandraTaskExecutionDetailsProjectionTable.STARTED_DATE, timestamp())
+            .addColumn(CassandraTaskExecutionDetailsProjectionTable.COMPLETED_DATE, timestamp())
+            .addColumn(CassandraTaskExecutionDetailsProjectionTable.CANCELED_DATE, timestamp())
+            .addColumn(CassandraTaskExecutionDetailsProjectionTable.FAILED_DATE, timestamp()))
+        .build();
+}
@@ -0,0 +1,146 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing.cassandra;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import org.apache.james.eventsourcing.EventId;
+import org.apache.james.eventsourcing.eventstore.cassandra.dto.EventDTO;
+import org.apache.james.task.eventsourcing.CancelRequested;
+import org.apache.james.task.eventsourcing.Cancelled;
+import org.apache.james.task.eventsourcing.Completed;
+import org.apache.james.task.eventsourcing.Created;
+import org.apache.james.task.eventsourcing.Failed;
+import org.apache.james.task.eventsourcing.Started;
+import org.apache.james.task.eventsourcing.TaskAggregateId;
+import org.apache.james.task.eventsourcing.TaskEvent;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Preconditions;
+
+class TaskEventDTO implements EventDTO {
+
+    public static TaskEventDTO from(TaskEvent event, String type) {
+        return new TaskEventDTO(
+            type,
+            event.eventId().serialize(),
+            event.getAggregateId().asAggregateKey(),
+            Optional.empty(),
+            Optional.empty());
+    }
+
+    public static TaskEventDTO fromCreated(Created event, String type) {
+        return new TaskEventDTO(
+            type,
+            event.eventId().serialize(),
+            event.getAggregateId().asAggregateKey(),
+            Optional.of(event.getType()),
+            Optional.of(event.getNodeId()));
+    }
+
+    private final String type;
+    private final int eventId;
+    private final String aggregateId;
+    private final Optional<String> taskType;
+    private final Optional<String> nodeId;
+
+    @JsonCreator
+    private TaskEventDTO(
+            @JsonProperty("type") String type,
+            @JsonProperty("eventId") int eventId,
+            @JsonProperty("aggregateId") String aggregateId,
+            @JsonProperty("taskType") Optional<String> taskType,
+            @JsonProperty("nodeId") Optional<String> nodeId) {
+        Preconditions.checkNotNull(type);
+        Preconditions.checkNotNull(aggregateId);
+
+        this.type = type;
+        this.eventId = eventId;
+        this.aggregateId = aggregateId;
+        this.taskType = taskType;
+        this.nodeId = nodeId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getEventId() {
+        return eventId;
+    }
+
+    public String getAggregateId() {
+        return aggregateId;
+    }
+
+    public Optional<String> getTaskType() {
+        return taskType;
+    }
+
+    public Optional<String> getNodeId() {
+        return nodeId;
+    }
+
+    @JsonIgnore
+    @Override
+    public TaskEvent toEvent() {
+        TaskAggregateId taskAggregateId = TaskAggregateId.parse(aggregateId);
+        EventId id = EventId.fromSerialized(eventId);
+
+        switch (type) {
+            case TaskEventModules.CREATED:
+                return new Created(taskAggregateId, id, taskType.get(), nodeId.get());
+            case TaskEventModules.STARTED:
+                return new Started(taskAggregateId, id);
+            case TaskEventModules.COMPLETED:
+                return new Completed(taskAggregateId, id);
+            case TaskEventModules.FAILED:
+                return new Failed(taskAggregateId, id);
+            case TaskEventModules.CANCEL_REQUESTED:
+                return new CancelRequested(taskAggregateId, id);
+            case TaskEventModules.CANCELLED:
+                return new Cancelled(taskAggregateId, id);
+            default:
+                throw new IllegalStateException("Unknown task event type " + type);
+        }
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof TaskEventDTO) {
+            TaskEventDTO that = (TaskEventDTO) o;
+
+            return Objects.equals(this.eventId, that.eventId)
+                && Objects.equals(this.type, that.type)
+                && Objects.equals(this.aggregateId, that.aggregateId)
+                && Objects.equals(this.taskType, that.taskType)
+                && Objects.equals(this.nodeId, that.nodeId);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(type, eventId, aggregateId, taskType, nodeId);
+    }
+}
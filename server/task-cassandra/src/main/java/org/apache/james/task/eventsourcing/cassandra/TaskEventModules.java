@@ -0,0 +1,79 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing.cassandra;
+
+import org.apache.james.eventsourcing.eventstore.cassandra.dto.EventDTOModule;
+import org.apache.james.task.eventsourcing.CancelRequested;
+import org.apache.james.task.eventsourcing.Cancelled;
+import org.apache.james.task.eventsourcing.Completed;
+import org.apache.james.task.eventsourcing.Created;
+import org.apache.james.task.eventsourcing.Failed;
+import org.apache.james.task.eventsourcing.Started;
+
+public interface TaskEventModules {
+    String CREATED = "task-created";
+    String STARTED = "task-started";
+    String COMPLETED = "task-completed";
+    String FAILED = "task-failed";
+    String CANCEL_REQUESTED = "task-cancel-requested";
+    String CANCELLED = "task-cancelled";
+
+    EventDTOModule<Created, TaskEventDTO> TASK_CREATED =
+        EventDTOModule
+            .forEvent(Created.class)
+            .convertToDTO(TaskEventDTO.class)
+            .convertWith(TaskEventDTO::fromCreated)
+            .typeName(CREATED);
+
+    EventDTOModule<Started, TaskEventDTO> TASK_STARTED =
+        EventDTOModule
+            .forEvent(Started.class)
+            .convertToDTO(TaskEventDTO.class)
+            .convertWith(TaskEventDTO::from)
+            .typeName(STARTED);
+
+    EventDTOModule<Completed, TaskEventDTO> TASK_COMPLETED =
+        EventDTOModule
+            .forEvent(Completed.class)
+            .convertToDTO(TaskEventDTO.class)
+            .convertWith(TaskEventDTO::from)
+            .typeName(COMPLETED);
+
+    EventDTOModule<Failed, TaskEventDTO> TASK_FAILED =
+        EventDTOModule
+            .forEvent(Failed.class)
+            .convertToDTO(TaskEventDTO.class)
+            .convertWith(TaskEventDTO::from)
+            .typeName(FAILED);
+
+    EventDTOModule<CancelRequested, TaskEventDTO> TASK_CANCEL_REQUESTED =
+        EventDTOModule
+            .forEvent(CancelRequested.class)
+            .convertToDTO(TaskEventDTO.class)
+            .convertWith(TaskEventDTO::from)
+            .typeName(CANCEL_REQUESTED);
+
+    EventDTOModule<Cancelled, TaskEventDTO> TASK_CANCELLED =
+        EventDTOModule
+            .forEvent(Cancelled.class)
+            .convertToDTO(TaskEventDTO.class)
+            .convertWith(TaskEventDTO::from)
+            .typeName(CANCELLED);
+}
@@ -0,0 +1,78 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing.cassandra;
+
+import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.apache.james.eventsourcing.EventId;
+import org.apache.james.eventsourcing.eventstore.cassandra.JsonEventSerializer;
+import org.apache.james.task.TaskId;
+import org.apache.james.task.eventsourcing.Cancelled;
+import org.apache.james.task.eventsourcing.Created;
+import org.apache.james.task.eventsourcing.TaskAggregateId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TaskEventDTOTest {
+    private static final TaskAggregateId AGGREGATE_ID = new TaskAggregateId(
+        new TaskId(UUID.fromString("2c7f4081-aa30-11e9-bf6c-2d3b9e84aafd")));
+    private static final Created CREATED = new Created(AGGREGATE_ID, EventId.first(), "fullReIndexing", "node1");
+    private static final Cancelled CANCELLED = new Cancelled(AGGREGATE_ID, EventId.fromSerialized(1));
+    private static final String CREATED_JSON = "{\"type\":\"task-created\",\"eventId\":0," +
+        "\"aggregateId\":\"Task/2c7f4081-aa30-11e9-bf6c-2d3b9e84aafd\",\"taskType\":\"fullReIndexing\",\"nodeId\":\"node1\"}";
+    private static final String CANCELLED_JSON = "{\"type\":\"task-cancelled\",\"eventId\":1," +
+        "\"aggregateId\":\"Task/2c7f4081-aa30-11e9-bf6c-2d3b9e84aafd\"}";
+
+    private JsonEventSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        serializer = new JsonEventSerializer(
+            TaskEventModules.TASK_CREATED,
+            TaskEventModules.TASK_STARTED,
+            TaskEventModules.TASK_COMPLETED,
+            TaskEventModules.TASK_FAILED,
+            TaskEventModules.TASK_CANCEL_REQUESTED,
+            TaskEventModules.TASK_CANCELLED);
+    }
+
+    @Test
+    void createdShouldBeSerialized() throws Exception {
+        assertThatJson(serializer.serialize(CREATED)).isEqualTo(CREATED_JSON);
+    }
+
+    @Test
+    void createdShouldBeDeserialized() throws Exception {
+        assertThat(serializer.deserialize(CREATED_JSON)).isEqualTo(CREATED);
+    }
+
+    @Test
+    void cancelledShouldBeSerialized() throws Exception {
+        assertThatJson(serializer.serialize(CANCELLED)).isEqualTo(CANCELLED_JSON);
+    }
+
+    @Test
+    void cancelledShouldBeDeserialized() throws Exception {
+        assertThat(serializer.deserialize(CANCELLED_JSON)).isEqualTo(CANCELLED);
+    }
+}
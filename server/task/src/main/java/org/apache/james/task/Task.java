@@ -61,6 +61,15 @@ public interface Task {
         }
     }
 
+    /**
+     * Tasks waiting for a worker are picked by priority, then by submission order.
+     */
+    enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
     static Result combine(Result result1, Result result2) {
         if (result1 == Result.COMPLETED
             && result2 == Result.COMPLETED) {
@@ -81,6 +90,10 @@ public interface Task {
         return UNKNOWN;
     }
 
+    default Priority priority() {
+        return Priority.NORMAL;
+    }
+
     default Optional<TaskExecutionDetails.AdditionalInformation> details() {
         return Optional.empty();
     }
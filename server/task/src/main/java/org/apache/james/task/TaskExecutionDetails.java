@@ -21,6 +21,7 @@ package org.apache.james.task;
 
 import java.time.ZonedDateTime;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import com.google.common.base.Preconditions;
 
@@ -42,8 +43,22 @@ public class TaskExecutionDetails {
             Optional.empty());
     }
 
+    public static TaskExecutionDetails from(TaskId id, String type) {
+        return new TaskExecutionDetails(
+            id,
+            type,
+            Optional::empty,
+            TaskManager.Status.WAITING,
+            Optional.of(ZonedDateTime.now()),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty());
+    }
+
     private final TaskId taskId;
-    private final Task task;
+    private final String type;
+    private final Supplier<Optional<AdditionalInformation>> additionalInformation;
     private final TaskManager.Status status;
     private final Optional<ZonedDateTime> submitDate;
     private final Optional<ZonedDateTime> startedDate;
@@ -55,8 +70,17 @@ public class TaskExecutionDetails {
                                 Optional<ZonedDateTime> submitDate, Optional<ZonedDateTime> startedDate,
                                 Optional<ZonedDateTime> completedDate, Optional<ZonedDateTime> canceledDate,
                                 Optional<ZonedDateTime> failedDate) {
+        this(taskId, task.type(), task::details, status, submitDate, startedDate, completedDate, canceledDate, failedDate);
+    }
+
+    public TaskExecutionDetails(TaskId taskId, String type, Supplier<Optional<AdditionalInformation>> additionalInformation,
+                                TaskManager.Status status,
+                                Optional<ZonedDateTime> submitDate, Optional<ZonedDateTime> startedDate,
+                                Optional<ZonedDateTime> completedDate, Optional<ZonedDateTime> canceledDate,
+                                Optional<ZonedDateTime> failedDate) {
         this.taskId = taskId;
-        this.task = task;
+        this.type = type;
+        this.additionalInformation = additionalInformation;
         this.status = status;
         this.submitDate = submitDate;
         this.startedDate = startedDate;
@@ -70,7 +94,7 @@ public class TaskExecutionDetails {
     }
 
     public String getType() {
-        return task.type();
+        return type;
     }
 
     public TaskManager.Status getStatus() {
@@ -78,7 +102,7 @@ public class TaskExecutionDetails {
     }
 
     public Optional<AdditionalInformation> getAdditionalInformation() {
-        return task.details();
+        return additionalInformation.get();
     }
 
     public Optional<ZonedDateTime> getSubmitDate() {
@@ -105,7 +129,8 @@ public class TaskExecutionDetails {
         Preconditions.checkState(status == TaskManager.Status.WAITING);
         return new TaskExecutionDetails(
             taskId,
-            task,
+            type,
+            additionalInformation,
             TaskManager.Status.IN_PROGRESS,
             submitDate,
             Optional.of(ZonedDateTime.now()),
@@ -118,7 +143,8 @@ public class TaskExecutionDetails {
         Preconditions.checkState(status == TaskManager.Status.IN_PROGRESS);
         return new TaskExecutionDetails(
             taskId,
-            task,
+            type,
+            additionalInformation,
             TaskManager.Status.COMPLETED,
             submitDate,
             startedDate,
@@ -128,10 +154,12 @@ public class TaskExecutionDetails {
     }
 
     public TaskExecutionDetails failed() {
-        Preconditions.checkState(status == TaskManager.Status.IN_PROGRESS);
+        Preconditions.checkState(status == TaskManager.Status.IN_PROGRESS
+            || status == TaskManager.Status.WAITING);
         return new TaskExecutionDetails(
             taskId,
-            task,
+            type,
+            additionalInformation,
             TaskManager.Status.FAILED,
             submitDate,
             startedDate,
@@ -145,7 +173,8 @@ public class TaskExecutionDetails {
             || status == TaskManager.Status.WAITING);
         return new TaskExecutionDetails(
             taskId,
-            task,
+            type,
+            additionalInformation,
             TaskManager.Status.CANCELLED,
             submitDate,
             startedDate,
@@ -153,4 +182,17 @@ public class TaskExecutionDetails {
             Optional.of(ZonedDateTime.now()),
             Optional.empty());
     }
+
+    public TaskExecutionDetails withAdditionalInformation(Supplier<Optional<AdditionalInformation>> additionalInformation) {
+        return new TaskExecutionDetails(
+            taskId,
+            type,
+            additionalInformation,
+            status,
+            submitDate,
+            startedDate,
+            completedDate,
+            canceledDate,
+            failedDate);
+    }
 }
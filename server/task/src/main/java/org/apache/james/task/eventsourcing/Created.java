@@ -0,0 +1,79 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing;
+
+import java.util.Objects;
+
+import org.apache.james.eventsourcing.EventId;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+public class Created extends TaskEvent {
+    private final String type;
+    private final String nodeId;
+
+    public Created(TaskAggregateId aggregateId, EventId eventId, String type, String nodeId) {
+        super(aggregateId, eventId);
+        Preconditions.checkNotNull(type);
+        Preconditions.checkNotNull(nodeId);
+
+        this.type = type;
+        this.nodeId = nodeId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return the identifier of the node executing the task
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof Created) {
+            Created that = (Created) o;
+
+            return super.equals(that)
+                && Objects.equals(this.type, that.type)
+                && Objects.equals(this.nodeId, that.nodeId);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(super.hashCode(), type, nodeId);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("aggregateId", getAggregateId())
+            .add("eventId", eventId())
+            .add("type", type)
+            .add("nodeId", nodeId)
+            .toString();
+    }
+}
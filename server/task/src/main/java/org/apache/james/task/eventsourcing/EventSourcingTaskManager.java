@@ -0,0 +1,279 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.apache.james.eventsourcing.EventSourcingSystem;
+import org.apache.james.eventsourcing.eventstore.EventStore;
+import org.apache.james.task.Task;
+import org.apache.james.task.TaskExecutionDetails;
+import org.apache.james.task.TaskId;
+import org.apache.james.task.TaskManager;
+import org.apache.james.task.TaskNotFoundException;
+import org.apache.james.util.MDCBuilder;
+import org.apache.james.util.concurrent.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.fge.lambdas.Throwing;
+import com.github.steveash.guavate.Guavate;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * {@link TaskManager} persisting the lifecycle of tasks in an {@link EventStore}.
+ *
+ * Tasks are executed by a pool of workers on the node they are submitted to, by priority then submission order. Work is
+ * not distributed across the cluster: tasks are in-memory closures that can not be handed over to another node, so
+ * only their state is shared. Their status can be retrieved, and they can be cancelled, from any node sharing the event
+ * store and the {@link TaskExecutionDetailsProjection}. Cancellations requested by other nodes are looked up every
+ * polling interval.
+ *
+ * Upon {@link #start()}, tasks left waiting or in progress by a previous run of this node are marked as failed.
+ */
+public class EventSourcingTaskManager implements TaskManager {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventSourcingTaskManager.class);
+    private static final boolean INTERRUPT_IF_RUNNING = true;
+    private static final ImmutableSet<Status> PENDING_STATUSES = ImmutableSet.of(Status.WAITING, Status.IN_PROGRESS);
+
+    private static class PrioritizedTask extends FutureTask<Void> implements Comparable<PrioritizedTask> {
+        private static final Comparator<PrioritizedTask> COMPARATOR = Comparator
+            .comparing((PrioritizedTask prioritizedTask) -> prioritizedTask.priority)
+            .thenComparingLong(prioritizedTask -> prioritizedTask.sequenceNumber);
+
+        private final Task.Priority priority;
+        private final long sequenceNumber;
+
+        PrioritizedTask(Task.Priority priority, long sequenceNumber, Runnable runnable) {
+            super(runnable, null);
+            this.priority = priority;
+            this.sequenceNumber = sequenceNumber;
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            return COMPARATOR.compare(this, other);
+        }
+    }
+
+    private final EventStore eventStore;
+    private final TaskExecutionDetailsProjection projection;
+    private final EventSourcingTaskManagerConfiguration configuration;
+    private final EventSourcingSystem eventSourcingSystem;
+    private final ConcurrentHashMap<TaskId, Task> localTasks;
+    private final ConcurrentHashMap<TaskId, PrioritizedTask> idToFuture;
+    private final AtomicLong sequenceNumber;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService cancellationPoller;
+
+    @Inject
+    public EventSourcingTaskManager(EventStore eventStore, TaskExecutionDetailsProjection projection,
+                                    EventSourcingTaskManagerConfiguration configuration) {
+        this.eventStore = eventStore;
+        this.projection = projection;
+        this.configuration = configuration;
+        this.eventSourcingSystem = new EventSourcingSystem(
+            TaskCommandHandler.all(eventStore),
+            ImmutableSet.of(new TaskExecutionDetailsProjectionUpdater(projection)),
+            eventStore);
+        this.localTasks = new ConcurrentHashMap<>();
+        this.idToFuture = new ConcurrentHashMap<>();
+        this.sequenceNumber = new AtomicLong();
+        this.workers = new ThreadPoolExecutor(configuration.getWorkerCount(), configuration.getWorkerCount(),
+            0L, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(),
+            NamedThreadFactory.withClassName(getClass()));
+        this.cancellationPoller = Executors.newSingleThreadScheduledExecutor(
+            NamedThreadFactory.withName(getClass().getSimpleName() + "-cancellation-poller"));
+    }
+
+    public void start() {
+        failTasksInterruptedByRestart();
+        long pollingIntervalInMs = configuration.getPollingInterval().toMillis();
+        cancellationPoller.scheduleWithFixedDelay(this::applyRemoteCancellations,
+            pollingIntervalInMs, pollingIntervalInMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public TaskId submit(Task task) {
+        TaskId taskId = TaskId.generateTaskId();
+        eventSourcingSystem.dispatch(new TaskCommand.Create(taskId, task.type(), configuration.getNodeId()));
+
+        PrioritizedTask prioritizedTask = new PrioritizedTask(task.priority(), sequenceNumber.incrementAndGet(),
+            () -> runWithMdc(taskId, task));
+        localTasks.put(taskId, task);
+        idToFuture.put(taskId, prioritizedTask);
+        workers.execute(prioritizedTask);
+        return taskId;
+    }
+
+    private void runWithMdc(TaskId taskId, Task task) {
+        MDCBuilder.withMdc(
+            MDCBuilder.create()
+                .addContext(Task.TASK_ID, taskId)
+                .addContext(Task.TASK_TYPE, task.type())
+                .addContext(Task.TASK_DETAILS, task.details()),
+            () -> run(taskId, task));
+    }
+
+    private void run(TaskId taskId, Task task) {
+        try {
+            eventSourcingSystem.dispatch(new TaskCommand.Start(taskId));
+            if (!hasStatus(taskId, Status.IN_PROGRESS)) {
+                return;
+            }
+            task.run()
+                .onComplete(() -> eventSourcingSystem.dispatch(new TaskCommand.Complete(taskId)))
+                .onComplete(() -> LOGGER.info("Task success"))
+                .onFailure(() -> eventSourcingSystem.dispatch(new TaskCommand.Fail(taskId)))
+                .onFailure(() -> LOGGER.info("Task was partially performed. Check logs for more details"));
+        } catch (Exception e) {
+            eventSourcingSystem.dispatch(new TaskCommand.Fail(taskId));
+            LOGGER.error("Error while running task", e);
+        } finally {
+            idToFuture.remove(taskId);
+        }
+    }
+
+    private boolean hasStatus(TaskId taskId, Status status) {
+        return loadAggregate(taskId).getStatus()
+            .map(status::equals)
+            .orElse(false);
+    }
+
+    private TaskAggregate loadAggregate(TaskId taskId) {
+        TaskAggregateId aggregateId = new TaskAggregateId(taskId);
+        return TaskAggregate.load(aggregateId, eventStore.getEventsOfAggregate(aggregateId));
+    }
+
+    @Override
+    public TaskExecutionDetails getExecutionDetails(TaskId id) {
+        return projection.load(id)
+            .map(this::withLocalInformation)
+            .orElseThrow(TaskNotFoundException::new);
+    }
+
+    @Override
+    public List<TaskExecutionDetails> list() {
+        return projection.list()
+            .stream()
+            .map(this::withLocalInformation)
+            .collect(Guavate.toImmutableList());
+    }
+
+    @Override
+    public List<TaskExecutionDetails> list(Status status) {
+        return projection.list()
+            .stream()
+            .filter(details -> details.getStatus().equals(status))
+            .map(this::withLocalInformation)
+            .collect(Guavate.toImmutableList());
+    }
+
+    private TaskExecutionDetails withLocalInformation(TaskExecutionDetails details) {
+        return Optional.ofNullable(localTasks.get(details.getTaskId()))
+            .map(task -> details.withAdditionalInformation(task::details))
+            .orElse(details);
+    }
+
+    @Override
+    public void cancel(TaskId id) {
+        Optional<PrioritizedTask> localFuture = Optional.ofNullable(idToFuture.get(id));
+        if (localFuture.isPresent()) {
+            cancelLocally(id, localFuture.get());
+        } else {
+            eventSourcingSystem.dispatch(new TaskCommand.RequestCancel(id));
+        }
+    }
+
+    private void cancelLocally(TaskId id, PrioritizedTask future) {
+        eventSourcingSystem.dispatch(new TaskCommand.Cancel(id));
+        future.cancel(INTERRUPT_IF_RUNNING);
+        idToFuture.remove(id);
+    }
+
+    private void applyRemoteCancellations() {
+        try {
+            idToFuture.forEach((id, future) -> {
+                if (loadAggregate(id).isCancelRequested()) {
+                    cancelLocally(id, future);
+                }
+            });
+        } catch (Exception e) {
+            LOGGER.error("Error while looking up task cancellations", e);
+        }
+    }
+
+    private void failTasksInterruptedByRestart() {
+        projection.list()
+            .stream()
+            .filter(details -> PENDING_STATUSES.contains(details.getStatus()))
+            .map(TaskExecutionDetails::getTaskId)
+            .filter(id -> !idToFuture.containsKey(id))
+            .filter(id -> loadAggregate(id).getNodeId().map(configuration.getNodeId()::equals).orElse(false))
+            .forEach(id -> {
+                LOGGER.warn("Task {} was interrupted by a restart of this node and is marked as failed", id);
+                eventSourcingSystem.dispatch(new TaskCommand.Fail(id));
+            });
+    }
+
+    @Override
+    public TaskExecutionDetails await(TaskId id) {
+        Optional<PrioritizedTask> localFuture = Optional.ofNullable(idToFuture.get(id));
+        if (localFuture.isPresent()) {
+            try {
+                localFuture.get().get();
+            } catch (CancellationException e) {
+                LOGGER.debug("Awaited task {} was cancelled", id);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        } else if (!localTasks.containsKey(id)) {
+            awaitRemotely(id);
+        }
+        return getExecutionDetails(id);
+    }
+
+    private void awaitRemotely(TaskId id) {
+        while (PENDING_STATUSES.contains(getExecutionDetails(id).getStatus())) {
+            Throwing.runnable(() -> Thread.sleep(configuration.getPollingInterval().toMillis())).run();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        cancellationPoller.shutdownNow();
+        workers.shutdownNow();
+    }
+}
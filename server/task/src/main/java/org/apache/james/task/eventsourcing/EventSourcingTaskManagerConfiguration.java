@@ -0,0 +1,145 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+public class EventSourcingTaskManagerConfiguration {
+    public static final int DEFAULT_WORKER_COUNT = 2;
+    public static final Duration DEFAULT_POLLING_INTERVAL = Duration.ofSeconds(10);
+
+    public static class Builder {
+        private Optional<String> nodeId;
+        private Optional<Integer> workerCount;
+        private Optional<Duration> pollingInterval;
+
+        private Builder() {
+            nodeId = Optional.empty();
+            workerCount = Optional.empty();
+            pollingInterval = Optional.empty();
+        }
+
+        public Builder nodeId(String nodeId) {
+            Preconditions.checkNotNull(nodeId);
+            Preconditions.checkArgument(!nodeId.isEmpty(), "'nodeId' can not be empty");
+
+            this.nodeId = Optional.of(nodeId);
+            return this;
+        }
+
+        public Builder workerCount(int workerCount) {
+            Preconditions.checkArgument(workerCount > 0, "'workerCount' needs to be strictly positive");
+
+            this.workerCount = Optional.of(workerCount);
+            return this;
+        }
+
+        public Builder workerCount(Optional<Integer> workerCount) {
+            workerCount.ifPresent(this::workerCount);
+            return this;
+        }
+
+        public Builder pollingInterval(Duration pollingInterval) {
+            Preconditions.checkNotNull(pollingInterval);
+            Preconditions.checkArgument(!pollingInterval.isNegative() && !pollingInterval.isZero(), "'pollingInterval' needs to be strictly positive");
+
+            this.pollingInterval = Optional.of(pollingInterval);
+            return this;
+        }
+
+        public Builder pollingInterval(Optional<Duration> pollingInterval) {
+            pollingInterval.ifPresent(this::pollingInterval);
+            return this;
+        }
+
+        public EventSourcingTaskManagerConfiguration build() {
+            Preconditions.checkState(nodeId.isPresent(), "'nodeId' is compulsory");
+
+            return new EventSourcingTaskManagerConfiguration(
+                nodeId.get(),
+                workerCount.orElse(DEFAULT_WORKER_COUNT),
+                pollingInterval.orElse(DEFAULT_POLLING_INTERVAL));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final String nodeId;
+    private final int workerCount;
+    private final Duration pollingInterval;
+
+    private EventSourcingTaskManagerConfiguration(String nodeId, int workerCount, Duration pollingInterval) {
+        this.nodeId = nodeId;
+        this.workerCount = workerCount;
+        this.pollingInterval = pollingInterval;
+    }
+
+    /**
+     * @return the identifier of this node. It needs to be stable across restarts in order to fail the tasks
+     * interrupted by a restart.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * @return the delay between two lookups of cancellations requested by other nodes
+     */
+    public Duration getPollingInterval() {
+        return pollingInterval;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof EventSourcingTaskManagerConfiguration) {
+            EventSourcingTaskManagerConfiguration that = (EventSourcingTaskManagerConfiguration) o;
+
+            return Objects.equals(this.workerCount, that.workerCount)
+                && Objects.equals(this.nodeId, that.nodeId)
+                && Objects.equals(this.pollingInterval, that.pollingInterval);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(nodeId, workerCount, pollingInterval);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("nodeId", nodeId)
+            .add("workerCount", workerCount)
+            .add("pollingInterval", pollingInterval)
+            .toString();
+    }
+}
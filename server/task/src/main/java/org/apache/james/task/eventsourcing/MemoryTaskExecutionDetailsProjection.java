@@ -0,0 +1,52 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.james.task.TaskExecutionDetails;
+import org.apache.james.task.TaskId;
+
+import com.google.common.collect.ImmutableList;
+
+public class MemoryTaskExecutionDetailsProjection implements TaskExecutionDetailsProjection {
+    private final ConcurrentHashMap<TaskId, TaskExecutionDetails> details;
+
+    public MemoryTaskExecutionDetailsProjection() {
+        this.details = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Optional<TaskExecutionDetails> load(TaskId taskId) {
+        return Optional.ofNullable(details.get(taskId));
+    }
+
+    @Override
+    public List<TaskExecutionDetails> list() {
+        return ImmutableList.copyOf(details.values());
+    }
+
+    @Override
+    public void update(TaskExecutionDetails details) {
+        this.details.put(details.getTaskId(), details);
+    }
+}
@@ -0,0 +1,138 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.james.eventsourcing.Event;
+import org.apache.james.eventsourcing.eventstore.History;
+import org.apache.james.task.TaskManager;
+
+import com.google.common.collect.ImmutableList;
+
+public class TaskAggregate {
+
+    public static TaskAggregate load(TaskAggregateId aggregateId, History history) {
+        return new TaskAggregate(aggregateId, history);
+    }
+
+    private final TaskAggregateId aggregateId;
+    private final History history;
+    private Optional<TaskManager.Status> status;
+    private Optional<String> nodeId;
+    private boolean cancelRequested;
+
+    private TaskAggregate(TaskAggregateId aggregateId, History history) {
+        this.aggregateId = aggregateId;
+        this.history = history;
+        this.status = Optional.empty();
+        this.nodeId = Optional.empty();
+        this.cancelRequested = false;
+        history.getEvents().forEach(this::apply);
+    }
+
+    public Optional<TaskManager.Status> getStatus() {
+        return status;
+    }
+
+    public Optional<String> getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public List<Event> create(String type, String nodeId) {
+        if (status.isPresent()) {
+            return ImmutableList.of();
+        }
+        return ImmutableList.of(new Created(aggregateId, history.getNextEventId(), type, nodeId));
+    }
+
+    public List<Event> start() {
+        if (!hasStatus(TaskManager.Status.WAITING)) {
+            return ImmutableList.of();
+        }
+        if (cancelRequested) {
+            return ImmutableList.of(new Cancelled(aggregateId, history.getNextEventId()));
+        }
+        return ImmutableList.of(new Started(aggregateId, history.getNextEventId()));
+    }
+
+    public List<Event> complete() {
+        if (!hasStatus(TaskManager.Status.IN_PROGRESS)) {
+            return ImmutableList.of();
+        }
+        return ImmutableList.of(new Completed(aggregateId, history.getNextEventId()));
+    }
+
+    public List<Event> fail() {
+        if (!isPending()) {
+            return ImmutableList.of();
+        }
+        return ImmutableList.of(new Failed(aggregateId, history.getNextEventId()));
+    }
+
+    public List<Event> requestCancel() {
+        if (!isPending() || cancelRequested) {
+            return ImmutableList.of();
+        }
+        return ImmutableList.of(new CancelRequested(aggregateId, history.getNextEventId()));
+    }
+
+    public List<Event> cancel() {
+        if (!isPending()) {
+            return ImmutableList.of();
+        }
+        return ImmutableList.of(new Cancelled(aggregateId, history.getNextEventId()));
+    }
+
+    private boolean isPending() {
+        return hasStatus(TaskManager.Status.WAITING) || hasStatus(TaskManager.Status.IN_PROGRESS);
+    }
+
+    private boolean hasStatus(TaskManager.Status expected) {
+        return status.map(expected::equals).orElse(false);
+    }
+
+    private void apply(Event event) {
+        if (event instanceof Created) {
+            status = Optional.of(TaskManager.Status.WAITING);
+            nodeId = Optional.of(((Created) event).getNodeId());
+        }
+        if (event instanceof Started) {
+            status = Optional.of(TaskManager.Status.IN_PROGRESS);
+        }
+        if (event instanceof Completed) {
+            status = Optional.of(TaskManager.Status.COMPLETED);
+        }
+        if (event instanceof Failed) {
+            status = Optional.of(TaskManager.Status.FAILED);
+        }
+        if (event instanceof CancelRequested) {
+            cancelRequested = true;
+        }
+        if (event instanceof Cancelled) {
+            status = Optional.of(TaskManager.Status.CANCELLED);
+        }
+    }
+}
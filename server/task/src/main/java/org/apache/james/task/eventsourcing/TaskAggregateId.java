@@ -0,0 +1,80 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing;
+
+import java.util.Objects;
+import java.util.UUID;
+
+import org.apache.james.eventsourcing.AggregateId;
+import org.apache.james.task.TaskId;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+public class TaskAggregateId implements AggregateId {
+    private static final String SEPARATOR = "/";
+    private static final String PREFIX = "Task";
+
+    public static TaskAggregateId parse(String rawString) {
+        Preconditions.checkArgument(rawString.startsWith(PREFIX + SEPARATOR));
+
+        return new TaskAggregateId(new TaskId(UUID.fromString(
+            rawString.substring(PREFIX.length() + SEPARATOR.length()))));
+    }
+
+    private final TaskId taskId;
+
+    public TaskAggregateId(TaskId taskId) {
+        Preconditions.checkNotNull(taskId);
+
+        this.taskId = taskId;
+    }
+
+    public TaskId getTaskId() {
+        return taskId;
+    }
+
+    @Override
+    public String asAggregateKey() {
+        return PREFIX + SEPARATOR + taskId.getValue().toString();
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o instanceof TaskAggregateId) {
+            TaskAggregateId that = (TaskAggregateId) o;
+
+            return Objects.equals(this.taskId, that.taskId);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(taskId);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("taskId", taskId)
+            .toString();
+    }
+}
@@ -0,0 +1,117 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing;
+
+import java.util.Objects;
+
+import org.apache.james.eventsourcing.Command;
+import org.apache.james.task.TaskId;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+public abstract class TaskCommand implements Command {
+
+    public static class Create extends TaskCommand {
+        private final String type;
+        private final String nodeId;
+
+        public Create(TaskId taskId, String type, String nodeId) {
+            super(taskId);
+            Preconditions.checkNotNull(type);
+            Preconditions.checkNotNull(nodeId);
+
+            this.type = type;
+            this.nodeId = nodeId;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+    }
+
+    public static class Start extends TaskCommand {
+        public Start(TaskId taskId) {
+            super(taskId);
+        }
+    }
+
+    public static class Complete extends TaskCommand {
+        public Complete(TaskId taskId) {
+            super(taskId);
+        }
+    }
+
+    public static class Fail extends TaskCommand {
+        public Fail(TaskId taskId) {
+            super(taskId);
+        }
+    }
+
+    public static class RequestCancel extends TaskCommand {
+        public RequestCancel(TaskId taskId) {
+            super(taskId);
+        }
+    }
+
+    public static class Cancel extends TaskCommand {
+        public Cancel(TaskId taskId) {
+            super(taskId);
+        }
+    }
+
+    private final TaskId taskId;
+
+    protected TaskCommand(TaskId taskId) {
+        Preconditions.checkNotNull(taskId);
+
+        this.taskId = taskId;
+    }
+
+    public TaskId getTaskId() {
+        return taskId;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (o != null && o.getClass().equals(getClass())) {
+            TaskCommand that = (TaskCommand) o;
+
+            return Objects.equals(this.taskId, that.taskId);
+        }
+        return false;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(getClass(), taskId);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("taskId", taskId)
+            .toString();
+    }
+}
@@ -0,0 +1,67 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.apache.james.eventsourcing.CommandHandler;
+import org.apache.james.eventsourcing.Event;
+import org.apache.james.eventsourcing.eventstore.EventStore;
+
+import com.google.common.collect.ImmutableSet;
+
+public class TaskCommandHandler<C extends TaskCommand> implements CommandHandler<C> {
+
+    public static ImmutableSet<CommandHandler<?>> all(EventStore eventStore) {
+        return ImmutableSet.of(
+            new TaskCommandHandler<>(eventStore, TaskCommand.Create.class,
+                (aggregate, command) -> aggregate.create(command.getType(), command.getNodeId())),
+            new TaskCommandHandler<>(eventStore, TaskCommand.Start.class, (aggregate, command) -> aggregate.start()),
+            new TaskCommandHandler<>(eventStore, TaskCommand.Complete.class, (aggregate, command) -> aggregate.complete()),
+            new TaskCommandHandler<>(eventStore, TaskCommand.Fail.class, (aggregate, command) -> aggregate.fail()),
+            new TaskCommandHandler<>(eventStore, TaskCommand.RequestCancel.class, (aggregate, command) -> aggregate.requestCancel()),
+            new TaskCommandHandler<>(eventStore, TaskCommand.Cancel.class, (aggregate, command) -> aggregate.cancel()));
+    }
+
+    private final EventStore eventStore;
+    private final Class<C> handledClass;
+    private final BiFunction<TaskAggregate, C, List<Event>> action;
+
+    private TaskCommandHandler(EventStore eventStore, Class<C> handledClass, BiFunction<TaskAggregate, C, List<Event>> action) {
+        this.eventStore = eventStore;
+        this.handledClass = handledClass;
+        this.action = action;
+    }
+
+    @Override
+    public Class<C> handledClass() {
+        return handledClass;
+    }
+
+    @Override
+    public List<? extends Event> handle(C command) {
+        TaskAggregateId aggregateId = new TaskAggregateId(command.getTaskId());
+
+        return action.apply(
+            TaskAggregate.load(aggregateId, eventStore.getEventsOfAggregate(aggregateId)),
+            command);
+    }
+}
@@ -0,0 +1,83 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing;
+
+import java.util.Objects;
+
+import org.apache.james.eventsourcing.Event;
+import org.apache.james.eventsourcing.EventId;
+import org.apache.james.task.TaskId;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Base class for the events describing the lifecycle of a task.
+ */
+public abstract class TaskEvent implements Event {
+    private final TaskAggregateId aggregateId;
+    private final EventId eventId;
+
+    protected TaskEvent(TaskAggregateId aggregateId, EventId eventId) {
+        Preconditions.checkNotNull(aggregateId);
+        Preconditions.checkNotNull(eventId);
+
+        this.aggregateId = aggregateId;
+        this.eventId = eventId;
+    }
+
+    @Override
+    public EventId eventId() {
+        return eventId;
+    }
+
+    @Override
+    public TaskAggregateId getAggregateId() {
+        return aggregateId;
+    }
+
+    public TaskId getTaskId() {
+        return aggregateId.getTaskId();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o != null && o.getClass().equals(getClass())) {
+            TaskEvent that = (TaskEvent) o;
+
+            return Objects.equals(this.aggregateId, that.aggregateId)
+                && Objects.equals(this.eventId, that.eventId);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getClass(), aggregateId, eventId);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("aggregateId", aggregateId)
+            .add("eventId", eventId)
+            .toString();
+    }
+}
@@ -0,0 +1,64 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing;
+
+import java.util.Optional;
+
+import org.apache.james.eventsourcing.Event;
+import org.apache.james.eventsourcing.Subscriber;
+import org.apache.james.task.TaskExecutionDetails;
+
+public class TaskExecutionDetailsProjectionUpdater implements Subscriber {
+    private final TaskExecutionDetailsProjection projection;
+
+    public TaskExecutionDetailsProjectionUpdater(TaskExecutionDetailsProjection projection) {
+        this.projection = projection;
+    }
+
+    @Override
+    public void handle(Event event) {
+        if (event instanceof Created) {
+            Created created = (Created) event;
+            projection.update(TaskExecutionDetails.from(created.getTaskId(), created.getType()));
+        }
+        if (event instanceof TaskEvent) {
+            TaskEvent taskEvent = (TaskEvent) event;
+            projection.load(taskEvent.getTaskId())
+                .flatMap(details -> apply(details, taskEvent))
+                .ifPresent(projection::update);
+        }
+    }
+
+    private Optional<TaskExecutionDetails> apply(TaskExecutionDetails details, TaskEvent event) {
+        if (event instanceof Started) {
+            return Optional.of(details.start());
+        }
+        if (event instanceof Completed) {
+            return Optional.of(details.completed());
+        }
+        if (event instanceof Failed) {
+            return Optional.of(details.failed());
+        }
+        if (event instanceof Cancelled) {
+            return Optional.of(details.cancel());
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,201 @@
+/****************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one   *
+ * or more contributor license agreements.  See the NOTICE file *
+ * distributed with this work for additional information        *
+ * regarding copyright ownership.  The ASF licenses this file   *
+ * to you under the Apache License, Version 2.0 (the            *
+ * "License"); you may not use this file except in compliance   *
+ * with the License.  You may obtain a copy of the License at   *
+ *                                                              *
+ *   http://www.apache.org/licenses/LICENSE-2.0                 *
+ *                                                              *
+ * Unless required by applicable law or agreed to in writing,   *
+ * software distributed under the License is distributed on an  *
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY       *
+ * KIND, either express or implied.  See the License for the    *
+ * specific language governing permissions and limitations      *
+ * under the License.                                           *
+ ****************************************************************/
+
+package org.apache.james.task.eventsourcing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.james.eventsourcing.EventId;
+import org.apache.james.eventsourcing.eventstore.EventStore;
+import org.apache.james.eventsourcing.eventstore.memory.InMemoryEventStore;
+import org.apache.james.task.Task;
+import org.apache.james.task.TaskId;
+import org.apache.james.task.TaskManager;
+import org.apache.james.task.TaskNotFoundException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EventSourcingTaskManagerTest {
+    private static final String NODE_1 = "node1";
+    private static final String NODE_2 = "node2";
+    private static final Duration POLLING_INTERVAL = Duration.ofMillis(50);
+
+    private EventStore eventStore;
+    private TaskExecutionDetailsProjection projection;
+    private EventSourcingTaskManager taskManager1;
+    private EventSourcingTaskManager taskManager2;
+
+    @Before
+    public void setUp() {
+        eventStore = new InMemoryEventStore();
+        projection = new MemoryTaskExecutionDetailsProjection();
+        taskManager1 = taskManager(NODE_1, 1);
+        taskManager2 = taskManager(NODE_2, 1);
+    }
+
+    @After
+    public void tearDown() {
+        taskManager1.stop();
+        taskManager2.stop();
+    }
+
+    private EventSourcingTaskManager taskManager(String nodeId, int workerCount) {
+        EventSourcingTaskManager taskManager = new EventSourcingTaskManager(eventStore, projection,
+            EventSourcingTaskManagerConfiguration.builder()
+                .nodeId(nodeId)
+                .workerCount(workerCount)
+                .pollingInterval(POLLING_INTERVAL)
+                .build());
+        taskManager.start();
+        return taskManager;
+    }
+
+    @Test
+    public void getExecutionDetailsShouldThrowWhenUnknownId() {
+        assertThatThrownBy(() -> taskManager1.getExecutionDetails(TaskId.generateTaskId()))
+            .isInstanceOf(TaskNotFoundException.class);
+    }
+
+    @Test
+    public void awaitShouldReturnCompletedWhenTaskSucceeded() {
+        TaskId taskId = taskManager1.submit(() -> Task.Result.COMPLETED);
+
+        assertThat(taskManager1.await(taskId).getStatus())
+            .isEqualTo(TaskManager.Status.COMPLETED);
+    }
+
+    @Test
+    public void awaitShouldReturnFailedWhenTaskThrows() {
+        TaskId taskId = taskManager1.submit(() -> {
+            throw new RuntimeException();
+        });
+
+        assertThat(taskManager1.await(taskId).getStatus())
+            .isEqualTo(TaskManager.Status.FAILED);
+    }
+
+    @Test
+    public void getExecutionDetailsShouldBeAvailableFromOtherNodes() {
+        TaskId taskId = taskManager1.submit(() -> Task.Result.COMPLETED);
+        taskManager1.await(taskId);
+
+        assertThat(taskManager2.getExecutionDetails(taskId).getStatus())
+            .isEqualTo(TaskManager.Status.COMPLETED);
+    }
+
+    @Test
+    public void listShouldReturnTasksSubmittedOnAllNodes() {
+        TaskId taskId1 = taskManager1.submit(() -> Task.Result.COMPLETED);
+        TaskId taskId2 = taskManager2.submit(() -> Task.Result.COMPLETED);
+        taskManager1.await(taskId1);
+        taskManager2.await(taskId2);
+
+        assertThat(taskManager1.list(TaskManager.Status.COMPLETED))
+            .extracting(details -> details.getTaskId())
+            .containsOnly(taskId1, taskId2);
+    }
+
+    @Test
+    public void cancelShouldBeAppliedWhenRequestedFromAnotherNode() throws Exception {
+        CountDownLatch startedLatch = new CountDownLatch(1);
+        CountDownLatch neverReleasedLatch = new CountDownLatch(1);
+        TaskId taskId = taskManager1.submit(() -> {
+            startedLatch.countDown();
+            await(neverReleasedLatch);
+            return Task.Result.COMPLETED;
+        });
+        startedLatch.await();
+
+        taskManager2.cancel(taskId);
+
+        assertThat(taskManager2.await(taskId).getStatus())
+            .isEqualTo(TaskManager.Status.CANCELLED);
+    }
+
+    @Test
+    public void waitingTasksShouldBeRunByPriority() {
+        ConcurrentLinkedQueue<Task.Priority> executionOrder = new ConcurrentLinkedQueue<>();
+        CountDownLatch releaseLatch = new CountDownLatch(1);
+        taskManager1.submit(() -> {
+            await(releaseLatch);
+            return Task.Result.COMPLETED;
+        });
+        TaskId lowPriorityTask = taskManager1.submit(recordingTask(Task.Priority.LOW, executionOrder));
+        TaskId normalPriorityTask = taskManager1.submit(recordingTask(Task.Priority.NORMAL, executionOrder));
+        TaskId highPriorityTask = taskManager1.submit(recordingTask(Task.Priority.HIGH, executionOrder));
+
+        releaseLatch.countDown();
+        taskManager1.await(lowPriorityTask);
+        taskManager1.await(normalPriorityTask);
+        taskManager1.await(highPriorityTask);
+
+        assertThat(executionOrder)
+            .containsExactly(Task.Priority.HIGH, Task.Priority.NORMAL, Task.Priority.LOW);
+    }
+
+    @Test
+    public void startShouldFailPendingTasksOfTheRestartedNode() {
+        TaskId interruptedTask = TaskId.generateTaskId();
+        TaskId otherNodeTask = TaskId.generateTaskId();
+        simulateCreation(interruptedTask, NODE_1);
+        simulateCreation(otherNodeTask, NODE_2);
+
+        taskManager1.start();
+
+        assertThat(taskManager1.getExecutionDetails(interruptedTask).getStatus())
+            .isEqualTo(TaskManager.Status.FAILED);
+        assertThat(taskManager1.getExecutionDetails(otherNodeTask).getStatus())
+            .isEqualTo(TaskManager.Status.WAITING);
+    }
+
+    private void simulateCreation(TaskId taskId, String nodeId) {
+        Created created = new Created(new TaskAggregateId(taskId), EventId.first(), "test", nodeId);
+        eventStore.append(created);
+        new TaskExecutionDetailsProjectionUpdater(projection).handle(created);
+    }
+
+    private void await(CountDownLatch countDownLatch) {
+        try {
+            countDownLatch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Task recordingTask(Task.Priority priority, ConcurrentLinkedQueue<Task.Priority> executionOrder) {
+        return new Task() {
+            @Override
+            public Result run() {
+                executionOrder.add(priority);
+                return Result.COMPLETED;
+            }
+
+            @Override
+            public Priority priority() {
+                return priority;
+            }
+        };
+    }
+}